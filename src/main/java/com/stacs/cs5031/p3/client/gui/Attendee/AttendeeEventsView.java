@@ -3,9 +3,13 @@ package com.stacs.cs5031.p3.client.gui.Attendee;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
 import com.stacs.cs5031.p3.client.gui.helper_classes.CustomFontLoader;
@@ -13,6 +17,8 @@ import com.stacs.cs5031.p3.client.gui.helper_classes.OnClickEventHelper;
 import com.stacs.cs5031.p3.client.gui.helper_classes.RoundedBorder;
 import com.stacs.cs5031.p3.client.gui.login.LoginGUI;
 import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.dto.BookingSummaryDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.UserDto;
 
 public class AttendeeEventsView extends JFrame {
@@ -222,25 +228,39 @@ public class AttendeeEventsView extends JFrame {
         }
     }
 
+    // the bookings come a page at a time; keep following the next page's cursor
+    private List<BookingSummaryDto> fetchAllPages(String url) {
+        List<BookingSummaryDto> events = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResponseEntity<BookingSummaryDto[]> page = restTemplate.getForEntity(
+                    cursor == null ? url : url + "?cursor=" + cursor, BookingSummaryDto[].class);
+            if (page.getBody() != null) {
+                events.addAll(Arrays.asList(page.getBody()));
+            }
+            cursor = page.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return events;
+    }
+
     private void loadAvailableEvents() {
         try {
             availableEventsModel.setRowCount(0);
 
             try {
-                BookingDto[] events = restTemplate.getForObject(
-                        BASE_URL + "/attendees/" + currentUser.getId() + "/available-bookings",
-                        BookingDto[].class
+                List<BookingSummaryDto> events = fetchAllPages(
+                        BASE_URL + "/attendees/" + currentUser.getId() + "/available-bookings"
                 );
 
                 if (events != null) {
-                    for (BookingDto event : events) {
+                    for (BookingSummaryDto event : events) {
                         availableEventsModel.addRow(new Object[]{
                                 event.getId(),
                                 event.getEventName(),
                                 event.getRoomName(),
                                 event.getStartTime(),
                                 event.getDuration() + " mins",
-                                event.getCurrentAttendees() + "/" + event.getMaxCapacity(),
+                                event.getSeatsTaken() + "/" + event.getMaxCapacity(),
                                 ""
                         });
                     }
@@ -259,20 +279,19 @@ public class AttendeeEventsView extends JFrame {
         try {
             unavailableEventsModel.setRowCount(0);
             try {
-                BookingDto[] events = restTemplate.getForObject(
-                        BASE_URL + "/attendees/" + currentUser.getId() + "/unavailable-bookings",
-                        BookingDto[].class
+                List<BookingSummaryDto> events = fetchAllPages(
+                        BASE_URL + "/attendees/" + currentUser.getId() + "/unavailable-bookings"
                 );
 
                 if (events != null) {
-                    for (BookingDto event : events) {
+                    for (BookingSummaryDto event : events) {
                         unavailableEventsModel.addRow(new Object[]{
                                 event.getId(),
                                 event.getEventName(),
                                 event.getRoomName(),
                                 event.getStartTime(),
                                 event.getDuration() + " mins",
-                                event.getCurrentAttendees() + "/" + event.getMaxCapacity(),
+                                event.getSeatsTaken() + "/" + event.getMaxCapacity(),
                                 "Full"
                         });
                     }
@@ -3,14 +3,19 @@ package com.stacs.cs5031.p3.client.gui.Attendee;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import com.stacs.cs5031.p3.client.gui.login.LoginGUI;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
 import com.stacs.cs5031.p3.client.gui.helper_classes.CustomFontLoader;
 import com.stacs.cs5031.p3.client.gui.helper_classes.OnClickEventHelper;
 import com.stacs.cs5031.p3.client.gui.helper_classes.RoundedBorder;
-import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.dto.BookingSummaryDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.UserDto;
 
 public class AttendeeMyEventsView extends JFrame {
@@ -176,6 +181,21 @@ public class AttendeeMyEventsView extends JFrame {
         }
     }
 
+    // the bookings come a page at a time; keep following the next page's cursor
+    private List<BookingSummaryDto> fetchAllPages(String url) {
+        List<BookingSummaryDto> events = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResponseEntity<BookingSummaryDto[]> page = restTemplate.getForEntity(
+                    cursor == null ? url : url + "?cursor=" + cursor, BookingSummaryDto[].class);
+            if (page.getBody() != null) {
+                events.addAll(Arrays.asList(page.getBody()));
+            }
+            cursor = page.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return events;
+    }
+
     private void loadMyRegisteredEvents() {
         try {
             // Clear existing data
@@ -183,13 +203,12 @@ public class AttendeeMyEventsView extends JFrame {
 
             // Try to fetch from API
             try {
-                BookingDto[] events = restTemplate.getForObject(
-                        BASE_URL + "/attendees/" + currentUser.getId() + "/registered-bookings",
-                        BookingDto[].class
+                List<BookingSummaryDto> events = fetchAllPages(
+                        BASE_URL + "/attendees/" + currentUser.getId() + "/registered-bookings"
                 );
 
                 if (events != null) {
-                    for (BookingDto event : events) {
+                    for (BookingSummaryDto event : events) {
                         myEventsModel.addRow(new Object[]{
                                 event.getId(),
                                 event.getEventName(),
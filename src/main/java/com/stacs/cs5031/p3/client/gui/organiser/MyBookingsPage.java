@@ -18,13 +18,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 import com.stacs.cs5031.p3.client.gui.helper_classes.*;
 import com.stacs.cs5031.p3.server.dto.AttendeeDto;
-import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.dto.BookingSummaryDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.UserDto;
 import javafx.event.ActionEvent;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
-import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.GridLayout;
 import java.awt.event.ActionListener;
@@ -38,7 +38,7 @@ import java.util.List;
 import java.util.Map;
 
 public class MyBookingsPage extends JFrame {
-    private ArrayList<BookingDto> bookings;
+    private ArrayList<BookingSummaryDto> bookings;
     private JTable bookingTable;
     private DefaultTableModel tableModel;
 
@@ -144,7 +144,7 @@ public class MyBookingsPage extends JFrame {
                     }
 
                     if (row < bookings.size()) {
-                        BookingDto selectedBooking = bookings.get(row);
+                        BookingSummaryDto selectedBooking = bookings.get(row);
                         showBookingDetailsDialog(selectedBooking);
                     }
                 }
@@ -169,8 +169,8 @@ public class MyBookingsPage extends JFrame {
         // Format for displaying the date/time
         SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
 
-        // Add rows to the table model from the BookingDto objects
-        for (BookingDto booking : bookings) {
+        // Add rows to the table model from the BookingSummaryDto objects
+        for (BookingSummaryDto booking : bookings) {
             String formattedDate = booking.getStartTime() != null ? dateFormat.format(booking.getStartTime()) : "N/A";
 
             tableModel.addRow(new Object[] {
@@ -181,7 +181,7 @@ public class MyBookingsPage extends JFrame {
         }
     }
 
-    private void showBookingDetailsDialog(BookingDto booking) {
+    private void showBookingDetailsDialog(BookingSummaryDto booking) {
         JDialog dialog = new JDialog(this);
         dialog.setTitle("Booking Details");
         dialog.setSize(500, 600);
@@ -222,30 +222,13 @@ public class MyBookingsPage extends JFrame {
 
         addDetailRow(detailsPanel, "Duration:", booking.getDuration()/60 + " hrs", detailFont);
         addDetailRow(detailsPanel, "Organiser:", booking.getOrganiserName(), detailFont);
-        addDetailRow(detailsPanel, "Attendees:", String.valueOf(booking.getCurrentAttendees()), detailFont);
+        addDetailRow(detailsPanel, "Attendees:", String.valueOf(booking.getSeatsTaken()), detailFont);
         addDetailRow(detailsPanel, "Maximum Capacity:", String.valueOf(booking.getMaxCapacity()), detailFont);
         addViewAttendeeButton(detailsPanel, booking);
 
         contentPanel.add(detailsPanel, BorderLayout.CENTER);
 
-        // Attendees section if available
-        if (booking.getAttendees() != null && !booking.getAttendees().isEmpty()) {
-            JPanel attendeesPanel = new JPanel(new BorderLayout(5, 5));
-            attendeesPanel.setBorder(BorderFactory.createTitledBorder("Attendees"));
-
-            DefaultListModel<String> attendeeModel = new DefaultListModel<>();
-            for (AttendeeDto attendee : booking.getAttendees()) {
-                attendeeModel.addElement(attendee.getName() + " (" + attendee.getId() + ")");
-            }
-
-            JList<String> attendeeList = new JList<>(attendeeModel);
-            JScrollPane attendeeScroll = new JScrollPane(attendeeList);
-            attendeeScroll.setPreferredSize(new Dimension(400, 150));
-            attendeesPanel.add(attendeeScroll, BorderLayout.CENTER);
-
-            contentPanel.add(attendeesPanel, BorderLayout.SOUTH);
-        }
-
+        // the list carries only the seat count; the attendees are behind the View Attendees button
         // Button panel
         JPanel buttonPanel = new JPanel();
         buttonPanel.setBackground(Color.decode("#d4d3b3"));
@@ -289,21 +272,26 @@ public class MyBookingsPage extends JFrame {
     }
     
     // Method to fetch bookings from the backend
-    private ArrayList<BookingDto> fetchBookings(int organiserId) {
+    private ArrayList<BookingSummaryDto> fetchBookings(int organiserId) {
         // Define the backend API URL
         String url = "http://localhost:8080/organiser/my-bookings/" + organiserId;
         RestTemplate restTemplate = new RestTemplate();
         try {
-            ResponseEntity<BookingDto[]> response = restTemplate.getForEntity(url, BookingDto[].class);
-            if (response.getStatusCode() == HttpStatus.OK) {
-                // Convert the array to an ArrayList and return it
-                BookingDto[] bookingsArray = response.getBody();
-                return new ArrayList<>(List.of(bookingsArray));
-            } else {
-                // Handle non-OK responses
-                System.err.println("Failed to fetch bookings. HTTP Status: " + response.getStatusCode());
-                return new ArrayList<>();
-            }
+            ArrayList<BookingSummaryDto> bookings = new ArrayList<>();
+            String cursor = null;
+            // the bookings come a page at a time; keep following the next page's cursor
+            do {
+                ResponseEntity<BookingSummaryDto[]> response = restTemplate.getForEntity(
+                        cursor == null ? url : url + "?cursor=" + cursor, BookingSummaryDto[].class);
+                if (response.getStatusCode() != HttpStatus.OK) {
+                    // Handle non-OK responses
+                    System.err.println("Failed to fetch bookings. HTTP Status: " + response.getStatusCode());
+                    return new ArrayList<>();
+                }
+                bookings.addAll(List.of(response.getBody()));
+                cursor = response.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER);
+            } while (cursor != null);
+            return bookings;
         } catch (Exception e) {
             // Handle exceptions (e.g., connection errors)
             System.err.println("Error fetching bookings: " + e.getMessage());
@@ -352,7 +340,7 @@ public class MyBookingsPage extends JFrame {
         }
     }
 
-    private void addViewAttendeeButton(JPanel panel, BookingDto booking) {
+    private void addViewAttendeeButton(JPanel panel, BookingSummaryDto booking) {
         panel.add(new JLabel());
 
         JButton viewAttendeesButton = new JButton("View Attendees");
@@ -4,6 +4,7 @@ import com.stacs.cs5031.p3.server.dto.*;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
 import javax.swing.*;
@@ -382,10 +383,10 @@ public class TerminalClient {
     private static void cancelBooking() {
         System.out.println("\n=== Cancel Booking ===");
         try {
-            BookingDto[] bookings = restTemplate.getForObject(
+            BookingSummaryDto[] bookings = getAllPages(
                     BASE_URL + "/organiser/my-bookings/" + currentUser.getId(),
-                    BookingDto[].class
-            );
+                    BookingSummaryDto[].class
+            ).toArray(new BookingSummaryDto[0]);
 
             // Check if user has bookings
             if (bookings == null || bookings.length == 0) {
@@ -423,10 +424,10 @@ public class TerminalClient {
     private static void viewMyBookings() {
         System.out.println("\n=== My Bookings ===");
         try {
-            BookingDto[] bookings = restTemplate.getForObject(
+            BookingSummaryDto[] bookings = getAllPages(
                     BASE_URL + "/organiser/my-bookings/" + currentUser.getId(),
-                    BookingDto[].class
-            );
+                    BookingSummaryDto[].class
+            ).toArray(new BookingSummaryDto[0]);
 
             if (bookings == null || bookings.length == 0) {
                 System.out.println("You have no bookings.");
@@ -487,10 +488,10 @@ public class TerminalClient {
         System.out.println("\n=== Available Bookings ===");
 
         try {
-            BookingDto[] bookings = restTemplate.getForObject(
+            BookingSummaryDto[] bookings = getAllPages(
                     BASE_URL + "/attendees/" + currentUser.getId() + "/available-bookings",
-                    BookingDto[].class
-            );
+                    BookingSummaryDto[].class
+            ).toArray(new BookingSummaryDto[0]);
 
             if (bookings == null || bookings.length == 0) {
                 System.out.println("No available bookings found.");
@@ -511,10 +512,10 @@ public class TerminalClient {
         System.out.println("\n=== Unavailable Bookings ===");
 
         try {
-            BookingDto[] bookings = restTemplate.getForObject(
+            BookingSummaryDto[] bookings = getAllPages(
                     BASE_URL + "/attendees/" + currentUser.getId() + "/unavailable-bookings",
-                    BookingDto[].class
-            );
+                    BookingSummaryDto[].class
+            ).toArray(new BookingSummaryDto[0]);
 
             if (bookings == null || bookings.length == 0) {
                 System.out.println("No unavailable bookings found.");
@@ -535,10 +536,10 @@ public class TerminalClient {
         System.out.println("\n=== Register for Booking ===");
 
         try {
-            BookingDto[] bookings = restTemplate.getForObject(
+            BookingSummaryDto[] bookings = getAllPages(
                     BASE_URL + "/attendees/" + currentUser.getId() + "/available-bookings",
-                    BookingDto[].class
-            );
+                    BookingSummaryDto[].class
+            ).toArray(new BookingSummaryDto[0]);
 
             if (bookings == null || bookings.length == 0) {
                 System.out.println("No available bookings found.");
@@ -551,7 +552,7 @@ public class TerminalClient {
                 System.out.println((i+1) + ". " + bookings[i].getEventName() +
                         " - " + DATE_FORMAT.format(bookings[i].getStartTime()) +
                         " - " + durationHours + " hours - " +
-                        bookings[i].getCurrentAttendees() + "/" + bookings[i].getMaxCapacity() + " attendees");
+                        bookings[i].getSeatsTaken() + "/" + bookings[i].getMaxCapacity() + " attendees");
             }
 
             System.out.print("Select booking to register for (number): ");
@@ -585,10 +586,10 @@ public class TerminalClient {
         System.out.println("\n=== My Registered Bookings ===");
 
         try {
-            BookingDto[] bookings = restTemplate.getForObject(
+            BookingSummaryDto[] bookings = getAllPages(
                     BASE_URL + "/attendees/" + currentUser.getId() + "/registered-bookings",
-                    BookingDto[].class
-            );
+                    BookingSummaryDto[].class
+            ).toArray(new BookingSummaryDto[0]);
 
             if (bookings == null || bookings.length == 0) {
                 System.out.println("You are not registered for any bookings.");
@@ -609,10 +610,10 @@ public class TerminalClient {
         System.out.println("\n=== Deregister from Booking ===");
 
         try {
-            BookingDto[] bookings = restTemplate.getForObject(
+            BookingSummaryDto[] bookings = getAllPages(
                     BASE_URL + "/attendees/" + currentUser.getId() + "/registered-bookings",
-                    BookingDto[].class
-            );
+                    BookingSummaryDto[].class
+            ).toArray(new BookingSummaryDto[0]);
 
             if (bookings == null || bookings.length == 0) {
                 System.out.println("You are not registered for any bookings.");
@@ -805,10 +806,10 @@ public class TerminalClient {
         System.out.println("\n=== All Attendees ===");
 
         try {
-            AttendeeDto[] attendees = restTemplate.getForObject(
+            AttendeeDto[] attendees = getAllPages(
                     BASE_URL + "/admin/attendees",
                     AttendeeDto[].class
-            );
+            ).toArray(new AttendeeDto[0]);
 
             if (attendees == null || attendees.length == 0) {
                 System.out.println("No attendees found.");
@@ -861,19 +862,39 @@ public class TerminalClient {
      * @param bookings bookings to display
      * @param title display text before the bookings list
      */
-    private static void displayBookings(BookingDto[] bookings, String title) {
+    private static void displayBookings(BookingSummaryDto[] bookings, String title) {
         System.out.println(title);
-        for (BookingDto booking : bookings) {
+        for (BookingSummaryDto booking : bookings) {
             int durationHours = booking.getDuration() / 60;
             System.out.println("ID: " + booking.getId() +
                     ", Event: " + booking.getEventName() +
                     ", Room: " + booking.getRoomName() +
                     ", Time: " + DATE_FORMAT.format(booking.getStartTime()) +
                     ", Duration: " + durationHours + " hours" +
-                    ", Attendees: " + booking.getCurrentAttendees() + "/" + booking.getMaxCapacity());
+                    ", Attendees: " + booking.getSeatsTaken() + "/" + booking.getMaxCapacity());
         }
     }
 
+    /**
+     * Helper method to fetch every page of a paged list endpoint
+     * @param url the list endpoint, without query parameters
+     * @param type the array type of one page
+     * @return the rows of all pages, in order
+     */
+    private static <T> List<T> getAllPages(String url, Class<T[]> type) {
+        List<T> rows = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResponseEntity<T[]> page = restTemplate.getForEntity(
+                    cursor == null ? url : url + "?cursor=" + cursor, type);
+            if (page.getBody() != null) {
+                rows.addAll(Arrays.asList(page.getBody()));
+            }
+            cursor = page.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return rows;
+    }
+
     // Testing utility methods
     static RestTemplate getRestTemplate() {
         return restTemplate;
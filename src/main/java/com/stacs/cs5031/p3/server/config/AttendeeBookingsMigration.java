@@ -0,0 +1,70 @@
+package com.stacs.cs5031.p3.server.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+/**
+ * The AttendeeBookingsMigration class.
+ * Registrations used to be written to two join tables, booking_attendees from the booking side and
+ * attendee_bookings from the attendee side. This class merges any rows left in booking_attendees
+ * into attendee_bookings, which is now the only one, and drops the old table.
+ * It runs at start-up, before the server accepts requests and before the seat counters are recounted
+ * from attendee_bookings, and does nothing when the old table is gone.
+ */
+@Component
+@Order(0)
+public class AttendeeBookingsMigration implements StartupMigration {
+
+    private static final String LEGACY_TABLE = "booking_attendees";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor.
+     * @param jdbcTemplate JdbcTemplate
+     */
+    @Autowired
+    public AttendeeBookingsMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * This method copies the registrations missing from attendee_bookings and drops booking_attendees.
+     */
+    @Override
+    @Transactional
+    public void migrate() {
+        if (!legacyTableExists()) {
+            return;
+        }
+        int merged = jdbcTemplate.update(
+                "INSERT INTO attendee_bookings (booking_id, attendee_id) " +
+                "SELECT DISTINCT ba.booking_id, ba.attendees_id FROM booking_attendees ba " +
+                "WHERE NOT EXISTS (SELECT 1 FROM attendee_bookings ab " +
+                "WHERE ab.booking_id = ba.booking_id AND ab.attendee_id = ba.attendees_id)");
+        jdbcTemplate.execute("DROP TABLE " + LEGACY_TABLE);
+        System.out.println("Merged " + merged + " registrations from " + LEGACY_TABLE + " into attendee_bookings");
+    }
+
+    private boolean legacyTableExists() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // unquoted names are stored in upper case by some databases and lower case by others
+            for (String name : new String[] {LEGACY_TABLE, LEGACY_TABLE.toUpperCase()}) {
+                try (ResultSet tables = metaData.getTables(null, null, name, new String[] {"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
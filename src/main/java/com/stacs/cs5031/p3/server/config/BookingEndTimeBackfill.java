@@ -0,0 +1,48 @@
+package com.stacs.cs5031.p3.server.config;
+
+import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * The BookingEndTimeBackfill class.
+ * This class fills in the end_time column for bookings stored before the column existed,
+ * so that every row can be found by the index-backed conflict query.
+ * It runs at start-up, before the server accepts requests, and does nothing when all rows are already populated.
+ */
+@Component
+@Order(0)
+public class BookingEndTimeBackfill implements StartupMigration {
+
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Constructor.
+     * @param bookingRepository BookingRepository
+     */
+    @Autowired
+    public BookingEndTimeBackfill(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * This method computes and saves the end time of every booking that is missing one.
+     */
+    @Override
+    @Transactional
+    public void migrate() {
+        List<Booking> missing = bookingRepository.findByEndTimeIsNull();
+        if (missing.isEmpty()) {
+            return;
+        }
+        // getEndTime() derives the value, and the pre-update hook persists it
+        missing.forEach(Booking::getEndTime);
+        bookingRepository.saveAll(missing);
+        System.out.println("Backfilled end time for " + missing.size() + " bookings");
+    }
+}
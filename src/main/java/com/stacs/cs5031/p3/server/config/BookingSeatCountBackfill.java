@@ -0,0 +1,39 @@
+package com.stacs.cs5031.p3.server.config;
+
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The BookingSeatCountBackfill class.
+ * This class sets the seats_taken counter of every booking from its attendee rows and seat holds, so that
+ * bookings stored before the counter existed enforce their capacity correctly.
+ * It runs at start-up, after the registrations are merged into attendee_bookings and before the server
+ * accepts requests, so no registration can change a counter while it is being recounted.
+ */
+@Component
+@Order(1)
+public class BookingSeatCountBackfill implements StartupMigration {
+
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Constructor.
+     * @param bookingRepository BookingRepository
+     */
+    @Autowired
+    public BookingSeatCountBackfill(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * This method recounts the seats taken on every booking.
+     */
+    @Override
+    @Transactional
+    public void migrate() {
+        bookingRepository.recountSeats();
+    }
+}
@@ -0,0 +1,227 @@
+package com.stacs.cs5031.p3.server.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.stacs.cs5031.p3.server.service.IdempotencyStore;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * The IdempotencyFilter class.
+ * This filter makes the mutating booking, attendee and organiser endpoints safe to retry. A request
+ * sent with an Idempotency-Key header runs once; a retry with the same key is answered with the
+ * stored response from {@link IdempotencyStore} before it reaches a controller, and a duplicate
+ * sent while the first is still running waits for the first one's response.
+ *
+ * <p>Keys are scoped to the caller, identified by the Authorization header or, without one, the
+ * client address, and to the method and path, so two callers who happen to pick the same key
+ * never see each other's responses. Server errors are not stored, so a request that failed with
+ * a 5xx can be retried with the same key. Reusing a key for a different body is rejected with 422.</p>
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    /** Header carrying the client's key */
+    public static final String KEY_HEADER = "Idempotency-Key";
+
+    /** Header set on responses answered from the store */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long MAX_WAIT_MILLIS = 30_000;
+    private static final List<String> PATHS = List.of("/api/bookings", "/attendees", "/organiser");
+    private static final List<String> METHODS = List.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final IdempotencyStore store;
+
+    /**
+     * Constructor.
+     *
+     * @param store IdempotencyStore holding the responses to replay
+     */
+    @Autowired
+    public IdempotencyFilter(IdempotencyStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return request.getHeader(KEY_HEADER) == null
+                || !METHODS.contains(request.getMethod())
+                || PATHS.stream().noneMatch(prefix -> path.equals(prefix) || path.startsWith(prefix + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        CachedBodyRequest cached = new CachedBodyRequest(request);
+        String scopedKey = scope(cached, key);
+        String fingerprint = fingerprint(cached);
+
+        while (true) {
+            IdempotencyStore.Reservation reservation = store.reserve(scopedKey, fingerprint);
+            if (reservation.isOwner()) {
+                run(cached, response, chain, reservation);
+                return;
+            }
+            if (!reservation.matches()) {
+                response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                        KEY_HEADER + " was already used for a different request");
+                return;
+            }
+            IdempotencyStore.StoredResponse stored = reservation.await(MAX_WAIT_MILLIS);
+            if (stored != null) {
+                replay(stored, response);
+                return;
+            }
+            if (!reservation.isFinished()) {
+                response.sendError(HttpStatus.CONFLICT.value(),
+                        "A request with this " + KEY_HEADER + " is still in progress");
+                return;
+            }
+            // the first request gave the key up without a response, so try to run this one instead
+        }
+    }
+
+    private void run(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                     IdempotencyStore.Reservation reservation) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            chain.doFilter(request, captured);
+            if (captured.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                reservation.complete(new IdempotencyStore.StoredResponse(captured.getStatus(),
+                        captured.getContentType(), captured.getHeader(HttpHeaders.LOCATION),
+                        captured.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                reservation.abandon();
+            }
+            captured.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        if (stored.getLocation() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.getLocation());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = stored.getBody();
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Returns the store key for a request: the caller, the method and path, then the client's key.
+     * The caller is hashed so that credentials are not kept in the store.
+     */
+    private static String scope(HttpServletRequest request, String key) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String caller = authorization != null ? "auth:" + authorization : "addr:" + request.getRemoteAddr();
+        MessageDigest digest = sha256();
+        digest.update(caller.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest()) + ' ' + request.getMethod() + ' '
+                + request.getRequestURI() + ' ' + key;
+    }
+
+    private static String fingerprint(CachedBodyRequest request) {
+        MessageDigest digest = sha256();
+        digest.update((request.getMethod() + ' ' + request.getRequestURI() + '?' + request.getQueryString() + '\n')
+                .getBytes(StandardCharsets.UTF_8));
+        digest.update(request.body);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Request whose body has been read up front, so that it can be hashed and still be read by the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Asynchronous reads are not supported");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
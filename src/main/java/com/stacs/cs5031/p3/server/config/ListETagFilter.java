@@ -0,0 +1,143 @@
+package com.stacs.cs5031.p3.server.config;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.stacs.cs5031.p3.server.service.ListVersions;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * The ListETagFilter class.
+ * Tags the room and booking lists with an ETag made from their version in {@link ListVersions},
+ * and answers a GET whose If-None-Match holds the current ETag with 304 Not Modified before it
+ * reaches a controller, so the list is neither queried nor serialised again.
+ *
+ * <p>The ETag is read before the list is, and only successful responses carry it. The attendee's
+ * bookings overview is left out, as what it holds depends on the time of day as well.</p>
+ */
+@Component
+public class ListETagFilter extends OncePerRequestFilter {
+
+    private static final List<String> ROOM_LISTS = List.of("/rooms/all", "/rooms/available",
+            "/organiser/available-rooms", "/admin/rooms");
+    private static final String BOOKING_LIST = "/api/bookings";
+    private static final Pattern ATTENDEE_BOOKING_LIST =
+            Pattern.compile("/attendees/\\d+/(available-bookings|unavailable-bookings|registered-bookings)");
+    private static final Pattern ORGANISER_BOOKING_LIST = Pattern.compile("/organiser/my-bookings/(\\d{1,9})");
+
+    private final ListVersions versions;
+
+    /**
+     * Constructor.
+     *
+     * @param versions ListVersions holding the version of each list
+     */
+    @Autowired
+    public ListETagFilter(ListVersions versions) {
+        this.versions = versions;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String etag = etag(request.getRequestURI().substring(request.getContextPath().length()));
+        if (etag == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean current = matches(request.getHeaders(HttpHeaders.IF_NONE_MATCH), etag);
+        versions.recordRequest(current);
+        if (current) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            response.setHeader(HttpHeaders.ETAG, etag);
+            return;
+        }
+        TaggedResponse tagged = new TaggedResponse(response, etag);
+        chain.doFilter(request, tagged);
+        tagged.tag();
+    }
+
+    private String etag(String path) {
+        if (ROOM_LISTS.contains(path)) {
+            return versions.roomsTag();
+        }
+        if (path.equals(BOOKING_LIST) || ATTENDEE_BOOKING_LIST.matcher(path).matches()) {
+            return versions.bookingsTag();
+        }
+        Matcher organiser = ORGANISER_BOOKING_LIST.matcher(path);
+        if (organiser.matches()) {
+            return versions.organiserBookingsTag(Integer.parseInt(organiser.group(1)));
+        }
+        return null;
+    }
+
+    // weak comparison, as If-None-Match requires: W/"x" and "x" match
+    private static boolean matches(Enumeration<String> ifNoneMatch, String etag) {
+        String opaque = opaque(etag);
+        while (ifNoneMatch.hasMoreElements()) {
+            for (String candidate : ifNoneMatch.nextElement().split(",")) {
+                String trimmed = candidate.trim();
+                if (trimmed.equals("*") || opaque(trimmed).equals(opaque)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Response that sets the ETag header just before its body is written, once the controller has
+     * set the status, so that error responses go without it.
+     */
+    private static final class TaggedResponse extends HttpServletResponseWrapper {
+        private final String etag;
+
+        private TaggedResponse(HttpServletResponse response, String etag) {
+            super(response);
+            this.etag = etag;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            tag();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            tag();
+            return super.getWriter();
+        }
+
+        private void tag() {
+            if (getStatus() == HttpStatus.OK.value() && !isCommitted() && !containsHeader(HttpHeaders.ETAG)) {
+                setHeader(HttpHeaders.ETAG, etag);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.stacs.cs5031.p3.server.config;
+
+/**
+ * The StartupMigration interface.
+ * A change to stored data that has to be made before the server handles any request, such as
+ * filling in a new column. Migrations are run by {@link StartupMigrations} in their
+ * {@link org.springframework.core.annotation.Order} and must do nothing when there is nothing
+ * left to change.
+ */
+public interface StartupMigration {
+
+    /**
+     * Makes the change, if it has not been made yet.
+     */
+    void migrate();
+}
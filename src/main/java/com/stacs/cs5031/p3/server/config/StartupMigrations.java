@@ -0,0 +1,37 @@
+package com.stacs.cs5031.p3.server.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * The StartupMigrations class.
+ * Runs every {@link StartupMigration} once all beans are created and before the application
+ * context finishes starting. The embedded web server only starts accepting requests after that,
+ * so no request can see or change data a migration has not finished with. Command-line runners
+ * are too late for this, as they run once the server is already up.
+ */
+@Component
+public class StartupMigrations implements SmartInitializingSingleton {
+
+    private final List<StartupMigration> migrations;
+
+    /**
+     * Constructor.
+     * @param migrations the migrations, sorted by their order
+     */
+    @Autowired
+    public StartupMigrations(List<StartupMigration> migrations) {
+        this.migrations = migrations;
+    }
+
+    /**
+     * This method runs the migrations in order.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrations.forEach(StartupMigration::migrate);
+    }
+}
@@ -0,0 +1,69 @@
+package com.stacs.cs5031.p3.server.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.stacs.cs5031.p3.server.metrics.StatementMetrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * The StatementBudgetFilter class.
+ * Counts the SQL statements each request runs, with {@link StatementCounter}, and records the count
+ * in {@link StatementMetrics}. A request that runs more statements than the budget set by
+ * {@code booking.sql.statement-budget} is logged as a warning, since the usual cause is an N+1:
+ * an endpoint loading an association once per row instead of with its fetch plan.
+ */
+@Component
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    /** Budget used when booking.sql.statement-budget is not set */
+    public static final int DEFAULT_BUDGET = 20;
+
+    private final StatementCounter counter;
+    private final StatementMetrics metrics;
+    private final int budget;
+
+    /**
+     * Constructor.
+     *
+     * @param counter StatementCounter counting the statements of the current request
+     * @param metrics StatementMetrics recording the counts
+     * @param budget the most statements a request may run before it is reported
+     * @throws IllegalArgumentException if the budget is below 1
+     */
+    @Autowired
+    public StatementBudgetFilter(StatementCounter counter, StatementMetrics metrics,
+                                 @Value("${booking.sql.statement-budget:" + DEFAULT_BUDGET + "}") int budget) {
+        if (budget < 1) {
+            throw new IllegalArgumentException("Statement budget must be at least 1, was " + budget);
+        }
+        this.counter = counter;
+        this.metrics = metrics;
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        counter.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = counter.end();
+            boolean overBudget = statements > budget;
+            metrics.recordRequest(statements, overBudget);
+            if (overBudget) {
+                System.err.println("WARNING: " + request.getMethod() + " " + request.getRequestURI() + " ran "
+                        + statements + " SQL statements, over the budget of " + budget);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.stacs.cs5031.p3.server.config;
+
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * The StatementCounter class.
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #begin()} and
+ * {@link #end()}, so that {@link StatementBudgetFilter} can tell how many statements a request ran.
+ * It registers itself as Hibernate's statement inspector; statements prepared outside a counted
+ * span, such as those of startup tasks, are passed through uncounted.
+ *
+ * <p>Only statements that go through Hibernate are seen. SQL run with JdbcTemplate, such as the
+ * startup backfills, is not counted.</p>
+ */
+@Component
+public class StatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final long serialVersionUID = 1L;
+
+    // one slot per thread, so counting a statement is a plain increment without synchronisation
+    private final transient ThreadLocal<int[]> count = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] statements = count.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting the statements prepared on the current thread, from zero.
+     */
+    public void begin() {
+        count.set(new int[1]);
+    }
+
+    /**
+     * Stops counting on the current thread.
+     *
+     * @return the number of statements prepared since {@link #begin()}, or 0 if counting was not started
+     */
+    public int end() {
+        int[] statements = count.get();
+        count.remove();
+        return statements == null ? 0 : statements[0];
+    }
+}
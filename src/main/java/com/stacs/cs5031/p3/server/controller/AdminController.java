@@ -9,11 +9,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.OrganiserDto;
 import com.stacs.cs5031.p3.server.dto.RoomDto;
-import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Room;
 import com.stacs.cs5031.p3.server.service.AdminService;
 
@@ -50,14 +51,22 @@ public class AdminController {
     }
    
     /**
-     * Retrieves all attendees registered in the system.
+     * Retrieves a page of the attendees registered in the system, in ID order.
+     * The cursor of the next page, if any, is returned in the X-Next-Cursor header.
      *
-     * @return ResponseEntity containing a list of all attendees and HTTP status 200 (OK)
+     * @param cursor the cursor of the page to get, or absent for the first page
+     * @param limit  the page size, capped at {@link KeysetPage#MAX_SIZE}
+     * @return ResponseEntity containing a page of attendees and HTTP status 200 (OK),
+     *         or HTTP status 400 (Bad Request) if the cursor or page size is invalid
      */
     @GetMapping("/attendees")
-    public ResponseEntity<ArrayList<Attendee>> getAllAttendees() {
-        ArrayList<Attendee> attendees = adminService.getAttendees();
-        return ResponseEntity.ok(attendees);
+    public ResponseEntity<?> getAllAttendees(@RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit) {
+        try {
+            return PageResponses.ok(adminService.getAttendees(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
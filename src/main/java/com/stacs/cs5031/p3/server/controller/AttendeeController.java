@@ -1,20 +1,29 @@
 package com.stacs.cs5031.p3.server.controller;
 
 import com.stacs.cs5031.p3.server.dto.AttendeeDto;
+import com.stacs.cs5031.p3.server.dto.BookingSummaryDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
+import com.stacs.cs5031.p3.server.dto.RegistrationTicketDto;
+import com.stacs.cs5031.p3.server.dto.SeatHoldDto;
+import com.stacs.cs5031.p3.server.dto.WaitlistDto;
 import com.stacs.cs5031.p3.server.exception.BookingFullException;
 import com.stacs.cs5031.p3.server.exception.BookingNotFoundException;
+import com.stacs.cs5031.p3.server.exception.EntityNotFoundException;
+import com.stacs.cs5031.p3.server.exception.ResourceUnavailableException;
 import com.stacs.cs5031.p3.server.exception.UserNotFoundException;
-import com.stacs.cs5031.p3.server.mapper.AttendeeDtoMapper;
 import com.stacs.cs5031.p3.server.mapper.BookingDtoMapper;
-import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.repository.BookingFieldsRepository.AttendeeBookings;
 import com.stacs.cs5031.p3.server.service.AttendeeService;
+import com.stacs.cs5031.p3.server.service.BookingService;
+import com.stacs.cs5031.p3.server.service.RegistrationPipeline;
+import com.stacs.cs5031.p3.server.service.SeatHoldService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.net.URI;
 
 /**
  * AttendeeController class.
@@ -25,25 +34,39 @@ import java.util.List;
 public class AttendeeController {
 
     private final AttendeeService attendeeService;
+    private final BookingService bookingService;
+    private final SeatHoldService seatHoldService;
+    private final RegistrationPipeline registrationPipeline;
 
     /**
      * Constructor
      */
     @Autowired
-    public AttendeeController(AttendeeService attendeeService) {
+    public AttendeeController(AttendeeService attendeeService, BookingService bookingService,
+                              SeatHoldService seatHoldService, RegistrationPipeline registrationPipeline) {
         this.attendeeService = attendeeService;
+        this.bookingService = bookingService;
+        this.seatHoldService = seatHoldService;
+        this.registrationPipeline = registrationPipeline;
     }
 
 
     /**
-     * Get all attendees.
+     * Get a page of attendees, in ID order.
+     * The cursor of the next page, if any, is returned in the X-Next-Cursor header.
      *
+     * @param cursor The cursor of the page to get, or absent for the first page
+     * @param limit The page size, capped at {@link KeysetPage#MAX_SIZE}
      * @return List of attendeeDtos
      */
     @GetMapping
-    public ResponseEntity<List<AttendeeDto>> getAllAttendees() {
-        List<Attendee> attendees = attendeeService.getAllAttendees();
-        return ResponseEntity.ok(AttendeeDtoMapper.mapToDtoList(attendees));
+    public ResponseEntity<?> getAllAttendees(@RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit) {
+        try {
+            return PageResponses.ok(attendeeService.getAttendees(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
 
@@ -56,56 +79,113 @@ public class AttendeeController {
     @GetMapping("/{id}")
     public ResponseEntity<AttendeeDto> getAttendeeById(@PathVariable Integer id) {
         try {
-            Attendee attendee = attendeeService.getAttendeeById(id);
-            return ResponseEntity.ok(AttendeeDtoMapper.mapToDto(attendee));
+            return ResponseEntity.ok(attendeeService.getAttendeeDetails(id));
         } catch (UserNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     /**
-     * Gets all available bookings for an attendee.
+     * Gets a page of the available bookings for an attendee, in start time order.
+     * The cursor of the next page, if any, is returned in the X-Next-Cursor header.
+     * With fields, such as fields=id,eventName,startTime, only those properties are read and returned.
      *
      * @param id The attendee ID
-     * @return List of available booking DTOs
+     * @param cursor The cursor of the page to get, or absent for the first page
+     * @param limit The page size, capped at {@link KeysetPage#MAX_SIZE}
+     * @param fields The booking summary properties to return, or absent for all of them
+     * @return List of available booking summaries, or of the requested fields
      */
     @GetMapping("/{id}/available-bookings")
-    public ResponseEntity<?> getAvailableBookings(@PathVariable Integer id) {
+    public ResponseEntity<?> getAvailableBookings(@PathVariable Integer id,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) String fields) {
         try {
-            List<Booking> bookings = attendeeService.getAvailableBookings(id);
-            return ResponseEntity.ok(BookingDtoMapper.mapToDTOList(bookings));
+            if (fields != null) {
+                return PageResponses.ok(attendeeService.getBookingFields(id, AttendeeBookings.AVAILABLE, cursor, limit,
+                        fields));
+            }
+            return PageResponses.ok(attendeeService.getAvailableBookings(id, cursor, limit)
+                    .map(BookingDtoMapper::mapToSummary));
         } catch (UserNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     /**
-     * Get all unavailable bookings for an attendee.
+     * Get a page of the unavailable bookings for an attendee, in start time order.
+     * The cursor of the next page, if any, is returned in the X-Next-Cursor header.
+     * With fields, such as fields=id,eventName,startTime, only those properties are read and returned.
      *
      * @param id The attendee ID
-     * @return List of unavailable booking DTOs
+     * @param cursor The cursor of the page to get, or absent for the first page
+     * @param limit The page size, capped at {@link KeysetPage#MAX_SIZE}
+     * @param fields The booking summary properties to return, or absent for all of them
+     * @return List of unavailable booking summaries, or of the requested fields
      */
     @GetMapping("/{id}/unavailable-bookings")
-    public ResponseEntity<?> getUnavailableBookings(@PathVariable Integer id) {
+    public ResponseEntity<?> getUnavailableBookings(@PathVariable Integer id,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    @RequestParam(required = false) String fields) {
         try {
-            List<Booking> bookings = attendeeService.getUnavailableBookings(id);
-            return ResponseEntity.ok(BookingDtoMapper.mapToDTOList(bookings));
+            if (fields != null) {
+                return PageResponses.ok(attendeeService.getBookingFields(id, AttendeeBookings.UNAVAILABLE, cursor,
+                        limit, fields));
+            }
+            return PageResponses.ok(attendeeService.getUnavailableBookings(id, cursor, limit)
+                    .map(BookingDtoMapper::mapToSummary));
         } catch (UserNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     /**
-     * Get all bookings an attendee has registered for.
+     * Get a page of the bookings an attendee has registered for, in start time order.
+     * The cursor of the next page, if any, is returned in the X-Next-Cursor header.
+     * With fields, such as fields=id,eventName,startTime, only those properties are read and returned.
      *
      * @param id The attendee ID
-     * @return List of registered booking DTOs
+     * @param cursor The cursor of the page to get, or absent for the first page
+     * @param limit The page size, capped at {@link KeysetPage#MAX_SIZE}
+     * @param fields The booking summary properties to return, or absent for all of them
+     * @return List of registered booking summaries, or of the requested fields
      */
     @GetMapping("/{id}/registered-bookings")
-    public ResponseEntity<?> getRegisteredBookings(@PathVariable Integer id) {
+    public ResponseEntity<?> getRegisteredBookings(@PathVariable Integer id,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit,
+                                                   @RequestParam(required = false) String fields) {
+        try {
+            if (fields != null) {
+                return PageResponses.ok(attendeeService.getBookingFields(id, AttendeeBookings.REGISTERED, cursor,
+                        limit, fields));
+            }
+            return PageResponses.ok(attendeeService.getRegisteredBookings(id, cursor, limit)
+                    .map(BookingDtoMapper::mapToSummary));
+        } catch (UserNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Get every upcoming booking for an attendee, tagged as available, full or registered.
+     * Answers in one query what the available, unavailable and registered bookings endpoints answer together.
+     *
+     * @param id The attendee ID
+     * @return List of booking overview DTOs in start time order
+     */
+    @GetMapping("/{id}/bookings-overview")
+    public ResponseEntity<?> getBookingsOverview(@PathVariable Integer id) {
         try {
-            List<Booking> bookings = attendeeService.getRegisteredBookings(id);
-            return ResponseEntity.ok(BookingDtoMapper.mapToDTOList(bookings));
+            return ResponseEntity.ok(attendeeService.getBookingsOverview(id));
         } catch (UserNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -116,7 +196,7 @@ public class AttendeeController {
      *
      * @param attendeeId The attendee ID
      * @param bookingId The booking ID
-     * @return The updated booking DTO
+     * @return The updated booking summary
      */
     @PostMapping("/{attendeeId}/register/{bookingId}")
     public ResponseEntity<?> registerForBooking(
@@ -125,22 +205,65 @@ public class AttendeeController {
 
         try {
             Booking booking = attendeeService.registerForBooking(attendeeId, bookingId);
-            return ResponseEntity.ok(BookingDtoMapper.mapToDTO(booking));
+            return ResponseEntity.ok(summaryOf(booking));
         } catch (UserNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Attendee not found: " + e.getMessage());
         } catch (BookingNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Booking not found: " + e.getMessage());
-        } catch (BookingFullException e) {
+        } catch (BookingFullException | ResourceUnavailableException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
 
+    /**
+     * Queue a registration of an attendee for a booking, to be written by the group-commit writer.
+     * Selected with async=true; the outcome is read from the returned ticket.
+     *
+     * @param attendeeId The attendee ID
+     * @param bookingId The booking ID
+     * @return The pending ticket, with its location
+     */
+    @PostMapping(value = "/{attendeeId}/register/{bookingId}", params = "async=true")
+    public ResponseEntity<?> registerForBookingAsync(
+            @PathVariable Integer attendeeId,
+            @PathVariable long bookingId) {
+
+        try {
+            RegistrationTicketDto ticket = registrationPipeline.submit(attendeeId, bookingId);
+            URI location = URI.create("/attendees/" + attendeeId + "/registrations/" + ticket.getTicketId());
+            return ResponseEntity.accepted().location(location).body(ticket);
+        } catch (ResourceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Get the outcome of a queued registration, optionally waiting for it.
+     *
+     * @param attendeeId The attendee ID
+     * @param ticketId The ticket ID
+     * @param waitMillis How long to wait for the registration to finish; 0 to poll
+     * @return The ticket, which is still pending if the wait ran out
+     */
+    @GetMapping("/{attendeeId}/registrations/{ticketId}")
+    public ResponseEntity<?> getRegistrationTicket(
+            @PathVariable Integer attendeeId,
+            @PathVariable long ticketId,
+            @RequestParam(defaultValue = "0") long waitMillis) {
+
+        try {
+            return ResponseEntity.ok(registrationPipeline.await(attendeeId, ticketId, waitMillis));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
     /**
      * De-register from a booking that was pre-registered by the attendee.
      *
      * @param attendeeId The attendee ID
      * @param bookingId The booking ID
-     * @return The updated booking DTO
+     * @return The updated booking summary
      */
     @DeleteMapping("/{attendeeId}/cancel/{bookingId}")
     public ResponseEntity<?> deregisterFromBooking(
@@ -149,11 +272,111 @@ public class AttendeeController {
 
         try {
             Booking booking = attendeeService.deregisterFromBooking(attendeeId, bookingId);
-            return ResponseEntity.ok(BookingDtoMapper.mapToDTO(booking));
+            return ResponseEntity.ok(summaryOf(booking));
+        } catch (UserNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Attendee not found: " + e.getMessage());
+        } catch (BookingNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Booking not found: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Register for a booking, or join its waitlist if it is full.
+     *
+     * @param attendeeId The attendee ID
+     * @param bookingId The booking ID
+     * @return Whether the attendee got a seat, or their position on the waitlist
+     */
+    @PostMapping("/{attendeeId}/waitlist/{bookingId}")
+    public ResponseEntity<?> joinWaitlist(
+            @PathVariable Integer attendeeId,
+            @PathVariable long bookingId) {
+
+        try {
+            WaitlistDto place = attendeeService.joinWaitlist(attendeeId, bookingId);
+            return ResponseEntity.ok(place);
+        } catch (UserNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Attendee not found: " + e.getMessage());
+        } catch (BookingNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Booking not found: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Get an attendee's position on a booking's waitlist.
+     *
+     * @param attendeeId The attendee ID
+     * @param bookingId The booking ID
+     * @return The attendee's position on the waitlist
+     */
+    @GetMapping("/{attendeeId}/waitlist/{bookingId}")
+    public ResponseEntity<?> getWaitlistPosition(
+            @PathVariable Integer attendeeId,
+            @PathVariable long bookingId) {
+
+        try {
+            return ResponseEntity.ok(attendeeService.getWaitlistPosition(attendeeId, bookingId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Hold a seat on a booking for a limited time, to be confirmed later.
+     *
+     * @param attendeeId The attendee ID
+     * @param bookingId The booking ID
+     * @param seconds How long the hold lasts unless confirmed
+     * @return The placed hold
+     */
+    @PostMapping("/{attendeeId}/holds/{bookingId}")
+    public ResponseEntity<?> placeHold(
+            @PathVariable Integer attendeeId,
+            @PathVariable long bookingId,
+            @RequestParam(defaultValue = "" + SeatHoldService.DEFAULT_HOLD_SECONDS) int seconds) {
+
+        try {
+            SeatHoldDto hold = seatHoldService.placeHold(attendeeId, bookingId, seconds);
+            return ResponseEntity.status(HttpStatus.CREATED).body(hold);
         } catch (UserNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Attendee not found: " + e.getMessage());
         } catch (BookingNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Booking not found: " + e.getMessage());
+        } catch (ResourceUnavailableException | IllegalStateException | IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Confirm a seat hold, registering the attendee for the booking.
+     *
+     * @param attendeeId The attendee ID
+     * @param holdId The hold ID
+     * @return The updated booking summary
+     */
+    @PostMapping("/{attendeeId}/holds/{holdId}/confirm")
+    public ResponseEntity<?> confirmHold(
+            @PathVariable Integer attendeeId,
+            @PathVariable int holdId) {
+
+        try {
+            Booking booking = seatHoldService.confirmHold(attendeeId, holdId);
+            return ResponseEntity.ok(summaryOf(booking));
+        } catch (EntityNotFoundException | BookingNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (ResourceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
         }
     }
+
+    /**
+     * Reads the summary of a booking after a change to its registrations. It carries the seat
+     * count in place of the attendee list, so answering does not load the booking's attendees.
+     */
+    private BookingSummaryDto summaryOf(Booking booking) {
+        return bookingService.getBookingSummary((long) booking.getId())
+                .orElseThrow(() -> new BookingNotFoundException(booking.getId()));
+    }
 }
@@ -11,12 +11,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.stacs.cs5031.p3.server.dto.AllocationDto;
 import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.mapper.BookingDtoMapper;
 import com.stacs.cs5031.p3.server.model.Booking;
 import com.stacs.cs5031.p3.server.service.BookingService;
+import com.stacs.cs5031.p3.server.service.RoomAllocationService;
 
 /**
  * BookingController class.
@@ -27,24 +31,39 @@ import com.stacs.cs5031.p3.server.service.BookingService;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final RoomAllocationService allocationService;
 
     /**
      * Constructor
      */
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, RoomAllocationService allocationService) {
         this.bookingService = bookingService;
+        this.allocationService = allocationService;
     }
 
     /**
-     * Get all bookings.
+     * Get a page of bookings, in start time order.
+     * The cursor of the next page, if any, is returned in the X-Next-Cursor header.
+     * With fields, such as fields=id,eventName,startTime, only those properties are read and returned.
      *
-     * @return List of BookingDto
+     * @param cursor The cursor of the page to get, or absent for the first page
+     * @param limit The page size, capped at {@link KeysetPage#MAX_SIZE}
+     * @param fields The booking summary properties to return, or absent for all of them
+     * @return List of BookingSummaryDto, or of the requested fields
      */
     @GetMapping
-    public ResponseEntity<List<BookingDto>> getAllBookings() {
-        List<Booking> bookings = bookingService.getAllBookings();
-        return ResponseEntity.ok(BookingDtoMapper.mapToDTOList(bookings));
+    public ResponseEntity<?> getAllBookings(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String fields) {
+        try {
+            if (fields != null) {
+                return PageResponses.ok(bookingService.getBookingFields(null, cursor, limit, fields));
+            }
+            return PageResponses.ok(bookingService.getBookings(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
@@ -56,14 +75,36 @@ public class BookingController {
     @GetMapping("/{bookingId}")
     public ResponseEntity<?> getBookingById(@PathVariable Long bookingId) {
         try {
-            Booking booking = bookingService.getBookingById(bookingId)
+            BookingDto booking = bookingService.getBookingDetails(bookingId)
                     .orElseThrow(() -> new BookingNotFoundException("Booking not found with ID: " + bookingId));
-            return ResponseEntity.ok(BookingDtoMapper.mapToDTO(booking));
+            return ResponseEntity.ok(booking);
         } catch (BookingNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Booking not found: " + e.getMessage());
         }
     }
 
+    /**
+     * Get a page of the attendees registered for a booking, in ID order.
+     * The cursor of the next page, if any, is returned in the X-Next-Cursor header.
+     *
+     * @param bookingId The ID of the booking
+     * @param cursor The cursor of the page to get, or absent for the first page
+     * @param limit The page size, capped at {@link KeysetPage#MAX_SIZE}
+     * @return List of AttendeeSummaryDto
+     */
+    @GetMapping("/{bookingId}/attendees")
+    public ResponseEntity<?> getAttendees(@PathVariable Long bookingId,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
+        try {
+            return PageResponses.ok(bookingService.getAttendees(bookingId, cursor, limit));
+        } catch (BookingNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Booking not found: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Create a new booking.
      *
@@ -81,6 +122,81 @@ public class BookingController {
         }
     }
 
+    /**
+     * Create many bookings in one request.
+     * Returns 201 when every booking was created, 200 when some were rejected in partial mode,
+     * and 409 when an all-or-nothing batch was rejected.
+     *
+     * @param requests    The booking requests
+     * @param organiserId The ID of the organiser
+     * @param mode        ALL_OR_NOTHING (default) or PARTIAL
+     * @return One result per request, in request order
+     */
+    @PostMapping("/organiser/{organiserId}/batch")
+    public ResponseEntity<?> createBookings(@RequestBody List<BookingDto.BookingRequest> requests,
+                                            @PathVariable Long organiserId,
+                                            @RequestParam(defaultValue = "ALL_OR_NOTHING") BookingDto.BatchMode mode) {
+        try {
+            List<BookingDto.BatchItemResult> results = bookingService.createBookings(requests, organiserId, mode);
+            boolean allCreated = results.stream().allMatch(BookingDto.BatchItemResult::isCreated);
+            HttpStatus status = allCreated ? HttpStatus.CREATED
+                    : mode == BookingDto.BatchMode.PARTIAL ? HttpStatus.OK : HttpStatus.CONFLICT;
+            return ResponseEntity.status(status).body(results);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create bookings: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Create a recurring series of bookings.
+     * Returns 201 when the series was created and 409, listing the conflicting occurrences, when it was not.
+     *
+     * @param request     The series request
+     * @param organiserId The ID of the organiser
+     * @return The outcome of the request
+     */
+    @PostMapping("/organiser/{organiserId}/series")
+    public ResponseEntity<?> createSeries(@RequestBody BookingDto.SeriesRequest request,
+                                          @PathVariable Long organiserId) {
+        try {
+            BookingDto.SeriesResult result = bookingService.createSeries(request, organiserId);
+            return ResponseEntity.status(result.isCreated() ? HttpStatus.CREATED : HttpStatus.CONFLICT).body(result);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create series: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Place many event requests into rooms and book the placements.
+     * Returns 201 when the placements were booked, even if some requests could not be placed,
+     * and 409 when nothing could be booked.
+     *
+     * @param job         The requests to place and the time budget for the search
+     * @param organiserId The ID of the organiser
+     * @return The placement report
+     */
+    @PostMapping("/organiser/{organiserId}/allocate")
+    public ResponseEntity<?> allocate(@RequestBody AllocationDto.Job job, @PathVariable Long organiserId) {
+        try {
+            AllocationDto.Report report = allocationService.allocate(job, organiserId);
+            return ResponseEntity.status(report.isCommitted() ? HttpStatus.CREATED : HttpStatus.CONFLICT).body(report);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to allocate rooms: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Check many recurring series against existing bookings without creating them.
+     *
+     * @param requests The series requests
+     * @return One result per series, in request order
+     */
+    @PostMapping("/series/validate")
+    public ResponseEntity<List<BookingDto.SeriesResult>> validateSeries(
+            @RequestBody List<BookingDto.SeriesRequest> requests) {
+        return ResponseEntity.ok(bookingService.validateSeries(requests));
+    }
+
     /**
      * Delete a booking by ID.
      *
@@ -104,13 +220,15 @@ public class BookingController {
      *
      * @param bookingId  The ID of the booking
      * @param attendeeId The ID of the attendee
-     * @return Updated booking
+     * @return Updated booking summary
      */
     @PostMapping("/{bookingId}/attendees/{attendeeId}")
     public ResponseEntity<?> registerAttendee(@PathVariable Long bookingId, @PathVariable Long attendeeId) {
         try {
             Booking booking = bookingService.registerAttendee(bookingId, attendeeId);
-            return ResponseEntity.ok(BookingDtoMapper.mapToDTO(booking));
+            // the summary carries the seat count, so the booking's attendees are not loaded to answer
+            return ResponseEntity.ok(bookingService.getBookingSummary((long) booking.getId())
+                    .orElseThrow(() -> new BookingNotFoundException("Booking not found with ID: " + booking.getId())));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to register attendee: " + e.getMessage());
         }
@@ -0,0 +1,48 @@
+package com.stacs.cs5031.p3.server.controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.stacs.cs5031.p3.server.metrics.MetricsSource;
+
+/**
+ * REST controller exposing the server's internal performance metrics.
+ * Collects every {@link MetricsSource} in the application and reports them under the "/metrics" path.
+ */
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+
+    private final List<MetricsSource> sources;
+
+    /**
+     * Constructs a new MetricsController.
+     *
+     * @param sources all metrics sources registered in the application
+     */
+    @Autowired
+    public MetricsController(List<MetricsSource> sources) {
+        this.sources = sources;
+    }
+
+    /**
+     * Retrieves a snapshot of all metrics.
+     *
+     * @return ResponseEntity containing every metrics group keyed by name and HTTP status 200 (OK)
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Map<String, Number>>> getMetrics() {
+        Map<String, Map<String, Number>> metrics = new LinkedHashMap<>();
+        for (MetricsSource source : sources) {
+            metrics.put(source.getMetricsName(), source.snapshot());
+        }
+        return ResponseEntity.ok(metrics);
+    }
+}
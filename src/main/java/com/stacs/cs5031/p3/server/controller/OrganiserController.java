@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.*;
 
 import com.stacs.cs5031.p3.server.dto.AttendeeDto;
 import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.OrganiserDto;
 import com.stacs.cs5031.p3.server.dto.RoomDto;
 import com.stacs.cs5031.p3.server.exception.BookingNotFoundException;
@@ -76,16 +77,27 @@ public class OrganiserController {
     }
 
     /**
-     * This method is used to get all bookings for an organiser.
+     * This method is used to get a page of bookings for an organiser, in start time order.
+     * The cursor of the next page, if any, is returned in the X-Next-Cursor header.
      * @param organiserId - the id of the organiser
-     * @return the list of bookings
+     * @param cursor - the cursor of the page to get, or absent for the first page
+     * @param limit - the page size, capped at {@link KeysetPage#MAX_SIZE}
+     * @param fields - the booking summary properties to return, or absent for all of them
+     * @return the list of booking summaries, or of the requested fields, or the error message if the request is invalid
+     * @throws IllegalArgumentException - if the cursor, page size or fields are invalid
      * @throws Exception - if there is an error in the server
      */
     @GetMapping(value = "/organiser/my-bookings/{organiserId}", produces = { "application/json" })
-    public ResponseEntity<ArrayList<BookingDto>> getBookings(@PathVariable int organiserId) {
+    public ResponseEntity<?> getBookings(@PathVariable int organiserId,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
         try{
-            ArrayList<BookingDto> bookings = organiserService.getBookings(organiserId);
-            return ResponseEntity.status(HttpStatus.OK).body(bookings);
+            if (fields != null) { //only the requested fields are read and returned
+                return PageResponses.ok(organiserService.getBookings(organiserId, cursor, limit, fields));
+            }
+            return PageResponses.ok(organiserService.getBookings(organiserId, cursor, limit));
+        } catch (IllegalArgumentException e) { //if the cursor, page size or fields are invalid
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) { //if there is an error in the server
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
@@ -0,0 +1,33 @@
+package com.stacs.cs5031.p3.server.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
+
+/**
+ * Builds the responses of the paged list endpoints.
+ * The page's rows are the body, as a plain JSON array, and the cursor of the next page,
+ * if there is one, goes in the {@link KeysetPage#NEXT_CURSOR_HEADER} header.
+ */
+final class PageResponses {
+
+    private PageResponses() {
+    }
+
+    /**
+     * Builds a 200 response for a page.
+     *
+     * @param page The page
+     * @param <T>  The row type
+     * @return The response
+     */
+    static <T> ResponseEntity<List<T>> ok(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(KeysetPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
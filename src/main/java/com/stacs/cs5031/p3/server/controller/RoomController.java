@@ -1,18 +1,23 @@
 package com.stacs.cs5031.p3.server.controller;
 
+import java.util.Date;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.stacs.cs5031.p3.server.dto.FreeSlotDto;
 import com.stacs.cs5031.p3.server.dto.RoomDto;
 import com.stacs.cs5031.p3.server.exception.RoomNotAvailableException;
 import com.stacs.cs5031.p3.server.exception.RoomNotFoundException;
+import com.stacs.cs5031.p3.server.service.FreeSlotService;
 import com.stacs.cs5031.p3.server.service.RoomService;
 
 /**
@@ -31,6 +36,12 @@ public class RoomController {
     @Autowired
     private RoomService roomService;
 
+    /**
+     * Service that searches the rooms' schedules for free windows
+     */
+    @Autowired
+    private FreeSlotService freeSlotService;
+
     /**
      * Retrieves all rooms in the system.
      *
@@ -81,6 +92,53 @@ public class RoomController {
         return ResponseEntity.ok(rooms);
     }
 
+    /**
+     * Retrieves the rooms of at least the given capacity that are free for a whole time range.
+     *
+     * @param minCapacity The minimum room capacity
+     * @param from        The start of the range (ISO date-time)
+     * @param to          The end of the range (ISO date-time)
+     * @return ResponseEntity containing a list of free room DTOs and HTTP status 200 (OK),
+     *         or HTTP status 400 (Bad Request) if the range is invalid
+     */
+    @GetMapping("/free")
+    public ResponseEntity<List<RoomDto>> getFreeRooms(
+            @RequestParam(defaultValue = "1") int minCapacity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
+        try {
+            return ResponseEntity.ok(roomService.findFreeRooms(minCapacity, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Finds the earliest free windows across all rooms.
+     *
+     * @param minCapacity The minimum room capacity
+     * @param duration    The minimum window length in minutes
+     * @param from        The start of the search range (ISO date-time)
+     * @param to          The end of the search range (ISO date-time)
+     * @param limit       The maximum number of windows to return
+     * @return ResponseEntity containing the free windows ordered by start time and HTTP status 200 (OK),
+     *         or HTTP status 400 (Bad Request) if the search parameters are invalid or the range is longer
+     *         than {@link FreeSlotService#MAX_QUERY_DAYS} days
+     */
+    @GetMapping("/free-slots")
+    public ResponseEntity<List<FreeSlotDto>> getFreeSlots(
+            @RequestParam(defaultValue = "1") int minCapacity,
+            @RequestParam int duration,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(freeSlotService.findFreeSlots(minCapacity, duration, from, to, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Books a room by its ID.
      *
@@ -7,13 +7,14 @@ import com.stacs.cs5031.p3.server.exception.UserAlreadyExistsException;
 import com.stacs.cs5031.p3.server.exception.UserNotFoundException;
 import com.stacs.cs5031.p3.server.mapper.UserDtoMapper;
 import com.stacs.cs5031.p3.server.model.User;
+import com.stacs.cs5031.p3.server.service.CredentialCache.Credentials;
 import com.stacs.cs5031.p3.server.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
-import java.util.stream.Collectors;
+
+import java.util.Optional;
 
 
 /**
@@ -45,13 +46,15 @@ public class UserController {
         }
     }
 
+    // lists users a page at a time; the next page's cursor comes back in the X-Next-Cursor header
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        List<UserDto> userDtos = users.stream()
-                .map(UserDtoMapper::mapToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(userDtos);
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
+        try {
+            return PageResponses.ok(userService.getUsers(cursor, limit).map(UserDtoMapper::mapToDTO));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
@@ -75,32 +78,33 @@ public class UserController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Integer id) {
+    public ResponseEntity<?> deleteUser(@PathVariable Integer id) {
         try {
             userService.getUserById(id);
             userService.deleteUser(id);
             return ResponseEntity.noContent().build();
         } catch (UserNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) { // an organiser who still owns bookings
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         }
     }
 
 
+    // checks the password against the cached credentials, so most logins run no query
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
-        try {
-            User user = userService.getUserByUsername(loginRequest.getUsername());
-
-            if (user.getPassword().equals(loginRequest.getPassword())) {
-                return ResponseEntity.ok(UserDtoMapper.mapToDTO(user));
-            } else {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body("Invalid password");
-            }
-        } catch (UserNotFoundException e) {
+        Optional<Credentials> credentials = userService.getCredentials(loginRequest.getUsername());
+        if (credentials.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body("Invalid username");
         }
+        if (credentials.get().matches(loginRequest.getPassword())) {
+            return ResponseEntity.ok(credentials.get().getUser());
+        } else {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body("Invalid password");
+        }
     }
 
     @PostMapping("/logout")
@@ -0,0 +1,251 @@
+package com.stacs.cs5031.p3.server.dto;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Data Transfer Objects for the room allocation solver.
+ * A {@link Job} lists event requests to place into rooms; the solver answers with a {@link Report}.
+ */
+public class AllocationDto {
+
+    // A batch of event requests to place, with a time budget for the search
+    public static class Job {
+        private List<EventRequest> requests;
+        private long timeBudgetMillis;    // 0 uses the default budget
+
+        // Default constructor
+        public Job() {
+        }
+
+        // Parameterized constructor
+        public Job(List<EventRequest> requests, long timeBudgetMillis) {
+            this.requests = requests;
+            this.timeBudgetMillis = timeBudgetMillis;
+        }
+
+        public List<EventRequest> getRequests() {
+            return requests;
+        }
+
+        public void setRequests(List<EventRequest> requests) {
+            this.requests = requests;
+        }
+
+        public long getTimeBudgetMillis() {
+            return timeBudgetMillis;
+        }
+
+        public void setTimeBudgetMillis(long timeBudgetMillis) {
+            this.timeBudgetMillis = timeBudgetMillis;
+        }
+    }
+
+    // One event to place: how many people, for how long, and when it may happen
+    public static class EventRequest {
+        private String eventName;
+        private int size;
+        private int duration;             // in minutes
+        private List<Window> windows;     // the event must fit entirely inside one of these
+
+        // Default constructor
+        public EventRequest() {
+        }
+
+        // Parameterized constructor
+        public EventRequest(String eventName, int size, int duration, List<Window> windows) {
+            this.eventName = eventName;
+            this.size = size;
+            this.duration = duration;
+            this.windows = windows;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+
+        public void setEventName(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public int getDuration() {
+            return duration;
+        }
+
+        public void setDuration(int duration) {
+            this.duration = duration;
+        }
+
+        public List<Window> getWindows() {
+            return windows;
+        }
+
+        public void setWindows(List<Window> windows) {
+            this.windows = windows;
+        }
+    }
+
+    // A time range an event may be placed in
+    public static class Window {
+        private Date from;
+        private Date to;
+
+        // Default constructor
+        public Window() {
+        }
+
+        // Parameterized constructor
+        public Window(Date from, Date to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public Date getFrom() {
+            return from;
+        }
+
+        public void setFrom(Date from) {
+            this.from = from;
+        }
+
+        public Date getTo() {
+            return to;
+        }
+
+        public void setTo(Date to) {
+            this.to = to;
+        }
+    }
+
+    // Where one request ended up, or why it could not be placed
+    public static class Placement {
+        private int index;                // position of the request in the job
+        private boolean placed;
+        private Integer roomId;
+        private String roomName;
+        private Date startTime;
+        private Long bookingId;           // set once the placement was booked
+        private String message;
+
+        // Default constructor
+        public Placement() {
+        }
+
+        // Parameterized constructor
+        public Placement(int index, boolean placed, Integer roomId, String roomName, Date startTime,
+                         Long bookingId, String message) {
+            this.index = index;
+            this.placed = placed;
+            this.roomId = roomId;
+            this.roomName = roomName;
+            this.startTime = startTime;
+            this.bookingId = bookingId;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public boolean isPlaced() {
+            return placed;
+        }
+
+        public Integer getRoomId() {
+            return roomId;
+        }
+
+        public String getRoomName() {
+            return roomName;
+        }
+
+        public Date getStartTime() {
+            return startTime;
+        }
+
+        public Long getBookingId() {
+            return bookingId;
+        }
+
+        public void setBookingId(Long bookingId) {
+            this.bookingId = bookingId;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+
+    // Outcome of an allocation job
+    public static class Report {
+        private boolean committed;        // true if the placed requests were booked
+        private int placedCount;
+        private int unplacedCount;
+        private double seatUtilisation;   // booked seat-minutes over the rooms' seat-minutes, for placed requests
+        private int candidatesTried;      // number of complete schedules evaluated
+        private long searchMillis;
+        private List<Placement> placements;
+        private String message;
+
+        // Default constructor
+        public Report() {
+        }
+
+        // Parameterized constructor
+        public Report(boolean committed, int placedCount, int unplacedCount, double seatUtilisation,
+                      int candidatesTried, long searchMillis, List<Placement> placements, String message) {
+            this.committed = committed;
+            this.placedCount = placedCount;
+            this.unplacedCount = unplacedCount;
+            this.seatUtilisation = seatUtilisation;
+            this.candidatesTried = candidatesTried;
+            this.searchMillis = searchMillis;
+            this.placements = placements;
+            this.message = message;
+        }
+
+        public boolean isCommitted() {
+            return committed;
+        }
+
+        public int getPlacedCount() {
+            return placedCount;
+        }
+
+        public int getUnplacedCount() {
+            return unplacedCount;
+        }
+
+        public double getSeatUtilisation() {
+            return seatUtilisation;
+        }
+
+        public int getCandidatesTried() {
+            return candidatesTried;
+        }
+
+        public long getSearchMillis() {
+            return searchMillis;
+        }
+
+        public List<Placement> getPlacements() {
+            return placements;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.stacs.cs5031.p3.server.dto;
+
+/**
+ * Data Transfer Object (DTO) representing an attendee in a booking's attendee list.
+ * Unlike {@link AttendeeDto}, it leaves out the attendee's other bookings.
+ */
+public class AttendeeSummaryDto {
+    // immutable DTO
+    private final Integer id;
+    private final String username;
+    private final String name;
+
+    /**
+     * Constructs a new AttendeeSummaryDto.
+     *
+     * @param id       The attendee ID
+     * @param username The attendee username
+     * @param name     The attendee name
+     */
+    public AttendeeSummaryDto(Integer id, String username, String name) {
+        this.id = id;
+        this.username = username;
+        this.name = name;
+    }
+
+    /**
+     * Returns the attendee ID.
+     *
+     * @return The attendee ID
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Returns the attendee username.
+     *
+     * @return The attendee username
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Returns the attendee name.
+     *
+     * @return The attendee name
+     */
+    public String getName() {
+        return name;
+    }
+}
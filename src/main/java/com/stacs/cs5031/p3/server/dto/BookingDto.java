@@ -3,6 +3,8 @@ package com.stacs.cs5031.p3.server.dto;
 import java.util.Date;
 import java.util.List;
 
+import com.stacs.cs5031.p3.server.model.BookingSeries;
+
 /**
  * Data Transfer Object for Booking entity.
  * Used for API requests and responses.
@@ -201,6 +203,220 @@ public class BookingDto {
             return description;
         }
     }
+
+    // Request to create a recurring series of bookings
+    public static class SeriesRequest {
+        private String eventName;
+        private Long roomId;
+        private Date startTime;       // start of the first occurrence
+        private int duration;
+        private BookingSeries.Frequency frequency;
+        private int intervalDays;     // only for CUSTOM frequency
+        private Date until;           // either until...
+        private Integer count;        // ...or count
+
+        // Default constructor
+        public SeriesRequest() {
+        }
+
+        // Parameterized constructor
+        public SeriesRequest(String eventName, Long roomId, Date startTime, int duration,
+                             BookingSeries.Frequency frequency, int intervalDays, Date until, Integer count) {
+            this.eventName = eventName;
+            this.roomId = roomId;
+            this.startTime = startTime;
+            this.duration = duration;
+            this.frequency = frequency;
+            this.intervalDays = intervalDays;
+            this.until = until;
+            this.count = count;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        public Date getStartTime() {
+            return startTime;
+        }
+
+        public int getDuration() {
+            return duration;
+        }
+
+        public BookingSeries.Frequency getFrequency() {
+            return frequency;
+        }
+
+        public int getIntervalDays() {
+            return intervalDays;
+        }
+
+        public Date getUntil() {
+            return until;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setEventName(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public void setRoomId(Long roomId) {
+            this.roomId = roomId;
+        }
+
+        public void setStartTime(Date startTime) {
+            this.startTime = startTime;
+        }
+
+        public void setDuration(int duration) {
+            this.duration = duration;
+        }
+
+        public void setFrequency(BookingSeries.Frequency frequency) {
+            this.frequency = frequency;
+        }
+
+        public void setIntervalDays(int intervalDays) {
+            this.intervalDays = intervalDays;
+        }
+
+        public void setUntil(Date until) {
+            this.until = until;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+    }
+
+    // Outcome of creating or validating a recurring series
+    public static class SeriesResult {
+        private Long seriesId;                    // set when the series was created
+        private boolean created;
+        private int occurrences;                  // number of occurrences the rule expands to
+        private List<BatchItemResult> conflicts;  // one entry per conflicting occurrence
+        private String message;
+
+        // Default constructor
+        public SeriesResult() {
+        }
+
+        // Parameterized constructor
+        public SeriesResult(Long seriesId, boolean created, int occurrences, List<BatchItemResult> conflicts,
+                            String message) {
+            this.seriesId = seriesId;
+            this.created = created;
+            this.occurrences = occurrences;
+            this.conflicts = conflicts;
+            this.message = message;
+        }
+
+        public Long getSeriesId() {
+            return seriesId;
+        }
+
+        public boolean isCreated() {
+            return created;
+        }
+
+        public int getOccurrences() {
+            return occurrences;
+        }
+
+        public List<BatchItemResult> getConflicts() {
+            return conflicts;
+        }
+
+        public void setSeriesId(Long seriesId) {
+            this.seriesId = seriesId;
+        }
+
+        public void setCreated(boolean created) {
+            this.created = created;
+        }
+
+        public void setOccurrences(int occurrences) {
+            this.occurrences = occurrences;
+        }
+
+        public void setConflicts(List<BatchItemResult> conflicts) {
+            this.conflicts = conflicts;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+
+    // How a batch of booking requests is committed
+    public enum BatchMode {
+        ALL_OR_NOTHING, // create every booking or none of them
+        PARTIAL         // create the bookings that fit, reject the rest
+    }
+
+    // Outcome of one item of a batch booking request
+    public static class BatchItemResult {
+        private int index;          // position of the item in the request
+        private boolean created;
+        private Long bookingId;     // set when the booking was created
+        private String message;
+
+        // Default constructor
+        public BatchItemResult() {
+        }
+
+        // Parameterized constructor
+        public BatchItemResult(int index, boolean created, Long bookingId, String message) {
+            this.index = index;
+            this.created = created;
+            this.bookingId = bookingId;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public boolean isCreated() {
+            return created;
+        }
+
+        public Long getBookingId() {
+            return bookingId;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public void setCreated(boolean created) {
+            this.created = created;
+        }
+
+        public void setBookingId(Long bookingId) {
+            this.bookingId = bookingId;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
 }
 
 
@@ -0,0 +1,70 @@
+package com.stacs.cs5031.p3.server.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The fields of a {@link BookingSummaryDto} that a client can pick with the {@code fields} parameter
+ * of the booking list endpoints. A list read with a set of fields queries only those columns, and
+ * only the tables they come from, and writes each row with only those properties.
+ */
+public enum BookingField {
+    ID("id"),
+    EVENT_NAME("eventName"),
+    ROOM_ID("roomId"),
+    ROOM_NAME("roomName"),
+    START_TIME("startTime"),
+    DURATION("duration"),
+    ORGANISER_ID("organiserId"),
+    ORGANISER_NAME("organiserName"),
+    SEATS_TAKEN("seatsTaken"),
+    MAX_CAPACITY("maxCapacity");
+
+    private final String property;
+
+    BookingField(String property) {
+        this.property = property;
+    }
+
+    /**
+     * Returns the name of the field, as it appears in the JSON of a {@link BookingSummaryDto}.
+     *
+     * @return The property name
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Parses the value of a {@code fields} parameter: property names separated by commas.
+     * Repeated names are kept once, in the order they first appear.
+     *
+     * @param fields The parameter value, such as "id,eventName,startTime"
+     * @return The fields, in the order given
+     * @throws IllegalArgumentException if a name is not a booking field, or no field is named
+     */
+    public static List<BookingField> parse(String fields) {
+        Set<BookingField> parsed = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (!property.isEmpty()) {
+                parsed.add(of(property));
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one booking field");
+        }
+        return new ArrayList<>(parsed);
+    }
+
+    private static BookingField of(String property) {
+        for (BookingField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown booking field: " + property);
+    }
+}
@@ -0,0 +1,166 @@
+package com.stacs.cs5031.p3.server.dto;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object (DTO) representing one upcoming booking as seen by an attendee.
+ * Built directly by the overview query, so it carries the seat count rather than the attendee list.
+ */
+public class BookingOverviewDto {
+    // immutable DTO
+    private final int id;
+    private final String eventName;
+    private final int roomId;
+    private final String roomName;
+    private final Date startTime;
+    private final int duration;
+    private final Integer organiserId;
+    private final String organiserName;
+    private final int seatsTaken;
+    private final int maxCapacity;
+    private final Status status;
+
+    /**
+     * Where a booking stands for the attendee.
+     */
+    public enum Status {
+        /** The attendee can register for the booking */
+        AVAILABLE,
+        /** The booking is at full capacity and the attendee is not registered for it */
+        FULL,
+        /** The attendee is registered for the booking */
+        REGISTERED
+    }
+
+    /**
+     * Constructs a new BookingOverviewDto with the specified properties.
+     * The status is REGISTERED if the attendee is registered, otherwise FULL or AVAILABLE by seat count.
+     *
+     * @param id            The booking ID
+     * @param eventName     The event name
+     * @param roomId        The room ID
+     * @param roomName      The room name
+     * @param startTime     The start time
+     * @param duration      The duration in minutes
+     * @param organiserId   The organiser ID, or null if the booking has no organiser
+     * @param organiserName The organiser name, or null if the booking has no organiser
+     * @param seatsTaken    The number of seats taken
+     * @param maxCapacity   The room capacity
+     * @param registered    Whether the attendee is registered for the booking
+     */
+    public BookingOverviewDto(int id, String eventName, int roomId, String roomName, Date startTime, int duration,
+                              Integer organiserId, String organiserName, int seatsTaken, int maxCapacity,
+                              boolean registered) {
+        this.id = id;
+        this.eventName = eventName;
+        this.roomId = roomId;
+        this.roomName = roomName;
+        this.startTime = startTime;
+        this.duration = duration;
+        this.organiserId = organiserId;
+        this.organiserName = organiserName;
+        this.seatsTaken = seatsTaken;
+        this.maxCapacity = maxCapacity;
+        this.status = registered ? Status.REGISTERED
+                : seatsTaken >= maxCapacity ? Status.FULL : Status.AVAILABLE;
+    }
+
+    /**
+     * Returns the booking ID.
+     *
+     * @return The booking ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the event name.
+     *
+     * @return The event name
+     */
+    public String getEventName() {
+        return eventName;
+    }
+
+    /**
+     * Returns the room ID.
+     *
+     * @return The room ID
+     */
+    public int getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Returns the room name.
+     *
+     * @return The room name
+     */
+    public String getRoomName() {
+        return roomName;
+    }
+
+    /**
+     * Returns the start time.
+     *
+     * @return The start time
+     */
+    public Date getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the duration.
+     *
+     * @return The duration in minutes
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the organiser ID.
+     *
+     * @return The organiser ID, or null
+     */
+    public Integer getOrganiserId() {
+        return organiserId;
+    }
+
+    /**
+     * Returns the organiser name.
+     *
+     * @return The organiser name, or null
+     */
+    public String getOrganiserName() {
+        return organiserName;
+    }
+
+    /**
+     * Returns the number of seats taken.
+     *
+     * @return The seats taken
+     */
+    public int getSeatsTaken() {
+        return seatsTaken;
+    }
+
+    /**
+     * Returns the room capacity.
+     *
+     * @return The maximum capacity
+     */
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * Returns where the booking stands for the attendee.
+     *
+     * @return The status
+     */
+    public Status getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,141 @@
+package com.stacs.cs5031.p3.server.dto;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object (DTO) representing a booking in a list.
+ * Carries the seat count rather than the attendee list, so its size does not depend on how many
+ * attendees are registered; the attendees are read a page at a time from the booking's
+ * attendees sub-resource.
+ */
+public class BookingSummaryDto {
+    // immutable DTO
+    private final Long id;
+    private final String eventName;
+    private final Long roomId;
+    private final String roomName;
+    private final Date startTime;
+    private final int duration;
+    private final Long organiserId;
+    private final String organiserName;
+    private final int seatsTaken;
+    private final int maxCapacity;
+
+    /**
+     * Constructs a new BookingSummaryDto with the specified properties.
+     *
+     * @param id            The booking ID
+     * @param eventName     The event name
+     * @param roomId        The room ID
+     * @param roomName      The room name
+     * @param startTime     The start time
+     * @param duration      The duration in minutes
+     * @param organiserId   The organiser ID, or null if the booking has no organiser
+     * @param organiserName The organiser name, or null if the booking has no organiser
+     * @param seatsTaken    The number of seats taken
+     * @param maxCapacity   The room capacity
+     */
+    public BookingSummaryDto(Long id, String eventName, Long roomId, String roomName, Date startTime, int duration,
+                             Long organiserId, String organiserName, int seatsTaken, int maxCapacity) {
+        this.id = id;
+        this.eventName = eventName;
+        this.roomId = roomId;
+        this.roomName = roomName;
+        this.startTime = startTime;
+        this.duration = duration;
+        this.organiserId = organiserId;
+        this.organiserName = organiserName;
+        this.seatsTaken = seatsTaken;
+        this.maxCapacity = maxCapacity;
+    }
+
+    /**
+     * Returns the booking ID.
+     *
+     * @return The booking ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the event name.
+     *
+     * @return The event name
+     */
+    public String getEventName() {
+        return eventName;
+    }
+
+    /**
+     * Returns the room ID.
+     *
+     * @return The room ID
+     */
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Returns the room name.
+     *
+     * @return The room name
+     */
+    public String getRoomName() {
+        return roomName;
+    }
+
+    /**
+     * Returns the start time.
+     *
+     * @return The start time
+     */
+    public Date getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the duration.
+     *
+     * @return The duration in minutes
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the organiser ID.
+     *
+     * @return The organiser ID, or null if the booking has no organiser
+     */
+    public Long getOrganiserId() {
+        return organiserId;
+    }
+
+    /**
+     * Returns the organiser name.
+     *
+     * @return The organiser name, or null if the booking has no organiser
+     */
+    public String getOrganiserName() {
+        return organiserName;
+    }
+
+    /**
+     * Returns the number of seats taken.
+     *
+     * @return The number of seats taken
+     */
+    public int getSeatsTaken() {
+        return seatsTaken;
+    }
+
+    /**
+     * Returns the room capacity.
+     *
+     * @return The room capacity
+     */
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+}
@@ -0,0 +1,79 @@
+package com.stacs.cs5031.p3.server.dto;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object (DTO) representing a free window in a room's schedule.
+ * The window is the whole gap between bookings, so any slot of the requested duration
+ * starting between {@code start} and {@code end} minus the duration is free.
+ */
+public class FreeSlotDto {
+    // immutable DTO
+    private final int roomId;
+    private final String roomName;
+    private final int capacity;
+    private final Date start;
+    private final Date end;
+
+    /**
+     * Constructs a new FreeSlotDto with the specified properties.
+     *
+     * @param roomId   The unique identifier of the room
+     * @param roomName The name of the room
+     * @param capacity The maximum capacity of the room
+     * @param start    The start of the free window
+     * @param end      The end of the free window
+     */
+    public FreeSlotDto(int roomId, String roomName, int capacity, Date start, Date end) {
+        this.roomId = roomId;
+        this.roomName = roomName;
+        this.capacity = capacity;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the unique identifier of the room.
+     *
+     * @return The room ID
+     */
+    public int getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Returns the name of the room.
+     *
+     * @return The room name
+     */
+    public String getRoomName() {
+        return roomName;
+    }
+
+    /**
+     * Returns the maximum capacity of the room.
+     *
+     * @return The room capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the start of the free window.
+     *
+     * @return The window start
+     */
+    public Date getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the end of the free window.
+     *
+     * @return The window end
+     */
+    public Date getEnd() {
+        return end;
+    }
+}
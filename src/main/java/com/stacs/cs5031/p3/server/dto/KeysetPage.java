@@ -0,0 +1,152 @@
+package com.stacs.cs5031.p3.server.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a list read in key order, with the cursor to read the next page from.
+ * Pages are found by seeking past the key of the previous page's last row rather than by
+ * offset, so every page costs the same however deep the client reads, and rows inserted
+ * meanwhile never shift a page.
+ *
+ * <p>The cursor is opaque to clients: the sort key of the last row, encoded. It is sent
+ * back in the {@link #NEXT_CURSOR_HEADER} response header so that list bodies stay JSON arrays.</p>
+ *
+ * @param <T> The row type
+ */
+public class KeysetPage<T> {
+
+    /** Response header carrying the cursor of the next page; absent on the last page */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** Page size used when the client does not ask for one */
+    public static final int DEFAULT_SIZE = 50;
+
+    /** Largest page a client may ask for; larger requests are cut down to this */
+    public static final int MAX_SIZE = 500;
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * Constructs a new KeysetPage.
+     *
+     * @param items      The rows on this page, in key order
+     * @param nextCursor The cursor of the next page, or null if this is the last page
+     */
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = List.copyOf(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Works out the page size from the size a client asked for.
+     *
+     * @param requested The requested size, or null for the default
+     * @return The page size, at most {@link #MAX_SIZE}
+     * @throws IllegalArgumentException if the requested size is below 1
+     */
+    public static int size(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_SIZE;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(requested, MAX_SIZE);
+    }
+
+    /**
+     * Builds a page from rows fetched with a limit of one more than the page size.
+     * The extra row only shows that a next page exists and is not returned.
+     *
+     * @param fetched  Up to size + 1 rows, in key order
+     * @param size     The page size
+     * @param cursorOf Encodes the cursor of a row
+     * @param <T>      The row type
+     * @return The page
+     */
+    public static <T> KeysetPage<T> of(List<T> fetched, int size, Function<T, String> cursorOf) {
+        if (fetched.size() <= size) {
+            return new KeysetPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, size);
+        return new KeysetPage<>(items, cursorOf.apply(items.get(size - 1)));
+    }
+
+    /**
+     * Encodes a sort key as a cursor.
+     *
+     * @param keys The parts of the key, most significant first
+     * @return The cursor
+     */
+    public static String encode(long... keys) {
+        StringBuilder joined = new StringBuilder();
+        for (long key : keys) {
+            if (joined.length() > 0) {
+                joined.append(':');
+            }
+            joined.append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor made by {@link #encode}.
+     *
+     * @param cursor The cursor
+     * @param parts  The number of parts the key should have
+     * @return The parts of the key
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static long[] decode(String cursor, int parts) {
+        try {
+            String[] split = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", -1);
+            if (split.length != parts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            long[] keys = new long[parts];
+            for (int i = 0; i < parts; i++) {
+                keys[i] = Long.parseLong(split[i]);
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and Base64 errors are both IllegalArgumentExceptions
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Returns the same page with every row converted.
+     *
+     * @param mapper Converts a row
+     * @param <R>    The converted row type
+     * @return The converted page, with the same cursor
+     */
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        List<R> mapped = new ArrayList<>(items.size());
+        items.forEach(item -> mapped.add(mapper.apply(item)));
+        return new KeysetPage<>(mapped, nextCursor);
+    }
+
+    /**
+     * Returns the rows on this page.
+     *
+     * @return The rows, in key order
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the cursor of the next page.
+     *
+     * @return The cursor, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
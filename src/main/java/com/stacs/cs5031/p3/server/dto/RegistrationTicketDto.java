@@ -0,0 +1,94 @@
+package com.stacs.cs5031.p3.server.dto;
+
+/**
+ * Data Transfer Object (DTO) representing a registration queued for the group-commit writer.
+ * A ticket starts out pending and ends up either registered or rejected, with the reason.
+ */
+public class RegistrationTicketDto {
+    // immutable DTO
+    private final long ticketId;
+    private final int attendeeId;
+    private final long bookingId;
+    private final Status status;
+    private final String message;
+
+    /**
+     * State of a queued registration.
+     */
+    public enum Status {
+        PENDING, REGISTERED, REJECTED
+    }
+
+    /**
+     * Constructs a new RegistrationTicketDto with the specified properties.
+     *
+     * @param ticketId   The ticket ID
+     * @param attendeeId The attendee ID
+     * @param bookingId  The booking ID
+     * @param status     The state of the registration
+     * @param message    Why the registration was rejected, or null
+     */
+    public RegistrationTicketDto(long ticketId, int attendeeId, long bookingId, Status status, String message) {
+        this.ticketId = ticketId;
+        this.attendeeId = attendeeId;
+        this.bookingId = bookingId;
+        this.status = status;
+        this.message = message;
+    }
+
+    /**
+     * Returns the same ticket in a final state.
+     *
+     * @param status  The final state
+     * @param message Why the registration was rejected, or null
+     * @return The completed ticket
+     */
+    public RegistrationTicketDto complete(Status status, String message) {
+        return new RegistrationTicketDto(ticketId, attendeeId, bookingId, status, message);
+    }
+
+    /**
+     * Returns the ticket ID.
+     *
+     * @return The ticket ID
+     */
+    public long getTicketId() {
+        return ticketId;
+    }
+
+    /**
+     * Returns the attendee ID.
+     *
+     * @return The attendee ID
+     */
+    public int getAttendeeId() {
+        return attendeeId;
+    }
+
+    /**
+     * Returns the booking ID.
+     *
+     * @return The booking ID
+     */
+    public long getBookingId() {
+        return bookingId;
+    }
+
+    /**
+     * Returns the state of the registration.
+     *
+     * @return The state
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns why the registration was rejected.
+     *
+     * @return The reason, or null if the registration is pending or went through
+     */
+    public String getMessage() {
+        return message;
+    }
+}
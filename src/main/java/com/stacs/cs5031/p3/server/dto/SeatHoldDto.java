@@ -0,0 +1,65 @@
+package com.stacs.cs5031.p3.server.dto;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object (DTO) representing a seat held on a booking until it is confirmed or expires.
+ */
+public class SeatHoldDto {
+    // immutable DTO
+    private final int holdId;
+    private final long bookingId;
+    private final int attendeeId;
+    private final Date expiresAt;
+
+    /**
+     * Constructs a new SeatHoldDto with the specified properties.
+     *
+     * @param holdId     The hold ID, used to confirm the hold
+     * @param bookingId  The booking ID
+     * @param attendeeId The attendee ID
+     * @param expiresAt  The time at which the hold lapses unless confirmed
+     */
+    public SeatHoldDto(int holdId, long bookingId, int attendeeId, Date expiresAt) {
+        this.holdId = holdId;
+        this.bookingId = bookingId;
+        this.attendeeId = attendeeId;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Returns the hold ID.
+     *
+     * @return The hold ID
+     */
+    public int getHoldId() {
+        return holdId;
+    }
+
+    /**
+     * Returns the booking ID.
+     *
+     * @return The booking ID
+     */
+    public long getBookingId() {
+        return bookingId;
+    }
+
+    /**
+     * Returns the attendee ID.
+     *
+     * @return The attendee ID
+     */
+    public int getAttendeeId() {
+        return attendeeId;
+    }
+
+    /**
+     * Returns the time at which the hold lapses unless confirmed.
+     *
+     * @return The expiry time
+     */
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,64 @@
+package com.stacs.cs5031.p3.server.dto;
+
+/**
+ * Data Transfer Object (DTO) representing an attendee's place on a booking's waitlist.
+ * An attendee who got a seat straight away is reported as registered with position 0.
+ */
+public class WaitlistDto {
+    // immutable DTO
+    private final long bookingId;
+    private final int attendeeId;
+    private final boolean registered;
+    private final long position;
+
+    /**
+     * Constructs a new WaitlistDto with the specified properties.
+     *
+     * @param bookingId  The booking ID
+     * @param attendeeId The attendee ID
+     * @param registered Whether the attendee holds a seat rather than waiting
+     * @param position   The attendee's position in the queue, starting at 1, or 0 if registered
+     */
+    public WaitlistDto(long bookingId, int attendeeId, boolean registered, long position) {
+        this.bookingId = bookingId;
+        this.attendeeId = attendeeId;
+        this.registered = registered;
+        this.position = position;
+    }
+
+    /**
+     * Returns the booking ID.
+     *
+     * @return The booking ID
+     */
+    public long getBookingId() {
+        return bookingId;
+    }
+
+    /**
+     * Returns the attendee ID.
+     *
+     * @return The attendee ID
+     */
+    public int getAttendeeId() {
+        return attendeeId;
+    }
+
+    /**
+     * Returns whether the attendee holds a seat.
+     *
+     * @return true if registered, false if waiting
+     */
+    public boolean isRegistered() {
+        return registered;
+    }
+
+    /**
+     * Returns the attendee's position in the queue.
+     *
+     * @return The position, starting at 1, or 0 if registered
+     */
+    public long getPosition() {
+        return position;
+    }
+}
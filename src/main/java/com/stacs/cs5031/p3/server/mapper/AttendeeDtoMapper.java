@@ -3,8 +3,12 @@ package com.stacs.cs5031.p3.server.mapper;
 import com.stacs.cs5031.p3.server.dto.AttendeeDto;
 import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -51,4 +55,39 @@ public final class AttendeeDtoMapper {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Map a list of Attendee entities to a list of AttendeeDtos, taking the booking IDs from
+     * registrations read for all of them in one query rather than from each attendee's bookings.
+     *
+     * @param attendees The list of attendee entities
+     * @param registrations The registrations of those attendees
+     * @return The list of mapped AttendeeDtos
+     */
+    public static List<AttendeeDto> mapToDtoList(List<Attendee> attendees,
+                                                 List<BookingRepository.Registration> registrations) {
+        Map<Integer, List<Integer>> bookingIds = bookingIdsByAttendee(registrations);
+        return attendees.stream()
+                .map(attendee -> new AttendeeDto(
+                        attendee.getId(),
+                        attendee.getUsername(),
+                        attendee.getName(),
+                        bookingIds.getOrDefault(attendee.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Group registrations by attendee.
+     *
+     * @param registrations The registrations
+     * @return The booking IDs of each attendee, in the order the registrations came in
+     */
+    static Map<Integer, List<Integer>> bookingIdsByAttendee(List<BookingRepository.Registration> registrations) {
+        Map<Integer, List<Integer>> bookingIds = new HashMap<>();
+        for (BookingRepository.Registration registration : registrations) {
+            bookingIds.computeIfAbsent(registration.getAttendeeId(), id -> new ArrayList<>())
+                    .add(registration.getBookingId());
+        }
+        return bookingIds;
+    }
+
 }
\ No newline at end of file
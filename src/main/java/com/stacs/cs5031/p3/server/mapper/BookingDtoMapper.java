@@ -2,8 +2,9 @@ package com.stacs.cs5031.p3.server.mapper;
 
 import com.stacs.cs5031.p3.server.dto.BookingDto;
 import com.stacs.cs5031.p3.server.dto.AttendeeDto;
+import com.stacs.cs5031.p3.server.dto.BookingSummaryDto;
 import com.stacs.cs5031.p3.server.model.Booking;
-
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -52,6 +53,33 @@ public final class BookingDtoMapper {
         );
     }
 
+    /**
+     * Maps a single {@link Booking} entity to its corresponding {@link BookingDto}, taking the
+     * attendees' booking IDs from registrations read for all of them in one query rather than
+     * from each attendee's bookings.
+     *
+     * @param booking the booking entity to map, with its attendees loaded
+     * @param registrations the registrations of the booking's attendees
+     * @return a data transfer object representing the booking
+     */
+    public static BookingDto mapToDTO(Booking booking, List<BookingRepository.Registration> registrations) {
+        List<AttendeeDto> attendeeDtos = AttendeeDtoMapper.mapToDtoList(booking.getAttendees(), registrations);
+
+        return new BookingDto(
+                (long) booking.getId(),
+                booking.getName(),
+                (long) booking.getRoom().getID(),
+                booking.getRoom().getName(),
+                booking.getStartTime(),
+                booking.getDuration(),
+                (long) booking.getOrganiser().getId(),
+                booking.getOrganiser().getName(),
+                attendeeDtos,
+                attendeeDtos.size(),
+                booking.getRoom().getCapacity()
+        );
+    }
+
     /**
      * Maps a list of {@link Booking} entities to a list of {@link BookingDto} objects.
      * Useful for operations that return multiple bookings, such as retrieving all bookings
@@ -65,4 +93,59 @@ public final class BookingDtoMapper {
                 .map(BookingDtoMapper::mapToDTO)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Maps a single {@link Booking} entity to its {@link BookingSummaryDto}.
+     * Reads the seat counter instead of the attendee list, so the attendees are never loaded.
+     *
+     * @param booking the booking entity to map
+     * @return a summary of the booking
+     */
+    public static BookingSummaryDto mapToSummary(Booking booking) {
+        return new BookingSummaryDto(
+                (long) booking.getId(),
+                booking.getName(),
+                (long) booking.getRoom().getID(),
+                booking.getRoom().getName(),
+                booking.getStartTime(),
+                booking.getDuration(),
+                booking.getOrganiser() == null ? null : (long) booking.getOrganiser().getId(),
+                booking.getOrganiser() == null ? null : booking.getOrganiser().getName(),
+                booking.getSeatsTaken(),
+                booking.getRoom().getCapacity()
+        );
+    }
+
+    /**
+     * Maps a list of {@link Booking} entities to a list of {@link BookingSummaryDto} objects.
+     *
+     * @param bookings the list of booking entities to map
+     * @return a list of summaries of the bookings
+     */
+    public static List<BookingSummaryDto> mapToSummaryList(List<Booking> bookings) {
+        return bookings.stream()
+                .map(BookingDtoMapper::mapToSummary)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Maps a booking list row to its {@link BookingSummaryDto}.
+     *
+     * @param row the booking row
+     * @return a summary of the booking
+     */
+    public static BookingSummaryDto mapToSummary(BookingRepository.BookingRow row) {
+        return new BookingSummaryDto(
+                (long) row.getId(),
+                row.getEventName(),
+                (long) row.getRoomId(),
+                row.getRoomName(),
+                row.getStartTime(),
+                row.getDuration(),
+                row.getOrganiserId() == null ? null : (long) row.getOrganiserId(),
+                row.getOrganiserName(),
+                row.getSeatsTaken(),
+                row.getCapacity()
+        );
+    }
 }
\ No newline at end of file
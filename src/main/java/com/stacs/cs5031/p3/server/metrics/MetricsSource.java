@@ -0,0 +1,24 @@
+package com.stacs.cs5031.p3.server.metrics;
+
+import java.util.Map;
+
+/**
+ * A component that exposes a set of named counters and gauges.
+ * Every MetricsSource bean is collected by the metrics endpoint and reported under its name.
+ */
+public interface MetricsSource {
+
+    /**
+     * Returns the name under which this source's values are reported.
+     *
+     * @return the metrics group name
+     */
+    String getMetricsName();
+
+    /**
+     * Returns a point-in-time copy of this source's values.
+     *
+     * @return metric names mapped to their current values
+     */
+    Map<String, Number> snapshot();
+}
@@ -0,0 +1,86 @@
+package com.stacs.cs5031.p3.server.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how long booking requests wait for the room-level lock and how often they give up.
+ * Used by the booking service around every pessimistic room lock it takes.
+ */
+@Component
+public class RoomLockMetrics implements MetricsSource {
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Records a successful lock acquisition.
+     *
+     * @param waitNanos time spent waiting for the lock, in nanoseconds
+     */
+    public void recordAcquired(long waitNanos) {
+        acquired.increment();
+        recordWait(waitNanos);
+    }
+
+    /**
+     * Records a lock request that timed out.
+     *
+     * @param waitNanos time spent waiting before giving up, in nanoseconds
+     */
+    public void recordTimeout(long waitNanos) {
+        timeouts.increment();
+        recordWait(waitNanos);
+    }
+
+    /**
+     * Returns the number of locks acquired so far.
+     *
+     * @return the acquisition count
+     */
+    public long getAcquiredCount() {
+        return acquired.sum();
+    }
+
+    /**
+     * Returns the number of lock requests that timed out so far.
+     *
+     * @return the timeout count
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "roomLocks";
+    }
+
+    @Override
+    public Map<String, Number> snapshot() {
+        long acquiredCount = acquired.sum();
+        long timeoutCount = timeouts.sum();
+        long requests = acquiredCount + timeoutCount;
+        long totalWait = totalWaitNanos.sum();
+
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("acquired", acquiredCount);
+        values.put("timeouts", timeoutCount);
+        values.put("totalWaitMillis", TimeUnit.NANOSECONDS.toMillis(totalWait));
+        values.put("averageWaitMillis", requests == 0 ? 0.0 : totalWait / (double) requests / 1_000_000.0);
+        values.put("maxWaitMillis", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+        return values;
+    }
+}
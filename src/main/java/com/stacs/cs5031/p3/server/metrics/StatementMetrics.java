@@ -0,0 +1,66 @@
+package com.stacs.cs5031.p3.server.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how many SQL statements each HTTP request runs and how many requests go over the
+ * statement budget. A rising over-budget count is the sign of an endpoint loading associations
+ * one row at a time.
+ * Fed by {@link com.stacs.cs5031.p3.server.config.StatementBudgetFilter} after every request.
+ */
+@Component
+public class StatementMetrics implements MetricsSource {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+    private final AtomicLong maxStatements = new AtomicLong();
+
+    /**
+     * Records a finished request.
+     *
+     * @param statementCount the number of statements the request ran
+     * @param overBudgetRequest whether that was more than the budget
+     */
+    public void recordRequest(int statementCount, boolean overBudgetRequest) {
+        requests.increment();
+        statements.add(statementCount);
+        maxStatements.accumulateAndGet(statementCount, Math::max);
+        if (overBudgetRequest) {
+            overBudget.increment();
+        }
+    }
+
+    /**
+     * Returns the number of requests that ran more statements than the budget so far.
+     *
+     * @return the over-budget request count
+     */
+    public long getOverBudgetCount() {
+        return overBudget.sum();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "sqlStatements";
+    }
+
+    @Override
+    public Map<String, Number> snapshot() {
+        long requestCount = requests.sum();
+        long statementCount = statements.sum();
+
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("requests", requestCount);
+        values.put("statements", statementCount);
+        values.put("averagePerRequest", requestCount == 0 ? 0.0 : statementCount / (double) requestCount);
+        values.put("maxPerRequest", maxStatements.get());
+        values.put("overBudget", overBudget.sum());
+        return values;
+    }
+}
@@ -13,12 +13,8 @@ import java.util.Set;
 @Entity
 public class Attendee extends User {
 
-    @ManyToMany
-    @JoinTable(
-            name = "attendee_bookings",
-            joinColumns = @JoinColumn(name = "attendee_id"),
-            inverseJoinColumns = @JoinColumn(name = "booking_id")
-    )
+    // Booking.attendees owns the join table, so changes to this list are not written
+    @ManyToMany(mappedBy = "attendees")
     private List<Booking> registeredBookings = new ArrayList<>();
 
     protected Attendee() {
@@ -48,6 +44,8 @@ public class Attendee extends User {
     /**
      * Register the attendee for a booking.
      * Will not add the booking if the attendee is already registered.
+     * Works on the in-memory list only; the registration services check membership with
+     * {@code BookingRepository.isRegistered} and write the join table directly.
      *
      * @param booking The booking to register for
      */
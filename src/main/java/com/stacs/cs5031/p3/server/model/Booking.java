@@ -2,47 +2,120 @@ package com.stacs.cs5031.p3.server.model;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedEntityGraphs;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
 
 /**
  * Entity representing a booking in the system.
  * Contains information about the event, room, time, organiser, and attendees.
  */
 @Entity
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = Booking.SUMMARY_GRAPH, attributeNodes = {
+                @NamedAttributeNode("room"),
+                @NamedAttributeNode("organiser")
+        }),
+        @NamedEntityGraph(name = Booking.DETAIL_GRAPH, attributeNodes = {
+                @NamedAttributeNode("room"),
+                @NamedAttributeNode("organiser"),
+                @NamedAttributeNode("attendees")
+        })
+})
+@Table(indexes = {
+        @Index(name = "idx_booking_room_time", columnList = "room_id, start_time, end_time"),
+        @Index(name = "idx_booking_start_id", columnList = "start_time, id"),
+        @Index(name = "idx_booking_organiser_start_id", columnList = "organiser_id, start_time, id")
+})
 public class Booking {
 
+    /** Fetch plan of booking lists: the booking with its room and organiser */
+    public static final String SUMMARY_GRAPH = "Booking.summary";
+
+    /** Fetch plan of a single booking: the summary plan plus the attendees */
+    public static final String DETAIL_GRAPH = "Booking.detail";
+
+    // sequence rather than identity so that Hibernate can batch inserts of many bookings
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private int id;
 
     private String eventName;
 
     @ManyToOne
+    @JoinColumn(name = "room_id")
     private Room room;
 
     @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "start_time")
     private Date startTime;
 
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "end_time")
+    private Date endTime; // start time plus duration, kept in sync by computeEndTime()
+
     private int duration; // in minutes
 
+    @Transient
+    private long startMillis; // startTime as epoch milliseconds
+
+    @Transient
+    private long endMillis; // endTime as epoch milliseconds
+
     @ManyToOne
     private Organiser organiser;
 
+    @ManyToOne
+    private BookingSeries series; // set when this booking is one occurrence of a series
+
+    // registered attendees, changed by the repository's conditional updates rather than by entity saves
+    @Column(name = "seats_taken", nullable = false, updatable = false)
+    private int seatsTaken;
+
+    // waitlist tickets: head is the next ticket to be promoted and tail the next to be issued,
+    // so tail - head attendees are waiting; changed by the repository like seatsTaken
+    @Column(name = "waitlist_head", nullable = false, updatable = false)
+    private long waitlistHead;
+
+    @Column(name = "waitlist_tail", nullable = false, updatable = false)
+    private long waitlistTail;
+
     // Attendee to be implemented first
+    // the single table holding registrations; Attendee.registeredBookings maps the other end of it.
+    // It is named explicitly because registration inserts and deletes its rows directly
     @ManyToMany
+    @JoinTable(
+            name = "attendee_bookings",
+            joinColumns = @JoinColumn(name = "booking_id"),
+            inverseJoinColumns = @JoinColumn(name = "attendee_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_attendee_bookings_booking_attendee",
+                    columnNames = {"booking_id", "attendee_id"})
+    )
     private List<Attendee> attendees = new ArrayList<>();
 
     @ManyToOne
@@ -72,6 +145,7 @@ public class Booking {
         this.startTime = startTime;
         this.duration = duration;
         this.organiser = organiser;
+        computeEndTime();
     }
 
     /**
@@ -135,6 +209,7 @@ public class Booking {
      */
     public void setStartTime(Date startTime) {
         this.startTime = startTime;
+        computeEndTime();
     }
 
     /**
@@ -153,6 +228,7 @@ public class Booking {
      */
     public void setDuration(int duration) {
         this.duration = duration;
+        computeEndTime();
     }
 
     /**
@@ -173,6 +249,24 @@ public class Booking {
         this.organiser = organiser;
     }
 
+    /**
+     * Gets the series this booking belongs to.
+     *
+     * @return The series, or null for a one-off booking
+     */
+    public BookingSeries getSeries() {
+        return series;
+    }
+
+    /**
+     * Sets the series this booking belongs to.
+     *
+     * @param series The series
+     */
+    public void setSeries(BookingSeries series) {
+        this.series = series;
+    }
+
     /**
      * Gets the list of attendees for this event.
      *
@@ -182,6 +276,33 @@ public class Booking {
         return attendees;
     }
 
+    /**
+     * Gets the number of seats taken, as stored when this booking was loaded.
+     *
+     * @return The number of registered attendees
+     */
+    public int getSeatsTaken() {
+        return seatsTaken;
+    }
+
+    /**
+     * Gets the ticket of the next attendee to be promoted from the waitlist.
+     *
+     * @return The waitlist head
+     */
+    public long getWaitlistHead() {
+        return waitlistHead;
+    }
+
+    /**
+     * Gets the ticket the next attendee to join the waitlist will receive.
+     *
+     * @return The waitlist tail
+     */
+    public long getWaitlistTail() {
+        return waitlistTail;
+    }
+
     /**
      * Checks if there is space available in the room for more attendees.
      *
@@ -193,6 +314,8 @@ public class Booking {
 
     /**
      * Adds an attendee to the booking if there is space available.
+     * Works on the in-memory list, which a managed booking loads in full; the registration services
+     * check membership with {@code BookingRepository.isRegistered} instead.
      *
      * @param attendee The attendee to add
      * @return true if the attendee was added successfully, false if there was no space
@@ -221,15 +344,65 @@ public class Booking {
     }
 
     /**
-     * Calculates the end time of the event based on start time and duration.
+     * Gets the end time of the event, i.e. the start time plus the duration.
      *
      * @return The end time
      */
     public Date getEndTime() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(startTime);
-        calendar.add(Calendar.MINUTE, duration);
-        return calendar.getTime();
+        if (endTime == null) {
+            computeEndTime();
+        }
+        return endTime;
+    }
+
+    /**
+     * Gets the start time of the event as epoch milliseconds.
+     *
+     * @return The start time in milliseconds
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * Gets the end time of the event as epoch milliseconds.
+     *
+     * @return The end time in milliseconds
+     */
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    /**
+     * Recomputes the persisted end time from the start time and duration.
+     * Runs before every insert and update so the column can never drift from its inputs.
+     */
+    @PrePersist
+    @PreUpdate
+    void computeEndTime() {
+        syncMillis();
+        endTime = startTime == null ? null : new Date(endMillis);
+    }
+
+    /**
+     * Refreshes the cached millisecond start and end from the start time and duration.
+     * Runs after every load, since JPA populates the fields directly.
+     */
+    @PostLoad
+    void syncMillis() {
+        startMillis = startTime == null ? 0L : startTime.getTime();
+        endMillis = startMillis + duration * 60_000L;
+    }
+
+    /**
+     * Checks if this booking overlaps the half-open time range [start, end).
+     *
+     * @param start Inclusive start of the range, in epoch milliseconds
+     * @param end   Exclusive end of the range, in epoch milliseconds
+     * @return true if there is an overlap, false otherwise
+     */
+    public boolean overlaps(long start, long end) {
+        return startMillis < end && endMillis > start;
     }
 
     /**
@@ -244,11 +417,8 @@ public class Booking {
             return false;
         }
 
-        Date thisEnd = this.getEndTime();
-        Date otherEnd = other.getEndTime();
-
         // Check if one booking starts during the other
-        return (this.startTime.before(otherEnd) && thisEnd.after(other.startTime));
+        return overlaps(other.startMillis, other.endMillis);
     }
 
     /**
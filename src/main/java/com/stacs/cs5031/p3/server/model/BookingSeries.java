@@ -0,0 +1,237 @@
+package com.stacs.cs5031.p3.server.model;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+/**
+ * Entity representing a recurring booking, such as a weekly seminar over a semester.
+ * The series holds the recurrence rule; each occurrence is stored as an ordinary {@link Booking}
+ * linked back to the series, so room and organiser queries see occurrences like any other booking.
+ */
+@Entity
+public class BookingSeries {
+
+    /** Upper bound on the occurrences of one series, roughly ten years of weekly bookings */
+    public static final int MAX_OCCURRENCES = 520;
+
+    /**
+     * How often a series repeats.
+     */
+    public enum Frequency {
+        DAILY,
+        WEEKLY,
+        CUSTOM // every intervalDays days
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    private String eventName;
+
+    @ManyToOne
+    private Room room;
+
+    @ManyToOne
+    private Organiser organiser;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date firstStart;
+
+    private int duration; // in minutes
+
+    @Enumerated(EnumType.STRING)
+    private Frequency frequency;
+
+    private int intervalDays; // only used by CUSTOM
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date until; // last possible start, inclusive; null when count is set
+
+    private Integer count; // number of occurrences; null when until is set
+
+    /**
+     * Default constructor required by JPA.
+     */
+    protected BookingSeries() {
+        // Required by JPA
+    }
+
+    /**
+     * Constructor for creating a new series.
+     * Exactly one of {@code until} and {@code count} must be given.
+     *
+     * @param eventName    Name of the event
+     * @param room         Room where the event takes place
+     * @param firstStart   Start time of the first occurrence
+     * @param duration     Duration of each occurrence in minutes
+     * @param frequency    How often the series repeats
+     * @param intervalDays Days between occurrences, for CUSTOM series
+     * @param until        Last possible start time, or null
+     * @param count        Number of occurrences, or null
+     * @param organiser    User who organised the series
+     * @throws IllegalArgumentException if the rule is incomplete or inconsistent
+     */
+    public BookingSeries(String eventName, Room room, Date firstStart, int duration, Frequency frequency,
+                         int intervalDays, Date until, Integer count, Organiser organiser) {
+        if (firstStart == null || frequency == null) {
+            throw new IllegalArgumentException("Series needs a first start time and a frequency");
+        }
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        if (frequency == Frequency.CUSTOM && intervalDays <= 0) {
+            throw new IllegalArgumentException("Custom series need a positive interval in days");
+        }
+        if ((until == null) == (count == null)) {
+            throw new IllegalArgumentException("Series needs exactly one of an until date or a count");
+        }
+        if (until != null && until.before(firstStart)) {
+            throw new IllegalArgumentException("Until date is before the first occurrence");
+        }
+        if (count != null && (count <= 0 || count > MAX_OCCURRENCES)) {
+            throw new IllegalArgumentException("Count must be between 1 and " + MAX_OCCURRENCES);
+        }
+        this.eventName = eventName;
+        this.room = room;
+        this.firstStart = firstStart;
+        this.duration = duration;
+        this.frequency = frequency;
+        this.intervalDays = intervalDays;
+        this.until = until;
+        this.count = count;
+        this.organiser = organiser;
+    }
+
+    /**
+     * Expands the recurrence rule into the start time of every occurrence, in order.
+     * Steps are taken in calendar days in the server's time zone, so a weekly 10:00 seminar
+     * stays at 10:00 across daylight saving changes.
+     *
+     * @return The occurrence start times
+     * @throws IllegalArgumentException if the series would have more than {@link #MAX_OCCURRENCES} occurrences
+     */
+    public List<Date> occurrenceStarts() {
+        ZonedDateTime first = firstStart.toInstant().atZone(ZoneId.systemDefault());
+        long stepDays = getStepDays();
+        List<Date> starts = new ArrayList<>();
+        for (int i = 0; count == null || i < count; i++) {
+            ZonedDateTime next = first.plusDays(i * stepDays);
+            if (until != null && next.toInstant().isAfter(until.toInstant())) {
+                break;
+            }
+            if (i == MAX_OCCURRENCES) {
+                throw new IllegalArgumentException("Series has more than " + MAX_OCCURRENCES + " occurrences");
+            }
+            starts.add(Date.from(next.toInstant()));
+        }
+        return starts;
+    }
+
+    /**
+     * Gets the number of days between occurrences.
+     *
+     * @return The step in days
+     */
+    public int getStepDays() {
+        return switch (frequency) {
+            case DAILY -> 1;
+            case WEEKLY -> 7;
+            case CUSTOM -> intervalDays;
+        };
+    }
+
+    /**
+     * Gets the series ID.
+     *
+     * @return The series ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the event name.
+     *
+     * @return The event name
+     */
+    public String getEventName() {
+        return eventName;
+    }
+
+    /**
+     * Gets the room of the series.
+     *
+     * @return The room
+     */
+    public Room getRoom() {
+        return room;
+    }
+
+    /**
+     * Gets the organiser of the series.
+     *
+     * @return The organiser
+     */
+    public Organiser getOrganiser() {
+        return organiser;
+    }
+
+    /**
+     * Gets the start time of the first occurrence.
+     *
+     * @return The first start time
+     */
+    public Date getFirstStart() {
+        return firstStart;
+    }
+
+    /**
+     * Gets the duration of each occurrence in minutes.
+     *
+     * @return The duration in minutes
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets how often the series repeats.
+     *
+     * @return The frequency
+     */
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    /**
+     * Gets the last possible start time.
+     *
+     * @return The until date, or null if the series has a count
+     */
+    public Date getUntil() {
+        return until;
+    }
+
+    /**
+     * Gets the number of occurrences.
+     *
+     * @return The count, or null if the series has an until date
+     */
+    public Integer getCount() {
+        return count;
+    }
+}
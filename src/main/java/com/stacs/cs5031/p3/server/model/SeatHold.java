@@ -0,0 +1,113 @@
+package com.stacs.cs5031.p3.server.model;
+
+import java.util.Date;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Entity representing a seat held for an attendee on a booking until it is confirmed or expires.
+ * A hold takes a seat from the booking's seat counter when it is placed, so confirming it can
+ * never fail for lack of space; an expired hold gives the seat back.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_seat_hold_booking_attendee",
+        columnNames = {"booking_id", "attendee_id"}))
+public class SeatHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @ManyToOne
+    @JoinColumn(name = "booking_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Booking booking;
+
+    // no cascade: the held seat must be given back before the attendee is deleted
+    @ManyToOne
+    @JoinColumn(name = "attendee_id")
+    private Attendee attendee;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    protected SeatHold() {
+        // Required by JPA
+    }
+
+    /**
+     * Constructor for creating a new hold.
+     *
+     * @param booking   The booking the seat is held on
+     * @param attendee  The attendee holding the seat
+     * @param expiresAt The time at which the hold lapses unless confirmed
+     */
+    public SeatHold(Booking booking, Attendee attendee, Date expiresAt) {
+        this.booking = booking;
+        this.attendee = attendee;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets the hold ID.
+     *
+     * @return The hold ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the booking the seat is held on.
+     *
+     * @return The booking
+     */
+    public Booking getBooking() {
+        return booking;
+    }
+
+    /**
+     * Gets the attendee holding the seat.
+     *
+     * @return The attendee
+     */
+    public Attendee getAttendee() {
+        return attendee;
+    }
+
+    /**
+     * Gets the time at which the hold lapses unless confirmed.
+     *
+     * @return The expiry time
+     */
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Checks whether the hold has lapsed.
+     *
+     * @param nowMillis The current time, in epoch milliseconds
+     * @return true if the expiry time has passed
+     */
+    public boolean isExpired(long nowMillis) {
+        return expiresAt.getTime() <= nowMillis;
+    }
+}
@@ -0,0 +1,117 @@
+package com.stacs.cs5031.p3.server.model;
+
+import java.util.Date;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Entity representing an attendee waiting for a seat on a full booking.
+ * Each entry holds a ticket taken from the booking's waitlist counters, so the queue is
+ * ordered by ticket and an attendee's position is their ticket minus the booking's head.
+ */
+@Entity
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "uk_waitlist_booking_attendee",
+                columnNames = {"booking_id", "attendee_id"}),
+        indexes = @Index(name = "idx_waitlist_booking_ticket", columnList = "booking_id, ticket", unique = true)
+)
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @ManyToOne
+    @JoinColumn(name = "booking_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Booking booking;
+
+    @ManyToOne
+    @JoinColumn(name = "attendee_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Attendee attendee;
+
+    private long ticket; // position in the booking's queue, counting from the first ever entry
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date joinedAt;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    protected WaitlistEntry() {
+        // Required by JPA
+    }
+
+    /**
+     * Constructor for creating a new waitlist entry.
+     *
+     * @param booking  The full booking
+     * @param attendee The waiting attendee
+     * @param ticket   The ticket taken from the booking's waitlist tail
+     */
+    public WaitlistEntry(Booking booking, Attendee attendee, long ticket) {
+        this.booking = booking;
+        this.attendee = attendee;
+        this.ticket = ticket;
+        this.joinedAt = new Date();
+    }
+
+    /**
+     * Gets the entry ID.
+     *
+     * @return The entry ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the booking being waited for.
+     *
+     * @return The booking
+     */
+    public Booking getBooking() {
+        return booking;
+    }
+
+    /**
+     * Gets the waiting attendee.
+     *
+     * @return The attendee
+     */
+    public Attendee getAttendee() {
+        return attendee;
+    }
+
+    /**
+     * Gets the ticket of this entry.
+     *
+     * @return The ticket
+     */
+    public long getTicket() {
+        return ticket;
+    }
+
+    /**
+     * Gets the time the attendee joined the waitlist.
+     *
+     * @return The time the entry was created
+     */
+    public Date getJoinedAt() {
+        return joinedAt;
+    }
+}
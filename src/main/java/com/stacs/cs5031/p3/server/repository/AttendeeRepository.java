@@ -1,10 +1,15 @@
 package com.stacs.cs5031.p3.server.repository;
 
+import com.stacs.cs5031.p3.server.dto.BookingOverviewDto;
 import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Booking;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -18,25 +23,68 @@ public interface AttendeeRepository extends JpaRepository<Attendee, Integer> {
 
     Attendee findByUsername(String username);
 
-    @Query("SELECT booking FROM Attendee attendee " +
-            "JOIN attendee.registeredBookings booking " +
-            "WHERE attendee.id = ?1")
-    List<Booking> findRegisteredBookings(Integer attendeeId);
+    // keyset page of attendees in id order, starting after the given id; ids start at 1, so 0 gives the first page
+    @Query("SELECT attendee FROM Attendee attendee WHERE attendee.id > ?1 ORDER BY attendee.id")
+    List<Attendee> findPageAfter(Integer afterId, Limit limit);
 
-    @Query("SELECT booking FROM Booking booking WHERE booking NOT IN " +
-            "(SELECT registered_booking FROM Attendee attendee " +
-            "JOIN attendee.registeredBookings registered_booking " +
-            "WHERE attendee.id = ?1) " +
-            "AND SIZE(booking.attendees) < booking.room.capacity")
-    List<Booking> findAvailableBookings(Integer attendeeId);
+    // The booking lists below are read with the summary fetch plan, so each booking's room and organiser
+    // come in the same statement instead of one select per distinct room and organiser.
+    // The bookings are the query root so that the plan applies to them
+    String REGISTERED_BOOKINGS = "SELECT booking FROM Booking booking " +
+            "JOIN booking.attendees attendee " +
+            "WHERE attendee.id = :attendeeId ";
 
-    @Query("SELECT booking FROM Booking booking WHERE booking NOT IN " +
+    String UNREGISTERED_BOOKINGS = "SELECT booking FROM Booking booking WHERE booking NOT IN " +
             "(SELECT registered_booking FROM Attendee attendee " +
             "JOIN attendee.registeredBookings registered_booking " +
-            "WHERE attendee.id = ?1) " +
-            "AND SIZE(booking.attendees) >= booking.room.capacity")
-    List<Booking> findUnavailableBookings(Integer attendeeId);
+            "WHERE attendee.id = :attendeeId) ";
+
+    // They are read in keyset pages in (startTime, id) order, like the other booking lists;
+    // a page after the first starts past the last row of the previous one
+    String AFTER = "AND (booking.startTime > :startTime OR (booking.startTime = :startTime AND booking.id > :id)) ";
+    String IN_ORDER = "ORDER BY booking.startTime, booking.id";
+
+    @EntityGraph(Booking.SUMMARY_GRAPH)
+    @Query(REGISTERED_BOOKINGS + IN_ORDER)
+    List<Booking> findRegisteredBookings(@Param("attendeeId") Integer attendeeId, Limit limit);
+
+    @EntityGraph(Booking.SUMMARY_GRAPH)
+    @Query(REGISTERED_BOOKINGS + AFTER + IN_ORDER)
+    List<Booking> findRegisteredBookingsAfter(@Param("attendeeId") Integer attendeeId,
+                                              @Param("startTime") Date startTime, @Param("id") int id, Limit limit);
+
+    @EntityGraph(Booking.SUMMARY_GRAPH)
+    @Query(UNREGISTERED_BOOKINGS + "AND booking.seatsTaken < booking.room.capacity " + IN_ORDER)
+    List<Booking> findAvailableBookings(@Param("attendeeId") Integer attendeeId, Limit limit);
+
+    @EntityGraph(Booking.SUMMARY_GRAPH)
+    @Query(UNREGISTERED_BOOKINGS + "AND booking.seatsTaken < booking.room.capacity " + AFTER + IN_ORDER)
+    List<Booking> findAvailableBookingsAfter(@Param("attendeeId") Integer attendeeId,
+                                             @Param("startTime") Date startTime, @Param("id") int id, Limit limit);
+
+    @EntityGraph(Booking.SUMMARY_GRAPH)
+    @Query(UNREGISTERED_BOOKINGS + "AND booking.seatsTaken >= booking.room.capacity " + IN_ORDER)
+    List<Booking> findUnavailableBookings(@Param("attendeeId") Integer attendeeId, Limit limit);
+
+    @EntityGraph(Booking.SUMMARY_GRAPH)
+    @Query(UNREGISTERED_BOOKINGS + "AND booking.seatsTaken >= booking.room.capacity " + AFTER + IN_ORDER)
+    List<Booking> findUnavailableBookingsAfter(@Param("attendeeId") Integer attendeeId,
+                                               @Param("startTime") Date startTime, @Param("id") int id, Limit limit);
 
+    // every booking from the given time on, with whether the attendee is registered, in one pass;
+    // fullness comes from the seats_taken counter, so no attendee rows are counted or loaded.
+    // Joining the attendee row itself means an unknown attendee yields no rows.
+    @Query("SELECT new com.stacs.cs5031.p3.server.dto.BookingOverviewDto(" +
+            "booking.id, booking.eventName, room.id, room.name, booking.startTime, booking.duration, " +
+            "organiser.id, organiser.name, booking.seatsTaken, room.capacity, " +
+            "CASE WHEN registered.id IS NULL THEN false ELSE true END) " +
+            "FROM Attendee attendee, Booking booking " +
+            "JOIN booking.room room " +
+            "LEFT JOIN booking.organiser organiser " +
+            "LEFT JOIN booking.attendees registered ON registered.id = attendee.id " +
+            "WHERE attendee.id = ?1 AND booking.startTime >= ?2 " +
+            "ORDER BY booking.startTime, booking.id")
+    List<BookingOverviewDto> findBookingOverview(Integer attendeeId, Date from);
 
 
 }
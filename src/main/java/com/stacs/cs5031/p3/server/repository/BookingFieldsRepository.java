@@ -0,0 +1,68 @@
+package com.stacs.cs5031.p3.server.repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Limit;
+
+import com.stacs.cs5031.p3.server.dto.BookingField;
+
+/**
+ * Booking list queries that read only the fields a client asked for.
+ * Each query selects the requested columns and joins the room and organiser tables only when a
+ * requested field, or the query's condition, comes from them. Rows come back as maps from property
+ * name to value, holding the requested fields in the order they were asked for, so that they are
+ * also written without the fields left out.
+ * Implemented by {@link BookingFieldsRepositoryImpl}, and part of {@link BookingRepository}.
+ */
+public interface BookingFieldsRepository {
+
+    /**
+     * Which of an attendee's bookings to list.
+     */
+    enum AttendeeBookings {
+        REGISTERED,
+        AVAILABLE,
+        UNAVAILABLE
+    }
+
+    /**
+     * Reads a keyset page of bookings in (startTime, id) order, like
+     * {@link BookingRepository#findFirstPage} and {@link BookingRepository#findPageAfter}.
+     *
+     * @param fields         The fields to read
+     * @param organiserId    The organiser whose bookings to read, or null for all bookings
+     * @param afterStartTime The start time of the last row of the previous page, or null for the first page
+     * @param afterId        The ID of the last row of the previous page; ignored on the first page
+     * @param limit          The most rows to read
+     * @return The rows, with the sort key of each for the page cursor
+     */
+    List<FieldRow> findFieldsPage(List<BookingField> fields, Integer organiserId, Date afterStartTime, int afterId,
+                                  Limit limit);
+
+    /**
+     * Reads a keyset page of the bookings an attendee is registered for, or of those still open or
+     * already full that they are not registered for, like the booking lists of {@link AttendeeRepository}.
+     *
+     * @param fields         The fields to read
+     * @param attendeeId     The attendee ID
+     * @param bookings       Which of the attendee's bookings to read
+     * @param afterStartTime The start time of the last row of the previous page, or null for the first page
+     * @param afterId        The ID of the last row of the previous page; ignored on the first page
+     * @param limit          The most rows to read
+     * @return The rows in (startTime, id) order, with the sort key of each for the page cursor
+     */
+    List<FieldRow> findAttendeeBookingFields(List<BookingField> fields, int attendeeId, AttendeeBookings bookings,
+                                             Date afterStartTime, int afterId, Limit limit);
+
+    /**
+     * One row of a page of requested fields, with its sort key.
+     *
+     * @param startTime The booking start time
+     * @param id        The booking ID
+     * @param values    The requested fields, by property name
+     */
+    record FieldRow(Date startTime, int id, Map<String, Object> values) {
+    }
+}
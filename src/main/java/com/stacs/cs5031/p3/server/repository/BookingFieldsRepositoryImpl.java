@@ -0,0 +1,138 @@
+package com.stacs.cs5031.p3.server.repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Limit;
+
+import com.stacs.cs5031.p3.server.dto.BookingField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Builds the queries of {@link BookingFieldsRepository} from the requested fields.
+ * Columns are always selected in {@link BookingField} order, whatever order they were asked for in,
+ * so there is one query string per set of fields rather than one per ordering.
+ */
+public class BookingFieldsRepositoryImpl implements BookingFieldsRepository {
+
+    // bookings the attendee is registered for, as in AttendeeRepository's booking lists
+    private static final String REGISTERED = "(SELECT registered_booking FROM Attendee attendee " +
+            "JOIN attendee.registeredBookings registered_booking WHERE attendee.id = :attendeeId)";
+
+    // the start time and ID lead every row, for the page cursor and the order
+    private static final int KEY_COLUMNS = 2;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor.
+     *
+     * @param entityManager EntityManager to run the queries with
+     */
+    public BookingFieldsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<FieldRow> findFieldsPage(List<BookingField> fields, Integer organiserId, Date afterStartTime,
+                                         int afterId, Limit limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (organiserId != null) {
+            conditions.add("b.organiser.id = :organiserId");
+            parameters.put("organiserId", organiserId);
+        }
+        return page(fields, false, conditions, parameters, afterStartTime, afterId, limit);
+    }
+
+    @Override
+    public List<FieldRow> findAttendeeBookingFields(List<BookingField> fields, int attendeeId,
+                                                    AttendeeBookings bookings, Date afterStartTime, int afterId,
+                                                    Limit limit) {
+        List<String> conditions = new ArrayList<>(switch (bookings) {
+            case REGISTERED -> List.of("b IN " + REGISTERED);
+            case AVAILABLE -> List.of("b NOT IN " + REGISTERED, "b.seatsTaken < room.capacity");
+            case UNAVAILABLE -> List.of("b NOT IN " + REGISTERED, "b.seatsTaken >= room.capacity");
+        });
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("attendeeId", attendeeId);
+        return page(fields, bookings != AttendeeBookings.REGISTERED, conditions, parameters, afterStartTime, afterId,
+                limit);
+    }
+
+    private List<FieldRow> page(List<BookingField> fields, boolean joinRoom, List<String> conditions,
+                                Map<String, Object> parameters, Date afterStartTime, int afterId, Limit limit) {
+        if (afterStartTime != null) {
+            conditions.add("(b.startTime > :startTime OR (b.startTime = :startTime AND b.id > :id))");
+            parameters.put("startTime", afterStartTime);
+            parameters.put("id", afterId);
+        }
+        List<BookingField> columns = columns(fields);
+        List<FieldRow> rows = new ArrayList<>();
+        for (Object[] row : select(columns, joinRoom, conditions, parameters, limit)) {
+            rows.add(new FieldRow((Date) row[0], (Integer) row[1], values(fields, columns, row)));
+        }
+        return rows;
+    }
+
+    private List<Object[]> select(List<BookingField> columns, boolean joinRoom, List<String> conditions,
+                                  Map<String, Object> parameters, Limit limit) {
+        StringBuilder jpql = new StringBuilder("SELECT b.startTime, b.id");
+        for (BookingField column : columns) {
+            jpql.append(", ").append(expression(column));
+        }
+        jpql.append(" FROM Booking b");
+        if (joinRoom || columns.contains(BookingField.ROOM_NAME) || columns.contains(BookingField.MAX_CAPACITY)) {
+            jpql.append(" JOIN b.room room");
+        }
+        if (columns.contains(BookingField.ORGANISER_NAME)) {
+            jpql.append(" LEFT JOIN b.organiser organiser");
+        }
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(" ORDER BY b.startTime, b.id");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        parameters.forEach(query::setParameter);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList();
+    }
+
+    // the room and organiser IDs are the booking's foreign keys, so they need no join
+    private static String expression(BookingField field) {
+        return switch (field) {
+            case ID -> "b.id";
+            case EVENT_NAME -> "b.eventName";
+            case ROOM_ID -> "b.room.id";
+            case ROOM_NAME -> "room.name";
+            case START_TIME -> "b.startTime";
+            case DURATION -> "b.duration";
+            case ORGANISER_ID -> "b.organiser.id";
+            case ORGANISER_NAME -> "organiser.name";
+            case SEATS_TAKEN -> "b.seatsTaken";
+            case MAX_CAPACITY -> "room.capacity";
+        };
+    }
+
+    private static List<BookingField> columns(List<BookingField> fields) {
+        return new ArrayList<>(EnumSet.copyOf(fields));
+    }
+
+    private static Map<String, Object> values(List<BookingField> fields, List<BookingField> columns, Object[] row) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (BookingField field : fields) {
+            values.put(field.getProperty(), row[KEY_COLUMNS + columns.indexOf(field)]);
+        }
+        return values;
+    }
+}
@@ -1,24 +1,85 @@
 package com.stacs.cs5031.p3.server.repository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.stacs.cs5031.p3.server.dto.AttendeeSummaryDto;
 import com.stacs.cs5031.p3.server.model.Booking;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingFieldsRepository {
 
     // Find bookings for a specific room
+    @EntityGraph(Booking.SUMMARY_GRAPH)
     public List<Booking> findByRoomId(Long roomId);
     
-    // Find bookings created by a specific organiser
-    public List<Booking> findByOrganiserId(Long organiserId);
-    
+    // Columns of a booking list row, read straight from the booking, room and organiser tables
+    // so that listing bookings never loads the entities or their attendee collections
+    String BOOKING_ROW = "SELECT b.id AS id, b.eventName AS eventName, room.id AS roomId, room.name AS roomName, " +
+           "b.startTime AS startTime, b.duration AS duration, organiser.id AS organiserId, " +
+           "organiser.name AS organiserName, b.seatsTaken AS seatsTaken, room.capacity AS capacity " +
+           "FROM Booking b JOIN b.room room LEFT JOIN b.organiser organiser ";
+
+    // Keyset pages of all bookings in (startTime, id) order; a page after the first starts
+    // past the last row of the previous one, so no page scans the rows before it
+    @Query(BOOKING_ROW + "ORDER BY b.startTime, b.id")
+    public List<BookingRow> findFirstPage(Limit limit);
+
+    @Query(BOOKING_ROW + "WHERE b.startTime > :startTime OR (b.startTime = :startTime AND b.id > :id) " +
+           "ORDER BY b.startTime, b.id")
+    public List<BookingRow> findPageAfter(@Param("startTime") Date startTime, @Param("id") int id, Limit limit);
+
+    // Keyset pages of an organiser's bookings, in the same order
+    @Query(BOOKING_ROW + "WHERE organiser.id = :organiserId ORDER BY b.startTime, b.id")
+    public List<BookingRow> findFirstPageByOrganiser(@Param("organiserId") Integer organiserId, Limit limit);
+
+    @Query(BOOKING_ROW + "WHERE organiser.id = :organiserId " +
+           "AND (b.startTime > :startTime OR (b.startTime = :startTime AND b.id > :id)) " +
+           "ORDER BY b.startTime, b.id")
+    public List<BookingRow> findPageByOrganiserAfter(@Param("organiserId") Integer organiserId,
+                                                     @Param("startTime") Date startTime, @Param("id") int id,
+                                                     Limit limit);
+
+    // A single booking list row, for answering registration changes with the booking's seat count
+    @Query(BOOKING_ROW + "WHERE b.id = :id")
+    public Optional<BookingRow> findRowById(@Param("id") long id);
+
+    // Keyset page of a booking's attendees in id order, starting after the given id; ids start at 1,
+    // so 0 gives the first page
+    @Query("SELECT new com.stacs.cs5031.p3.server.dto.AttendeeSummaryDto(a.id, a.username, a.name) " +
+           "FROM Booking b JOIN b.attendees a WHERE b.id = :bookingId AND a.id > :afterId ORDER BY a.id")
+    public List<AttendeeSummaryDto> findAttendeePage(@Param("bookingId") int bookingId,
+                                                     @Param("afterId") int afterId, Limit limit);
+
+    // A single booking with its room, organiser and attendees in one statement, for the booking's
+    // detail view; the attendees' own bookings are read separately with findRegistrations
+    @EntityGraph(Booking.DETAIL_GRAPH)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    public Optional<Booking> findDetailById(@Param("id") long id);
+
+    // Every registration of many attendees in one query, for listing the bookings of each
+    @Query("SELECT a.id AS attendeeId, b.id AS bookingId " +
+           "FROM Booking b JOIN b.attendees a WHERE a.id IN :attendeeIds ORDER BY a.id, b.id")
+    public List<Registration> findRegistrations(@Param("attendeeIds") Collection<Integer> attendeeIds);
+
+    // Check whether an organiser owns any booking, without loading one
+    public boolean existsByOrganiserId(Integer organiserId);
+
     // Find bookings an attendee is registered for
     @Query("SELECT b FROM Booking b JOIN b.attendees a WHERE a.id = :attendeeId")
     public List<Booking> findByAttendees_Id(@Param("attendeeId") Long attendeeId);
@@ -30,18 +91,138 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b WHERE b.startTime >= :start AND b.startTime <= :end")
     public List<Booking> findByDateRange(@Param("start") Date start, @Param("end") Date end);
     
-    // Find conflicting bookings for a room
+    // Find bookings in a room overlapping the half-open range [start, end);
+    // compares stored columns only, so it is answered from the (room_id, start_time, end_time) index
     @Query("SELECT b FROM Booking b WHERE b.room.id = :roomId AND " +
-           "((b.startTime BETWEEN :start AND :end) OR " +
-           "(b.startTime <= :start AND FUNCTION('DATEADD', MINUTE, b.duration, b.startTime) >= :start))")
+           "b.startTime < :end AND b.endTime > :start")
     public List<Booking> findConflictingBookings(
         @Param("roomId") Long roomId,
         @Param("start") Date start,
         @Param("end") Date end);
 
+    // Check whether any booking in a room overlaps the half-open range [start, end)
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
+           "WHERE b.room.id = :roomId AND b.startTime < :end AND b.endTime > :start")
+    public boolean existsConflictingBooking(
+        @Param("roomId") Long roomId,
+        @Param("start") Date start,
+        @Param("end") Date end);
+
+    // Find bookings created before the end time column existed
+    public List<Booking> findByEndTimeIsNull();
+
     public Object findById(int bookingId);
 
     public List<Booking> findByAttendeesId(Long attendeeId);
+
+    // Time spans of every booking in rooms of at least the given capacity overlapping [from, to),
+    // ordered so that each room's bookings come together in start order
+    @Query("SELECT b.room.id AS roomId, b.startTime AS startTime, b.endTime AS endTime FROM Booking b " +
+           "WHERE b.room.capacity >= :minCapacity AND b.startTime < :to AND b.endTime > :from " +
+           "ORDER BY b.room.id, b.startTime")
+    public List<TimeSpan> findTimeSpans(
+        @Param("minCapacity") int minCapacity,
+        @Param("from") Date from,
+        @Param("to") Date to);
+
+    // Take a seat unless the booking is full; returns 1 if a seat was taken and 0 if the booking is
+    // full or missing. The row lock taken by the update serialises registrations per booking
+    @Modifying
+    @Query(value = "UPDATE booking SET seats_taken = seats_taken + 1 WHERE id = :bookingId " +
+           "AND seats_taken < (SELECT r.capacity FROM room r WHERE r.id = booking.room_id)", nativeQuery = true)
+    public int claimSeat(@Param("bookingId") long bookingId);
+
+    // Give back a seat taken by claimSeat
+    @Modifying
+    @Query(value = "UPDATE booking SET seats_taken = seats_taken - 1 WHERE id = :bookingId AND seats_taken > 0",
+           nativeQuery = true)
+    public int releaseSeat(@Param("bookingId") long bookingId);
+
+    // Add an attendee to a booking without loading the booking's attendee list
+    @Modifying
+    @Query(value = "INSERT INTO attendee_bookings (booking_id, attendee_id) VALUES (:bookingId, :attendeeId)",
+           nativeQuery = true)
+    public int insertAttendee(@Param("bookingId") long bookingId, @Param("attendeeId") int attendeeId);
+
+    // Remove an attendee from a booking without loading the booking's attendee list
+    @Modifying
+    @Query(value = "DELETE FROM attendee_bookings WHERE booking_id = :bookingId AND attendee_id = :attendeeId",
+           nativeQuery = true)
+    public int deleteAttendee(@Param("bookingId") long bookingId, @Param("attendeeId") int attendeeId);
+
+    // Check whether an attendee is registered for a booking without loading either side's collection;
+    // answered from the unique index on the join table
+    @Query(value = "SELECT CASE WHEN COUNT(*) > 0 THEN true ELSE false END FROM attendee_bookings " +
+           "WHERE booking_id = :bookingId AND attendee_id = :attendeeId", nativeQuery = true)
+    public boolean isRegistered(@Param("bookingId") long bookingId, @Param("attendeeId") int attendeeId);
+
+    // Find a booking and lock its row until the transaction ends, serialising seat and waitlist changes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT b FROM Booking b WHERE b.id = :bookingId")
+    public Optional<Booking> findByIdForUpdate(@Param("bookingId") int bookingId);
+
+    // Issue the next waitlist ticket
+    @Modifying
+    @Query(value = "UPDATE booking SET waitlist_tail = waitlist_tail + 1 WHERE id = :bookingId", nativeQuery = true)
+    public int extendWaitlist(@Param("bookingId") long bookingId);
+
+    // Move the waitlist head past a promoted ticket
+    @Modifying
+    @Query(value = "UPDATE booking SET waitlist_head = :head WHERE id = :bookingId", nativeQuery = true)
+    public int advanceWaitlist(@Param("bookingId") long bookingId, @Param("head") long head);
+
+    // Set every booking's seat counter to its number of attendees plus its outstanding seat holds
+    @Modifying
+    @Query(value = "UPDATE booking SET seats_taken = " +
+           "(SELECT COUNT(*) FROM attendee_bookings ab WHERE ab.booking_id = booking.id) + " +
+           "(SELECT COUNT(*) FROM seat_hold h WHERE h.booking_id = booking.id)", nativeQuery = true)
+    public int recountSeats();
+
+    /**
+     * Projection of a booking onto the fields of its list view, read without loading the entity.
+     */
+    interface BookingRow {
+        int getId();
+
+        String getEventName();
+
+        int getRoomId();
+
+        String getRoomName();
+
+        Date getStartTime();
+
+        int getDuration();
+
+        Integer getOrganiserId();
+
+        String getOrganiserName();
+
+        int getSeatsTaken();
+
+        int getCapacity();
+    }
+
+    /**
+     * Projection of one attendee's registration for one booking.
+     */
+    interface Registration {
+        int getAttendeeId();
+
+        int getBookingId();
+    }
+
+    /**
+     * Projection of a booking onto its room and time range, read without loading the entity.
+     */
+    interface TimeSpan {
+        int getRoomId();
+
+        Date getStartTime();
+
+        Date getEndTime();
+    }
 }
 
 
@@ -0,0 +1,14 @@
+package com.stacs.cs5031.p3.server.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.stacs.cs5031.p3.server.model.BookingSeries;
+
+/**
+ * Repository interface for BookingSeries entity operations.
+ * The occurrences of a series are stored as bookings and are found through {@link BookingRepository}.
+ */
+@Repository
+public interface BookingSeriesRepository extends JpaRepository<BookingSeries, Integer> {
+}
@@ -1,9 +1,16 @@
 package com.stacs.cs5031.p3.server.repository;
 
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.stacs.cs5031.p3.server.model.Room;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for Room entity operations.
@@ -20,4 +27,26 @@ public interface RoomRepository extends CrudRepository<Room, Integer> {
      * @return A list of rooms matching the specified availability status
      */
     public List<Room> findByAvailability(boolean availability);
+
+    /**
+     * Finds all rooms holding at least the given number of people, ordered by ID.
+     *
+     * @param capacity The minimum capacity
+     * @return The rooms with at least that capacity
+     */
+    public List<Room> findByCapacityGreaterThanEqualOrderByIdAsc(int capacity);
+
+    /**
+     * Finds a room by its ID and takes a pessimistic write lock on its row.
+     * The lock is held until the surrounding transaction ends, which serialises bookings for the
+     * same room while bookings for other rooms proceed in parallel.
+     * Waiting longer than the lock timeout fails with a PessimisticLockingFailureException.
+     *
+     * @param id The ID of the room to lock
+     * @return An Optional containing the locked room, or an empty Optional if no room has the given ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT r FROM Room r WHERE r.id = :id")
+    public Optional<Room> findByIdForUpdate(@Param("id") int id);
 }
@@ -0,0 +1,65 @@
+package com.stacs.cs5031.p3.server.repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.stacs.cs5031.p3.server.model.SeatHold;
+
+/**
+ * Repository interface for SeatHold entity operations.
+ */
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, Integer> {
+
+    /**
+     * Finds an attendee's hold on a booking.
+     *
+     * @param bookingId  The booking ID
+     * @param attendeeId The attendee ID
+     * @return An Optional containing the hold, or an empty Optional if the attendee holds no seat
+     */
+    Optional<SeatHold> findByBookingIdAndAttendeeId(int bookingId, Integer attendeeId);
+
+    /**
+     * Finds every hold an attendee has placed.
+     *
+     * @param attendeeId The attendee ID
+     * @return The attendee's holds
+     */
+    List<SeatHold> findByAttendeeId(Integer attendeeId);
+
+    /**
+     * Deletes a hold, unless it was already deleted.
+     * Confirmation and expiry both end a hold this way, so exactly one of them wins a race.
+     *
+     * @param id The hold ID
+     * @return 1 if the hold was deleted, 0 if it was already gone
+     */
+    @Modifying
+    @Query("DELETE FROM SeatHold h WHERE h.id = :id")
+    int deleteHold(@Param("id") int id);
+
+    /**
+     * Lists the ID and expiry time of every outstanding hold, without loading the holds.
+     *
+     * @return The expiry of every hold
+     */
+    @Query("SELECT h.id AS id, h.expiresAt AS expiresAt FROM SeatHold h")
+    List<Expiry> findAllExpiries();
+
+    /**
+     * Projection of a hold onto its ID and expiry time.
+     */
+    interface Expiry {
+        int getId();
+
+        Date getExpiresAt();
+    }
+}
@@ -1,9 +1,12 @@
 package com.stacs.cs5031.p3.server.repository;
 
 import com.stacs.cs5031.p3.server.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,4 +17,8 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByUsername(String username);
+
+    // keyset page of users in id order, starting after the given id; ids start at 1, so 0 gives the first page
+    @Query("SELECT u FROM User u WHERE u.id > ?1 ORDER BY u.id")
+    List<User> findPageAfter(Integer afterId, Limit limit);
 }
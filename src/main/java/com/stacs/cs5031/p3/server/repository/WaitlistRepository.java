@@ -0,0 +1,46 @@
+package com.stacs.cs5031.p3.server.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.stacs.cs5031.p3.server.model.WaitlistEntry;
+
+/**
+ * Repository interface for WaitlistEntry entity operations.
+ * Both finders are answered from the waitlist's unique indexes.
+ */
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Integer> {
+
+    /**
+     * Finds an attendee's entry on a booking's waitlist.
+     *
+     * @param bookingId  The booking ID
+     * @param attendeeId The attendee ID
+     * @return An Optional containing the entry, or an empty Optional if the attendee is not waiting
+     */
+    Optional<WaitlistEntry> findByBookingIdAndAttendeeId(int bookingId, Integer attendeeId);
+
+    /**
+     * Finds the entry at the head of a booking's waitlist.
+     *
+     * @param bookingId The booking ID
+     * @return An Optional containing the entry with the lowest ticket, or an empty Optional if nobody is waiting
+     */
+    Optional<WaitlistEntry> findFirstByBookingIdOrderByTicketAsc(int bookingId);
+
+    /**
+     * Takes an attendee off every waitlist they are on.
+     *
+     * @param attendeeId The attendee ID
+     * @return The number of entries deleted
+     */
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry entry WHERE entry.attendee.id = :attendeeId")
+    int deleteByAttendeeId(@Param("attendeeId") Integer attendeeId);
+}
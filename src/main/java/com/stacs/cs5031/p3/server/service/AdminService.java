@@ -4,10 +4,11 @@ import java.util.ArrayList;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.stacs.cs5031.p3.server.dto.AttendeeDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.OrganiserDto;
 import com.stacs.cs5031.p3.server.dto.RoomDto;
 import com.stacs.cs5031.p3.server.exception.RoomNotFoundException;
-import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Room;
 import com.stacs.cs5031.p3.server.repository.AdminRepository;
 import org.springframework.stereotype.Service;
@@ -50,12 +51,15 @@ public class AdminService {
     }
     
     /**
-     * Retrieves all attendees registered in the system.
+     * Retrieves a page of the attendees registered in the system, in ID order.
      *
-     * @return ArrayList of Attendee objects
+     * @param cursor the cursor of the page to get, or null for the first page
+     * @param limit  the page size, or null for the default
+     * @return the page of attendees
+     * @throws IllegalArgumentException if the cursor or page size is invalid
      */
-    public ArrayList<Attendee> getAttendees() {
-        return new ArrayList<>(attendeeService.getAllAttendees());
+    public KeysetPage<AttendeeDto> getAttendees(String cursor, Integer limit) {
+        return attendeeService.getAttendees(cursor, limit);
     }
 
     /**
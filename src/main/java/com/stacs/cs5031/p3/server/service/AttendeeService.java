@@ -1,20 +1,33 @@
 package com.stacs.cs5031.p3.server.service;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import com.stacs.cs5031.p3.server.dto.AttendeeDto;
+import com.stacs.cs5031.p3.server.dto.BookingField;
+import com.stacs.cs5031.p3.server.dto.BookingOverviewDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
+import com.stacs.cs5031.p3.server.dto.WaitlistDto;
 import com.stacs.cs5031.p3.server.exception.BookingFullException;
 import com.stacs.cs5031.p3.server.exception.BookingNotFoundException;
 import com.stacs.cs5031.p3.server.exception.ResourceUnavailableException;
 import com.stacs.cs5031.p3.server.exception.UserNotFoundException;
+import com.stacs.cs5031.p3.server.mapper.AttendeeDtoMapper;
 import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Booking;
 import com.stacs.cs5031.p3.server.model.User;
+import com.stacs.cs5031.p3.server.model.WaitlistEntry;
 import com.stacs.cs5031.p3.server.repository.AttendeeRepository;
+import com.stacs.cs5031.p3.server.repository.BookingFieldsRepository;
 import com.stacs.cs5031.p3.server.repository.BookingRepository;
 import com.stacs.cs5031.p3.server.repository.UserRepository;
+import com.stacs.cs5031.p3.server.repository.WaitlistRepository;
 
 import jakarta.transaction.Transactional;
 
@@ -28,14 +41,19 @@ public class AttendeeService {
 
     private final AttendeeRepository attendeeRepository;
     private final BookingRepository bookingRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final ListVersions listVersions;
 
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    public AttendeeService(AttendeeRepository attendeeRepository, BookingRepository bookingRepository) {
+    public AttendeeService(AttendeeRepository attendeeRepository, BookingRepository bookingRepository,
+                           WaitlistRepository waitlistRepository, ListVersions listVersions) {
         this.attendeeRepository = attendeeRepository;
         this.bookingRepository = bookingRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.listVersions = listVersions;
     }
 
     // /**
@@ -65,53 +83,167 @@ public class AttendeeService {
         return attendee;
     }
 
-    // get all available attendees
-    public List<Attendee> getAllAttendees() {
-        return attendeeRepository.findAll();
+    /**
+     * Gets a page of the attendees in the system, in ID order.
+     *
+     * @param cursor The cursor of the page to get, or null for the first page
+     * @param limit The page size, or null for the default
+     * @return The page of attendees, with the bookings of all of them read in one query
+     * @throws IllegalArgumentException if the cursor or page size is invalid
+     */
+    public KeysetPage<AttendeeDto> getAttendees(String cursor, Integer limit) {
+        int size = KeysetPage.size(limit);
+        int afterId = cursor == null ? 0 : (int) KeysetPage.decode(cursor, 1)[0];
+        KeysetPage<Attendee> page = KeysetPage.of(attendeeRepository.findPageAfter(afterId, Limit.of(size + 1)), size,
+                attendee -> KeysetPage.encode(attendee.getId()));
+        if (page.getItems().isEmpty()) {
+            return new KeysetPage<>(List.of(), null);
+        }
+        List<Integer> attendeeIds = page.getItems().stream().map(Attendee::getId).toList();
+        return new KeysetPage<>(AttendeeDtoMapper.mapToDtoList(page.getItems(),
+                bookingRepository.findRegistrations(attendeeIds)), page.getNextCursor());
+    }
+
+    /**
+     * Gets an attendee with the IDs of the bookings they are registered for.
+     * The booking IDs are read as registrations, so the bookings themselves are never loaded.
+     *
+     * @param id The attendee ID
+     * @return The attendee DTO
+     * @throws UserNotFoundException if the attendee does not exist
+     */
+    public AttendeeDto getAttendeeDetails(Integer id) {
+        Attendee attendee = getAttendeeById(id);
+        return AttendeeDtoMapper.mapToDtoList(List.of(attendee),
+                bookingRepository.findRegistrations(List.of(id))).get(0);
     }
 
     /**
-     * Get all available bookings for an attendee.
+     * Get a page of the available bookings for an attendee, in start time order.
      *
      * @param attendeeId The attendee ID
-     * @return List of available bookings
+     * @param cursor The cursor of the page to get, or null for the first page
+     * @param limit The page size, or null for the default
+     * @return A page of available bookings
+     * @throws IllegalArgumentException if the cursor or page size is invalid
      */
-    public List<Booking> getAvailableBookings(Integer attendeeId) {
+    public KeysetPage<Booking> getAvailableBookings(Integer attendeeId, String cursor, Integer limit) {
         getAttendeeById(attendeeId);
-        return attendeeRepository.findAvailableBookings(attendeeId);
+        int size = KeysetPage.size(limit);
+        if (cursor == null) {
+            return KeysetPage.of(attendeeRepository.findAvailableBookings(attendeeId, Limit.of(size + 1)), size,
+                    AttendeeService::cursorOf);
+        }
+        long[] after = KeysetPage.decode(cursor, 2);
+        return KeysetPage.of(attendeeRepository.findAvailableBookingsAfter(attendeeId, new Date(after[0]),
+                (int) after[1], Limit.of(size + 1)), size, AttendeeService::cursorOf);
     }
 
     /**
-     * Get all unavailable bookings for an attendee.
+     * Get a page of the unavailable bookings for an attendee, in start time order.
      *
      * @param attendeeId The attendee ID
-     * @return List of unavailable bookings
+     * @param cursor The cursor of the page to get, or null for the first page
+     * @param limit The page size, or null for the default
+     * @return A page of unavailable bookings
+     * @throws IllegalArgumentException if the cursor or page size is invalid
      */
-    public List<Booking> getUnavailableBookings(Integer attendeeId) {
+    public KeysetPage<Booking> getUnavailableBookings(Integer attendeeId, String cursor, Integer limit) {
         getAttendeeById(attendeeId);
-        return attendeeRepository.findUnavailableBookings(attendeeId);
+        int size = KeysetPage.size(limit);
+        if (cursor == null) {
+            return KeysetPage.of(attendeeRepository.findUnavailableBookings(attendeeId, Limit.of(size + 1)), size,
+                    AttendeeService::cursorOf);
+        }
+        long[] after = KeysetPage.decode(cursor, 2);
+        return KeysetPage.of(attendeeRepository.findUnavailableBookingsAfter(attendeeId, new Date(after[0]),
+                (int) after[1], Limit.of(size + 1)), size, AttendeeService::cursorOf);
     }
 
     /**
-     * Get all bookings an attendee has registered for.
+     * Get a page of the bookings an attendee has registered for, in start time order.
      *
      * @param attendeeId attendee ID
-     * @return List of all bookings an attendee has registered for.
+     * @param cursor The cursor of the page to get, or null for the first page
+     * @param limit The page size, or null for the default
+     * @return A page of the bookings an attendee has registered for.
+     * @throws IllegalArgumentException if the cursor or page size is invalid
      */
-    public List<Booking> getRegisteredBookings(Integer attendeeId) {
+    public KeysetPage<Booking> getRegisteredBookings(Integer attendeeId, String cursor, Integer limit) {
         getAttendeeById(attendeeId);
-        return attendeeRepository.findRegisteredBookings(attendeeId);
+        int size = KeysetPage.size(limit);
+        if (cursor == null) {
+            return KeysetPage.of(attendeeRepository.findRegisteredBookings(attendeeId, Limit.of(size + 1)), size,
+                    AttendeeService::cursorOf);
+        }
+        long[] after = KeysetPage.decode(cursor, 2);
+        return KeysetPage.of(attendeeRepository.findRegisteredBookingsAfter(attendeeId, new Date(after[0]),
+                (int) after[1], Limit.of(size + 1)), size, AttendeeService::cursorOf);
+    }
+
+    /**
+     * Get a page of an attendee's registered, available or unavailable bookings, reading only the given fields.
+     *
+     * @param attendeeId The attendee ID
+     * @param bookings Which of the attendee's bookings to get
+     * @param cursor The cursor of the page to get, or null for the first page
+     * @param limit The page size, or null for the default
+     * @param fields The booking summary properties to read, separated by commas
+     * @return A page of the bookings in start time order, each holding the requested fields by property name
+     * @throws IllegalArgumentException if the cursor, page size or fields are invalid
+     */
+    public KeysetPage<Map<String, Object>> getBookingFields(Integer attendeeId,
+                                                            BookingFieldsRepository.AttendeeBookings bookings,
+                                                            String cursor, Integer limit, String fields) {
+        List<BookingField> requested = BookingField.parse(fields);
+        int size = KeysetPage.size(limit);
+        Date afterStartTime = null;
+        int afterId = 0;
+        if (cursor != null) {
+            long[] after = KeysetPage.decode(cursor, 2);
+            afterStartTime = new Date(after[0]);
+            afterId = (int) after[1];
+        }
+        getAttendeeById(attendeeId);
+        return KeysetPage.of(bookingRepository.findAttendeeBookingFields(requested, attendeeId, bookings,
+                        afterStartTime, afterId, Limit.of(size + 1)),
+                size, row -> KeysetPage.encode(row.startTime().getTime(), row.id()))
+                .map(BookingFieldsRepository.FieldRow::values);
+    }
+
+    // the attendee's booking lists are paged on (startTime, id), so that is the cursor
+    private static String cursorOf(Booking booking) {
+        return KeysetPage.encode(booking.getStartTime().getTime(), booking.getId());
+    }
+
+    /**
+     * Get every upcoming booking, tagged as available, full or registered for an attendee.
+     * This is the available, unavailable and registered bookings in a single query; the attendee
+     * is only looked up separately when there are no upcoming bookings to show.
+     *
+     * @param attendeeId The attendee ID
+     * @return List of upcoming bookings in start time order
+     * @throws UserNotFoundException if attendee is not found
+     */
+    public List<BookingOverviewDto> getBookingsOverview(Integer attendeeId) {
+        List<BookingOverviewDto> overview = attendeeRepository.findBookingOverview(attendeeId, new Date());
+        if (overview.isEmpty() && !attendeeRepository.existsById(attendeeId)) {
+            throw new UserNotFoundException(attendeeId);
+        }
+        return overview;
     }
 
     /**
      * Register an attendee for a booking.
+     * The seat is taken with a single conditional update of the booking's seat counter, so
+     * concurrent registrations can never overbook it, and the attendee list is never loaded.
      *
      * @param attendeeId The attendee ID
      * @param bookingId The booking ID
      * @return The updated booking
      * @throws UserNotFoundException if attendee is not found
      * @throws BookingNotFoundException if booking is not found
-     * @throws BookingFullException if booking is already at capacity
+     * @throws ResourceUnavailableException if booking is already at capacity
      */
 
     @Transactional
@@ -121,23 +253,146 @@ public class AttendeeService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException(bookingId));
 
-        if (attendee.getRegisteredBookings().contains(booking)) {
+        // taking the seat first locks the booking row, so the check below cannot race with
+        // the same attendee registering twice; throwing rolls the seat back
+        if (bookingRepository.claimSeat(bookingId) == 0) {
+            throw new ResourceUnavailableException("Booking is at full capacity");
+        }
+
+        if (bookingRepository.isRegistered(bookingId, attendeeId)) {
             throw new IllegalStateException("Attendee is already registered for this booking");
         }
 
-        if (booking.getAttendees().size() >= booking.getRoom().getCapacity()) {
-            throw new ResourceUnavailableException("Booking is at full capacity");
+        completeRegistration(attendee, booking);
+        return bookingRepository.save(booking);
+    }
+
+    /**
+     * Register an attendee for a booking, or put them on its waitlist if it is full.
+     * Waiting attendees are promoted in the order they joined as seats are given up.
+     *
+     * @param attendeeId The attendee ID
+     * @param bookingId The booking ID
+     * @return The attendee's place: registered, or their position in the queue
+     * @throws UserNotFoundException if attendee is not found
+     * @throws BookingNotFoundException if booking is not found
+     * @throws IllegalStateException if attendee is already registered for the booking
+     */
+    @Transactional
+    public WaitlistDto joinWaitlist(Integer attendeeId, long bookingId) {
+        Attendee attendee = getAttendeeById(attendeeId);
+
+        // the row lock keeps the counters still until the entry is written
+        Booking booking = bookingRepository.findByIdForUpdate((int) bookingId)
+                .orElseThrow(() -> new BookingNotFoundException(bookingId));
+
+        if (bookingRepository.isRegistered(bookingId, attendeeId)) {
+            throw new IllegalStateException("Attendee is already registered for this booking");
         }
 
-        attendee.getRegisteredBookings().add(booking);
-        booking.getAttendees().add(attendee);
+        Optional<WaitlistEntry> existing = waitlistRepository.findByBookingIdAndAttendeeId(booking.getId(), attendeeId);
+        if (existing.isPresent()) {
+            return position(existing.get(), booking);
+        }
 
+        if (bookingRepository.claimSeat(bookingId) == 1) {
+            completeRegistration(attendee, booking);
+            return new WaitlistDto(bookingId, attendeeId, true, 0);
+        }
+
+        WaitlistEntry entry = waitlistRepository.save(new WaitlistEntry(booking, attendee, booking.getWaitlistTail()));
+        bookingRepository.extendWaitlist(bookingId);
+        return position(entry, booking);
+    }
+
+    /**
+     * Get an attendee's position on a booking's waitlist.
+     * Reads the attendee's entry and the booking's head counter with one indexed lookup,
+     * however long the queue is.
+     *
+     * @param attendeeId The attendee ID
+     * @param bookingId The booking ID
+     * @return The attendee's position in the queue
+     * @throws IllegalStateException if the attendee is not on the booking's waitlist
+     */
+    public WaitlistDto getWaitlistPosition(Integer attendeeId, long bookingId) {
+        WaitlistEntry entry = waitlistRepository.findByBookingIdAndAttendeeId((int) bookingId, attendeeId)
+                .orElseThrow(() -> new IllegalStateException("Attendee is not on the waitlist for this booking"));
+        return position(entry, entry.getBooking());
+    }
+
+    private static WaitlistDto position(WaitlistEntry entry, Booking booking) {
+        return new WaitlistDto(booking.getId(), entry.getAttendee().getId(), false,
+                entry.getTicket() - booking.getWaitlistHead() + 1);
+    }
+
+    /**
+     * Takes an attendee off every waitlist, before the attendee is deleted.
+     * Run before their seats are given up, so that none of those seats is offered back to them.
+     *
+     * @param attendeeId The attendee ID
+     */
+    @Transactional
+    public void leaveWaitlists(Integer attendeeId) {
+        waitlistRepository.deleteByAttendeeId(attendeeId);
+    }
+
+    /**
+     * Records a registration whose seat has already been claimed, here or through a seat hold.
+     *
+     * @param attendee The attendee
+     * @param booking The booking
+     */
+    @Transactional
+    public void completeRegistration(Attendee attendee, Booking booking) {
+        attendee.getRegisteredBookings().add(booking);
+        bookingRepository.insertAttendee(booking.getId(), attendee.getId());
         attendeeRepository.save(attendee);
-        return bookingRepository.save(booking);
+        listVersions.bookingChanged(booking);
+    }
+
+    /**
+     * Gives a claimed seat back to a booking, here or from a lapsed seat hold, and offers it to
+     * the attendee at the head of the booking's waitlist.
+     *
+     * @param booking The booking
+     */
+    @Transactional
+    public void releaseSeat(Booking booking) {
+        if (bookingRepository.releaseSeat(booking.getId()) == 1) {
+            listVersions.bookingChanged(booking);
+            promoteFromWaitlist(booking);
+        }
+    }
+
+    /**
+     * Gives a freed seat on a booking to the attendee at the head of its waitlist.
+     * Must run after the seat was released, while the release still holds the booking's row lock.
+     *
+     * @param booking The booking
+     */
+    private void promoteFromWaitlist(Booking booking) {
+        Optional<WaitlistEntry> next = waitlistRepository.findFirstByBookingIdOrderByTicketAsc(booking.getId());
+        if (next.isEmpty() || bookingRepository.claimSeat(booking.getId()) == 0) {
+            return;
+        }
+        while (next.isPresent()) {
+            WaitlistEntry entry = next.get();
+            waitlistRepository.delete(entry);
+            bookingRepository.advanceWaitlist(booking.getId(), entry.getTicket() + 1);
+            if (!bookingRepository.isRegistered(booking.getId(), entry.getAttendee().getId())) {
+                completeRegistration(entry.getAttendee(), booking);
+                return;
+            }
+            next = waitlistRepository.findFirstByBookingIdOrderByTicketAsc(booking.getId());
+        }
+        // everyone waiting had a seat already
+        bookingRepository.releaseSeat(booking.getId());
     }
 
     /**
      * De-register an attendee from an existing registered event.
+     * The freed seat goes to the head of the booking's waitlist in the same transaction.
      *
      * @param attendeeId attendee ID
      * @param bookingId booking ID
@@ -150,20 +405,38 @@ public class AttendeeService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException(bookingId));
 
-        if (!attendee.getRegisteredBookings().contains(booking)) {
-            throw new IllegalStateException("Attendee is not registered for this booking");
-        }
-
 //        attendee.getRegisteredBookings().remove(booking);
 //        booking.getAttendees().remove(attendee);
+        // removing from the booking's list would load it and rewrite all of its rows on flush; deleting the
+        // row directly tells whether the attendee was registered, and only one of two racing calls deletes it
+        if (bookingRepository.deleteAttendee(bookingId, attendeeId) == 0) {
+            throw new IllegalStateException("Attendee is not registered for this booking");
+        }
         attendee.deRegisterFromBooking(booking);
-        booking.removeAttendee(attendee);
+        releaseSeat(booking);
 
         attendeeRepository.save(attendee);
         return bookingRepository.save(booking);
     }
 
 
+    /**
+     * De-register an attendee from every booking, before the attendee is deleted.
+     * Registrations are only held in the join table, which deleting the attendee leaves alone, so each
+     * one is deleted here and its seat given back to the head of the booking's waitlist, as in
+     * {@link #deregisterFromBooking}.
+     *
+     * @param attendeeId attendee ID
+     */
+    @Transactional
+    public void deregisterFromAllBookings(Integer attendeeId) {
+        for (Booking booking : bookingRepository.findByAttendeeId(attendeeId)) {
+            if (bookingRepository.deleteAttendee(booking.getId(), attendeeId) == 1) {
+                releaseSeat(booking);
+            }
+        }
+    }
+
     public Attendee getAttendeeById(Integer id) {
         Attendee attendee = attendeeRepository.findById(id)
             .orElseThrow(() -> new UserNotFoundException(id));
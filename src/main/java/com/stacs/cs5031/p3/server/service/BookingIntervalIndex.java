@@ -0,0 +1,182 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+
+/**
+ * In-memory index of booking intervals, kept per room.
+ * A room's schedule is loaded lazily the first time it is queried and is then kept in step
+ * with the database by {@link BookingServiceImpl}, so conflict checks no longer scan the
+ * room's entire booking history.
+ *
+ * <p>New intervals are added as soon as they are saved and withdrawn again if the transaction
+ * rolls back, while removals only take effect once the deleting transaction commits. The index
+ * can therefore over-report a conflict for a booking still in flight, but never miss one.</p>
+ */
+@Component
+public class BookingIntervalIndex {
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate loadTemplate;
+    private final ConcurrentMap<Long, RoomSchedule> schedules = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param bookingRepository  repository used to load room schedules
+     * @param transactionManager transaction manager used to load schedules from committed data only
+     */
+    @Autowired
+    public BookingIntervalIndex(BookingRepository bookingRepository, PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.loadTemplate = new TransactionTemplate(transactionManager);
+        this.loadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Checks whether a room has a booking overlapping the range [start, end).
+     *
+     * @param roomId the room ID
+     * @param start  inclusive start of the range, in epoch milliseconds
+     * @param end    exclusive end of the range, in epoch milliseconds
+     * @return true if there is an overlapping booking
+     */
+    public boolean hasConflict(Long roomId, long start, long end) {
+        return schedule(roomId).overlaps(start, end);
+    }
+
+    /**
+     * Checks whether a room's schedule is already held in memory.
+     *
+     * @param roomId the room ID
+     * @return true if the room's schedule is loaded
+     */
+    public boolean isLoaded(Long roomId) {
+        RoomSchedule schedule = schedules.get(roomId);
+        return schedule != null && schedule.isLoaded();
+    }
+
+    /**
+     * Records a saved booking in its room's schedule.
+     * If the room is not loaded yet, the booking is picked up by the later load instead.
+     *
+     * @param booking the saved booking
+     */
+    public void add(Booking booking) {
+        Long roomId = (long) booking.getRoom().getID();
+        RoomSchedule.Interval interval = RoomSchedule.Interval.of(booking);
+        RoomSchedule schedule = schedules.get(roomId);
+        if (schedule != null) {
+            RoomSchedule.Interval previous = schedule.put(interval);
+            onRollback(() -> {
+                if (previous != null) {
+                    schedule.put(previous);
+                } else {
+                    schedule.remove(interval.bookingId());
+                }
+            });
+        } else {
+            // a load started before this transaction commits will not see the booking
+            afterCommit(() -> {
+                RoomSchedule loading = schedules.get(roomId);
+                if (loading != null) {
+                    loading.put(interval);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes a booking from the index once the current transaction commits.
+     *
+     * @param bookingId the ID of the deleted booking
+     */
+    public void remove(int bookingId) {
+        afterCommit(() -> schedules.values().forEach(schedule -> schedule.remove(bookingId)));
+    }
+
+    /**
+     * Drops a room's schedule so that it is reloaded on next use.
+     *
+     * @param roomId the room ID
+     */
+    public void evict(Long roomId) {
+        schedules.remove(roomId);
+    }
+
+    /**
+     * Returns the schedule of a room, loading it first if necessary.
+     *
+     * @param roomId the room ID
+     * @return the loaded schedule
+     */
+    RoomSchedule schedule(Long roomId) {
+        RoomSchedule schedule = schedules.get(roomId);
+        if (schedule == null) {
+            RoomSchedule fresh = new RoomSchedule();
+            schedule = schedules.putIfAbsent(roomId, fresh);
+            if (schedule == null) {
+                load(roomId, fresh);
+                return fresh;
+            }
+        }
+        if (!schedule.awaitLoaded()) {
+            return schedule(roomId);
+        }
+        return schedule;
+    }
+
+    private void load(Long roomId, RoomSchedule schedule) {
+        try {
+            List<RoomSchedule.Interval> intervals = loadTemplate.execute(status ->
+                    bookingRepository.findByRoomId(roomId).stream()
+                            .map(RoomSchedule.Interval::of)
+                            .toList());
+            schedule.completeLoad(intervals);
+        } catch (RuntimeException e) {
+            schedules.remove(roomId, schedule);
+            schedule.failLoad();
+            throw e;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -2,10 +2,15 @@ package com.stacs.cs5031.p3.server.service;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.dto.AttendeeSummaryDto;
 import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.dto.BookingSummaryDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
+import com.stacs.cs5031.p3.server.exception.BookingNotFoundException;
 
 /**
  * Service interface for operations on Booking entities.
@@ -13,11 +18,14 @@ import com.stacs.cs5031.p3.server.dto.BookingDto;
 public interface BookingService {
 
     /**
-     * Gets all bookings in the system.
+     * Gets a page of the bookings in the system, in start time order.
      *
-     * @return List of all bookings
+     * @param cursor The cursor of the page to get, or null for the first page
+     * @param limit The page size, or null for the default
+     * @return The page of booking summaries
+     * @throws IllegalArgumentException if the cursor or page size is invalid
      */
-    List<Booking> getAllBookings();
+    KeysetPage<BookingSummaryDto> getBookings(String cursor, Integer limit);
 
     /**
      * Gets a booking by its ID.
@@ -27,6 +35,25 @@ public interface BookingService {
      */
     Optional<Booking> getBookingById(Long id);
 
+    /**
+     * Gets the full view of a booking, with its attendees and their booking IDs.
+     * Takes two statements however many attendees the booking has: the booking with its room,
+     * organiser and attendees, and the registrations of those attendees.
+     *
+     * @param id The booking ID
+     * @return Optional containing the booking DTO if found
+     */
+    Optional<BookingDto> getBookingDetails(Long id);
+
+    /**
+     * Gets the summary of a booking, with its seat count rather than its attendees.
+     * Takes one statement however many attendees the booking has.
+     *
+     * @param id The booking ID
+     * @return Optional containing the booking summary if found
+     */
+    Optional<BookingSummaryDto> getBookingSummary(Long id);
+
     /**
      * Saves a booking.
      *
@@ -48,7 +75,8 @@ public interface BookingService {
      * @param bookingId The booking ID
      * @param attendeeId The attendee ID
      * @return The updated booking
-     * @throws com.stacs.cs5031.p3.server.exception.EntityNotFoundException if booking or attendee not found
+     * @throws com.stacs.cs5031.p3.server.exception.BookingNotFoundException if booking not found
+     * @throws com.stacs.cs5031.p3.server.exception.UserNotFoundException if attendee not found
      * @throws com.stacs.cs5031.p3.server.exception.ResourceUnavailableException if the room is at capacity
      */
     Booking registerAttendee(Long bookingId, Long attendeeId);
@@ -59,7 +87,9 @@ public interface BookingService {
      * @param bookingId The booking ID
      * @param attendeeId The attendee ID
      * @return The updated booking
-     * @throws com.stacs.cs5031.p3.server.exception.EntityNotFoundException if booking or attendee not found
+     * @throws com.stacs.cs5031.p3.server.exception.BookingNotFoundException if booking not found
+     * @throws com.stacs.cs5031.p3.server.exception.UserNotFoundException if attendee not found
+     * @throws IllegalStateException if the attendee is not registered for the booking
      */
     Booking unregisterAttendee(Long bookingId, Long attendeeId);
 
@@ -72,12 +102,41 @@ public interface BookingService {
     List<Booking> getBookingsByRoom(Long roomId);
 
     /**
-     * Gets all bookings created by a specific organiser.
+     * Gets a page of the bookings created by a specific organiser, in start time order.
      *
      * @param organiserId The organiser ID
-     * @return List of bookings created by the organiser
+     * @param cursor The cursor of the page to get, or null for the first page
+     * @param limit The page size, or null for the default
+     * @return The page of summaries of the bookings created by the organiser
+     * @throws IllegalArgumentException if the cursor or page size is invalid
+     */
+    KeysetPage<BookingSummaryDto> getBookingsByOrganiser(Long organiserId, String cursor, Integer limit);
+
+    /**
+     * Gets a page of bookings, in start time order, reading and returning only the given fields.
+     * The pages and cursors are the same as those of {@link #getBookings(String, Integer)} and
+     * {@link #getBookingsByOrganiser(Long, String, Integer)}.
+     *
+     * @param organiserId The organiser whose bookings to get, or null for all bookings
+     * @param cursor The cursor of the page to get, or null for the first page
+     * @param limit The page size, or null for the default
+     * @param fields The {@link BookingSummaryDto} properties to read, separated by commas
+     * @return The page of bookings, each holding the requested fields by property name
+     * @throws IllegalArgumentException if the cursor, page size or fields are invalid
+     */
+    KeysetPage<Map<String, Object>> getBookingFields(Long organiserId, String cursor, Integer limit, String fields);
+
+    /**
+     * Gets a page of the attendees registered for a booking, in ID order.
+     *
+     * @param bookingId The booking ID
+     * @param cursor The cursor of the page to get, or null for the first page
+     * @param limit The page size, or null for the default
+     * @return The page of attendees
+     * @throws BookingNotFoundException if the booking is not found
+     * @throws IllegalArgumentException if the cursor or page size is invalid
      */
-    List<Booking> getBookingsByOrganiser(Long organiserId);
+    KeysetPage<AttendeeSummaryDto> getAttendees(Long bookingId, String cursor, Integer limit);
 
     /**
      * Gets all bookings an attendee is registered for.
@@ -107,4 +166,41 @@ public interface BookingService {
      * @throws com.stacs.cs5031.p3.server.exception.BookingConflictException if there's a booking conflict
      */
     Booking createBooking(BookingDto.BookingRequest bookingDTO, Long organiserId);
-}
\ No newline at end of file
+
+    /**
+     * Creates many bookings in one transaction.
+     * Items are checked against each other and against existing bookings, and where two items
+     * overlap the one starting first wins. In ALL_OR_NOTHING mode nothing is created unless every
+     * item fits; in PARTIAL mode the items that fit are created and the rest are rejected.
+     *
+     * @param bookingDTOs The booking requests
+     * @param organiserId The ID of the organiser creating the bookings
+     * @param mode Whether to create the fitting items when some are rejected
+     * @return One result per request, in request order
+     * @throws com.stacs.cs5031.p3.server.exception.EntityNotFoundException if the organiser is not found
+     */
+    List<BookingDto.BatchItemResult> createBookings(List<BookingDto.BookingRequest> bookingDTOs, Long organiserId,
+                                                    BookingDto.BatchMode mode);
+
+    /**
+     * Creates a recurring series of bookings.
+     * The rule is expanded into occurrences, which are checked against the room's bookings in one sweep.
+     * The series is created only if every occurrence fits; otherwise the conflicting occurrences are returned.
+     *
+     * @param seriesDTO The series data
+     * @param organiserId The ID of the organiser creating the series
+     * @return The outcome, listing any conflicting occurrences
+     * @throws com.stacs.cs5031.p3.server.exception.EntityNotFoundException if room or organiser not found
+     * @throws IllegalArgumentException if the recurrence rule is invalid
+     */
+    BookingDto.SeriesResult createSeries(BookingDto.SeriesRequest seriesDTO, Long organiserId);
+
+    /**
+     * Checks many recurring series against stored bookings without creating anything.
+     * Each series is validated independently, and the series are validated in parallel.
+     *
+     * @param seriesDTOs The series to check
+     * @return One result per series, in request order
+     */
+    List<BookingDto.SeriesResult> validateSeries(List<BookingDto.SeriesRequest> seriesDTOs);
+}
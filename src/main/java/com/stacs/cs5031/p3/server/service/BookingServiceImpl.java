@@ -1,22 +1,36 @@
 package com.stacs.cs5031.p3.server.service;
 
-import java.util.Calendar;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.stacs.cs5031.p3.server.dto.AttendeeSummaryDto;
 import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.dto.BookingField;
+import com.stacs.cs5031.p3.server.dto.BookingSummaryDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
+import com.stacs.cs5031.p3.server.exception.BookingNotFoundException;
 import com.stacs.cs5031.p3.server.exception.EntityNotFoundException;
 import com.stacs.cs5031.p3.server.exception.ResourceUnavailableException;
+import com.stacs.cs5031.p3.server.mapper.BookingDtoMapper;
+import com.stacs.cs5031.p3.server.metrics.RoomLockMetrics;
 import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.model.BookingSeries;
 import com.stacs.cs5031.p3.server.model.Organiser;
 import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.BookingFieldsRepository;
 import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.BookingSeriesRepository;
 import com.stacs.cs5031.p3.server.repository.OrganiserRepository;
 import com.stacs.cs5031.p3.server.repository.RoomRepository;
 
@@ -27,21 +41,43 @@ public class BookingServiceImpl implements BookingService {
     private final RoomRepository roomRepository;
     private final OrganiserRepository organiserRepository;
     private final AttendeeService attendeeService;
+    private final BookingIntervalIndex bookingIndex;
+    private final RoomLockMetrics lockMetrics;
+    private final BookingSeriesRepository seriesRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final ListVersions listVersions;
 
     @Autowired
     public BookingServiceImpl(BookingRepository bookingRepository,
                               RoomRepository roomRepository,
                               OrganiserRepository organiserRepository,
-                              AttendeeService attendeeService) {
+                              AttendeeService attendeeService,
+                              BookingIntervalIndex bookingIndex,
+                              RoomLockMetrics lockMetrics,
+                              BookingSeriesRepository seriesRepository,
+                              RoomAvailabilityIndex availabilityIndex,
+                              ListVersions listVersions) {
         this.bookingRepository = bookingRepository;
         this.roomRepository = roomRepository;
         this.organiserRepository = organiserRepository;
         this.attendeeService = attendeeService;
+        this.bookingIndex = bookingIndex;
+        this.lockMetrics = lockMetrics;
+        this.seriesRepository = seriesRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.listVersions = listVersions;
     }
 
     @Override
-    public List<Booking> getAllBookings() {
-        return bookingRepository.findAll();
+    public KeysetPage<BookingSummaryDto> getBookings(String cursor, Integer limit) {
+        int size = KeysetPage.size(limit);
+        if (cursor == null) {
+            return KeysetPage.of(bookingRepository.findFirstPage(Limit.of(size + 1)), size,
+                    BookingServiceImpl::cursorOf).map(BookingDtoMapper::mapToSummary);
+        }
+        long[] after = KeysetPage.decode(cursor, 2);
+        return KeysetPage.of(bookingRepository.findPageAfter(new Date(after[0]), (int) after[1],
+                Limit.of(size + 1)), size, BookingServiceImpl::cursorOf).map(BookingDtoMapper::mapToSummary);
     }
 
     @Override
@@ -49,52 +85,58 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository.findById(id);
     }
 
+    @Override
+    public Optional<BookingDto> getBookingDetails(Long id) {
+        return bookingRepository.findDetailById(id).map(booking -> {
+            List<Integer> attendeeIds = booking.getAttendees().stream().map(Attendee::getId).toList();
+            return BookingDtoMapper.mapToDTO(booking,
+                    attendeeIds.isEmpty() ? List.of() : bookingRepository.findRegistrations(attendeeIds));
+        });
+    }
+
+    @Override
+    public Optional<BookingSummaryDto> getBookingSummary(Long id) {
+        return bookingRepository.findRowById(id).map(BookingDtoMapper::mapToSummary);
+    }
+
     @Override
     public Booking saveBooking(Booking booking) {
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        recordSaved(saved);
+        return saved;
     }
 
     @Override
     public void deleteBooking(Long id) {
+        bookingRepository.findById(id).ifPresent(booking -> {
+            availabilityIndex.remove(booking);
+            listVersions.bookingChanged(booking);
+        });
         bookingRepository.deleteById(id);
+        bookingIndex.remove(id.intValue());
+    }
+
+    /**
+     * Records a saved booking in the in-memory schedule and availability indexes, and in the
+     * versions of the booking lists.
+     *
+     * @param booking The saved booking
+     */
+    private void recordSaved(Booking booking) {
+        bookingIndex.add(booking);
+        availabilityIndex.add(booking);
+        listVersions.bookingChanged(booking);
     }
 
     @Override
-    @Transactional
     public Booking registerAttendee(Long bookingId, Long attendeeId) {
-        Booking booking = bookingRepository.findById(bookingId)
-            .orElseThrow(() -> new EntityNotFoundException("Booking not found"));
-
-        // Convert Long attendeeId to Integer
-        Attendee attendee = attendeeService.getAttendeeById(attendeeId.intValue());
-        if (attendee == null) {
-            throw new EntityNotFoundException("Attendee not found with ID: " + attendeeId);
-        }
-    
-
-        if (booking.getAttendees().size() >= booking.getRoom().getCapacity()) {
-            throw new ResourceUnavailableException("Room is at full capacity");
-        }
-
-        booking.getAttendees().add(attendee);
-        return bookingRepository.save(booking);
+        // AttendeeService keeps the seat counter and both sides of the registration in step
+        return attendeeService.registerForBooking(attendeeId.intValue(), bookingId);
     }
 
     @Override
-    @Transactional
     public Booking unregisterAttendee(Long bookingId, Long attendeeId) {
-        Booking booking = bookingRepository.findById(bookingId)
-            .orElseThrow(() -> new EntityNotFoundException("Booking not found"));
-
-        // Convert Long attendeeId to Integer
-        Attendee attendee = attendeeService.getAttendeeById(attendeeId.intValue());
-       if (attendee == null) {
-           throw new EntityNotFoundException("Attendee not found with ID: " + attendeeId);
-       }
-   
-
-        booking.getAttendees().remove(attendee);
-        return bookingRepository.save(booking);
+        return attendeeService.deregisterFromBooking(attendeeId.intValue(), bookingId);
     }
 
     @Override
@@ -103,8 +145,52 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<Booking> getBookingsByOrganiser(Long organiserId) {
-        return bookingRepository.findByOrganiserId(organiserId);
+    public KeysetPage<BookingSummaryDto> getBookingsByOrganiser(Long organiserId, String cursor, Integer limit) {
+        int size = KeysetPage.size(limit);
+        if (cursor == null) {
+            return KeysetPage.of(bookingRepository.findFirstPageByOrganiser(organiserId.intValue(),
+                    Limit.of(size + 1)), size, BookingServiceImpl::cursorOf).map(BookingDtoMapper::mapToSummary);
+        }
+        long[] after = KeysetPage.decode(cursor, 2);
+        return KeysetPage.of(bookingRepository.findPageByOrganiserAfter(organiserId.intValue(),
+                new Date(after[0]), (int) after[1], Limit.of(size + 1)), size, BookingServiceImpl::cursorOf)
+                .map(BookingDtoMapper::mapToSummary);
+    }
+
+    @Override
+    public KeysetPage<Map<String, Object>> getBookingFields(Long organiserId, String cursor, Integer limit,
+                                                            String fields) {
+        List<BookingField> requested = BookingField.parse(fields);
+        int size = KeysetPage.size(limit);
+        Date afterStartTime = null;
+        int afterId = 0;
+        if (cursor != null) {
+            long[] after = KeysetPage.decode(cursor, 2);
+            afterStartTime = new Date(after[0]);
+            afterId = (int) after[1];
+        }
+        return KeysetPage.of(bookingRepository.findFieldsPage(requested,
+                        organiserId == null ? null : organiserId.intValue(), afterStartTime, afterId, Limit.of(size + 1)),
+                size, row -> KeysetPage.encode(row.startTime().getTime(), row.id()))
+                .map(BookingFieldsRepository.FieldRow::values);
+    }
+
+    // bookings are paged on (startTime, id), so that is the cursor
+    private static String cursorOf(BookingRepository.BookingRow row) {
+        return KeysetPage.encode(row.getStartTime().getTime(), row.getId());
+    }
+
+    @Override
+    public KeysetPage<AttendeeSummaryDto> getAttendees(Long bookingId, String cursor, Integer limit) {
+        int size = KeysetPage.size(limit);
+        int afterId = cursor == null ? 0 : (int) KeysetPage.decode(cursor, 1)[0];
+        List<AttendeeSummaryDto> attendees = bookingRepository.findAttendeePage(bookingId.intValue(), afterId,
+                Limit.of(size + 1));
+        // an empty page is also what a missing booking gives, so only then is the booking looked up
+        if (attendees.isEmpty() && !bookingRepository.existsById(bookingId)) {
+            throw new BookingNotFoundException(bookingId);
+        }
+        return KeysetPage.of(attendees, size, attendee -> KeysetPage.encode(attendee.getId()));
     }
 
     @Override
@@ -115,37 +201,22 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public boolean hasConflict(Long roomId, Date startTime, long duration) {
-        List<Booking> roomBookings = bookingRepository.findByRoomId(roomId);
-
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(startTime);
-        Date endTime = new Date(calendar.getTimeInMillis() + duration * 60000);
-
-        for (Booking booking : roomBookings) {
-            Date existingStart = booking.getStartTime();
-            Calendar cal = Calendar.getInstance();
-            cal.setTime(existingStart);
-            Date existingEnd = new Date((cal.getTimeInMillis() + booking.getDuration() * 60000) -60000);
-
-            
-            boolean isNotOverlapping =
-            endTime.before(existingStart) ||
-            startTime.after(existingEnd) ;
-
-            if (!isNotOverlapping) {
-                return true;
-            }
+        long start = startTime.getTime();
+        long end = start + duration * 60000;
+        try {
+            // loads the room's schedule on its first check
+            return bookingIndex.hasConflict(roomId, start, end);
+        } catch (RuntimeException e) {
+            // the schedule could not be loaded: ask the database, and load it again next time
+            return bookingRepository.existsConflictingBooking(roomId, startTime, new Date(end));
         }
-
-        return false;
     }
 
     @Override
     @Transactional
     public Booking createBooking(BookingDto.BookingRequest bookingDTO, Long organiserId) {
-        // 1. Get room
-        Room room = roomRepository.findById(bookingDTO.getRoomId().intValue())
-                .orElseThrow(() -> new EntityNotFoundException("Room not found with ID: " + bookingDTO.getRoomId()));
+        // 1. Get room, locking it so no other booking for it can pass the conflict check until we commit
+        Room room = lockRoom(bookingDTO.getRoomId().intValue());
 
         // 2. Get organiser
         Organiser organiser = organiserRepository.findById(organiserId.intValue())
@@ -165,8 +236,279 @@ public class BookingServiceImpl implements BookingService {
                 organiser
         );
 
-        // 5. Save and return booking
-        return bookingRepository.save(booking);
+        // 5. Save booking and record it in the room's schedule
+        Booking saved = bookingRepository.save(booking);
+        recordSaved(saved);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDto.BatchItemResult> createBookings(List<BookingDto.BookingRequest> bookingDTOs,
+                                                           Long organiserId, BookingDto.BatchMode mode) {
+        Organiser organiser = organiserRepository.findById(organiserId.intValue())
+                .orElseThrow(() -> new EntityNotFoundException("Organiser not found with ID: " + organiserId));
+
+        // 1. Reject malformed items and group the rest by room; the TreeMap fixes the lock order
+        BookingDto.BatchItemResult[] results = new BookingDto.BatchItemResult[bookingDTOs.size()];
+        Map<Long, List<BatchItem>> itemsByRoom = new TreeMap<>();
+        for (int i = 0; i < bookingDTOs.size(); i++) {
+            BookingDto.BookingRequest request = bookingDTOs.get(i);
+            String invalid = validate(request);
+            if (invalid != null) {
+                results[i] = new BookingDto.BatchItemResult(i, false, null, invalid);
+            } else {
+                itemsByRoom.computeIfAbsent(request.getRoomId(), roomId -> new ArrayList<>())
+                        .add(BatchItem.of(i, request));
+            }
+        }
+
+        // 2. Lock each room and sweep its items against each other and the existing bookings
+        List<BatchItem> accepted = new ArrayList<>();
+        boolean anyRejected = hasRejection(results);
+        for (Map.Entry<Long, List<BatchItem>> entry : itemsByRoom.entrySet()) {
+            Room room;
+            try {
+                room = lockRoom(entry.getKey().intValue());
+            } catch (EntityNotFoundException e) {
+                for (BatchItem item : entry.getValue()) {
+                    results[item.index()] = new BookingDto.BatchItemResult(item.index(), false, null, e.getMessage());
+                }
+                anyRejected = true;
+                continue;
+            }
+            anyRejected |= sweep(room, entry.getValue(), results, accepted);
+        }
+
+        // 3. Insert the accepted items together, unless the batch must be all or nothing
+        if (anyRejected && mode == BookingDto.BatchMode.ALL_OR_NOTHING) {
+            for (BatchItem item : accepted) {
+                results[item.index()] = new BookingDto.BatchItemResult(item.index(), false, null,
+                        "Not created because other items in the batch were rejected");
+            }
+            return List.of(results);
+        }
+        List<Booking> bookings = new ArrayList<>(accepted.size());
+        for (BatchItem item : accepted) {
+            BookingDto.BookingRequest request = item.request();
+            bookings.add(new Booking(request.getEventName(), item.room(), request.getStartTime(),
+                    request.getDuration(), organiser));
+        }
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            recordSaved(booking);
+            int index = accepted.get(i).index();
+            results[index] = new BookingDto.BatchItemResult(index, true, (long) booking.getId(), "Booking created");
+        }
+        return List.of(results);
+    }
+
+    /**
+     * One valid item of a batch booking request, with its time range in epoch milliseconds.
+     *
+     * @param index   position of the item in the request
+     * @param request the booking request
+     * @param start   inclusive start of the booking
+     * @param end     exclusive end of the booking
+     * @param room    the locked room, set once the item is accepted
+     */
+    private record BatchItem(int index, BookingDto.BookingRequest request, long start, long end, Room room) {
+
+        static BatchItem of(int index, BookingDto.BookingRequest request) {
+            long start = request.getStartTime().getTime();
+            return new BatchItem(index, request, start, start + request.getDuration() * 60_000L, null);
+        }
+
+        BatchItem in(Room room) {
+            return new BatchItem(index, request, start, end, room);
+        }
+    }
+
+    /**
+     * Checks that a batch item has everything needed to create a booking.
+     *
+     * @param request The booking request
+     * @return The reason the item is invalid, or null if it is valid
+     */
+    private static String validate(BookingDto.BookingRequest request) {
+        if (request == null) {
+            return "Booking request is empty";
+        }
+        if (request.getRoomId() == null) {
+            return "Room ID is required";
+        }
+        if (request.getStartTime() == null) {
+            return "Start time is required";
+        }
+        if (request.getDuration() <= 0) {
+            return "Duration must be positive";
+        }
+        return null;
+    }
+
+    private static boolean hasRejection(BookingDto.BatchItemResult[] results) {
+        for (BookingDto.BatchItemResult result : results) {
+            if (result != null && !result.isCreated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sweeps one room's batch items against each other and the room's existing bookings,
+     * fetched with a single query over the span the items cover.
+     * Accepted items are appended to {@code accepted}.
+     *
+     * @param room     The locked room
+     * @param items    The room's batch items
+     * @param results  The per-item results, filled in for rejected items
+     * @param accepted The accepted items of the whole batch
+     * @return true if any item was rejected
+     */
+    private boolean sweep(Room room, List<BatchItem> items, BookingDto.BatchItemResult[] results,
+                          List<BatchItem> accepted) {
+        List<RoomSchedule.Interval> candidates = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            candidates.add(new RoomSchedule.Interval(i, items.get(i).start(), items.get(i).end()));
+        }
+        String[] reasons = ConflictSweep.sweep(candidates, existingBookings(room, candidates),
+                i -> "item " + items.get(i).index() + " of the batch");
+
+        boolean anyRejected = false;
+        for (int i = 0; i < items.size(); i++) {
+            BatchItem item = items.get(i);
+            if (reasons[i] != null) {
+                results[item.index()] = new BookingDto.BatchItemResult(item.index(), false, null, reasons[i]);
+                anyRejected = true;
+            } else {
+                accepted.add(item.in(room));
+            }
+        }
+        return anyRejected;
+    }
+
+    /**
+     * Fetches a room's bookings overlapping the span covered by some candidate intervals.
+     *
+     * @param room       The room
+     * @param candidates The candidate intervals, at least one
+     * @return The overlapping bookings
+     */
+    private List<Booking> existingBookings(Room room, List<RoomSchedule.Interval> candidates) {
+        long[] span = ConflictSweep.span(candidates);
+        return bookingRepository.findConflictingBookings((long) room.getID(), new Date(span[0]), new Date(span[1]));
+    }
+
+    @Override
+    @Transactional
+    public BookingDto.SeriesResult createSeries(BookingDto.SeriesRequest seriesDTO, Long organiserId) {
+        Organiser organiser = organiserRepository.findById(organiserId.intValue())
+                .orElseThrow(() -> new EntityNotFoundException("Organiser not found with ID: " + organiserId));
+        if (seriesDTO.getRoomId() == null) {
+            throw new IllegalArgumentException("Room ID is required");
+        }
+        Room room = lockRoom(seriesDTO.getRoomId().intValue());
+
+        BookingSeries series = toSeries(seriesDTO, room, organiser);
+        List<Date> starts = series.occurrenceStarts();
+        List<BookingDto.BatchItemResult> conflicts = findSeriesConflicts(series, starts);
+        if (!conflicts.isEmpty()) {
+            return new BookingDto.SeriesResult(null, false, starts.size(), conflicts,
+                    conflicts.size() + " of " + starts.size() + " occurrences conflict with other bookings");
+        }
+
+        BookingSeries saved = seriesRepository.save(series);
+        List<Booking> occurrences = new ArrayList<>(starts.size());
+        for (Date start : starts) {
+            Booking booking = new Booking(saved.getEventName(), room, start, saved.getDuration(), organiser);
+            booking.setSeries(saved);
+            occurrences.add(booking);
+        }
+        bookingRepository.saveAll(occurrences).forEach(this::recordSaved);
+        return new BookingDto.SeriesResult((long) saved.getId(), true, starts.size(), List.of(), "Series created");
+    }
+
+    @Override
+    public List<BookingDto.SeriesResult> validateSeries(List<BookingDto.SeriesRequest> seriesDTOs) {
+        // each series reads its own room's bookings, so they can be checked independently
+        return seriesDTOs.parallelStream().map(this::validateSeries).toList();
+    }
+
+    private BookingDto.SeriesResult validateSeries(BookingDto.SeriesRequest seriesDTO) {
+        try {
+            if (seriesDTO.getRoomId() == null) {
+                throw new IllegalArgumentException("Room ID is required");
+            }
+            Room room = roomRepository.findById(seriesDTO.getRoomId().intValue())
+                    .orElseThrow(() -> new EntityNotFoundException("Room not found with ID: " + seriesDTO.getRoomId()));
+            BookingSeries series = toSeries(seriesDTO, room, null);
+            List<Date> starts = series.occurrenceStarts();
+            List<BookingDto.BatchItemResult> conflicts = findSeriesConflicts(series, starts);
+            String message = conflicts.isEmpty() ? "Series fits"
+                    : conflicts.size() + " of " + starts.size() + " occurrences conflict with other bookings";
+            return new BookingDto.SeriesResult(null, false, starts.size(), conflicts, message);
+        } catch (RuntimeException e) {
+            return new BookingDto.SeriesResult(null, false, 0, List.of(), e.getMessage());
+        }
+    }
+
+    private static BookingSeries toSeries(BookingDto.SeriesRequest seriesDTO, Room room, Organiser organiser) {
+        return new BookingSeries(seriesDTO.getEventName(), room, seriesDTO.getStartTime(), seriesDTO.getDuration(),
+                seriesDTO.getFrequency(), seriesDTO.getIntervalDays(), seriesDTO.getUntil(), seriesDTO.getCount(),
+                organiser);
+    }
+
+    /**
+     * Checks every occurrence of a series against each other and the room's bookings in one sweep.
+     *
+     * @param series The series
+     * @param starts The start times of its occurrences
+     * @return One result per conflicting occurrence, indexed by occurrence number
+     */
+    private List<BookingDto.BatchItemResult> findSeriesConflicts(BookingSeries series, List<Date> starts) {
+        if (starts.isEmpty()) {
+            return List.of();
+        }
+        long length = series.getDuration() * 60_000L;
+        List<RoomSchedule.Interval> candidates = new ArrayList<>(starts.size());
+        for (int i = 0; i < starts.size(); i++) {
+            long start = starts.get(i).getTime();
+            candidates.add(new RoomSchedule.Interval(i, start, start + length));
+        }
+        String[] reasons = ConflictSweep.sweep(candidates, existingBookings(series.getRoom(), candidates),
+                i -> "occurrence " + i + " of the series");
+
+        List<BookingDto.BatchItemResult> conflicts = new ArrayList<>();
+        for (int i = 0; i < reasons.length; i++) {
+            if (reasons[i] != null) {
+                conflicts.add(new BookingDto.BatchItemResult(i, false, null, starts.get(i) + ": " + reasons[i]));
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Loads a room and takes its row lock for the rest of the current transaction,
+     * recording how long the lock took to acquire.
+     *
+     * @param roomId The room ID
+     * @return The locked room
+     * @throws EntityNotFoundException if the room does not exist
+     * @throws ResourceUnavailableException if the lock could not be acquired in time
+     */
+    private Room lockRoom(int roomId) {
+        long waitStart = System.nanoTime();
+        try {
+            Room room = roomRepository.findByIdForUpdate(roomId)
+                    .orElseThrow(() -> new EntityNotFoundException("Room not found with ID: " + roomId));
+            lockMetrics.recordAcquired(System.nanoTime() - waitStart);
+            return room;
+        } catch (PessimisticLockingFailureException e) {
+            lockMetrics.recordTimeout(System.nanoTime() - waitStart);
+            throw new ResourceUnavailableException("Room " + roomId + " is busy, please try again", e);
+        }
     }
 
 //     @Transactional
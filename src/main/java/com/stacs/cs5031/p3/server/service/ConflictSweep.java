@@ -0,0 +1,77 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import com.stacs.cs5031.p3.server.model.Booking;
+
+/**
+ * Checks many candidate bookings for one room in a single pass.
+ * Candidates and existing bookings are both walked in start order while tracking the furthest end
+ * time reached so far, so n candidates against m bookings cost O((n + m) log(n + m)) rather than
+ * one conflict query per candidate. Where two candidates overlap, the one starting first is accepted.
+ */
+final class ConflictSweep {
+
+    private ConflictSweep() {
+    }
+
+    /**
+     * Sweeps candidate intervals against each other and against a room's existing bookings.
+     * The {@code bookingId} of each candidate must be its position in {@code candidates}.
+     *
+     * @param candidates the candidate intervals, numbered 0 to n - 1
+     * @param existing   the room's bookings overlapping the span of the candidates
+     * @param describe   describes a candidate for use in the reason another candidate was rejected
+     * @return the rejection reason for each candidate, indexed by its number, or null where it was accepted
+     */
+    static String[] sweep(List<RoomSchedule.Interval> candidates, List<Booking> existing, IntFunction<String> describe) {
+        List<RoomSchedule.Interval> byStart = new ArrayList<>(candidates);
+        byStart.sort(Comparator.comparingLong(RoomSchedule.Interval::start)
+                .thenComparingInt(RoomSchedule.Interval::bookingId));
+        List<Booking> bookings = new ArrayList<>(existing);
+        bookings.sort(Comparator.comparingLong(Booking::getStartMillis));
+
+        String[] reasons = new String[candidates.size()];
+        int next = 0;
+        long reach = Long.MIN_VALUE;
+        String blocker = null;
+        for (RoomSchedule.Interval candidate : byStart) {
+            // fold in every booking that starts no later than the candidate
+            while (next < bookings.size() && bookings.get(next).getStartMillis() <= candidate.start()) {
+                Booking booking = bookings.get(next++);
+                if (booking.getEndMillis() > reach) {
+                    reach = booking.getEndMillis();
+                    blocker = "Conflicts with existing booking " + booking.getId();
+                }
+            }
+            if (reach > candidate.start()) {
+                reasons[candidate.bookingId()] = blocker;
+            } else if (next < bookings.size() && bookings.get(next).getStartMillis() < candidate.end()) {
+                reasons[candidate.bookingId()] = "Conflicts with existing booking " + bookings.get(next).getId();
+            } else {
+                reach = candidate.end();
+                blocker = "Overlaps " + describe.apply(candidate.bookingId());
+            }
+        }
+        return reasons;
+    }
+
+    /**
+     * Returns the span covered by a list of intervals.
+     *
+     * @param intervals the intervals, at least one
+     * @return a two-element array holding the earliest start and the latest end
+     */
+    static long[] span(List<RoomSchedule.Interval> intervals) {
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        for (RoomSchedule.Interval interval : intervals) {
+            from = Math.min(from, interval.start());
+            to = Math.max(to, interval.end());
+        }
+        return new long[] {from, to};
+    }
+}
@@ -0,0 +1,216 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.stacs.cs5031.p3.server.dto.UserDto;
+import com.stacs.cs5031.p3.server.mapper.UserDtoMapper;
+import com.stacs.cs5031.p3.server.metrics.MetricsSource;
+import com.stacs.cs5031.p3.server.model.User;
+import com.stacs.cs5031.p3.server.repository.UserRepository;
+
+/**
+ * Bounded read-through cache of the credentials checked at login, keyed by username.
+ * Looking a user up by username is a polymorphic query that joins every user table, so logins
+ * read the username's credentials from here and only go to the database on a miss. Usernames
+ * that do not exist are cached too, so repeated attempts with an unknown name are also answered
+ * without a query.
+ *
+ * <p>Entries expire {@link #TTL_MILLIS} after they were loaded, and once {@link #MAX_ENTRIES} is
+ * reached the least recently used entry is dropped. Anything that adds or removes a user, or
+ * changes a username or password, must invalidate the affected entry. A load that overlaps an
+ * invalidation is returned to its caller but not cached.</p>
+ */
+@Component
+public class CredentialCache implements MetricsSource {
+
+    /** Most usernames cached at once */
+    public static final int MAX_ENTRIES = 10_000;
+
+    /** How long a username's credentials are cached after being loaded */
+    public static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final UserRepository userRepository;
+    private final LongSupplier clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() <= MAX_ENTRIES) {
+                return false;
+            }
+            evicted.increment();
+            return true;
+        }
+    };
+
+    // bumped by every invalidation, under the lock, so that a load can tell if it raced with one
+    private long generation;
+
+    /**
+     * Constructor.
+     *
+     * @param userRepository Repository the credentials are loaded from
+     */
+    @Autowired
+    public CredentialCache(UserRepository userRepository) {
+        this(userRepository, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor with an explicit clock, for tests.
+     *
+     * @param userRepository Repository the credentials are loaded from
+     * @param clock          source of the current time, in epoch milliseconds
+     */
+    CredentialCache(UserRepository userRepository, LongSupplier clock) {
+        this.userRepository = userRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Finds the credentials of the user with a username, from the cache if they are there.
+     *
+     * @param username The username
+     * @return The user's credentials, or empty if no user has the username
+     */
+    public Optional<Credentials> find(String username) {
+        long now = clock.getAsLong();
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(username);
+            if (entry != null && entry.expiresAt > now) {
+                hits.increment();
+                return Optional.ofNullable(entry.credentials);
+            }
+            if (entry != null) {
+                entries.remove(username);
+                expired.increment();
+            }
+            loadGeneration = generation;
+        }
+
+        misses.increment();
+        Credentials credentials = userRepository.findByUsername(username).map(Credentials::new).orElse(null);
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(username, new Entry(credentials, now + TTL_MILLIS));
+            }
+        }
+        return Optional.ofNullable(credentials);
+    }
+
+    /**
+     * Drops a username's entry, after a user has registered with it or its password has changed.
+     *
+     * @param username The username
+     */
+    public synchronized void invalidate(String username) {
+        generation++;
+        invalidations.increment();
+        entries.remove(username);
+    }
+
+    /**
+     * Drops the entry of a user, after the user has been deleted.
+     *
+     * @param userId The user's ID
+     */
+    public synchronized void invalidate(Integer userId) {
+        generation++;
+        invalidations.increment();
+        entries.values().removeIf(entry -> entry.credentials != null
+                && userId.equals(entry.credentials.getUser().getId()));
+    }
+
+    /**
+     * Returns the number of usernames currently cached.
+     *
+     * @return the entry count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "credentials";
+    }
+
+    @Override
+    public Map<String, Number> snapshot() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("entries", size());
+        values.put("hits", hitCount);
+        values.put("misses", missCount);
+        values.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        values.put("expired", expired.sum());
+        values.put("evicted", evicted.sum());
+        values.put("invalidations", invalidations.sum());
+        return values;
+    }
+
+    /**
+     * What a login needs to know about a user: the password to check, and the user to return.
+     * Holds a copy of the user's details rather than the entity, so nothing outside the cache
+     * can change a cached entry.
+     */
+    public static final class Credentials {
+        private final UserDto user;
+        private final String password;
+
+        /**
+         * Constructor.
+         *
+         * @param user The user whose credentials these are
+         */
+        public Credentials(User user) {
+            this.user = UserDtoMapper.mapToDTO(user);
+            this.password = user.getPassword();
+        }
+
+        /**
+         * Returns the details of the user, as returned on a successful login.
+         *
+         * @return the user
+         */
+        public UserDto getUser() {
+            return user;
+        }
+
+        /**
+         * Checks a password against the user's.
+         *
+         * @param password The password given at login
+         * @return whether it is the user's password
+         */
+        public boolean matches(String password) {
+            return this.password.equals(password);
+        }
+    }
+
+    private static final class Entry {
+        // null when no user has the username
+        final Credentials credentials;
+        final long expiresAt;
+
+        Entry(Credentials credentials, long expiresAt) {
+            this.credentials = credentials;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
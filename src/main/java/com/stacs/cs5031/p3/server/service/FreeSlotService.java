@@ -0,0 +1,182 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stacs.cs5031.p3.server.dto.FreeSlotDto;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.RoomRepository;
+
+/**
+ * Service class that finds free windows across all rooms.
+ * Reads the qualifying rooms and every booking span of theirs in the requested range with two
+ * queries, then sweeps forward in time over every room at once, so the earliest windows are found
+ * without a query per room. The spans are all read before the sweep starts, so the range is
+ * limited to {@value #MAX_QUERY_DAYS} days to bound how many are loaded.
+ */
+@Service
+public class FreeSlotService {
+
+    /** Largest number of windows returned by one search */
+    public static final int MAX_LIMIT = 100;
+
+    /** Longest range a single search may span, in days */
+    public static final int MAX_QUERY_DAYS = RoomAvailabilityIndex.MAX_QUERY_DAYS;
+
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Constructs a new FreeSlotService with the necessary repository dependencies.
+     *
+     * @param roomRepository    Repository for room data access
+     * @param bookingRepository Repository for booking data access
+     */
+    @Autowired
+    public FreeSlotService(RoomRepository roomRepository, BookingRepository bookingRepository) {
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Finds the earliest free windows of at least the given duration in rooms of at least the given capacity.
+     *
+     * @param minCapacity The minimum room capacity
+     * @param duration    The minimum window length in minutes
+     * @param from        The start of the search range
+     * @param to          The end of the search range
+     * @param limit       The maximum number of windows to return
+     * @return The free windows, ordered by start time and then room ID
+     * @throws IllegalArgumentException if the duration, range or limit is invalid, or the range is
+     *                                  longer than {@link #MAX_QUERY_DAYS} days
+     */
+    @Transactional(readOnly = true)
+    public List<FreeSlotDto> findFreeSlots(int minCapacity, int duration, Date from, Date to, int limit)
+            throws IllegalArgumentException {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        if (from == null || to == null || !from.before(to)) {
+            throw new IllegalArgumentException("Search range must end after it starts");
+        }
+        if (to.getTime() - from.getTime() > TimeUnit.DAYS.toMillis(MAX_QUERY_DAYS)) {
+            throw new IllegalArgumentException("Search range must not be longer than " + MAX_QUERY_DAYS + " days");
+        }
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<Room> rooms = roomRepository.findByCapacityGreaterThanEqualOrderByIdAsc(minCapacity);
+        List<BookingRepository.TimeSpan> spans = bookingRepository.findTimeSpans(minCapacity, from, to);
+        return earliestFreeSlots(rooms, spans, from.getTime(), to.getTime(), duration * 60_000L, limit);
+    }
+
+    /**
+     * Sweeps the rooms' booking spans in time order and collects the earliest free windows.
+     * Each room has a cursor over its own spans, and a heap keyed by the start of each cursor's
+     * next window merges the rooms, so only the windows actually returned are ever computed, though
+     * every span given has already been read.
+     *
+     * @param rooms  The rooms to search, ordered by ID
+     * @param spans  The rooms' bookings overlapping [from, to), ordered by room ID and start time
+     * @param from   The start of the search range, in epoch milliseconds
+     * @param to     The end of the search range, in epoch milliseconds
+     * @param length The minimum window length, in milliseconds
+     * @param limit  The maximum number of windows to return
+     * @return The free windows, ordered by start time and then room ID
+     */
+    static List<FreeSlotDto> earliestFreeSlots(List<Room> rooms, List<BookingRepository.TimeSpan> spans,
+                                               long from, long to, long length, int limit) {
+        PriorityQueue<RoomCursor> queue = new PriorityQueue<>(
+                Comparator.comparingLong(RoomCursor::windowStart).thenComparingInt(cursor -> cursor.room.getID()));
+        int next = 0;
+        for (Room room : rooms) {
+            // skip spans of rooms that are no longer in the room list
+            while (next < spans.size() && spans.get(next).getRoomId() < room.getID()) {
+                next++;
+            }
+            int first = next;
+            while (next < spans.size() && spans.get(next).getRoomId() == room.getID()) {
+                next++;
+            }
+            RoomCursor cursor = new RoomCursor(room, spans, first, next, from, to, length);
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+
+        List<FreeSlotDto> slots = new ArrayList<>(Math.min(limit, rooms.size()));
+        while (slots.size() < limit && !queue.isEmpty()) {
+            RoomCursor cursor = queue.poll();
+            Room room = cursor.room;
+            slots.add(new FreeSlotDto(room.getID(), room.getName(), room.getCapacity(),
+                    new Date(cursor.windowStart), new Date(cursor.windowEnd)));
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Walks the gaps between one room's bookings in time order.
+     */
+    private static final class RoomCursor {
+        private final Room room;
+        private final List<BookingRepository.TimeSpan> spans;
+        private final int end;
+        private final long to;
+        private final long length;
+        private int next;
+        private long freeFrom; // the room is free from here until the next span starts
+        private long windowStart;
+        private long windowEnd;
+
+        RoomCursor(Room room, List<BookingRepository.TimeSpan> spans, int first, int end,
+                   long from, long to, long length) {
+            this.room = room;
+            this.spans = spans;
+            this.next = first;
+            this.end = end;
+            this.freeFrom = from;
+            this.to = to;
+            this.length = length;
+        }
+
+        long windowStart() {
+            return windowStart;
+        }
+
+        /**
+         * Moves to the room's next free window that is long enough.
+         *
+         * @return true if there is such a window before the end of the range
+         */
+        boolean advance() {
+            while (freeFrom < to) {
+                long busyFrom = next < end ? Math.min(spans.get(next).getStartTime().getTime(), to) : to;
+                long gapStart = freeFrom;
+                if (next < end) {
+                    freeFrom = Math.max(freeFrom, spans.get(next).getEndTime().getTime());
+                    next++;
+                } else {
+                    freeFrom = to;
+                }
+                if (busyFrom - gapStart >= length) {
+                    windowStart = gapStart;
+                    windowEnd = busyFrom;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
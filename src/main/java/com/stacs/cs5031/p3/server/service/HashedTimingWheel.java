@@ -0,0 +1,169 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongConsumer;
+
+/**
+ * Hashed timing wheel firing IDs at their deadlines.
+ * Time is cut into ticks, and a ring of buckets holds the IDs due in each tick; an ID due more
+ * than one turn of the ring ahead waits in its bucket for the remaining turns. Scheduling is a
+ * lock-free queue offer, and each tick only visits one bucket, so the cost per tick does not grow
+ * with the number of IDs outstanding, and each one costs a single small node.
+ *
+ * <p>IDs cannot be cancelled: the consumer is expected to check whether an ID is still live when
+ * it fires. Deadlines are in epoch milliseconds, so they can be stored and rescheduled after a
+ * restart; an ID scheduled with a deadline in the past fires on the next tick.</p>
+ */
+final class HashedTimingWheel {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final Node[] buckets;
+    private final Queue<Node> pending = new ConcurrentLinkedQueue<>();
+    private long tick; // next tick to process; only touched by the thread advancing the wheel
+    private volatile Thread worker;
+
+    /**
+     * Constructor.
+     *
+     * @param tickMillis  length of a tick in milliseconds
+     * @param wheelSize   number of buckets, rounded up to a power of two
+     * @param startMillis time at which tick 0 starts, in epoch milliseconds
+     */
+    HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick length and wheel size must be positive");
+        }
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = size - 1;
+        this.buckets = new Node[size];
+    }
+
+    /**
+     * Schedules an ID to fire once its deadline has passed. Safe to call from any thread.
+     *
+     * @param id             the ID
+     * @param deadlineMillis the deadline, in epoch milliseconds
+     */
+    void schedule(long id, long deadlineMillis) {
+        pending.offer(new Node(id, deadlineMillis));
+    }
+
+    /**
+     * Processes every tick that has ended by the given time and hands the due IDs to the consumer.
+     * Must only be called from one thread at a time, which is the worker once {@link #start} was called.
+     *
+     * @param nowMillis the current time, in epoch milliseconds
+     * @param expired   consumer of the IDs whose deadline has passed
+     * @return the number of IDs fired
+     */
+    int advanceTo(long nowMillis, LongConsumer expired) {
+        int fired = 0;
+        while (startMillis + (tick + 1) * tickMillis <= nowMillis) {
+            transferPending();
+            fired += expireBucket(expired);
+            tick++;
+        }
+        return fired;
+    }
+
+    private void transferPending() {
+        Node node;
+        while ((node = pending.poll()) != null) {
+            // the tick whose window contains the deadline, or the current one if it has passed
+            long due = Math.max(tick, Math.floorDiv(node.deadlineMillis - startMillis, tickMillis));
+            node.rounds = (due - tick) >>> Integer.numberOfTrailingZeros(buckets.length);
+            int index = (int) (due & mask);
+            node.next = buckets[index];
+            buckets[index] = node;
+        }
+    }
+
+    private int expireBucket(LongConsumer expired) {
+        int index = (int) (tick & mask);
+        int fired = 0;
+        Node previous = null;
+        Node node = buckets[index];
+        while (node != null) {
+            Node next = node.next;
+            if (node.rounds == 0) {
+                if (previous == null) {
+                    buckets[index] = next;
+                } else {
+                    previous.next = next;
+                }
+                expired.accept(node.id);
+                fired++;
+            } else {
+                node.rounds--;
+                previous = node;
+            }
+            node = next;
+        }
+        return fired;
+    }
+
+    /**
+     * Starts a daemon thread advancing the wheel once per tick.
+     * Exceptions thrown by the consumer are reported and do not stop the wheel.
+     *
+     * @param name    name of the thread
+     * @param expired consumer of the IDs whose deadline has passed
+     */
+    synchronized void start(String name, LongConsumer expired) {
+        if (worker != null) {
+            return;
+        }
+        LongConsumer guarded = id -> {
+            try {
+                expired.accept(id);
+            } catch (RuntimeException e) {
+                System.err.println(name + " failed to expire " + id + ": " + e.getMessage());
+            }
+        };
+        worker = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                long wait = startMillis + (tick + 1) * tickMillis - System.currentTimeMillis();
+                try {
+                    if (wait > 0) {
+                        Thread.sleep(wait);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                advanceTo(System.currentTimeMillis(), guarded);
+            }
+        }, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the worker thread, leaving scheduled IDs in place.
+     */
+    synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    private static final class Node {
+        private final long id;
+        private final long deadlineMillis;
+        private long rounds; // full turns of the wheel left before the node fires
+        private Node next;
+
+        private Node(long id, long deadlineMillis) {
+            this.id = id;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.stereotype.Component;
+
+import com.stacs.cs5031.p3.server.metrics.MetricsSource;
+
+/**
+ * Bounded store of responses to requests sent with an Idempotency-Key.
+ * The first request with a key reserves it and runs; its response is then kept for
+ * {@link #TTL_MILLIS} so that retries with the same key are answered without running again.
+ * A duplicate arriving while the first is still running waits for its response rather than
+ * running alongside it.
+ *
+ * <p>Entries are kept in the order they were reserved, which is also the order they expire in,
+ * so eviction only ever looks at the oldest entries. Once {@link #MAX_ENTRIES} is reached the
+ * oldest finished responses are dropped early; requests still running are never dropped.</p>
+ */
+@Component
+public class IdempotencyStore implements MetricsSource {
+
+    /** Most keys remembered at once */
+    public static final int MAX_ENTRIES = 10_000;
+
+    /** How long a key is remembered after the request first using it arrived */
+    public static final long TTL_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final LongSupplier clock;
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * Constructor.
+     */
+    public IdempotencyStore() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor with an explicit clock, for tests.
+     *
+     * @param clock source of the current time, in epoch milliseconds
+     */
+    IdempotencyStore(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Reserves a key for a request, or finds the request that already holds it.
+     *
+     * @param key         the Idempotency-Key sent by the client
+     * @param fingerprint what the request does, such as its method, path and body hashed together
+     * @return the reservation; the caller runs the request only if it is the owner
+     */
+    public synchronized Reservation reserve(String key, String fingerprint) {
+        long now = clock.getAsLong();
+        evict(now, entries.containsKey(key) ? 0 : 1);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return new Reservation(key, entry, false, entry.fingerprint.equals(fingerprint));
+        }
+        entry = new Entry(fingerprint, now);
+        entries.put(key, entry);
+        return new Reservation(key, entry, true, true);
+    }
+
+    private void evict(long now, int room) {
+        Iterator<Entry> oldestFirst = entries.values().iterator();
+        int excess = entries.size() - MAX_ENTRIES + room;
+        while (oldestFirst.hasNext()) {
+            Entry entry = oldestFirst.next();
+            boolean expired = entry.reservedAt + TTL_MILLIS <= now;
+            if (!expired && excess <= 0) {
+                return;
+            }
+            // a request still running keeps its place; look further for finished ones
+            if (entry.response.isDone()) {
+                oldestFirst.remove();
+                evicted.increment();
+                excess--;
+            }
+        }
+    }
+
+    private synchronized void release(String key, Entry entry) {
+        entries.remove(key, entry);
+    }
+
+    /**
+     * Returns the number of keys currently remembered.
+     *
+     * @return the entry count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "idempotency";
+    }
+
+    @Override
+    public Map<String, Number> snapshot() {
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("entries", size());
+        values.put("stored", stored.sum());
+        values.put("replayed", replayed.sum());
+        values.put("collapsed", collapsed.sum());
+        values.put("evicted", evicted.sum());
+        return values;
+    }
+
+    /**
+     * A request's hold on an Idempotency-Key.
+     */
+    public final class Reservation {
+        private final String key;
+        private final Entry entry;
+        private final boolean owner;
+        private final boolean matches;
+
+        private Reservation(String key, Entry entry, boolean owner, boolean matches) {
+            this.key = key;
+            this.entry = entry;
+            this.owner = owner;
+            this.matches = matches;
+        }
+
+        /**
+         * Returns whether this request reserved the key and must run.
+         *
+         * @return true if the caller should run the request and then complete or abandon the reservation
+         */
+        public boolean isOwner() {
+            return owner;
+        }
+
+        /**
+         * Returns whether the request holding the key is the same request as this one.
+         *
+         * @return false if the key was reused for a different request
+         */
+        public boolean matches() {
+            return matches;
+        }
+
+        /**
+         * Returns whether the request holding the key has finished, with or without a response.
+         *
+         * @return true once the key's request completed or gave up the key
+         */
+        public boolean isFinished() {
+            return entry.response.isDone();
+        }
+
+        /**
+         * Waits for the response of the request holding the key.
+         *
+         * @param timeoutMillis how long to wait
+         * @return the response, or null if the request gave up its key without one or the wait ran out
+         */
+        public StoredResponse await(long timeoutMillis) {
+            boolean running = !entry.response.isDone();
+            try {
+                StoredResponse response = entry.response.get(timeoutMillis, TimeUnit.MILLISECONDS);
+                if (response != null) {
+                    (running ? collapsed : replayed).increment();
+                }
+                return response;
+            } catch (TimeoutException | ExecutionException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+
+        /**
+         * Records the owner's response, to be replayed to later requests with the same key.
+         *
+         * @param response the response
+         */
+        public void complete(StoredResponse response) {
+            stored.increment();
+            entry.response.complete(response);
+        }
+
+        /**
+         * Gives up the key without a response, so that the next request with it runs afresh.
+         */
+        public void abandon() {
+            release(key, entry);
+            entry.response.complete(null);
+        }
+    }
+
+    /**
+     * A response as sent to the client, kept for replay.
+     */
+    public static final class StoredResponse {
+        private final int status;
+        private final String contentType;
+        private final String location;
+        private final byte[] body;
+
+        /**
+         * Constructor.
+         *
+         * @param status      the HTTP status code
+         * @param contentType the Content-Type header, or null
+         * @param location    the Location header, or null
+         * @param body        the response body
+         */
+        public StoredResponse(int status, String contentType, String location, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.location = location;
+            this.body = body.clone();
+        }
+
+        /**
+         * Returns the HTTP status code.
+         *
+         * @return the status code
+         */
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * Returns the Content-Type header.
+         *
+         * @return the content type, or null
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Returns the Location header.
+         *
+         * @return the location, or null
+         */
+        public String getLocation() {
+            return location;
+        }
+
+        /**
+         * Returns a copy of the response body.
+         *
+         * @return the body
+         */
+        public byte[] getBody() {
+            return body.clone();
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final long reservedAt;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long reservedAt) {
+            this.fingerprint = fingerprint;
+            this.reservedAt = reservedAt;
+        }
+    }
+}
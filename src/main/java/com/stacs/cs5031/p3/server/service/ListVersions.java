@@ -0,0 +1,146 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.stacs.cs5031.p3.server.metrics.MetricsSource;
+import com.stacs.cs5031.p3.server.model.Booking;
+
+/**
+ * Version stamps of the room and booking lists, from which their ETags are made.
+ * Each stamp is a counter bumped whenever something in its list changes, so a client holding
+ * the ETag of the current version can be told its copy is still good without reading the list.
+ *
+ * <p>There is one stamp for the room lists, one for every booking, and one per organiser for the
+ * organiser's own bookings. The attendee lists carry seat counts that change as other attendees
+ * register, so they follow the stamp of every booking. Organisers share
+ * {@link #ORGANISER_STRIPES} counters, so a change to one organiser's bookings can also cost an
+ * organiser sharing its counter a needless refresh.</p>
+ *
+ * <p>Stamps are bumped once a change has committed, and read before a list is, so a list is
+ * never sent with a newer stamp than its contents. ETags also carry the time the application
+ * started, so those handed out before a restart never match.</p>
+ */
+@Component
+public class ListVersions implements MetricsSource {
+
+    /** Number of counters shared by the organisers */
+    public static final int ORGANISER_STRIPES = 1024;
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong rooms = new AtomicLong();
+    private final AtomicLong bookings = new AtomicLong();
+    private final AtomicLongArray organisers = new AtomicLongArray(ORGANISER_STRIPES);
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder modified = new LongAdder();
+
+    /**
+     * Returns the ETag of the room lists.
+     *
+     * @return A weak ETag
+     */
+    public String roomsTag() {
+        return tag('r', rooms.get());
+    }
+
+    /**
+     * Returns the ETag of the lists drawn from every booking.
+     *
+     * @return A weak ETag
+     */
+    public String bookingsTag() {
+        return tag('b', bookings.get());
+    }
+
+    /**
+     * Returns the ETag of an organiser's booking list.
+     *
+     * @param organiserId The organiser ID
+     * @return A weak ETag
+     */
+    public String organiserBookingsTag(int organiserId) {
+        return tag('o', organisers.get(stripe(organiserId)));
+    }
+
+    /**
+     * Records that a room was added, removed or changed.
+     */
+    public void roomsChanged() {
+        afterCommit(rooms::incrementAndGet);
+    }
+
+    /**
+     * Records that a booking was added, removed or changed, including its attendees and seat count.
+     *
+     * @param booking The booking
+     */
+    public void bookingChanged(Booking booking) {
+        bookingChanged(booking.getOrganiser() == null ? null : booking.getOrganiser().getId());
+    }
+
+    /**
+     * Records that a booking was added, removed or changed, including its attendees and seat count.
+     *
+     * @param organiserId The ID of the booking's organiser, or null if it has none
+     */
+    public void bookingChanged(Integer organiserId) {
+        afterCommit(() -> {
+            bookings.incrementAndGet();
+            if (organiserId != null) {
+                organisers.incrementAndGet(stripe(organiserId));
+            }
+        });
+    }
+
+    /**
+     * Records the outcome of a conditional request for a list.
+     *
+     * @param wasNotModified whether the client's copy was current, and the list was not read
+     */
+    public void recordRequest(boolean wasNotModified) {
+        (wasNotModified ? notModified : modified).increment();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "listVersions";
+    }
+
+    @Override
+    public Map<String, Number> snapshot() {
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("rooms", rooms.get());
+        values.put("bookings", bookings.get());
+        values.put("notModified", notModified.sum());
+        values.put("modified", modified.sum());
+        return values;
+    }
+
+    private String tag(char list, long version) {
+        return "W/\"" + instance + '-' + list + version + '"';
+    }
+
+    private static int stripe(int organiserId) {
+        return Math.floorMod(organiserId, ORGANISER_STRIPES);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
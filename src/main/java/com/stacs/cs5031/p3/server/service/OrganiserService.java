@@ -2,6 +2,7 @@ package com.stacs.cs5031.p3.server.service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.stacs.cs5031.p3.server.model.Booking;
@@ -9,11 +10,11 @@ import org.springframework.stereotype.Service;
 
 import com.stacs.cs5031.p3.server.dto.AttendeeDto;
 import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.dto.BookingSummaryDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.OrganiserDto;
 import com.stacs.cs5031.p3.server.dto.RoomDto;
 import com.stacs.cs5031.p3.server.exception.BookingNotFoundException;
-import com.stacs.cs5031.p3.server.mapper.AttendeeDtoMapper;
-import com.stacs.cs5031.p3.server.mapper.BookingDtoMapper;
 import com.stacs.cs5031.p3.server.model.Organiser;
 import com.stacs.cs5031.p3.server.repository.OrganiserRepository;
 
@@ -100,23 +101,28 @@ public class OrganiserService {
     }
 
     /**
-     * This method is used to get all the bookings for an organiser.
+     * This method is used to get a page of the bookings for an organiser, in start time order.
      * @param organiserId - The ID of the organiser
-     * @return ArrayList<BookingDto> - List of all the bookings for the organiser
+     * @param cursor - The cursor of the page to get, or null for the first page
+     * @param limit - The page size, or null for the default
+     * @return KeysetPage<BookingSummaryDto> - The page of booking summaries for the organiser
+     * @throws IllegalArgumentException - If the cursor or page size is invalid
      */
-    public ArrayList<BookingDto> getBookings(int organiserId) {
-        Long organiserIdAsLong = Long.valueOf(organiserId); // Replace with actual organiser ID
-
-        ArrayList<Booking> bookings = (ArrayList<Booking>) bookingService.getBookingsByOrganiser(organiserIdAsLong);
-
-        ArrayList<BookingDto> bookingDtos = new ArrayList<BookingDto>();
-        bookings.forEach(booking -> {
-            BookingDto bookingDto = BookingDtoMapper.mapToDTO(booking);
-            bookingDtos.add(bookingDto);
-        });
+    public KeysetPage<BookingSummaryDto> getBookings(int organiserId, String cursor, Integer limit) {
+        return bookingService.getBookingsByOrganiser(Long.valueOf(organiserId), cursor, limit);
+    }
 
-        return bookingDtos;
-        
+    /**
+     * This method is used to get a page of the bookings for an organiser with only the given fields.
+     * @param organiserId - The ID of the organiser
+     * @param cursor - The cursor of the page to get, or null for the first page
+     * @param limit - The page size, or null for the default
+     * @param fields - The booking summary properties to read, separated by commas
+     * @return KeysetPage<Map<String, Object>> - The page of bookings, each holding the requested fields
+     * @throws IllegalArgumentException - If the cursor, page size or fields are invalid
+     */
+    public KeysetPage<Map<String, Object>> getBookings(int organiserId, String cursor, Integer limit, String fields) {
+        return bookingService.getBookingFields(Long.valueOf(organiserId), cursor, limit, fields);
     }
 
     /**
@@ -129,16 +135,16 @@ public class OrganiserService {
     public BookingDto getBooking(int bookingId, int organiserId) {
         Long bookingIdAsLong = Long.valueOf(bookingId);
         
-        Optional<Booking> organiserBooking = bookingService.getBookingById(bookingIdAsLong);
+        Optional<BookingDto> organiserBooking = bookingService.getBookingDetails(bookingIdAsLong);
 
         if(!organiserBooking.isPresent()) {
             throw new BookingNotFoundException(bookingId);
         }else{
-            Booking booking = organiserBooking.get();
-            if (booking.getOrganiser().getId() != organiserId) {
+            BookingDto booking = organiserBooking.get();
+            if (booking.getOrganiserId() != organiserId) {
                 return null;
             }else{
-                return BookingDtoMapper.mapToDTO(booking);
+                return booking;
             }
         }
     }
@@ -194,15 +200,10 @@ public class OrganiserService {
      */
     public ArrayList<AttendeeDto> getAttendees(int bookingId, int organiserId) {
         Long bookingIdAsLong = Long.valueOf(bookingId);
-        Booking booking =  bookingService.getBookingById(bookingIdAsLong).get();
-        if(booking.getOrganiser().getId() != organiserId) {
+        BookingDto booking =  bookingService.getBookingDetails(bookingIdAsLong).get();
+        if(booking.getOrganiserId() != organiserId) {
             return null;
         }
-        ArrayList<AttendeeDto> attendeeDtos = new ArrayList<AttendeeDto>();
-        booking.getAttendees().forEach(attendee -> {
-            AttendeeDto bookingDto = AttendeeDtoMapper.mapToDto(attendee);
-            attendeeDtos.add(bookingDto);
-        });
-        return attendeeDtos;
+        return new ArrayList<AttendeeDto>(booking.getAttendees());
     }
 }
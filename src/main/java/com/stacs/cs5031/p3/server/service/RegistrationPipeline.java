@@ -0,0 +1,270 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.stacs.cs5031.p3.server.dto.RegistrationTicketDto;
+import com.stacs.cs5031.p3.server.dto.RegistrationTicketDto.Status;
+import com.stacs.cs5031.p3.server.exception.BookingNotFoundException;
+import com.stacs.cs5031.p3.server.exception.EntityNotFoundException;
+import com.stacs.cs5031.p3.server.exception.ResourceUnavailableException;
+import com.stacs.cs5031.p3.server.exception.UserNotFoundException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The RegistrationPipeline class.
+ * This class is the asynchronous alternative to {@link AttendeeService#registerForBooking} for
+ * registration spikes. Registrations are put on a bounded queue and answered with a ticket; a
+ * single writer drains the queue, groups what it took by booking, decides which registrations fit
+ * in memory and writes each booking's group in one transaction with JDBC batch inserts. The
+ * caller polls or waits on the ticket to learn the outcome.
+ *
+ * <p>The writer locks the booking row while it works out the free seats, so the pipeline and the
+ * synchronous path share the seats_taken counter and can run side by side.</p>
+ */
+@Service
+public class RegistrationPipeline {
+
+    /** Registrations that may wait for the writer before new ones are turned away */
+    public static final int QUEUE_CAPACITY = 10_000;
+
+    /** Most registrations the writer takes from the queue in one go */
+    static final int MAX_BATCH = 1_000;
+
+    /** Longest a caller may wait on a ticket in one request */
+    public static final long MAX_WAIT_MILLIS = 30_000;
+
+    /** How long finished tickets can still be looked up */
+    private static final long RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate batchTemplate;
+    private final ListVersions listVersions;
+    private final BlockingQueue<Ticket> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final ConcurrentMap<Long, Ticket> tickets = new ConcurrentHashMap<>();
+    private final AtomicLong nextTicketId = new AtomicLong(1);
+    private volatile Thread writer;
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcTemplate       JdbcTemplate used for the batch writes
+     * @param transactionManager transaction manager used to write each booking's group in one transaction
+     * @param listVersions       ListVersions, told when a group takes seats
+     */
+    @Autowired
+    public RegistrationPipeline(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                ListVersions listVersions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.batchTemplate = new TransactionTemplate(transactionManager);
+        this.listVersions = listVersions;
+    }
+
+    /**
+     * Queue a registration of an attendee for a booking.
+     *
+     * @param attendeeId The attendee ID
+     * @param bookingId The booking ID
+     * @return The pending ticket
+     * @throws ResourceUnavailableException if the queue is full
+     */
+    public RegistrationTicketDto submit(Integer attendeeId, long bookingId) {
+        Ticket ticket = new Ticket(new RegistrationTicketDto(nextTicketId.getAndIncrement(), attendeeId, bookingId,
+                Status.PENDING, null));
+        tickets.put(ticket.pending.getTicketId(), ticket);
+        if (!queue.offer(ticket)) {
+            tickets.remove(ticket.pending.getTicketId());
+            throw new ResourceUnavailableException("Registration queue is full, try again shortly");
+        }
+        return ticket.pending;
+    }
+
+    /**
+     * Get the state of a queued registration, waiting up to the given time for it to finish.
+     *
+     * @param attendeeId The attendee ID
+     * @param ticketId The ticket ID
+     * @param waitMillis How long to wait for the outcome, capped at {@link #MAX_WAIT_MILLIS}; 0 to poll
+     * @return The ticket, which is still pending if the wait ran out
+     * @throws EntityNotFoundException if the attendee has no ticket with this ID
+     */
+    public RegistrationTicketDto await(Integer attendeeId, long ticketId, long waitMillis) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null || ticket.pending.getAttendeeId() != attendeeId) {
+            throw new EntityNotFoundException("Registration ticket not found with ID: " + ticketId);
+        }
+        try {
+            return ticket.outcome.get(Math.min(Math.max(waitMillis, 0), MAX_WAIT_MILLIS), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return ticket.pending;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ticket.pending;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes a batch made of the given registration and whatever else is queued behind it,
+     * up to {@link #MAX_BATCH} registrations, one transaction per booking.
+     * Only called from the writer thread.
+     */
+    private void process(Ticket first) {
+        List<Ticket> batch = new ArrayList<>();
+        batch.add(first);
+        queue.drainTo(batch, MAX_BATCH - 1);
+        Map<Long, List<Ticket>> byBooking = new LinkedHashMap<>();
+        for (Ticket ticket : batch) {
+            byBooking.computeIfAbsent(ticket.pending.getBookingId(), id -> new ArrayList<>()).add(ticket);
+        }
+        for (Map.Entry<Long, List<Ticket>> group : byBooking.entrySet()) {
+            try {
+                Map<Ticket, String> rejected = batchTemplate.execute(status -> write(group.getKey(), group.getValue()));
+                for (Ticket ticket : group.getValue()) {
+                    String reason = rejected.get(ticket);
+                    ticket.finish(reason == null ? Status.REGISTERED : Status.REJECTED, reason);
+                }
+            } catch (RuntimeException e) {
+                group.getValue().forEach(ticket -> ticket.finish(Status.REJECTED, "Registration failed: " + e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Writes the registrations for one booking that fit, in the order they were queued.
+     *
+     * @return The registrations turned away, with the reason
+     */
+    private Map<Ticket, String> write(long bookingId, List<Ticket> group) {
+        Map<Ticket, String> rejected = new LinkedHashMap<>();
+        List<Map<String, Object>> booking = jdbcTemplate.queryForList(
+                "SELECT seats_taken, room_id, organiser_id FROM booking WHERE id = ? FOR UPDATE", bookingId);
+        if (booking.isEmpty()) {
+            String reason = new BookingNotFoundException(bookingId).getMessage();
+            group.forEach(ticket -> rejected.put(ticket, reason));
+            return rejected;
+        }
+        int capacity = jdbcTemplate.queryForObject("SELECT capacity FROM room WHERE id = ?", Integer.class,
+                booking.get(0).get("room_id"));
+        int free = capacity - ((Number) booking.get(0).get("seats_taken")).intValue();
+
+        Set<Integer> attendeeIds = new HashSet<>();
+        group.forEach(ticket -> attendeeIds.add(ticket.pending.getAttendeeId()));
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", attendeeIds).addValue("bookingId", bookingId);
+        Set<Integer> known = new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT id FROM attendee WHERE id IN (:ids)", params, Integer.class));
+        Set<Integer> registered = new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT attendee_id FROM attendee_bookings WHERE booking_id = :bookingId AND attendee_id IN (:ids)",
+                params, Integer.class));
+
+        List<Object[]> accepted = new ArrayList<>();
+        for (Ticket ticket : group) {
+            int attendeeId = ticket.pending.getAttendeeId();
+            if (!known.contains(attendeeId)) {
+                rejected.put(ticket, new UserNotFoundException(attendeeId).getMessage());
+            } else if (!registered.add(attendeeId)) {
+                rejected.put(ticket, "Attendee is already registered for this booking");
+            } else if (free <= 0) { // an over-committed counter leaves no seats either
+                rejected.put(ticket, "Booking is at full capacity");
+            } else {
+                accepted.add(new Object[] {bookingId, attendeeId});
+                free--;
+            }
+        }
+        if (accepted.isEmpty()) {
+            return rejected;
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO attendee_bookings (booking_id, attendee_id) VALUES (?, ?)", accepted);
+        jdbcTemplate.update("UPDATE booking SET seats_taken = seats_taken + ? WHERE id = ?", accepted.size(), bookingId);
+        Number organiserId = (Number) booking.get(0).get("organiser_id");
+        listVersions.bookingChanged(organiserId == null ? null : organiserId.intValue());
+        return rejected;
+    }
+
+    /**
+     * Starts the writer thread once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(() -> {
+            long nextSweep = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Ticket first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first != null) {
+                        process(first);
+                    }
+                } catch (InterruptedException e) {
+                    break;
+                }
+                long now = System.currentTimeMillis();
+                if (now >= nextSweep) {
+                    tickets.values().removeIf(ticket -> ticket.finishedAt != 0 && ticket.finishedAt + RETENTION_MILLIS < now);
+                    nextSweep = now + TimeUnit.SECONDS.toMillis(10);
+                }
+            }
+            List<Ticket> abandoned = new ArrayList<>();
+            queue.drainTo(abandoned);
+            abandoned.forEach(ticket -> ticket.finish(Status.REJECTED, "Server is shutting down"));
+        }, "registration-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer thread. Registrations still queued are rejected.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (writer != null) {
+            writer.interrupt();
+            writer = null;
+        }
+    }
+
+    private static final class Ticket {
+        private final RegistrationTicketDto pending;
+        private final CompletableFuture<RegistrationTicketDto> outcome = new CompletableFuture<>();
+        private volatile long finishedAt;
+
+        private Ticket(RegistrationTicketDto pending) {
+            this.pending = pending;
+        }
+
+        private void finish(Status status, String message) {
+            finishedAt = System.currentTimeMillis();
+            outcome.complete(pending.complete(status, message));
+        }
+    }
+}
@@ -0,0 +1,526 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.stacs.cs5031.p3.server.dto.AllocationDto;
+import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.exception.EntityNotFoundException;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.OrganiserRepository;
+import com.stacs.cs5031.p3.server.repository.RoomRepository;
+
+/**
+ * Service class that places many event requests into rooms at once.
+ * Each request gives a size, a duration and the windows it may be held in. The solver places
+ * requests greedily, each into the smallest room that fits it at the earliest free time, and
+ * searches over many request orderings in parallel on a fork/join pool until the time budget
+ * runs out, keeping the plan that books the most seat-minutes with the least empty seats.
+ *
+ * <p>The search works on a snapshot of the rooms and bookings and holds no locks or transaction.
+ * The winning plan is committed through {@link BookingService#createBookings} in all-or-nothing
+ * mode, which locks the rooms and re-checks every placement in one transaction, so a booking made
+ * by someone else during the search makes the job fail cleanly instead of double-booking.</p>
+ */
+@Service
+public class RoomAllocationService {
+
+    /** Largest number of requests in one job */
+    public static final int MAX_REQUESTS = 1_000;
+
+    /** Time budget used when the job does not give one */
+    public static final long DEFAULT_BUDGET_MILLIS = 2_000;
+
+    /** Largest time budget a job may ask for */
+    public static final long MAX_BUDGET_MILLIS = 30_000;
+
+    /** Longest span between the earliest and latest window of a job, in days */
+    public static final int MAX_HORIZON_DAYS = 366;
+
+    /** Number of request orderings tried when the budget allows */
+    static final int MAX_TRIALS = 4_096;
+
+    /** Number of orderings a fork/join task tries itself instead of splitting further */
+    private static final int TRIALS_PER_TASK = 16;
+
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final OrganiserRepository organiserRepository;
+    private final BookingService bookingService;
+
+    /**
+     * Constructs a new RoomAllocationService with the necessary dependencies.
+     *
+     * @param roomRepository      Repository for room data access
+     * @param bookingRepository   Repository for booking data access
+     * @param organiserRepository Repository for organiser data access
+     * @param bookingService      Service used to book the chosen placements
+     */
+    @Autowired
+    public RoomAllocationService(RoomRepository roomRepository, BookingRepository bookingRepository,
+                                 OrganiserRepository organiserRepository, BookingService bookingService) {
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+        this.organiserRepository = organiserRepository;
+        this.bookingService = bookingService;
+    }
+
+    /**
+     * Places the job's requests into rooms and books the placements for the organiser.
+     *
+     * @param job         The requests to place and the time budget
+     * @param organiserId The ID of the organiser the bookings are made for
+     * @return A report with one placement per request, in request order
+     * @throws IllegalArgumentException if the job is malformed
+     * @throws EntityNotFoundException  if the organiser does not exist
+     */
+    public AllocationDto.Report allocate(AllocationDto.Job job, Long organiserId)
+            throws IllegalArgumentException, EntityNotFoundException {
+        List<AllocationDto.EventRequest> requests = validate(job);
+        long budget = job.getTimeBudgetMillis() == 0 ? DEFAULT_BUDGET_MILLIS : job.getTimeBudgetMillis();
+        if (organiserRepository.findById(organiserId.intValue()).isEmpty()) {
+            throw new EntityNotFoundException("Organiser not found with ID: " + organiserId);
+        }
+
+        long began = System.nanoTime();
+        int minSize = requests.stream().mapToInt(AllocationDto.EventRequest::getSize).min().getAsInt();
+        Date horizonStart = requests.stream().flatMap(request -> request.getWindows().stream())
+                .map(AllocationDto.Window::getFrom).min(Comparator.naturalOrder()).get();
+        Date horizonEnd = requests.stream().flatMap(request -> request.getWindows().stream())
+                .map(AllocationDto.Window::getTo).max(Comparator.naturalOrder()).get();
+        List<Room> rooms = StreamSupport.stream(roomRepository.findAll().spliterator(), false)
+                .filter(room -> room.getCapacity() >= minSize)
+                .toList();
+        List<BookingRepository.TimeSpan> spans = bookingRepository.findTimeSpans(minSize, horizonStart, horizonEnd);
+
+        Problem problem = new Problem(rooms, spans, requests);
+        Plan plan = problem.solve(began + budget * 1_000_000);
+        long searchMillis = (System.nanoTime() - began) / 1_000_000;
+
+        List<AllocationDto.Placement> placements = problem.placements(plan);
+        if (plan.placed == 0) {
+            return report(false, plan, placements, searchMillis, "No request could be placed");
+        }
+        return commit(requests, problem, plan, placements, organiserId, searchMillis);
+    }
+
+    private AllocationDto.Report commit(List<AllocationDto.EventRequest> requests, Problem problem, Plan plan,
+                                        List<AllocationDto.Placement> placements, Long organiserId,
+                                        long searchMillis) {
+        List<BookingDto.BookingRequest> bookings = new ArrayList<>();
+        List<AllocationDto.Placement> placed = new ArrayList<>();
+        for (AllocationDto.Placement placement : placements) {
+            if (placement.isPlaced()) {
+                AllocationDto.EventRequest request = requests.get(placement.getIndex());
+                bookings.add(new BookingDto.BookingRequest(request.getEventName(), placement.getRoomId().longValue(),
+                        placement.getStartTime(), request.getDuration(), request.getEventName()));
+                placed.add(placement);
+            }
+        }
+
+        List<BookingDto.BatchItemResult> results =
+                bookingService.createBookings(bookings, organiserId, BookingDto.BatchMode.ALL_OR_NOTHING);
+        boolean committed = results.stream().allMatch(BookingDto.BatchItemResult::isCreated);
+        for (int i = 0; i < placed.size(); i++) {
+            BookingDto.BatchItemResult result = results.get(i);
+            if (committed) {
+                placed.get(i).setBookingId(result.getBookingId());
+            } else {
+                placed.get(i).setMessage(result.getMessage());
+            }
+        }
+        String message = committed
+                ? "Booked " + plan.placed + " of " + requests.size() + " requests"
+                : "Bookings changed while the allocation was running; nothing was booked";
+        return report(committed, plan, placements, searchMillis, message);
+    }
+
+    private static AllocationDto.Report report(boolean committed, Plan plan, List<AllocationDto.Placement> placements,
+                                               long searchMillis, String message) {
+        long offered = plan.seatMinutes + plan.slackMinutes;
+        double utilisation = offered == 0 ? 0 : (double) plan.seatMinutes / offered;
+        return new AllocationDto.Report(committed, plan.placed, placements.size() - plan.placed, utilisation,
+                plan.trials, searchMillis, placements, message);
+    }
+
+    private static List<AllocationDto.EventRequest> validate(AllocationDto.Job job) throws IllegalArgumentException {
+        if (job == null || job.getRequests() == null || job.getRequests().isEmpty()) {
+            throw new IllegalArgumentException("Job must contain at least one request");
+        }
+        if (job.getRequests().size() > MAX_REQUESTS) {
+            throw new IllegalArgumentException("Job must not contain more than " + MAX_REQUESTS + " requests");
+        }
+        if (job.getTimeBudgetMillis() < 0 || job.getTimeBudgetMillis() > MAX_BUDGET_MILLIS) {
+            throw new IllegalArgumentException("Time budget must be between 0 and " + MAX_BUDGET_MILLIS + " ms");
+        }
+        long earliest = Long.MAX_VALUE;
+        long latest = Long.MIN_VALUE;
+        List<AllocationDto.EventRequest> requests = job.getRequests();
+        for (int i = 0; i < requests.size(); i++) {
+            AllocationDto.EventRequest request = requests.get(i);
+            String prefix = "Request " + i + ": ";
+            if (request == null) {
+                throw new IllegalArgumentException(prefix + "request is empty");
+            }
+            if (request.getSize() <= 0) {
+                throw new IllegalArgumentException(prefix + "size must be positive");
+            }
+            if (request.getDuration() <= 0) {
+                throw new IllegalArgumentException(prefix + "duration must be positive");
+            }
+            if (request.getWindows() == null || request.getWindows().isEmpty()) {
+                throw new IllegalArgumentException(prefix + "at least one window is required");
+            }
+            for (AllocationDto.Window window : request.getWindows()) {
+                if (window == null || window.getFrom() == null || window.getTo() == null
+                        || !window.getFrom().before(window.getTo())) {
+                    throw new IllegalArgumentException(prefix + "every window must end after it starts");
+                }
+                earliest = Math.min(earliest, window.getFrom().getTime());
+                latest = Math.max(latest, window.getTo().getTime());
+            }
+        }
+        if (latest - earliest > MAX_HORIZON_DAYS * 24 * 60 * MINUTE_MILLIS) {
+            throw new IllegalArgumentException("Windows must all fall within " + MAX_HORIZON_DAYS + " days");
+        }
+        return requests;
+    }
+
+    /**
+     * One complete assignment of requests to rooms and start times, with its score.
+     */
+    static final class Plan {
+        final int seed;
+        final int[] room;         // index into the problem's rooms, or -1 if unplaced
+        final long[] start;
+        final long seatMinutes;   // sum of size times duration over placed requests
+        final long slackMinutes;  // sum of empty seats times duration over placed requests
+        final int placed;
+        int trials = 1;
+
+        Plan(int seed, int[] room, long[] start, long seatMinutes, long slackMinutes, int placed) {
+            this.seed = seed;
+            this.room = room;
+            this.start = start;
+            this.seatMinutes = seatMinutes;
+            this.slackMinutes = slackMinutes;
+            this.placed = placed;
+        }
+
+        /**
+         * Returns the better of two plans: more seat-minutes, then fewer empty seats, then lower seed.
+         */
+        static Plan better(Plan a, Plan b) {
+            if (a == null || b == null) {
+                return a == null ? b : a;
+            }
+            if (a.seatMinutes != b.seatMinutes) {
+                return a.seatMinutes > b.seatMinutes ? a : b;
+            }
+            if (a.slackMinutes != b.slackMinutes) {
+                return a.slackMinutes < b.slackMinutes ? a : b;
+            }
+            return a.seed <= b.seed ? a : b;
+        }
+    }
+
+    /**
+     * Snapshot of the rooms, their existing bookings and the requests, shared read-only by every trial.
+     */
+    static final class Problem {
+        private final Room[] rooms;            // ordered by capacity, then ID
+        private final int[] capacity;
+        private final long[][] busyStart;      // per room, disjoint existing bookings ordered by start
+        private final long[][] busyEnd;
+        private final int requestCount;
+        private final int[] size;
+        private final int[] minutes;
+        private final long[][] windowFrom;
+        private final long[][] windowTo;
+        private final int[] firstRoom;         // first room large enough for each request
+        private final long[] weight;           // seat-minutes of each request
+
+        Problem(List<Room> rooms, List<BookingRepository.TimeSpan> spans, List<AllocationDto.EventRequest> requests) {
+            this.rooms = rooms.stream()
+                    .sorted(Comparator.comparingInt(Room::getCapacity).thenComparingInt(Room::getID))
+                    .toArray(Room[]::new);
+            this.capacity = Arrays.stream(this.rooms).mapToInt(Room::getCapacity).toArray();
+            this.busyStart = new long[this.rooms.length][];
+            this.busyEnd = new long[this.rooms.length][];
+            loadBookings(spans);
+
+            this.requestCount = requests.size();
+            this.size = new int[requestCount];
+            this.minutes = new int[requestCount];
+            this.windowFrom = new long[requestCount][];
+            this.windowTo = new long[requestCount][];
+            this.firstRoom = new int[requestCount];
+            this.weight = new long[requestCount];
+            for (int i = 0; i < requestCount; i++) {
+                AllocationDto.EventRequest request = requests.get(i);
+                size[i] = request.getSize();
+                minutes[i] = request.getDuration();
+                windowFrom[i] = request.getWindows().stream().mapToLong(window -> window.getFrom().getTime()).toArray();
+                windowTo[i] = request.getWindows().stream().mapToLong(window -> window.getTo().getTime()).toArray();
+                firstRoom[i] = firstRoomFor(size[i]);
+                weight[i] = (long) size[i] * minutes[i];
+            }
+        }
+
+        private void loadBookings(List<BookingRepository.TimeSpan> spans) {
+            Map<Integer, Integer> positions = new TreeMap<>();
+            for (int r = 0; r < rooms.length; r++) {
+                positions.put(rooms[r].getID(), r);
+            }
+            List<List<long[]>> byRoom = new ArrayList<>();
+            for (int r = 0; r < rooms.length; r++) {
+                byRoom.add(new ArrayList<>());
+            }
+            for (BookingRepository.TimeSpan span : spans) {
+                Integer r = positions.get(span.getRoomId());
+                if (r != null) {
+                    byRoom.get(r).add(new long[] {span.getStartTime().getTime(), span.getEndTime().getTime()});
+                }
+            }
+            for (int r = 0; r < rooms.length; r++) {
+                // merge overlapping bookings so that both starts and ends are sorted
+                List<long[]> list = byRoom.get(r);
+                list.sort(Comparator.comparingLong(interval -> interval[0]));
+                List<long[]> merged = new ArrayList<>();
+                for (long[] interval : list) {
+                    long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                    if (last != null && interval[0] <= last[1]) {
+                        last[1] = Math.max(last[1], interval[1]);
+                    } else {
+                        merged.add(interval.clone());
+                    }
+                }
+                busyStart[r] = merged.stream().mapToLong(interval -> interval[0]).toArray();
+                busyEnd[r] = merged.stream().mapToLong(interval -> interval[1]).toArray();
+            }
+        }
+
+        private int firstRoomFor(int size) {
+            int lo = 0;
+            int hi = capacity.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (capacity[mid] < size) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Runs trials in parallel until every ordering was tried or the deadline passes.
+         * The first ordering always runs to completion, so a plan is returned however small the budget.
+         *
+         * @param deadline the deadline, in {@link System#nanoTime()} units
+         * @return the best plan found
+         */
+        Plan solve(long deadline) {
+            return ForkJoinPool.commonPool().invoke(new Search(this, 0, MAX_TRIALS, deadline));
+        }
+
+        /**
+         * Builds one plan: requests are taken in an order derived from the seed, and each goes into
+         * the smallest room that can hold it, at the earliest start free in any of its windows.
+         * Seed 0 takes the largest requests first; other seeds shuffle that order a little.
+         *
+         * @param seed the seed of the ordering
+         * @return the plan
+         */
+        Plan trial(int seed) {
+            Integer[] order = new Integer[requestCount];
+            double[] key = new double[requestCount];
+            Random random = new Random(seed);
+            for (int i = 0; i < requestCount; i++) {
+                order[i] = i;
+                key[i] = seed == 0 ? weight[i] : weight[i] * (0.5 + random.nextDouble());
+            }
+            Arrays.sort(order, Comparator.comparingDouble((Integer i) -> -key[i]).thenComparingInt(i -> i));
+
+            List<TreeMap<Long, Long>> placedByRoom = new ArrayList<>(Collections.nCopies(rooms.length, null));
+            int[] room = new int[requestCount];
+            long[] start = new long[requestCount];
+            Arrays.fill(room, -1);
+            long seatMinutes = 0;
+            long slackMinutes = 0;
+            int placed = 0;
+            for (int i : order) {
+                long length = minutes[i] * MINUTE_MILLIS;
+                int best = -1;
+                long bestStart = 0;
+                for (int r = firstRoom[i]; r < rooms.length; r++) {
+                    // only rooms as small as the first one that fits compete on start time
+                    if (best >= 0 && capacity[r] > capacity[best]) {
+                        break;
+                    }
+                    long at = earliestStart(r, placedByRoom.get(r), i, length);
+                    if (at != Long.MAX_VALUE && (best < 0 || at < bestStart)) {
+                        best = r;
+                        bestStart = at;
+                    }
+                }
+                if (best >= 0) {
+                    if (placedByRoom.get(best) == null) {
+                        placedByRoom.set(best, new TreeMap<>());
+                    }
+                    placedByRoom.get(best).put(bestStart, bestStart + length);
+                    room[i] = best;
+                    start[i] = bestStart;
+                    seatMinutes += weight[i];
+                    slackMinutes += (long) (capacity[best] - size[i]) * minutes[i];
+                    placed++;
+                }
+            }
+            return new Plan(seed, room, start, seatMinutes, slackMinutes, placed);
+        }
+
+        /**
+         * Returns the earliest start in any of a request's windows at which a room is free for the
+         * given length, or {@link Long#MAX_VALUE} if there is none.
+         */
+        private long earliestStart(int r, TreeMap<Long, Long> placed, int request, long length) {
+            long earliest = Long.MAX_VALUE;
+            for (int w = 0; w < windowFrom[request].length; w++) {
+                long to = windowTo[request][w];
+                long at = windowFrom[request][w];
+                while (at + length <= to && at < earliest) {
+                    long moved = pastExisting(r, at, length);
+                    moved = pastPlaced(placed, moved, length);
+                    if (moved == at) {
+                        earliest = at;
+                        break;
+                    }
+                    at = moved;
+                }
+            }
+            return earliest;
+        }
+
+        /** Moves a start past the existing booking it would overlap, if any. */
+        private long pastExisting(int r, long at, long length) {
+            long[] ends = busyEnd[r];
+            int lo = 0;
+            int hi = ends.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (ends[mid] <= at) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            // lo is the first booking ending after the start; it overlaps if it starts before our end
+            return lo < ends.length && busyStart[r][lo] < at + length ? ends[lo] : at;
+        }
+
+        /** Moves a start past the booking placed in this trial that it would overlap, if any. */
+        private static long pastPlaced(TreeMap<Long, Long> placed, long at, long length) {
+            if (placed == null) {
+                return at;
+            }
+            Map.Entry<Long, Long> before = placed.floorEntry(at);
+            if (before != null && before.getValue() > at) {
+                return before.getValue();
+            }
+            Map.Entry<Long, Long> after = placed.higherEntry(at);
+            return after != null && after.getKey() < at + length ? after.getValue() : at;
+        }
+
+        /**
+         * Describes a plan as one placement per request, in request order.
+         *
+         * @param plan the plan
+         * @return the placements
+         */
+        List<AllocationDto.Placement> placements(Plan plan) {
+            List<AllocationDto.Placement> placements = new ArrayList<>(requestCount);
+            for (int i = 0; i < requestCount; i++) {
+                int r = plan.room[i];
+                if (r >= 0) {
+                    placements.add(new AllocationDto.Placement(i, true, rooms[r].getID(), rooms[r].getName(),
+                            new Date(plan.start[i]), null, "Placed"));
+                } else {
+                    String reason = firstRoom[i] == rooms.length
+                            ? "No room is large enough for " + size[i] + " people"
+                            : "No large enough room is free in any of the requested windows";
+                    placements.add(new AllocationDto.Placement(i, false, null, null, null, null, reason));
+                }
+            }
+            return placements;
+        }
+    }
+
+    /**
+     * Fork/join task trying the orderings with seeds in [from, to) and returning the best plan.
+     */
+    private static final class Search extends RecursiveTask<Plan> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Problem problem; // tasks are never serialised
+        private final int from;
+        private final int to;
+        private final long deadline;
+
+        Search(Problem problem, int from, int to, long deadline) {
+            this.problem = problem;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected Plan compute() {
+            if (to - from > TRIALS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                Search left = new Search(problem, from, mid, deadline);
+                left.fork();
+                Plan right = new Search(problem, mid, to, deadline).compute();
+                Plan leftPlan = left.join();
+                return combine(leftPlan, right);
+            }
+            Plan best = null;
+            int trials = 0;
+            for (int seed = from; seed < to; seed++) {
+                if (seed != 0 && System.nanoTime() - deadline > 0) {
+                    break;
+                }
+                best = Plan.better(best, problem.trial(seed));
+                trials++;
+            }
+            if (best != null) {
+                best.trials = trials;
+            }
+            return best;
+        }
+
+        private static Plan combine(Plan a, Plan b) {
+            Plan best = Plan.better(a, b);
+            if (best != null) {
+                best.trials = (a == null ? 0 : a.trials) + (b == null ? 0 : b.trials);
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.stacs.cs5031.p3.server.dto.RoomDto;
+import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.RoomRepository;
+
+/**
+ * Time-aware index answering "which rooms of capacity at least N are free between A and B".
+ * Each UTC day is split into 5-minute slots, and every room gets one bit per slot, packed into
+ * five longs. Rooms are grouped into power-of-two capacity buckets, so a query only visits rooms
+ * in buckets that can satisfy it, and checks each room with a word-wise AND per day.
+ *
+ * <p>Slots are coarse on purpose: a booking marks every slot it touches, and a query asks for
+ * every slot it touches, so a room reported free is always free, but a room whose booking ends
+ * a minute into the requested slot is reported busy.</p>
+ *
+ * <p>Days are loaded lazily with one query each, outside the map: the first caller installs a
+ * future for the day and runs the query, and concurrent callers for the same day wait on it.
+ * New bookings are marked once their transaction commits; a booking committed while its day is
+ * still loading drops that day instead, as the query may have missed it. A cancellation drops
+ * the affected days, which are rebuilt on next use. Adding or removing a room drops the room
+ * catalog and every day with it.</p>
+ */
+@Component
+public class RoomAvailabilityIndex {
+
+    /** Length of one slot in milliseconds */
+    static final long SLOT_MILLIS = 5 * 60_000L;
+
+    /** Length of one day in milliseconds */
+    static final long DAY_MILLIS = 24 * 60 * 60_000L;
+
+    /** Number of slots in a day */
+    static final int SLOTS_PER_DAY = (int) (DAY_MILLIS / SLOT_MILLIS);
+
+    /** Number of longs holding one room's slots for a day */
+    static final int WORDS_PER_DAY = (SLOTS_PER_DAY + 63) / 64;
+
+    /** Days kept in memory before the cache is cleared */
+    static final int MAX_CACHED_DAYS = 400;
+
+    /** Longest range a single query may span, in days */
+    public static final int MAX_QUERY_DAYS = 31;
+
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, CompletableFuture<DayBitmap>> days = new ConcurrentHashMap<>();
+    private final AtomicInteger roomsVersion = new AtomicInteger();
+    private volatile Catalog catalog;
+
+    /**
+     * Constructor.
+     *
+     * @param roomRepository    repository used to load the room catalog
+     * @param bookingRepository repository used to load each day's bookings
+     */
+    @Autowired
+    public RoomAvailabilityIndex(RoomRepository roomRepository, BookingRepository bookingRepository) {
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Finds the rooms of at least the given capacity with no booking between start and end.
+     *
+     * @param minCapacity the minimum room capacity
+     * @param start       the start of the range
+     * @param end         the end of the range
+     * @return the free rooms, ordered by capacity bucket and then room ID
+     * @throws IllegalArgumentException if the range is empty or longer than {@link #MAX_QUERY_DAYS} days
+     */
+    public List<RoomDto> findFreeRooms(int minCapacity, Date start, Date end) throws IllegalArgumentException {
+        if (start == null || end == null || !start.before(end)) {
+            throw new IllegalArgumentException("Range must end after it starts");
+        }
+        long from = start.getTime();
+        long to = end.getTime();
+        if (to - from > MAX_QUERY_DAYS * DAY_MILLIS) {
+            throw new IllegalArgumentException("Range must not be longer than " + MAX_QUERY_DAYS + " days");
+        }
+
+        Catalog rooms = catalog();
+        long firstDay = Math.floorDiv(from, DAY_MILLIS);
+        long lastDay = Math.floorDiv(to - 1, DAY_MILLIS);
+        int dayCount = (int) (lastDay - firstDay + 1);
+        DayBitmap[] bitmaps = new DayBitmap[dayCount];
+        long[][] masks = new long[dayCount][];
+        for (int d = 0; d < dayCount; d++) {
+            bitmaps[d] = day(firstDay + d, rooms);
+            masks[d] = new long[WORDS_PER_DAY];
+            long dayStart = (firstDay + d) * DAY_MILLIS;
+            setSlots(masks[d], 0, from - dayStart, to - dayStart);
+        }
+
+        List<RoomDto> free = new ArrayList<>();
+        for (int b = Catalog.bucketOf(minCapacity); b < rooms.bucketStart.length - 1; b++) {
+            for (int r = rooms.bucketStart[b]; r < rooms.bucketStart[b + 1]; r++) {
+                Room room = rooms.rooms[r];
+                if (room.getCapacity() >= minCapacity && isFree(bitmaps, masks, r)) {
+                    free.add(new RoomDto(room.getID(), room.getName(), room.getCapacity(), true));
+                }
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Marks a saved booking's slots as busy once the current transaction commits.
+     *
+     * @param booking the saved booking
+     */
+    public void add(Booking booking) {
+        int roomId = booking.getRoom().getID();
+        long start = booking.getStartMillis();
+        long end = booking.getEndMillis();
+        afterCommit(() -> {
+            for (long day = Math.floorDiv(start, DAY_MILLIS); day <= Math.floorDiv(end - 1, DAY_MILLIS); day++) {
+                // a day still loading may have been read before this commit, so drop it rather than mark it
+                days.computeIfPresent(day, (key, loading) -> {
+                    DayBitmap bitmap = loading.getNow(null);
+                    if (bitmap == null) {
+                        return null;
+                    }
+                    bitmap.mark(roomId, start, end);
+                    return loading;
+                });
+            }
+        });
+    }
+
+    /**
+     * Drops the days covered by a deleted booking once the current transaction commits.
+     *
+     * @param booking the booking being deleted
+     */
+    public void remove(Booking booking) {
+        long start = booking.getStartMillis();
+        long end = booking.getEndMillis();
+        afterCommit(() -> {
+            for (long day = Math.floorDiv(start, DAY_MILLIS); day <= Math.floorDiv(end - 1, DAY_MILLIS); day++) {
+                days.remove(day);
+            }
+        });
+    }
+
+    /**
+     * Drops the room catalog and every day built on it, after a room was added or removed.
+     */
+    public void evictRooms() {
+        synchronized (roomsVersion) {
+            roomsVersion.incrementAndGet();
+            catalog = null;
+        }
+        days.clear();
+    }
+
+    private static boolean isFree(DayBitmap[] bitmaps, long[][] masks, int room) {
+        for (int d = 0; d < bitmaps.length; d++) {
+            long[] busy = bitmaps[d].busy;
+            int offset = room * WORDS_PER_DAY;
+            long[] mask = masks[d];
+            for (int w = 0; w < WORDS_PER_DAY; w++) {
+                if ((busy[offset + w] & mask[w]) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (current == null) {
+            int version = roomsVersion.get();
+            List<Room> rooms = StreamSupport.stream(roomRepository.findAll().spliterator(), false).toList();
+            current = new Catalog(rooms);
+            synchronized (roomsVersion) {
+                // a room added while loading makes this snapshot stale, so only publish it if none was
+                if (roomsVersion.get() == version) {
+                    catalog = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private DayBitmap day(long day, Catalog rooms) {
+        if (days.size() >= MAX_CACHED_DAYS && !days.containsKey(day)) {
+            days.clear();
+        }
+        while (true) {
+            CompletableFuture<DayBitmap> created = new CompletableFuture<>();
+            CompletableFuture<DayBitmap> existing = days.putIfAbsent(day, created);
+            if (existing == null) {
+                try {
+                    DayBitmap bitmap = load(day, rooms);
+                    created.complete(bitmap);
+                    return bitmap;
+                } catch (RuntimeException e) {
+                    days.remove(day, created);
+                    created.completeExceptionally(e);
+                    throw e;
+                }
+            }
+            try {
+                DayBitmap bitmap = existing.join();
+                if (bitmap.catalog == rooms) {
+                    return bitmap;
+                }
+            } catch (CompletionException e) {
+                // the other load failed and removed itself, so try loading here
+                continue;
+            }
+            // built on another room catalog, so replace it
+            days.remove(day, existing);
+        }
+    }
+
+    private DayBitmap load(long day, Catalog rooms) {
+        DayBitmap bitmap = new DayBitmap(rooms, day);
+        long dayStart = day * DAY_MILLIS;
+        for (BookingRepository.TimeSpan span :
+                bookingRepository.findTimeSpans(0, new Date(dayStart), new Date(dayStart + DAY_MILLIS))) {
+            bitmap.mark(span.getRoomId(), span.getStartTime().getTime(), span.getEndTime().getTime());
+        }
+        return bitmap;
+    }
+
+    /**
+     * Sets the bits of every slot touched by [start, end), clipped to one day.
+     *
+     * @param words  the bit words of one room for one day
+     * @param offset index of the room's first word
+     * @param start  start of the range, in milliseconds since the start of the day
+     * @param end    end of the range, in milliseconds since the start of the day
+     */
+    static void setSlots(long[] words, int offset, long start, long end) {
+        int first = (int) Math.max(0, Math.floorDiv(start, SLOT_MILLIS));
+        int last = (int) Math.min(SLOTS_PER_DAY, -Math.floorDiv(-end, SLOT_MILLIS)); // exclusive, rounded up
+        for (int slot = first; slot < last; slot++) {
+            words[offset + (slot >>> 6)] |= 1L << slot;
+        }
+    }
+
+    /**
+     * Snapshot of the rooms, ordered by capacity bucket and then ID.
+     */
+    static final class Catalog {
+        private final Room[] rooms;
+        private final int[] bucketStart; // bucketStart[b] is the first room of bucket b, with an end sentinel
+        private final Map<Integer, Integer> positions = new HashMap<>();
+
+        Catalog(List<Room> rooms) {
+            this.rooms = rooms.stream()
+                    .sorted(Comparator.comparingInt((Room room) -> bucketOf(room.getCapacity()))
+                            .thenComparingInt(Room::getID))
+                    .toArray(Room[]::new);
+            this.bucketStart = new int[33];
+            Arrays.fill(bucketStart, this.rooms.length);
+            for (int r = this.rooms.length - 1; r >= 0; r--) {
+                bucketStart[bucketOf(this.rooms[r].getCapacity())] = r;
+                positions.put(this.rooms[r].getID(), r);
+            }
+            // empty buckets start where the next non-empty one does
+            for (int b = bucketStart.length - 2; b >= 0; b--) {
+                bucketStart[b] = Math.min(bucketStart[b], bucketStart[b + 1]);
+            }
+        }
+
+        /**
+         * Returns the capacity bucket of a capacity: bucket b holds capacities from 2^b to 2^(b+1) - 1.
+         *
+         * @param capacity the capacity
+         * @return the bucket index
+         */
+        static int bucketOf(int capacity) {
+            return capacity <= 1 ? 0 : 31 - Integer.numberOfLeadingZeros(capacity);
+        }
+    }
+
+    /**
+     * Busy slots of every room in a catalog for one day.
+     */
+    static final class DayBitmap {
+        private final Catalog catalog;
+        private final long dayStart;
+        private final long[] busy;
+
+        DayBitmap(Catalog catalog, long day) {
+            this.catalog = catalog;
+            this.dayStart = day * DAY_MILLIS;
+            this.busy = new long[catalog.rooms.length * WORDS_PER_DAY];
+        }
+
+        /**
+         * Marks the part of [start, end) falling on this day as busy for a room.
+         * Rooms missing from the catalog are ignored.
+         *
+         * @param roomId the room ID
+         * @param start  start of the booking, in epoch milliseconds
+         * @param end    end of the booking, in epoch milliseconds
+         * @return this bitmap
+         */
+        DayBitmap mark(int roomId, long start, long end) {
+            Integer room = catalog.positions.get(roomId);
+            if (room != null) {
+                setSlots(busy, room * WORDS_PER_DAY, start - dayStart, end - dayStart);
+            }
+            return this;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
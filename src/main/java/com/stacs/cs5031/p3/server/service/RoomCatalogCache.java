@@ -0,0 +1,146 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.StreamSupport;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.stacs.cs5031.p3.server.dto.RoomDto;
+import com.stacs.cs5031.p3.server.mapper.RoomDtoMapper;
+import com.stacs.cs5031.p3.server.metrics.MetricsSource;
+import com.stacs.cs5031.p3.server.repository.RoomRepository;
+
+/**
+ * Read-through cache of the room list, and of the rooms whose availability flag is set.
+ * Both lists come from one read of the rooms table and are kept as an immutable catalog that
+ * readers share without locking or copying. Any change to a room replaces the catalog with an
+ * empty one, and the next read loads a new catalog from the database.
+ *
+ * <p>A catalog is only published if no room changed while it was being loaded, so a read that
+ * overlaps a change never leaves a stale catalog behind. A change made inside a transaction also
+ * evicts again once the transaction commits, as reads until then still see the old rooms.</p>
+ */
+@Component
+public class RoomCatalogCache implements MetricsSource {
+
+    private final RoomRepository roomRepository;
+
+    // an empty catalog marks the cache as evicted; each eviction installs a new one, so a load
+    // can tell whether a change happened since it started by comparing identities
+    private final AtomicReference<Catalog> catalog = new AtomicReference<>(Catalog.empty());
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param roomRepository Repository the catalog is loaded from
+     */
+    public RoomCatalogCache(RoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+    }
+
+    /**
+     * Returns every room.
+     *
+     * @return An unmodifiable list of DTO representations of all rooms
+     */
+    public List<RoomDto> getAllRooms() {
+        return catalog().all;
+    }
+
+    /**
+     * Returns the rooms whose availability flag is set.
+     *
+     * @return An unmodifiable list of DTO representations of the available rooms
+     */
+    public List<RoomDto> getAvailableRooms() {
+        return catalog().available;
+    }
+
+    /**
+     * Drops the cached catalog after a room has been added, removed or changed.
+     */
+    public void invalidate() {
+        invalidations.increment();
+        evict();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict();
+                }
+            });
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "roomCatalog";
+    }
+
+    @Override
+    public Map<String, Number> snapshot() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long reads = hitCount + missCount;
+        List<RoomDto> rooms = catalog.get().all;
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("hits", hitCount);
+        values.put("misses", missCount);
+        values.put("hitRatio", reads == 0 ? 0.0 : (double) hitCount / reads);
+        values.put("invalidations", invalidations.sum());
+        values.put("rooms", rooms == null ? 0 : rooms.size());
+        return values;
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog.get();
+        if (current.all != null) {
+            hits.increment();
+            return current;
+        }
+        misses.increment();
+        Catalog loaded = load();
+        // if a room changed during the load, the newer empty catalog stays and this one is only served once
+        catalog.compareAndSet(current, loaded);
+        return loaded;
+    }
+
+    private Catalog load() {
+        List<RoomDto> all = StreamSupport.stream(roomRepository.findAll().spliterator(), false)
+                .map(RoomDtoMapper::mapToDTO)
+                .toList();
+        List<RoomDto> available = all.stream()
+                .filter(RoomDto::isAvailable)
+                .toList();
+        return new Catalog(all, available);
+    }
+
+    private void evict() {
+        catalog.set(Catalog.empty());
+    }
+
+    // immutable snapshot of the rooms table; both lists are null in an empty catalog
+    private static final class Catalog {
+        final List<RoomDto> all;
+        final List<RoomDto> available;
+
+        Catalog(List<RoomDto> all, List<RoomDto> available) {
+            this.all = all;
+            this.available = available;
+        }
+
+        static Catalog empty() {
+            return new Catalog(null, null);
+        }
+    }
+}
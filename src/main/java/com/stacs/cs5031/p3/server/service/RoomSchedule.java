@@ -0,0 +1,211 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+
+import com.stacs.cs5031.p3.server.model.Booking;
+
+/**
+ * Sorted interval map holding the booking intervals of a single room.
+ * Intervals are ordered by start time, and the longest interval currently stored bounds how far
+ * back an overlap query has to look, so a conflict check costs O(log n + m), where m is the number
+ * of intervals starting between that far before the range and its end. With bookings of similar
+ * length m is close to the number of overlaps; one very long booking widens every query while it
+ * is stored.
+ * All intervals are half-open: a booking ending at 10:00 does not overlap one starting at 10:00.
+ */
+final class RoomSchedule {
+
+    /**
+     * A booking's occupied time range, in epoch milliseconds.
+     *
+     * @param bookingId the booking ID
+     * @param start     inclusive start of the booking
+     * @param end       exclusive end of the booking
+     */
+    record Interval(int bookingId, long start, long end) {
+
+        /**
+         * Creates an interval from a booking's start and end time.
+         *
+         * @param booking the booking
+         * @return the interval the booking occupies
+         */
+        static Interval of(Booking booking) {
+            return new Interval(booking.getId(), booking.getStartMillis(), booking.getEndMillis());
+        }
+    }
+
+    private static final Comparator<Interval> BY_START =
+            Comparator.comparingLong(Interval::start).thenComparingInt(Interval::bookingId);
+
+    private final NavigableSet<Interval> byStart = new TreeSet<>(BY_START);
+    private final Map<Integer, Interval> byId = new HashMap<>();
+    private final TreeMap<Long, Integer> lengthCounts = new TreeMap<>(); // number of intervals of each length
+    private final Set<Integer> removedWhileLoading = new HashSet<>();
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private long maxLength;
+    private volatile boolean ready;
+    private volatile boolean failed;
+
+    /**
+     * Adds or replaces the interval of a booking.
+     *
+     * @param interval the interval to store
+     * @return the interval previously stored for the same booking, or null if there was none
+     */
+    synchronized Interval put(Interval interval) {
+        Interval previous = byId.put(interval.bookingId(), interval);
+        if (previous != null) {
+            byStart.remove(previous);
+            forgetLength(previous);
+        }
+        byStart.add(interval);
+        lengthCounts.merge(interval.end() - interval.start(), 1, Integer::sum);
+        maxLength = lengthCounts.lastKey();
+        return previous;
+    }
+
+    /**
+     * Removes the interval of a booking.
+     *
+     * @param bookingId the booking ID
+     * @return the removed interval, or null if the booking was not in this schedule
+     */
+    synchronized Interval remove(int bookingId) {
+        Interval previous = byId.remove(bookingId);
+        if (previous != null) {
+            byStart.remove(previous);
+            forgetLength(previous);
+            maxLength = lengthCounts.isEmpty() ? 0 : lengthCounts.lastKey();
+        }
+        if (!ready) {
+            // the load in progress may still return this booking, so remember not to re-add it
+            removedWhileLoading.add(bookingId);
+        }
+        return previous;
+    }
+
+    /**
+     * Checks whether any stored interval overlaps the range [start, end).
+     *
+     * @param start inclusive start of the range
+     * @param end   exclusive end of the range
+     * @return true if at least one interval overlaps the range
+     */
+    synchronized boolean overlaps(long start, long end) {
+        for (Interval candidate : candidates(start, end)) {
+            if (candidate.end() > start) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns every stored interval that overlaps the range [start, end), ordered by start time.
+     *
+     * @param start inclusive start of the range
+     * @param end   exclusive end of the range
+     * @return the overlapping intervals
+     */
+    synchronized List<Interval> overlapping(long start, long end) {
+        List<Interval> result = new ArrayList<>();
+        for (Interval candidate : candidates(start, end)) {
+            if (candidate.end() > start) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of intervals in this schedule.
+     *
+     * @return the interval count
+     */
+    synchronized int size() {
+        return byId.size();
+    }
+
+    private void forgetLength(Interval interval) {
+        lengthCounts.computeIfPresent(interval.end() - interval.start(),
+                (length, count) -> count == 1 ? null : count - 1);
+    }
+
+    // only intervals starting within maxLength before the range can reach into it
+    private NavigableSet<Interval> candidates(long start, long end) {
+        if (end <= start) {
+            return new TreeSet<>(BY_START);
+        }
+        Interval from = new Interval(Integer.MIN_VALUE, start - maxLength, start - maxLength);
+        Interval to = new Interval(Integer.MIN_VALUE, end, end);
+        return byStart.subSet(from, true, to, false);
+    }
+
+    /**
+     * Merges the intervals read from the database into this schedule and marks it as loaded.
+     * Intervals added or removed while the load was running take precedence over the loaded ones.
+     *
+     * @param intervals the intervals read from the database
+     */
+    void completeLoad(Collection<Interval> intervals) {
+        synchronized (this) {
+            for (Interval interval : intervals) {
+                if (!byId.containsKey(interval.bookingId()) && !removedWhileLoading.contains(interval.bookingId())) {
+                    put(interval);
+                }
+            }
+            removedWhileLoading.clear();
+            ready = true;
+        }
+        loaded.countDown();
+    }
+
+    /**
+     * Marks the load of this schedule as failed and releases any waiting readers.
+     */
+    void failLoad() {
+        failed = true;
+        loaded.countDown();
+    }
+
+    /**
+     * Checks whether this schedule has been fully loaded.
+     *
+     * @return true if the schedule is loaded
+     */
+    boolean isLoaded() {
+        return ready;
+    }
+
+    /**
+     * Blocks until the initial load of this schedule has finished.
+     *
+     * @return true if the load succeeded, false if it failed
+     */
+    boolean awaitLoaded() {
+        boolean interrupted = false;
+        while (loaded.getCount() > 0) {
+            try {
+                loaded.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return !failed;
+    }
+}
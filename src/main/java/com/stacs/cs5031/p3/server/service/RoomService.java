@@ -1,8 +1,7 @@
 package com.stacs.cs5031.p3.server.service;
 
+import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import com.stacs.cs5031.p3.server.dto.RoomDto;
@@ -21,15 +20,25 @@ import com.stacs.cs5031.p3.server.repository.RoomRepository;
 public class RoomService {
 
     private final RoomRepository roomRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomCatalogCache catalogCache;
+    private final ListVersions listVersions;
 
     /**
      * Constructs a new RoomService with the necessary repository dependency.
      *
-     * @param roomRepository Repository for room data access
+     * @param roomRepository    Repository for room data access
+     * @param availabilityIndex Index of which rooms are free when
+     * @param catalogCache      Cache of the room lists
+     * @param listVersions      Versions of the room lists, for their ETags
      */
     @Autowired
-    public RoomService(RoomRepository roomRepository) {
+    public RoomService(RoomRepository roomRepository, RoomAvailabilityIndex availabilityIndex,
+                       RoomCatalogCache catalogCache, ListVersions listVersions) {
         this.roomRepository = roomRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.catalogCache = catalogCache;
+        this.listVersions = listVersions;
     }
     
     /**
@@ -46,6 +55,9 @@ public class RoomService {
             throw new IllegalArgumentException("Room capacity must be at least 1");
         }
         Room roomEntity = roomRepository.save(new Room(name, capacity));
+        availabilityIndex.evictRooms();
+        catalogCache.invalidate();
+        listVersions.roomsChanged();
         return RoomDtoMapper.mapToDTO(roomEntity);
     }
 
@@ -62,7 +74,11 @@ public class RoomService {
         if (capacity <= 1) {
             throw new IllegalArgumentException("Room capacity must be at least 1");
         }
-        return roomRepository.save(new Room(name, capacity));
+        Room roomEntity = roomRepository.save(new Room(name, capacity));
+        availabilityIndex.evictRooms();
+        catalogCache.invalidate();
+        listVersions.roomsChanged();
+        return roomEntity;
     }
 
     /**
@@ -93,25 +109,36 @@ public class RoomService {
     /**
      * Retrieves all rooms in the system.
      *
-     * @return A list of DTO representations of all rooms
+     * @return An unmodifiable list of DTO representations of all rooms, shared with other callers
      */
     public List<RoomDto> findAllRooms(){
-        return StreamSupport.stream(roomRepository.findAll().spliterator(), false)
-        .map(RoomDtoMapper::mapToDTO)
-        .collect(Collectors.toList());
+        return catalogCache.getAllRooms();
     }
     
     /**
      * Retrieves all available rooms in the system.
      *
-     * @return A list of DTO representations of all available rooms
+     * @return An unmodifiable list of DTO representations of all available rooms, shared with other callers
      */
     public List<RoomDto> findAvailableRooms() {
-        return StreamSupport.stream(roomRepository.findByAvailability(true).spliterator(), false)
-        .map(RoomDtoMapper::mapToDTO)
-        .collect(Collectors.toList());
+        return catalogCache.getAvailableRooms();
     }
     
+    /**
+     * Retrieves the rooms of at least the given capacity that have no booking in a time range.
+     * Unlike {@link #findAvailableRooms()}, this looks at the rooms' bookings rather than their
+     * availability flag.
+     *
+     * @param minCapacity The minimum room capacity
+     * @param from        The start of the range
+     * @param to          The end of the range
+     * @return A list of DTO representations of the free rooms
+     * @throws IllegalArgumentException if the range is empty or too long
+     */
+    public List<RoomDto> findFreeRooms(int minCapacity, Date from, Date to) throws IllegalArgumentException {
+        return availabilityIndex.findFreeRooms(minCapacity, from, to);
+    }
+
     /**
      * Books a room by its ID.
      *
@@ -132,6 +159,8 @@ public class RoomService {
         // if room is not booked
         roomEntity.bookRoom();
         roomRepository.save(roomEntity);
+        catalogCache.invalidate();
+        listVersions.roomsChanged();
         return RoomDtoMapper.mapToDTO(roomEntity);
     }
     
@@ -150,6 +179,8 @@ public class RoomService {
         if (!roomEntity.isAvailable()) {
             roomEntity.makeAvailable();
             roomRepository.save(roomEntity);
+            catalogCache.invalidate();
+            listVersions.roomsChanged();
         }
 
         return RoomDtoMapper.mapToDTO(roomEntity);
@@ -166,5 +197,8 @@ public class RoomService {
                 .orElseThrow(() -> new RoomNotFoundException("Room not found: " + id));
 
         roomRepository.delete(roomEntity);
+        availabilityIndex.evictRooms();
+        catalogCache.invalidate();
+        listVersions.roomsChanged();
     }
 }
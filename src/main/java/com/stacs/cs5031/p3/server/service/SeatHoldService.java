@@ -0,0 +1,226 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.stacs.cs5031.p3.server.dto.SeatHoldDto;
+import com.stacs.cs5031.p3.server.exception.BookingNotFoundException;
+import com.stacs.cs5031.p3.server.exception.EntityNotFoundException;
+import com.stacs.cs5031.p3.server.exception.ResourceUnavailableException;
+import com.stacs.cs5031.p3.server.exception.UserNotFoundException;
+import com.stacs.cs5031.p3.server.model.Attendee;
+import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.model.SeatHold;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.SeatHoldRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+
+/**
+ * The SeatHoldService class.
+ * This class lets an attendee hold a seat on a booking for a limited time before confirming it.
+ * A hold claims its seat straight away, and a hold that is not confirmed in time gives the seat
+ * back to the booking, where it goes to the head of the waitlist if there is one.
+ *
+ * <p>Expiry is driven by a {@link HashedTimingWheel} rather than a task per hold or a periodic
+ * scan of the table. Holds are stored with their expiry time, so the wheel is refilled from the
+ * database when the application starts and holds placed before a restart still lapse.</p>
+ */
+@Service
+public class SeatHoldService {
+
+    /** Hold length used when the caller does not ask for one */
+    public static final int DEFAULT_HOLD_SECONDS = 120;
+
+    /** Longest hold an attendee may place */
+    public static final int MAX_HOLD_SECONDS = 900;
+
+    private static final long TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 1024;
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final BookingRepository bookingRepository;
+    private final AttendeeService attendeeService;
+    private final TransactionTemplate expiryTemplate;
+    private final ListVersions listVersions;
+    private final HashedTimingWheel wheel = new HashedTimingWheel(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+
+    /**
+     * Constructor.
+     *
+     * @param seatHoldRepository SeatHoldRepository
+     * @param bookingRepository  BookingRepository
+     * @param attendeeService    AttendeeService, used to register attendees and give seats back
+     * @param transactionManager transaction manager used to expire each hold in its own transaction
+     * @param listVersions       ListVersions, told when a hold takes a seat
+     */
+    @Autowired
+    public SeatHoldService(SeatHoldRepository seatHoldRepository, BookingRepository bookingRepository,
+                           AttendeeService attendeeService, PlatformTransactionManager transactionManager,
+                           ListVersions listVersions) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.bookingRepository = bookingRepository;
+        this.attendeeService = attendeeService;
+        this.expiryTemplate = new TransactionTemplate(transactionManager);
+        this.listVersions = listVersions;
+    }
+
+    /**
+     * Hold a seat on a booking for an attendee.
+     *
+     * @param attendeeId The attendee ID
+     * @param bookingId The booking ID
+     * @param seconds How long the hold lasts unless confirmed, at most {@link #MAX_HOLD_SECONDS}
+     * @return The placed hold
+     * @throws UserNotFoundException if attendee is not found
+     * @throws BookingNotFoundException if booking is not found
+     * @throws ResourceUnavailableException if booking is at full capacity
+     * @throws IllegalStateException if attendee is already registered for, or holding a seat on, the booking
+     * @throws IllegalArgumentException if the hold length is out of range
+     */
+    @Transactional
+    public SeatHoldDto placeHold(Integer attendeeId, long bookingId, int seconds) {
+        if (seconds <= 0 || seconds > MAX_HOLD_SECONDS) {
+            throw new IllegalArgumentException("Hold length must be between 1 and " + MAX_HOLD_SECONDS + " seconds");
+        }
+        Attendee attendee = attendeeService.getAttendeeById(attendeeId);
+
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException(bookingId));
+
+        // as in registration, the claimed seat locks the booking row and is rolled back on failure
+        if (bookingRepository.claimSeat(bookingId) == 0) {
+            throw new ResourceUnavailableException("Booking is at full capacity");
+        }
+
+        if (bookingRepository.isRegistered(bookingId, attendeeId)) {
+            throw new IllegalStateException("Attendee is already registered for this booking");
+        }
+        if (seatHoldRepository.findByBookingIdAndAttendeeId(booking.getId(), attendeeId).isPresent()) {
+            throw new IllegalStateException("Attendee already holds a seat on this booking");
+        }
+
+        Date expiresAt = new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(seconds));
+        SeatHold hold = seatHoldRepository.save(new SeatHold(booking, attendee, expiresAt));
+        listVersions.bookingChanged(booking);
+        // scheduling before the commit could fire while the hold is still invisible to the expiry
+        afterCommit(() -> wheel.schedule(hold.getId(), expiresAt.getTime()));
+        return toDto(hold);
+    }
+
+    /**
+     * Confirm a hold, registering the attendee for the held seat.
+     *
+     * @param attendeeId The attendee ID
+     * @param holdId The hold ID
+     * @return The booking the attendee is now registered for
+     * @throws EntityNotFoundException if the attendee has no hold with this ID
+     * @throws ResourceUnavailableException if the hold has expired
+     */
+    @Transactional
+    public Booking confirmHold(Integer attendeeId, int holdId) {
+        SeatHold hold = seatHoldRepository.findById(holdId)
+                .filter(found -> found.getAttendee().getId().equals(attendeeId))
+                .orElseThrow(() -> new EntityNotFoundException("Seat hold not found with ID: " + holdId));
+
+        // the wheel may not have reached a lapsed hold yet; either way only one side deletes it
+        if (hold.isExpired(System.currentTimeMillis()) || seatHoldRepository.deleteHold(holdId) == 0) {
+            throw new ResourceUnavailableException("Seat hold has expired");
+        }
+
+        Attendee attendee = hold.getAttendee();
+        Booking booking = hold.getBooking();
+        if (bookingRepository.isRegistered(booking.getId(), attendeeId)) {
+            // registered by other means while holding, so the held seat is surplus
+            attendeeService.releaseSeat(booking);
+        } else {
+            attendeeService.completeRegistration(attendee, booking);
+        }
+        return booking;
+    }
+
+    /**
+     * Ends every hold an attendee has placed and gives the seats back, before the attendee is deleted.
+     * The expiry of each hold later finds it gone and does nothing.
+     *
+     * @param attendeeId The attendee ID
+     */
+    @Transactional
+    public void releaseHolds(Integer attendeeId) {
+        for (SeatHold hold : seatHoldRepository.findByAttendeeId(attendeeId)) {
+            // a hold confirmed or expired meanwhile has already settled its seat
+            if (seatHoldRepository.deleteHold(hold.getId()) == 1) {
+                attendeeService.releaseSeat(hold.getBooking());
+            }
+        }
+    }
+
+    /**
+     * Ends a hold whose time has run out and gives its seat back, unless it was confirmed first.
+     *
+     * @param holdId The hold ID
+     */
+    void expire(int holdId) {
+        expiryTemplate.executeWithoutResult(status -> {
+            Optional<SeatHold> hold = seatHoldRepository.findById(holdId);
+            if (hold.isEmpty()) {
+                return;
+            }
+            long expiresAt = hold.get().getExpiresAt().getTime();
+            if (!hold.get().isExpired(System.currentTimeMillis())) {
+                wheel.schedule(holdId, expiresAt);
+            } else if (seatHoldRepository.deleteHold(holdId) == 1) {
+                attendeeService.releaseSeat(hold.get().getBooking());
+            }
+        });
+    }
+
+    /**
+     * Refills the timing wheel with the holds left from before the application started and starts it.
+     * Runs after the start-up migrations, so the seat counters already include those holds.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (SeatHoldRepository.Expiry expiry : seatHoldRepository.findAllExpiries()) {
+            wheel.schedule(expiry.getId(), expiry.getExpiresAt().getTime());
+        }
+        wheel.start("seat-hold-expiry", id -> expire((int) id));
+    }
+
+    /**
+     * Stops the timing wheel. Outstanding holds stay in the database and are picked up on the next start.
+     */
+    @PreDestroy
+    public void stop() {
+        wheel.stop();
+    }
+
+    private static SeatHoldDto toDto(SeatHold hold) {
+        return new SeatHoldDto(hold.getId(), hold.getBooking().getId(), hold.getAttendee().getId(),
+                hold.getExpiresAt());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -5,11 +5,15 @@ import com.stacs.cs5031.p3.server.exception.UserNotFoundException;
 import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Organiser;
 import com.stacs.cs5031.p3.server.model.User;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
 import com.stacs.cs5031.p3.server.repository.UserRepository;
+import com.stacs.cs5031.p3.server.service.CredentialCache.Credentials;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.RegistrationRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import java.util.List;
+import jakarta.transaction.Transactional;
 import java.util.Optional;
 
 /**
@@ -22,10 +26,20 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CredentialCache credentialCache;
+    private final BookingRepository bookingRepository;
+    private final AttendeeService attendeeService;
+    private final SeatHoldService seatHoldService;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, CredentialCache credentialCache,
+                       BookingRepository bookingRepository, AttendeeService attendeeService,
+                       SeatHoldService seatHoldService) {
         this.userRepository = userRepository;
+        this.credentialCache = credentialCache;
+        this.bookingRepository = bookingRepository;
+        this.attendeeService = attendeeService;
+        this.seatHoldService = seatHoldService;
     }
 
     /**
@@ -56,7 +70,10 @@ public class UserService {
                     request.getPassword()
             );
         }
-        return userRepository.save(newUser);
+        User savedUser = userRepository.save(newUser);
+        // the username may be cached as unknown from an earlier login attempt
+        credentialCache.invalidate(request.getUsername());
+        return savedUser;
     }
 
     // check for pre-registered username
@@ -76,14 +93,34 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException(username));
     }
 
-    // delete user
+    // find the credentials to check a login against, from the credential cache when they are there
+    public Optional<Credentials> getCredentials(String username) {
+        return credentialCache.find(username);
+    }
+
+    // delete user; an attendee's registrations and held seats are given back first, while an organiser
+    // must not own any booking, as nothing would be left to run it
+    @Transactional
     public void deleteUser(Integer id) {
+        User user = userRepository.findById(id).orElse(null);
+        if (user instanceof Organiser && bookingRepository.existsByOrganiserId(id)) {
+            throw new IllegalStateException("Organiser " + id + " still owns bookings; delete them first");
+        }
+        if (user instanceof Attendee) {
+            attendeeService.leaveWaitlists(id);
+            seatHoldService.releaseHolds(id);
+            attendeeService.deregisterFromAllBookings(id);
+        }
         userRepository.deleteById(id);
+        credentialCache.invalidate(id);
     }
 
-    // list all registered users
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    // list a page of registered users in id order; the cursor is the id of the last user on the previous page
+    public KeysetPage<User> getUsers(String cursor, Integer limit) {
+        int size = KeysetPage.size(limit);
+        int afterId = cursor == null ? 0 : (int) KeysetPage.decode(cursor, 1)[0];
+        return KeysetPage.of(userRepository.findPageAfter(afterId, Limit.of(size + 1)), size,
+                user -> KeysetPage.encode(user.getId()));
     }
 
     //
@@ -0,0 +1,143 @@
+package com.stacs.cs5031.p3.server.config;
+
+import com.stacs.cs5031.p3.server.service.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link IdempotencyFilter} class.
+ * Runs requests through the filter with a stub chain that counts how often the controller would run.
+ */
+public class IdempotencyFilterTest {
+
+    /** The IdempotencyFilter instance being tested */
+    private IdempotencyFilter filter;
+
+    /** Number of requests that reached the chain */
+    private AtomicInteger executions;
+
+    /** Status the stub chain responds with */
+    private int status;
+
+    /** Stub chain standing in for the controller */
+    private FilterChain chain;
+
+    /**
+     * Setup before each test.
+     * Creates a filter over an empty store and a chain answering with the current status.
+     */
+    @BeforeEach
+    void setup() {
+        filter = new IdempotencyFilter(new IdempotencyStore());
+        executions = new AtomicInteger();
+        status = HttpServletResponse.SC_CREATED;
+        chain = (request, response) -> {
+            int run = executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(status);
+            response.setContentType("text/plain");
+            response.getOutputStream().write(("Booking created " + run).getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    /**
+     * Tests that a retried request is answered from the store without running again.
+     * Verifies that:
+     * 1. The chain runs once
+     * 2. The retry gets the same status and body, marked as replayed
+     */
+    @Test
+    void doFilter_shouldReplayResponse_whenKeyRetried() throws Exception {
+        MockHttpServletResponse first = send("key-1", "{\"eventName\":\"Gig\"}");
+        MockHttpServletResponse retry = send("key-1", "{\"eventName\":\"Gig\"}");
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    /**
+     * Tests that reusing a key with a different body is rejected with 422.
+     */
+    @Test
+    void doFilter_shouldReject_whenKeyReusedForDifferentRequest() throws Exception {
+        send("key-1", "{\"eventName\":\"Gig\"}");
+        MockHttpServletResponse other = send("key-1", "{\"eventName\":\"Lecture\"}");
+
+        assertEquals(1, executions.get());
+        assertEquals(422, other.getStatus());
+    }
+
+    /**
+     * Tests that two callers sending the same key do not share a stored response.
+     * Verifies that:
+     * 1. The second caller's request runs rather than being replayed
+     * 2. The second caller gets its own response, not the first caller's body
+     * 3. Each caller's retry still replays its own response
+     */
+    @Test
+    void doFilter_shouldKeepCallersApart_whenTheyUseTheSameKey() throws Exception {
+        MockHttpServletResponse alice = send("Bearer alice", "key-1", "{\"eventName\":\"Gig\"}");
+        MockHttpServletResponse bob = send("Bearer bob", "key-1", "{\"eventName\":\"Gig\"}");
+
+        assertEquals(2, executions.get());
+        assertNull(bob.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNotEquals(alice.getContentAsString(), bob.getContentAsString());
+
+        assertEquals(bob.getContentAsString(), send("Bearer bob", "key-1", "{\"eventName\":\"Gig\"}").getContentAsString());
+        assertEquals(2, executions.get());
+    }
+
+    /**
+     * Tests that a server error is not stored, so the retry runs again.
+     */
+    @Test
+    void doFilter_shouldRunAgain_whenFirstAttemptFailedWithServerError() throws Exception {
+        status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        send("key-1", "{}");
+        status = HttpServletResponse.SC_CREATED;
+        MockHttpServletResponse retry = send("key-1", "{}");
+
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+    }
+
+    /**
+     * Tests that requests without a key pass straight through.
+     */
+    @Test
+    void doFilter_shouldRunEveryTime_whenNoKeySent() throws Exception {
+        send(null, "{}");
+        send(null, "{}");
+
+        assertEquals(2, executions.get());
+    }
+
+    private MockHttpServletResponse send(String key, String body) throws Exception {
+        return send(null, key, body);
+    }
+
+    private MockHttpServletResponse send(String authorization, String key, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/bookings/organiser/1");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.KEY_HEADER, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,149 @@
+package com.stacs.cs5031.p3.server.config;
+
+import com.stacs.cs5031.p3.server.service.ListVersions;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ListETagFilter} class.
+ * Runs requests through the filter with a stub chain standing in for the controller, which
+ * counts how often it is reached and answers with a set status.
+ */
+public class ListETagFilterTest {
+
+    /** The ListETagFilter instance being tested */
+    private ListETagFilter filter;
+
+    /** Versions the filter reads its ETags from */
+    private ListVersions versions;
+
+    /** Status the stub chain answers with */
+    private int status;
+
+    /** Number of requests that reached the stub chain */
+    private int reached;
+
+    /** Stub chain standing in for the controller */
+    private FilterChain chain;
+
+    /**
+     * Setup before each test.
+     * Creates a filter over fresh versions, with a chain answering 200 and an empty list.
+     */
+    @BeforeEach
+    void setup() {
+        versions = new ListVersions();
+        filter = new ListETagFilter(versions);
+        status = HttpServletResponse.SC_OK;
+        chain = (request, response) -> {
+            reached++;
+            ((HttpServletResponse) response).setStatus(status);
+            response.getWriter().write("[]");
+        };
+    }
+
+    /**
+     * Tests that a list is tagged and that a request with its current ETag is answered with 304.
+     * Verifies that:
+     * 1. The first response carries an ETag
+     * 2. A request with that ETag gets 304 with the same ETag, without reaching the controller
+     * 3. The outcomes are recorded
+     */
+    @Test
+    void doFilter_shouldAnswerNotModified_whenETagCurrent() throws Exception {
+        MockHttpServletResponse first = send("/api/bookings", null);
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertEquals(HttpServletResponse.SC_OK, first.getStatus());
+        assertNotNull(etag);
+
+        MockHttpServletResponse second = send("/api/bookings", etag);
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, second.getStatus());
+        assertEquals(etag, second.getHeader(HttpHeaders.ETAG));
+        assertEquals(1, reached);
+        assertEquals(1L, versions.snapshot().get("notModified"));
+        assertEquals(1L, versions.snapshot().get("modified"));
+    }
+
+    /**
+     * Tests that a change to a booking makes the old ETag of the booking lists stale.
+     */
+    @Test
+    void doFilter_shouldReadList_afterBookingChanged() throws Exception {
+        String etag = send("/attendees/7/available-bookings", null).getHeader(HttpHeaders.ETAG);
+        versions.bookingChanged(3);
+
+        MockHttpServletResponse response = send("/attendees/7/available-bookings", etag);
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertNotEquals(etag, response.getHeader(HttpHeaders.ETAG));
+        assertEquals(2, reached);
+    }
+
+    /**
+     * Tests that an organiser's list only goes stale when that organiser's bookings change.
+     */
+    @Test
+    void doFilter_shouldTrackEachOrganiserSeparately() throws Exception {
+        String etag = send("/organiser/my-bookings/1", null).getHeader(HttpHeaders.ETAG);
+        versions.bookingChanged(2);
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, send("/organiser/my-bookings/1", etag).getStatus());
+
+        versions.bookingChanged(1);
+        assertEquals(HttpServletResponse.SC_OK, send("/organiser/my-bookings/1", etag).getStatus());
+    }
+
+    /**
+     * Tests that the room lists follow room changes and not booking changes.
+     */
+    @Test
+    void doFilter_shouldTrackRoomsSeparately() throws Exception {
+        String etag = send("/rooms/all", null).getHeader(HttpHeaders.ETAG);
+        versions.bookingChanged(1);
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, send("/rooms/available", etag).getStatus());
+
+        versions.roomsChanged();
+        assertEquals(HttpServletResponse.SC_OK, send("/rooms/all", etag).getStatus());
+    }
+
+    /**
+     * Tests that If-None-Match is compared weakly and may list several ETags.
+     */
+    @Test
+    void doFilter_shouldMatchAnyListedETag_ignoringWeakness() throws Exception {
+        String etag = send("/api/bookings", null).getHeader(HttpHeaders.ETAG);
+        String strong = etag.substring(2);
+
+        MockHttpServletResponse response = send("/api/bookings", "\"other\", " + strong);
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+    }
+
+    /**
+     * Tests that error responses and lists without a version go untagged.
+     */
+    @Test
+    void doFilter_shouldNotTag_errorsOrOtherPaths() throws Exception {
+        status = HttpServletResponse.SC_NOT_FOUND;
+        assertNull(send("/attendees/99/registered-bookings", null).getHeader(HttpHeaders.ETAG));
+
+        status = HttpServletResponse.SC_OK;
+        assertNull(send("/attendees/7/bookings-overview", null).getHeader(HttpHeaders.ETAG));
+        assertNull(send("/users", null).getHeader(HttpHeaders.ETAG));
+        assertEquals(3, reached);
+    }
+
+    private MockHttpServletResponse send(String path, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
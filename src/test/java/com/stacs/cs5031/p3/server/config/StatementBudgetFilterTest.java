@@ -0,0 +1,115 @@
+package com.stacs.cs5031.p3.server.config;
+
+import com.stacs.cs5031.p3.server.metrics.StatementMetrics;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link StatementBudgetFilter} class.
+ * Runs requests through the filter with a stub chain that passes a set number of statements
+ * through the {@link StatementCounter}, as Hibernate would while the controller runs.
+ */
+public class StatementBudgetFilterTest {
+
+    /** Budget of the filter under test */
+    private static final int BUDGET = 5;
+
+    /** The StatementBudgetFilter instance being tested */
+    private StatementBudgetFilter filter;
+
+    /** Counter shared by the filter and the stub chain */
+    private StatementCounter counter;
+
+    /** Metrics the filter records into */
+    private StatementMetrics metrics;
+
+    /** Number of statements the stub chain runs */
+    private int statements;
+
+    /** Stub chain standing in for the controller */
+    private FilterChain chain;
+
+    /**
+     * Setup before each test.
+     * Creates a filter with a budget of five statements.
+     */
+    @BeforeEach
+    void setup() {
+        counter = new StatementCounter();
+        metrics = new StatementMetrics();
+        filter = new StatementBudgetFilter(counter, metrics, BUDGET);
+        chain = (request, response) -> {
+            for (int i = 0; i < statements; i++) {
+                counter.inspect("select 1");
+            }
+        };
+    }
+
+    /**
+     * Tests that requests within the budget are counted but not reported.
+     * Verifies that:
+     * 1. Every request and statement is recorded
+     * 2. A request at exactly the budget is not over it
+     */
+    @Test
+    void doFilter_shouldRecordRequests_withinBudget() throws Exception {
+        statements = 2;
+        send();
+        statements = BUDGET;
+        send();
+
+        Map<String, Number> snapshot = metrics.snapshot();
+        assertEquals(2L, snapshot.get("requests"));
+        assertEquals(2L + BUDGET, snapshot.get("statements"));
+        assertEquals((long) BUDGET, snapshot.get("maxPerRequest"));
+        assertEquals(0L, metrics.getOverBudgetCount());
+    }
+
+    /**
+     * Tests that a request running more statements than the budget is recorded as over it.
+     */
+    @Test
+    void doFilter_shouldRecordOverBudget_whenBudgetExceeded() throws Exception {
+        statements = BUDGET + 1;
+        send();
+
+        assertEquals(1L, metrics.getOverBudgetCount());
+        assertEquals((long) BUDGET + 1, metrics.snapshot().get("maxPerRequest"));
+    }
+
+    /**
+     * Tests that each request is counted from zero and that statements outside a request are ignored.
+     */
+    @Test
+    void doFilter_shouldCountEachRequestSeparately() throws Exception {
+        counter.inspect("select 1");
+        statements = BUDGET;
+        send();
+        send();
+        counter.inspect("select 1");
+
+        assertEquals(0L, metrics.getOverBudgetCount());
+        assertEquals(2L * BUDGET, metrics.snapshot().get("statements"));
+        assertEquals(0, counter.end());
+    }
+
+    /**
+     * Tests that a budget below one is rejected.
+     */
+    @Test
+    void constructor_shouldRejectBudgetBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> new StatementBudgetFilter(counter, metrics, 0));
+    }
+
+    private void send() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings");
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+}
@@ -21,9 +21,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stacs.cs5031.p3.server.dto.AttendeeDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.OrganiserDto;
 import com.stacs.cs5031.p3.server.dto.RoomDto;
-import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Room;
 import com.stacs.cs5031.p3.server.service.AdminService;
 
@@ -92,10 +93,10 @@ public class AdminControllerTest {
      */
     @Test
     void shouldGetAllAttendees() throws Exception {
-        List<Attendee> attendees = List.of(
-                new Attendee("John Doe", "john.doe", "password123"),
-                new Attendee("Jane Smith", "jane.smith", "password456"));
-        when(adminService.getAttendees()).thenReturn(new ArrayList<>(attendees));
+        List<AttendeeDto> attendees = List.of(
+                new AttendeeDto(1, "john.doe", "John Doe", List.of()),
+                new AttendeeDto(2, "jane.smith", "Jane Smith", List.of()));
+        when(adminService.getAttendees(null, null)).thenReturn(new KeysetPage<>(attendees, null));
 
         mvc.perform(get("/admin/attendees"))
                 .andExpect(status().isOk())
@@ -104,7 +105,7 @@ public class AdminControllerTest {
                 .andExpect(jsonPath("$[0].name").value("John Doe"))
                 .andExpect(jsonPath("$[1].username").value("jane.smith"));
 
-        verify(adminService, times(1)).getAttendees();
+        verify(adminService, times(1)).getAttendees(null, null);
     }
     
     /**
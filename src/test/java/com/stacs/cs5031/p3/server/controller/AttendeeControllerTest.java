@@ -1,14 +1,25 @@
 package com.stacs.cs5031.p3.server.controller;
 
 import com.stacs.cs5031.p3.server.dto.AttendeeDto;
+import com.stacs.cs5031.p3.server.dto.BookingSummaryDto;
+import com.stacs.cs5031.p3.server.dto.BookingOverviewDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
+import com.stacs.cs5031.p3.server.dto.RegistrationTicketDto;
+import com.stacs.cs5031.p3.server.dto.SeatHoldDto;
+import com.stacs.cs5031.p3.server.dto.WaitlistDto;
 import com.stacs.cs5031.p3.server.exception.BookingFullException;
 import com.stacs.cs5031.p3.server.exception.BookingNotFoundException;
+import com.stacs.cs5031.p3.server.exception.ResourceUnavailableException;
 import com.stacs.cs5031.p3.server.exception.UserNotFoundException;
 import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Booking;
 import com.stacs.cs5031.p3.server.model.Organiser;
 import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.BookingFieldsRepository.AttendeeBookings;
 import com.stacs.cs5031.p3.server.service.AttendeeService;
+import com.stacs.cs5031.p3.server.service.BookingService;
+import com.stacs.cs5031.p3.server.service.RegistrationPipeline;
+import com.stacs.cs5031.p3.server.service.SeatHoldService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -21,9 +32,12 @@ import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 
 /**
@@ -38,6 +52,18 @@ public class AttendeeControllerTest {
     @Mock
     private AttendeeService attendeeService;
 
+    /** Mock of the BookingService to simulate reading booking summaries */
+    @Mock
+    private BookingService bookingService;
+
+    /** Mock of the SeatHoldService to simulate seat hold operations */
+    @Mock
+    private SeatHoldService seatHoldService;
+
+    /** Mock of the RegistrationPipeline to simulate queued registrations */
+    @Mock
+    private RegistrationPipeline registrationPipeline;
+
     /** The AttendeeController instance being tested, with mocked dependencies injected */
     @InjectMocks
     private AttendeeController attendeeController;
@@ -77,12 +103,12 @@ public class AttendeeControllerTest {
      */
     @Test
     void getAllAttendees_ShouldReturnAttendees() {
-        List<Attendee> attendees = Arrays.asList(attendee);
-        when(attendeeService.getAllAttendees()).thenReturn(attendees);
-        ResponseEntity<List<AttendeeDto>> response = attendeeController.getAllAttendees();
+        List<AttendeeDto> attendees = List.of(new AttendeeDto(1, "harry", "Harry", List.of()));
+        when(attendeeService.getAttendees(null, null)).thenReturn(new KeysetPage<>(attendees, null));
+        ResponseEntity<?> response = attendeeController.getAllAttendees(null, null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(1, response.getBody().size());
+        assertEquals(1, ((List<?>) response.getBody()).size());
     }
 
     /**
@@ -90,11 +116,12 @@ public class AttendeeControllerTest {
      * Verifies that:
      * 1. The endpoint returns a 200 OK status
      * 2. The response body is not null
-     * 3. The service's getAttendeeById method is called with the correct ID
+     * 3. The service's getAttendeeDetails method is called with the correct ID
      */
     @Test
     void getAttendeeById_ShouldReturnAttendee_WhenExists() {
-        when(attendeeService.getAttendeeById(1)).thenReturn(attendee);
+        when(attendeeService.getAttendeeDetails(1))
+                .thenReturn(new AttendeeDto(1, "drummerboy", "Ringo Star", List.of(1)));
         ResponseEntity<AttendeeDto> response = attendeeController.getAttendeeById(1);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -104,11 +131,11 @@ public class AttendeeControllerTest {
      * Tests retrieving an attendee by ID when the attendee doesn't exist.
      * Verifies that:
      * 1. The endpoint returns a 404 Not Found status
-     * 2. The service's getAttendeeById method is called with the correct ID
+     * 2. The service's getAttendeeDetails method is called with the correct ID
      */
     @Test
     void getAttendeeById_ShouldReturnNotFound_WhenNotExists() {
-        when(attendeeService.getAttendeeById(1)).thenThrow(new UserNotFoundException(1));
+        when(attendeeService.getAttendeeDetails(1)).thenThrow(new UserNotFoundException(1));
         ResponseEntity<AttendeeDto> response = attendeeController.getAttendeeById(1);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
@@ -119,14 +146,19 @@ public class AttendeeControllerTest {
      * 1. The endpoint returns a 200 OK status
      * 2. The response body is not null
      * 3. The service's getAvailableBookings method is called with the correct attendee ID
+     * 4. Each booking comes back as a summary with its seat count and capacity
      */
     @Test
     void getAvailableBookings_ShouldReturnBookings() {
         List<Booking> bookings = Arrays.asList(booking);
-        when(attendeeService.getAvailableBookings(1)).thenReturn(bookings);
-        ResponseEntity<?> response = attendeeController.getAvailableBookings(1);
+        when(attendeeService.getAvailableBookings(1, null, null)).thenReturn(new KeysetPage<>(bookings, null));
+        ResponseEntity<?> response = attendeeController.getAvailableBookings(1, null, null, null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
+        BookingSummaryDto summary = (BookingSummaryDto) ((List<?>) response.getBody()).get(0);
+        assertEquals("Beatles concert", summary.getEventName());
+        assertEquals(0, summary.getSeatsTaken());
+        assertEquals(200, summary.getMaxCapacity());
     }
 
     /**
@@ -135,14 +167,43 @@ public class AttendeeControllerTest {
      * 1. The endpoint returns a 200 OK status
      * 2. The response body is not null
      * 3. The service's getUnavailableBookings method is called with the correct attendee ID
+     * 4. The cursor of the next page is returned in its header
      */
     @Test
     void getUnavailableBookings_ShouldReturnBookings() {
         List<Booking> bookings = Arrays.asList(booking);
-        when(attendeeService.getUnavailableBookings(1)).thenReturn(bookings);
-        ResponseEntity<?> response = attendeeController.getUnavailableBookings(1);
+        when(attendeeService.getUnavailableBookings(1, null, null)).thenReturn(new KeysetPage<>(bookings, "next"));
+        ResponseEntity<?> response = attendeeController.getUnavailableBookings(1, null, null, null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
+        assertEquals("next", response.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER));
+    }
+
+    /**
+     * Tests retrieving the bookings overview for an attendee.
+     * Verifies that:
+     * 1. The endpoint returns a 200 OK status
+     * 2. The response body is the service's list, passed through unchanged
+     */
+    @Test
+    void getBookingsOverview_ShouldReturnOverview() {
+        List<BookingOverviewDto> overview = Arrays.asList(new BookingOverviewDto(1, "event", 1, "Room", new Date(),
+                60, 2, "Organiser", 0, 10, false));
+        when(attendeeService.getBookingsOverview(1)).thenReturn(overview);
+        ResponseEntity<?> response = attendeeController.getBookingsOverview(1);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(overview, response.getBody());
+    }
+
+    /**
+     * Tests retrieving the bookings overview for an attendee that doesn't exist.
+     * Verifies that the endpoint returns a 404 Not Found status.
+     */
+    @Test
+    void getBookingsOverview_ShouldReturnNotFound_WhenAttendeeNotExists() {
+        when(attendeeService.getBookingsOverview(1)).thenThrow(new UserNotFoundException(1));
+        ResponseEntity<?> response = attendeeController.getBookingsOverview(1);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     /**
@@ -155,12 +216,39 @@ public class AttendeeControllerTest {
     @Test
     void getRegisteredBookings_ShouldReturnBookings() {
         List<Booking> bookings = Arrays.asList(booking);
-        when(attendeeService.getRegisteredBookings(1)).thenReturn(bookings);
-        ResponseEntity<?> response = attendeeController.getRegisteredBookings(1);
+        when(attendeeService.getRegisteredBookings(1, null, null)).thenReturn(new KeysetPage<>(bookings, null));
+        ResponseEntity<?> response = attendeeController.getRegisteredBookings(1, null, null, null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
     }
 
+    /**
+     * Tests retrieving registered bookings with a sparse fieldset.
+     * Verifies that:
+     * 1. The endpoint returns a 200 OK status
+     * 2. The rows come from the service's fields query, holding only the requested fields
+     */
+    @Test
+    void getRegisteredBookings_ShouldReturnRequestedFields_WhenFieldsGiven() {
+        List<Map<String, Object>> rows = List.of(Map.of("id", 1, "eventName", "Beatles concert"));
+        when(attendeeService.getBookingFields(1, AttendeeBookings.REGISTERED, null, null, "id,eventName"))
+                .thenReturn(new KeysetPage<>(rows, null));
+        ResponseEntity<?> response = attendeeController.getRegisteredBookings(1, null, null, "id,eventName");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(rows, response.getBody());
+    }
+
+    /**
+     * Tests that an unknown field is rejected with 400 Bad Request.
+     */
+    @Test
+    void getAvailableBookings_ShouldReturnBadRequest_WhenFieldUnknown() {
+        when(attendeeService.getBookingFields(1, AttendeeBookings.AVAILABLE, null, null, "id,attendees"))
+                .thenThrow(new IllegalArgumentException("Unknown booking field: attendees"));
+        ResponseEntity<?> response = attendeeController.getAvailableBookings(1, null, null, "id,attendees");
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     /**
      * Tests registering an attendee for a booking when registration is successful.
      * Verifies that:
@@ -170,10 +258,12 @@ public class AttendeeControllerTest {
      */
     @Test
     void registerForBooking_ShouldReturnBooking_WhenSuccess() {
+        BookingSummaryDto summary = summary(1);
         when(attendeeService.registerForBooking(1, 1)).thenReturn(booking);
+        when(bookingService.getBookingSummary(anyLong())).thenReturn(Optional.of(summary));
         ResponseEntity<?> response = attendeeController.registerForBooking(1, 1);
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertNotNull(response.getBody());
+        assertEquals(summary, response.getBody());
     }
 
     /**
@@ -198,10 +288,12 @@ public class AttendeeControllerTest {
      */
     @Test
     void deregisterFromBooking_ShouldReturnBooking_WhenSuccess() {
+        BookingSummaryDto summary = summary(0);
         when(attendeeService.deregisterFromBooking(1, 1)).thenReturn(booking);
+        when(bookingService.getBookingSummary(anyLong())).thenReturn(Optional.of(summary));
         ResponseEntity<?> response = attendeeController.deregisterFromBooking(1, 1L);
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertNotNull(response.getBody());
+        assertEquals(summary, response.getBody());
     }
 
     /**
@@ -217,6 +309,84 @@ public class AttendeeControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    /**
+     * Tests joining the waitlist of a full booking.
+     * Verifies that:
+     * 1. The endpoint returns a 200 OK status
+     * 2. The response body carries the attendee's position
+     */
+    @Test
+    void joinWaitlist_ShouldReturnPosition_WhenBookingFull() {
+        WaitlistDto place = new WaitlistDto(1, 1, false, 4);
+        when(attendeeService.joinWaitlist(1, 1)).thenReturn(place);
+        ResponseEntity<?> response = attendeeController.joinWaitlist(1, 1);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(place, response.getBody());
+    }
+
+    /**
+     * Tests asking for the waitlist position of an attendee who is not waiting.
+     * Verifies that the endpoint returns a 404 Not Found status.
+     */
+    @Test
+    void getWaitlistPosition_ShouldReturnNotFound_WhenNotWaiting() {
+        when(attendeeService.getWaitlistPosition(1, 1))
+                .thenThrow(new IllegalStateException("Attendee is not on the waitlist for this booking"));
+        ResponseEntity<?> response = attendeeController.getWaitlistPosition(1, 1);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    /**
+     * Tests placing a seat hold.
+     * Verifies that the endpoint returns a 201 Created status with the hold in the body.
+     */
+    @Test
+    void placeHold_ShouldReturnCreated_WhenSeatAvailable() {
+        SeatHoldDto hold = new SeatHoldDto(7, 1, 1, new Date());
+        when(seatHoldService.placeHold(1, 1, 60)).thenReturn(hold);
+        ResponseEntity<?> response = attendeeController.placeHold(1, 1, 60);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(hold, response.getBody());
+    }
+
+    /**
+     * Tests confirming a seat hold that has already expired.
+     * Verifies that the endpoint returns a 410 Gone status.
+     */
+    @Test
+    void confirmHold_ShouldReturnGone_WhenHoldExpired() {
+        when(seatHoldService.confirmHold(1, 7)).thenThrow(new ResourceUnavailableException("Seat hold has expired"));
+        ResponseEntity<?> response = attendeeController.confirmHold(1, 7);
+        assertEquals(HttpStatus.GONE, response.getStatusCode());
+    }
+
+    /**
+     * Tests queueing a registration.
+     * Verifies that:
+     * 1. The endpoint returns a 202 Accepted status with the pending ticket
+     * 2. The Location header points at the ticket
+     */
+    @Test
+    void registerForBookingAsync_ShouldReturnAccepted_WithTicket() {
+        RegistrationTicketDto ticket = new RegistrationTicketDto(9, 1, 1, RegistrationTicketDto.Status.PENDING, null);
+        when(registrationPipeline.submit(1, 1)).thenReturn(ticket);
+        ResponseEntity<?> response = attendeeController.registerForBookingAsync(1, 1);
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(ticket, response.getBody());
+        assertEquals("/attendees/1/registrations/9", response.getHeaders().getLocation().toString());
+    }
+
+    /**
+     * Helper method to create the summary of the test booking.
+     *
+     * @param seatsTaken The number of seats taken
+     * @return The booking summary
+     */
+    private BookingSummaryDto summary(int seatsTaken) {
+        return new BookingSummaryDto(1L, "Beatles concert", 1L, "Cavern Club", booking.getStartTime(), 60,
+                1L, "Brian Epstein", seatsTaken, 200);
+    }
+
     /**
      * Helper method to set an ID field on an object using reflection.
      * Used to simulate database-assigned IDs for testing.
@@ -331,7 +331,9 @@ public class OrganiserControllerTest {
                                 .andExpect(status().isOk())
                                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                                 .andExpect(jsonPath("$.[0].eventName").value(b1.getName()))
-                                .andExpect(jsonPath("$.[1].eventName").value(b2.getName()));
+                                .andExpect(jsonPath("$.[1].eventName").value(b2.getName()))
+                                .andExpect(jsonPath("$.[0].seatsTaken").value(0))
+                                .andExpect(jsonPath("$.[0].attendees").doesNotExist());
 
         }
 
@@ -1,5 +1,8 @@
 package com.stacs.cs5031.p3.server.controller;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -7,6 +10,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -18,9 +22,11 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import com.stacs.cs5031.p3.server.dto.FreeSlotDto;
 import com.stacs.cs5031.p3.server.dto.RoomDto;
 import com.stacs.cs5031.p3.server.exception.RoomNotAvailableException;
 import com.stacs.cs5031.p3.server.exception.RoomNotFoundException;
+import com.stacs.cs5031.p3.server.service.FreeSlotService;
 import com.stacs.cs5031.p3.server.service.RoomService;
 
 /**
@@ -37,6 +43,10 @@ public class RoomControllerTest {
     @Mock
     private RoomService roomService;
 
+    /** Mock of the FreeSlotService to simulate free-slot searches */
+    @Mock
+    private FreeSlotService freeSlotService;
+
     /** The controller being tested, with mocked dependencies injected */
     @InjectMocks
     private RoomController roomController;
@@ -240,4 +250,48 @@ public class RoomControllerTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    /**
+     * Tests that GET /rooms/free-slots returns the windows found by the service.
+     *
+     * @throws Exception if the test encounters an error
+     */
+    @Test
+    void shouldReturnFreeSlots() throws Exception {
+        when(freeSlotService.findFreeSlots(eq(10), eq(60), any(Date.class), any(Date.class), eq(5)))
+                .thenReturn(List.of(new FreeSlotDto(1, "Room 1", 20, new Date(0), new Date(3_600_000))));
+        mvc.perform(get("/rooms/free-slots?minCapacity=10&duration=60&limit=5"
+                        + "&from=2030-01-07T09:00:00Z&to=2030-01-07T17:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].roomId", is(1)));
+    }
+
+    /**
+     * Tests that GET /rooms/free-slots returns 400 Bad Request when the service rejects the search.
+     *
+     * @throws Exception if the test encounters an error
+     */
+    @Test
+    void shouldReturnBadRequest_whenFreeSlotSearchInvalid() throws Exception {
+        when(freeSlotService.findFreeSlots(anyInt(), anyInt(), any(Date.class), any(Date.class), anyInt()))
+                .thenThrow(new IllegalArgumentException("Duration must be positive"));
+        mvc.perform(get("/rooms/free-slots?duration=0&from=2030-01-07T09:00:00Z&to=2030-01-07T17:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests that GET /rooms/free returns the rooms free for the whole range.
+     *
+     * @throws Exception if the test encounters an error
+     */
+    @Test
+    void shouldReturnFreeRooms() throws Exception {
+        when(roomService.findFreeRooms(eq(20), any(Date.class), any(Date.class)))
+                .thenReturn(List.of(new RoomDto(3, "Room 3", 40, true)));
+        mvc.perform(get("/rooms/free?minCapacity=20&from=2030-01-07T09:00:00Z&to=2030-01-07T10:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(3)));
+    }
 }
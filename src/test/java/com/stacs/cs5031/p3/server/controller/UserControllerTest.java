@@ -1,6 +1,7 @@
 package com.stacs.cs5031.p3.server.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.LoginRequest;
 import com.stacs.cs5031.p3.server.dto.RegistrationRequest;
 import com.stacs.cs5031.p3.server.exception.UserAlreadyExistsException;
@@ -8,6 +9,7 @@ import com.stacs.cs5031.p3.server.exception.UserNotFoundException;
 import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Organiser;
 import com.stacs.cs5031.p3.server.model.User;
+import com.stacs.cs5031.p3.server.service.CredentialCache;
 import com.stacs.cs5031.p3.server.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,10 +20,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.util.Arrays;
+import java.util.Optional;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -104,20 +108,34 @@ public class UserControllerTest {
     }
 
     /**
-     * Tests retrieving all users.
+     * Tests retrieving a page of users.
      * Verifies that:
      * 1. The endpoint returns a 200 OK status
-     * 2. The service's getAllUsers method is called
+     * 2. The cursor of the next page is returned in the X-Next-Cursor header
+     * 3. The service's getUsers method is called with the cursor and page size
      * 
      * @throws Exception if an error occurs during the mock HTTP request
      */
     @Test
     void shouldReturnAllUsers() throws Exception {
         User user2 = new User("Jane Doe", "janedoe", "password456");
-        when(userService.getAllUsers()).thenReturn(Arrays.asList(testUser, user2));
-        mockMvc.perform(get("/users"))
-                .andExpect(status().isOk());
-        verify(userService).getAllUsers();
+        when(userService.getUsers("abc", 2)).thenReturn(new KeysetPage<>(Arrays.asList(testUser, user2), "def"));
+        mockMvc.perform(get("/users").param("cursor", "abc").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetPage.NEXT_CURSOR_HEADER, "def"));
+        verify(userService).getUsers("abc", 2);
+    }
+
+    /**
+     * Tests that an invalid cursor is rejected with a 400 Bad Request status.
+     * 
+     * @throws Exception if an error occurs during the mock HTTP request
+     */
+    @Test
+    void shouldReturnBadRequest_WhenCursorInvalid() throws Exception {
+        when(userService.getUsers("bad", null)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+        mockMvc.perform(get("/users").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
     }
 
     /**
@@ -221,6 +239,24 @@ public class UserControllerTest {
         verify(userService, never()).deleteUser(1000);
     }
 
+    /**
+     * Tests deleting an organiser who still owns bookings.
+     * Verifies that:
+     * 1. The endpoint returns a 409 Conflict status
+     * 2. The response body explains why the delete was refused
+     * 
+     * @throws Exception if an error occurs during the mock HTTP request
+     */
+    @Test
+    void shouldReturnConflict_whenOrganiserStillOwnsBookings() throws Exception {
+        when(userService.getUserById(1)).thenReturn(testUser);
+        doThrow(new IllegalStateException("Organiser 1 still owns bookings; delete them first"))
+                .when(userService).deleteUser(1);
+        mockMvc.perform(delete("/users/1"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Organiser 1 still owns bookings; delete them first"));
+    }
+
     /**
      * Tests registering a user with a username that is already taken.
      * Verifies that:
@@ -246,34 +282,36 @@ public class UserControllerTest {
      * Tests login with valid credentials.
      * Verifies that:
      * 1. The endpoint returns a 200 OK status
-     * 2. The service's getUserByUsername method is called with the correct username
+     * 2. The response body holds the user's details
+     * 3. The service's getCredentials method is called with the correct username
      * 
      * @throws Exception if an error occurs during the mock HTTP request
      */
     @Test
     void shouldLoginSuccessfully_withValidCredentials() throws Exception {
-        when(userService.getUserByUsername("johndoe")).thenReturn(testUser);
+        when(userService.getCredentials("johndoe")).thenReturn(Optional.of(new CredentialCache.Credentials(testUser)));
         LoginRequest loginRequest = new LoginRequest();
         loginRequest.setUsername("johndoe");
         loginRequest.setPassword("password123");
         mockMvc.perform(post("/users/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequest)))
-                .andExpect(status().isOk());
-        verify(userService).getUserByUsername("johndoe");
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"username\":\"johndoe\",\"name\":\"John Doe\",\"role\":\"USER\"}"));
+        verify(userService).getCredentials("johndoe");
     }
 
     /**
      * Tests login with invalid password.
      * Verifies that:
      * 1. The endpoint returns a 401 Unauthorized status
-     * 2. The service's getUserByUsername method is called with the correct username
+     * 2. The service's getCredentials method is called with the correct username
      * 
      * @throws Exception if an error occurs during the mock HTTP request
      */
     @Test
     void shouldReturnUnauthorized_withInvalidPassword() throws Exception {
-        when(userService.getUserByUsername("johndoe")).thenReturn(testUser);
+        when(userService.getCredentials("johndoe")).thenReturn(Optional.of(new CredentialCache.Credentials(testUser)));
 
         LoginRequest loginRequest = new LoginRequest();
         loginRequest.setUsername("johndoe");
@@ -282,20 +320,20 @@ public class UserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isUnauthorized());
-        verify(userService).getUserByUsername("johndoe");
+        verify(userService).getCredentials("johndoe");
     }
 
     /**
      * Tests login with a non-existent username.
      * Verifies that:
      * 1. The endpoint returns a 401 Unauthorized status
-     * 2. The service's getUserByUsername method is called with the correct username
+     * 2. The service's getCredentials method is called with the correct username
      * 
      * @throws Exception if an error occurs during the mock HTTP request
      */
     @Test
     void shouldReturnUnauthorized_withNonExistentUsername() throws Exception {
-        when(userService.getUserByUsername("unknown")).thenThrow(new UserNotFoundException("unknown"));
+        when(userService.getCredentials("unknown")).thenReturn(Optional.empty());
 
         LoginRequest loginRequest = new LoginRequest();
         loginRequest.setUsername("unknown");
@@ -304,7 +342,7 @@ public class UserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isUnauthorized());
-        verify(userService).getUserByUsername("unknown");
+        verify(userService).getCredentials("unknown");
     }
 
     /**
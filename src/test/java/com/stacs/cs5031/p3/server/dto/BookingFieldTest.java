@@ -0,0 +1,61 @@
+package com.stacs.cs5031.p3.server.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link BookingField} class.
+ * Tests parsing of the fields parameter of the booking list endpoints.
+ */
+public class BookingFieldTest {
+
+    /**
+     * Tests that fields are parsed in the order given, ignoring spaces and empty entries.
+     */
+    @Test
+    void shouldParseFieldsInOrderGiven() {
+        assertEquals(List.of(BookingField.START_TIME, BookingField.ID, BookingField.SEATS_TAKEN),
+                BookingField.parse("startTime, id,,seatsTaken"));
+    }
+
+    /**
+     * Tests that a field named twice is kept once, where it first appears.
+     */
+    @Test
+    void shouldKeepRepeatedFieldOnce() {
+        assertEquals(List.of(BookingField.EVENT_NAME, BookingField.ID), BookingField.parse("eventName,id,eventName"));
+    }
+
+    /**
+     * Tests that unknown fields, including those only on the full booking, are rejected.
+     */
+    @Test
+    void shouldRejectUnknownField() {
+        assertThrows(IllegalArgumentException.class, () -> BookingField.parse("id,attendees"));
+        assertThrows(IllegalArgumentException.class, () -> BookingField.parse("EventName"));
+    }
+
+    /**
+     * Tests that a parameter naming no field is rejected.
+     */
+    @Test
+    void shouldRejectEmptyFields() {
+        assertThrows(IllegalArgumentException.class, () -> BookingField.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> BookingField.parse(" , "));
+    }
+
+    /**
+     * Tests that every field is named after a property of the booking summary.
+     */
+    @Test
+    void shouldNameSummaryProperties() throws Exception {
+        for (BookingField field : BookingField.values()) {
+            String getter = "get" + Character.toUpperCase(field.getProperty().charAt(0)) + field.getProperty().substring(1);
+            BookingSummaryDto.class.getMethod(getter);
+        }
+    }
+}
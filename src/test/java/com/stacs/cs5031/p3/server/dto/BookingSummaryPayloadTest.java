@@ -0,0 +1,100 @@
+package com.stacs.cs5031.p3.server.dto;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Payload size and serialisation time of a booking list as {@link BookingDto}s against the same
+ * list as {@link BookingSummaryDto}s, on a synthetic dataset.
+ * Prints the figures for a sparse and a dense dataset and verifies that only the full
+ * representation grows with the number of registrations.
+ */
+public class BookingSummaryPayloadTest {
+
+    /** Bookings on the list, the size of a full page */
+    private static final int BOOKINGS = KeysetPage.MAX_SIZE;
+
+    /** Attendees in the system */
+    private static final int ATTENDEES = 2_000;
+
+    /** Serialisation runs timed for each representation; the fastest is reported */
+    private static final int RUNS = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Tests the two representations on a sparse and a dense dataset.
+     * Verifies that:
+     * 1. The full list grows with the number of registrations
+     * 2. The summary list stays the same size, and is far smaller than the full list once bookings fill up
+     */
+    @Test
+    void summaries_shouldNotGrowWithRegistrations() throws Exception {
+        Sizes sparse = measure("sparse", 2);
+        Sizes dense = measure("dense", 100);
+
+        assertTrue(dense.full > sparse.full * 10, "full payload should grow with registrations");
+        assertTrue(Math.abs(dense.summary - sparse.summary) < sparse.summary / 20,
+                "summary payload should not depend on registrations");
+        assertTrue(dense.summary * 20 < dense.full, "summary payload should be far smaller");
+    }
+
+    /**
+     * Builds the dataset, serialises both representations and prints the comparison.
+     */
+    private Sizes measure(String label, int attendeesPerBooking) throws Exception {
+        List<BookingDto> full = new ArrayList<>(BOOKINGS);
+        List<BookingSummaryDto> summaries = new ArrayList<>(BOOKINGS);
+        // attendee a is registered for every booking b where a and b leave the same remainder by the stride
+        int stride = ATTENDEES / attendeesPerBooking;
+        List<List<Integer>> bookingIds = new ArrayList<>(ATTENDEES);
+        for (int a = 0; a < ATTENDEES; a++) {
+            List<Integer> ids = new ArrayList<>();
+            for (int b = a % stride; b < BOOKINGS; b += stride) {
+                ids.add(b + 1);
+            }
+            bookingIds.add(ids);
+        }
+        Date start = new Date();
+        for (int b = 0; b < BOOKINGS; b++) {
+            List<AttendeeDto> attendees = new ArrayList<>();
+            for (int a = b % stride; a < ATTENDEES; a += stride) {
+                attendees.add(new AttendeeDto(a + 1, "attendee" + a, "Attendee " + a, bookingIds.get(a)));
+            }
+            full.add(new BookingDto((long) b + 1, "Event " + b, 1L, "Main Hall", start, 60, 1L, "Organiser",
+                    attendees, attendees.size(), 200));
+            summaries.add(new BookingSummaryDto((long) b + 1, "Event " + b, 1L, "Main Hall", start, 60, 1L,
+                    "Organiser", attendees.size(), 200));
+        }
+
+        Sizes sizes = new Sizes(objectMapper.writeValueAsBytes(full).length,
+                objectMapper.writeValueAsBytes(summaries).length);
+        long fullMicros = fastest(full);
+        long summaryMicros = fastest(summaries);
+        System.out.println(label + " (" + attendeesPerBooking + " attendees per booking, " + BOOKINGS + " bookings): "
+                + "BookingDto " + sizes.full + " bytes in " + fullMicros + " us, "
+                + "BookingSummaryDto " + sizes.summary + " bytes in " + summaryMicros + " us");
+        return sizes;
+    }
+
+    private long fastest(Object value) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long began = System.nanoTime();
+            objectMapper.writeValueAsBytes(value);
+            best = Math.min(best, (System.nanoTime() - began) / 1_000);
+        }
+        return best;
+    }
+
+    /** Serialised sizes of the two representations, in bytes */
+    private record Sizes(int full, int summary) {
+    }
+}
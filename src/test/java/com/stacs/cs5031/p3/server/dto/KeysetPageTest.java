@@ -0,0 +1,87 @@
+package com.stacs.cs5031.p3.server.dto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link KeysetPage} class.
+ * Tests page size handling, trimming of the look-ahead row and cursor encoding.
+ */
+public class KeysetPageTest {
+
+    /**
+     * Tests that a missing page size gives the default and that sizes above the maximum are cut down.
+     */
+    @Test
+    void shouldWorkOutPageSize() {
+        assertEquals(KeysetPage.DEFAULT_SIZE, KeysetPage.size(null));
+        assertEquals(10, KeysetPage.size(10));
+        assertEquals(KeysetPage.MAX_SIZE, KeysetPage.size(KeysetPage.MAX_SIZE + 1));
+    }
+
+    /**
+     * Tests that page sizes below 1 are rejected.
+     */
+    @Test
+    void shouldRejectPageSizeBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetPage.size(0));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPage.size(-5));
+    }
+
+    /**
+     * Tests that the look-ahead row is dropped and the cursor points after the last row kept.
+     */
+    @Test
+    void shouldTrimLookAheadRowAndSetCursor() {
+        KeysetPage<Integer> page = KeysetPage.of(List.of(1, 2, 3), 2, id -> KeysetPage.encode(id));
+        assertEquals(List.of(1, 2), page.getItems());
+        assertArrayEquals(new long[] {2}, KeysetPage.decode(page.getNextCursor(), 1));
+    }
+
+    /**
+     * Tests that a page with no more rows than the page size is the last page.
+     */
+    @Test
+    void shouldHaveNoCursorOnLastPage() {
+        KeysetPage<Integer> page = KeysetPage.of(List.of(1, 2), 2, id -> KeysetPage.encode(id));
+        assertEquals(List.of(1, 2), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    /**
+     * Tests that a composite key survives encoding, including negative parts.
+     */
+    @Test
+    void shouldRoundTripCompositeCursor() {
+        String cursor = KeysetPage.encode(-1_000L, 42L);
+        assertArrayEquals(new long[] {-1_000L, 42L}, KeysetPage.decode(cursor, 2));
+    }
+
+    /**
+     * Tests that malformed cursors, and cursors with the wrong number of parts, are rejected.
+     */
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetPage.decode("not a cursor", 1));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPage.decode(KeysetPage.encode(1L, 2L), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetPage.decode(Base64.getUrlEncoder().encodeToString("x".getBytes()), 1));
+    }
+
+    /**
+     * Tests that mapping a page converts every row and keeps the cursor.
+     */
+    @Test
+    void shouldMapRowsAndKeepCursor() {
+        KeysetPage<String> page = new KeysetPage<>(List.of(1, 2), "next").map(String::valueOf);
+        assertEquals(List.of("1", "2"), page.getItems());
+        assertEquals("next", page.getNextCursor());
+    }
+}
@@ -0,0 +1,104 @@
+package com.stacs.cs5031.p3.server.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the time arithmetic of the {@link Booking} class.
+ * Verifies that the cached millisecond start and end follow the start time and duration,
+ * and that overlap checks use half-open intervals without allocating.
+ */
+public class BookingOverlapTest {
+
+    /** One minute in milliseconds */
+    private static final long MINUTE = 60_000L;
+
+    /** Room shared by the bookings under test */
+    private Room room;
+
+    /** A 10:00-11:00 booking (in minutes) */
+    private Booking booking;
+
+    /**
+     * Setup before each test.
+     * Creates a room and a one-hour booking in it.
+     */
+    @BeforeEach
+    void setup() {
+        room = new Room("Test Room", 10);
+        booking = new Booking("Test Meeting", room, new Date(600 * MINUTE), 60, null);
+    }
+
+    /**
+     * Tests that the millisecond start and end are derived from the start time and duration.
+     */
+    @Test
+    void millis_shouldMatchStartTimeAndDuration() {
+        assertEquals(600 * MINUTE, booking.getStartMillis());
+        assertEquals(660 * MINUTE, booking.getEndMillis());
+        assertEquals(new Date(660 * MINUTE), booking.getEndTime());
+    }
+
+    /**
+     * Tests that changing the start time or duration moves the cached end as well.
+     */
+    @Test
+    void millis_shouldFollowSetters() {
+        booking.setStartTime(new Date(700 * MINUTE));
+        booking.setDuration(30);
+        assertEquals(700 * MINUTE, booking.getStartMillis());
+        assertEquals(730 * MINUTE, booking.getEndMillis());
+        assertEquals(new Date(730 * MINUTE), booking.getEndTime());
+    }
+
+    /**
+     * Tests that overlapping and back-to-back bookings are told apart.
+     */
+    @Test
+    void overlaps_shouldUseHalfOpenIntervals() {
+        Booking overlapping = new Booking("Overlapping", room, new Date(630 * MINUTE), 60, null);
+        Booking backToBack = new Booking("Back to back", room, new Date(660 * MINUTE), 60, null);
+        assertTrue(booking.overlaps(overlapping));
+        assertTrue(overlapping.overlaps(booking));
+        assertFalse(booking.overlaps(backToBack));
+        assertFalse(backToBack.overlaps(booking));
+        assertFalse(booking.overlaps(540 * MINUTE, 600 * MINUTE));
+    }
+
+    /**
+     * Tests that bookings in different rooms never overlap.
+     */
+    @Test
+    void overlaps_shouldReturnFalse_forDifferentRooms() {
+        Booking otherRoom = new Booking("Other room", new Room("Other Room", 10), new Date(600 * MINUTE), 60, null);
+        assertFalse(booking.overlaps(otherRoom));
+    }
+
+    /**
+     * Tests that overlap checks do not allocate.
+     * Runs a million checks and verifies the thread allocated well under one byte per check.
+     */
+    @Test
+    void overlaps_shouldNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int hits = 0;
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1_000_000; i++) {
+            if (booking.overlaps(i * MINUTE, (i + 30) * MINUTE)) {
+                hits++;
+            }
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(89, hits);
+        assertTrue(allocated < 4096, "overlap checks allocated " + allocated + " bytes");
+    }
+}
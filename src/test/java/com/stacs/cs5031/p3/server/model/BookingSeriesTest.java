@@ -0,0 +1,92 @@
+package com.stacs.cs5031.p3.server.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BookingSeries} class.
+ * Verifies that recurrence rules expand into the expected occurrence start times
+ * and that incomplete or oversized rules are rejected.
+ */
+public class BookingSeriesTest {
+
+    /** Room used by the series under test */
+    private Room room;
+
+    /** A Monday at 10:00 in the server's time zone */
+    private ZonedDateTime monday;
+
+    /**
+     * Setup before each test.
+     */
+    @BeforeEach
+    void setup() {
+        room = new Room("Lecture Theatre", 100);
+        monday = ZonedDateTime.of(2030, 1, 7, 10, 0, 0, 0, ZoneId.systemDefault());
+    }
+
+    private static Date date(ZonedDateTime time) {
+        return Date.from(time.toInstant());
+    }
+
+    /**
+     * Tests that a weekly series with a count has that many occurrences, one week apart.
+     */
+    @Test
+    void occurrenceStarts_shouldStepWeekly_forCount() {
+        BookingSeries series = new BookingSeries("Seminar", room, date(monday), 60,
+                BookingSeries.Frequency.WEEKLY, 0, null, 11, null);
+        List<Date> starts = series.occurrenceStarts();
+        assertEquals(11, starts.size());
+        assertEquals(date(monday), starts.get(0));
+        assertEquals(date(monday.plusWeeks(10)), starts.get(10));
+    }
+
+    /**
+     * Tests that an until date is inclusive.
+     */
+    @Test
+    void occurrenceStarts_shouldIncludeUntilDate() {
+        BookingSeries series = new BookingSeries("Standup", room, date(monday), 15,
+                BookingSeries.Frequency.DAILY, 0, date(monday.plusDays(4)), null, null);
+        assertEquals(5, series.occurrenceStarts().size());
+    }
+
+    /**
+     * Tests that a custom series steps by its interval in days.
+     */
+    @Test
+    void occurrenceStarts_shouldStepByInterval_forCustomSeries() {
+        BookingSeries series = new BookingSeries("Fortnightly", room, date(monday), 60,
+                BookingSeries.Frequency.CUSTOM, 14, null, 3, null);
+        assertEquals(date(monday.plusDays(28)), series.occurrenceStarts().get(2));
+    }
+
+    /**
+     * Tests that a rule without an end, or with both kinds of end, is rejected.
+     */
+    @Test
+    void constructor_shouldRejectRuleWithoutExactlyOneEnd() {
+        assertThrows(IllegalArgumentException.class, () -> new BookingSeries("Seminar", room, date(monday), 60,
+                BookingSeries.Frequency.WEEKLY, 0, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new BookingSeries("Seminar", room, date(monday), 60,
+                BookingSeries.Frequency.WEEKLY, 0, date(monday.plusWeeks(2)), 3, null));
+    }
+
+    /**
+     * Tests that a series expanding to too many occurrences is rejected.
+     */
+    @Test
+    void occurrenceStarts_shouldThrow_whenSeriesTooLong() {
+        BookingSeries series = new BookingSeries("Forever", room, date(monday), 60,
+                BookingSeries.Frequency.DAILY, 0, date(monday.plusYears(5)), null, null);
+        assertThrows(IllegalArgumentException.class, series::occurrenceStarts);
+    }
+}
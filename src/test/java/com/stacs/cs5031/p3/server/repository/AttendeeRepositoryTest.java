@@ -1,5 +1,8 @@
 package com.stacs.cs5031.p3.server.repository;
 
+import com.stacs.cs5031.p3.server.dto.AttendeeSummaryDto;
+import com.stacs.cs5031.p3.server.dto.BookingField;
+import com.stacs.cs5031.p3.server.dto.BookingOverviewDto;
 import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Booking;
 import com.stacs.cs5031.p3.server.model.Organiser;
@@ -9,8 +12,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -29,6 +34,10 @@ public class AttendeeRepositoryTest {
     @Autowired
     private AttendeeRepository attendeeRepository;
 
+    /** BookingRepository, used to bring the seat counters in line with the attendee rows */
+    @Autowired
+    private BookingRepository bookingRepository;
+
     /** Test attendee instance used across multiple test methods */
     private Attendee attendee;
     
@@ -77,6 +86,7 @@ public class AttendeeRepositoryTest {
         registeredBooking = new Booking(eventName, room, new Date(), 60, organiser);
         entityManager.persist(registeredBooking);
         attendee.getRegisteredBookings().add(registeredBooking);
+        registeredBooking.getAttendees().add(attendee);
         entityManager.persist(attendee);
 
         fullBooking = new Booking("Full Event", room, new Date(), 60, organiser);
@@ -84,6 +94,9 @@ public class AttendeeRepositoryTest {
         entityManager.persist(fullBooking);
 
         entityManager.flush();
+        // seat counters are kept by the registration services, not by saving attendee lists
+        bookingRepository.recountSeats();
+        entityManager.clear();
     }
 
     /**
@@ -132,7 +145,7 @@ public class AttendeeRepositoryTest {
      */
     @Test
     public void shouldFindRegisteredBookings() {
-        List<Booking> registeredBookings = attendeeRepository.findRegisteredBookings(attendee.getId());
+        List<Booking> registeredBookings = attendeeRepository.findRegisteredBookings(attendee.getId(), Limit.of(10));
         assertNotNull(registeredBookings);
         assertEquals(1, registeredBookings.size());
         assertEquals("Hannah Montana concert", registeredBookings.get(0).getName());
@@ -151,7 +164,7 @@ public class AttendeeRepositoryTest {
      */
     @Test
     public void shouldFindAvailableBookings() {
-        List<Booking> availableBookings = attendeeRepository.findAvailableBookings(attendee.getId());
+        List<Booking> availableBookings = attendeeRepository.findAvailableBookings(attendee.getId(), Limit.of(10));
         assertNotNull(availableBookings);
         assertEquals(1, availableBookings.size());
         assertEquals("Hannah Montana concert", availableBookings.get(0).getName());
@@ -170,9 +183,167 @@ public class AttendeeRepositoryTest {
      */
     @Test
     public void shouldFindUnavailableBookings() {
-        List<Booking> unavailableBookings = attendeeRepository.findUnavailableBookings(attendee.getId());
+        List<Booking> unavailableBookings = attendeeRepository.findUnavailableBookings(attendee.getId(), Limit.of(10));
         assertNotNull(unavailableBookings);
         assertEquals(1, unavailableBookings.size());
         assertEquals("Full Event", unavailableBookings.get(0).getName());
     }
+
+    /**
+     * Tests that an attendee's booking lists are read a page at a time.
+     * Verifies that:
+     * 1. The page size limits the rows read
+     * 2. A page after the last booking is empty
+     * 3. A page starting before a booking holds it
+     */
+    @Test
+    public void shouldPageAttendeeBookings() {
+        assertEquals(1, attendeeRepository.findUnavailableBookings(attendee.getId(), Limit.of(1)).size());
+        assertTrue(attendeeRepository.findRegisteredBookingsAfter(attendee.getId(), registeredBooking.getStartTime(),
+                registeredBooking.getId(), Limit.of(10)).isEmpty());
+        assertEquals(1, attendeeRepository.findAvailableBookingsAfter(attendee.getId(),
+                new Date(availableBooking.getStartTime().getTime() - 1), 0, Limit.of(10)).size());
+    }
+
+    /**
+     * Tests that the bookings overview tags every booking for the attendee in one query.
+     * Verifies that:
+     * 1. All three bookings are returned, in start time order
+     * 2. Each booking has the expected status
+     * 3. Bookings that started before the given time are left out
+     */
+    @Test
+    public void shouldFindBookingOverview() {
+        List<BookingOverviewDto> overview = attendeeRepository.findBookingOverview(attendee.getId(), new Date(0));
+        assertEquals(3, overview.size());
+        assertEquals(BookingOverviewDto.Status.AVAILABLE, overview.get(0).getStatus());
+        assertEquals(BookingOverviewDto.Status.REGISTERED, overview.get(1).getStatus());
+        assertEquals(BookingOverviewDto.Status.FULL, overview.get(2).getStatus());
+        assertEquals(room.getCapacity(), overview.get(2).getSeatsTaken());
+        assertEquals("Jackson Stewart", overview.get(0).getOrganiserName());
+
+        Date later = new Date(System.currentTimeMillis() + 60_000);
+        assertTrue(attendeeRepository.findBookingOverview(attendee.getId(), later).isEmpty());
+    }
+
+    /**
+     * Tests that the bookings overview of an attendee that does not exist is empty.
+     */
+    @Test
+    public void bookingOverviewOfNonExistentAttendeeShouldBeEmpty() {
+        assertTrue(attendeeRepository.findBookingOverview(-1, new Date(0)).isEmpty());
+    }
+
+    /**
+     * Tests that attendees can be read a page at a time in ID order.
+     * Verifies that:
+     * 1. Each page holds at most the requested number of attendees, in ascending ID order
+     * 2. The page after an attendee starts with the next attendee, so pages neither overlap nor skip
+     */
+    @Test
+    public void shouldFindAttendeesPageByPage() {
+        List<Attendee> first = attendeeRepository.findPageAfter(0, Limit.of(2));
+        assertEquals(2, first.size());
+        assertTrue(first.get(0).getId() < first.get(1).getId());
+
+        List<Attendee> second = attendeeRepository.findPageAfter(first.get(1).getId(), Limit.of(2));
+        assertEquals(2, second.size());
+        assertTrue(first.get(1).getId() < second.get(0).getId());
+
+        List<Attendee> all = attendeeRepository.findPageAfter(0, Limit.of(100));
+        assertEquals(first, all.subList(0, 2));
+        assertEquals(second, all.subList(2, 4));
+    }
+
+    /**
+     * Tests that a booking's attendees can be read a page at a time as summaries.
+     * Verifies that:
+     * 1. Pages hold the booking's attendees in ascending ID order, without overlap
+     * 2. The summary carries the attendee's username and name
+     * 3. A booking with no attendees gives an empty page
+     */
+    @Test
+    public void shouldFindBookingAttendeesPageByPage() {
+        List<AttendeeSummaryDto> first = bookingRepository.findAttendeePage(fullBooking.getId(), 0, Limit.of(3));
+        assertEquals(3, first.size());
+        List<AttendeeSummaryDto> rest = bookingRepository.findAttendeePage(fullBooking.getId(),
+                first.get(2).getId(), Limit.of(3));
+        assertEquals(room.getCapacity() - 3, rest.size());
+        assertTrue(first.get(2).getId() < rest.get(0).getId());
+
+        List<AttendeeSummaryDto> registered = bookingRepository.findAttendeePage(registeredBooking.getId(), 0,
+                Limit.of(10));
+        assertEquals(1, registered.size());
+        assertEquals("hannahmontana", registered.get(0).getUsername());
+        assertEquals("Hannah Montana", registered.get(0).getName());
+
+        assertTrue(bookingRepository.findAttendeePage(availableBooking.getId(), 0, Limit.of(10)).isEmpty());
+    }
+
+    /**
+     * Tests that an attendee's booking lists can be read with only some fields.
+     * Verifies that:
+     * 1. Each list holds the same bookings as the full query
+     * 2. Rows hold only the requested fields, in the order they were asked for
+     */
+    @Test
+    public void shouldFindRequestedFieldsOfAttendeeBookings() {
+        List<BookingField> fields = List.of(BookingField.EVENT_NAME, BookingField.ID);
+
+        List<Map<String, Object>> registered = values(bookingRepository.findAttendeeBookingFields(fields,
+                attendee.getId(), BookingFieldsRepository.AttendeeBookings.REGISTERED, null, 0, Limit.of(10)));
+        assertEquals(1, registered.size());
+        assertEquals(List.of("eventName", "id"), List.copyOf(registered.get(0).keySet()));
+        assertEquals(registeredBooking.getId(), registered.get(0).get("id"));
+
+        List<Map<String, Object>> available = values(bookingRepository.findAttendeeBookingFields(fields,
+                attendee.getId(), BookingFieldsRepository.AttendeeBookings.AVAILABLE, null, 0, Limit.of(10)));
+        assertEquals(1, available.size());
+        assertEquals(availableBooking.getId(), available.get(0).get("id"));
+
+        List<Map<String, Object>> unavailable = values(bookingRepository.findAttendeeBookingFields(
+                List.of(BookingField.SEATS_TAKEN, BookingField.MAX_CAPACITY), attendee.getId(),
+                BookingFieldsRepository.AttendeeBookings.UNAVAILABLE, null, 0, Limit.of(10)));
+        assertEquals(1, unavailable.size());
+        assertEquals(Map.of("seatsTaken", 5, "maxCapacity", 5), unavailable.get(0));
+        assertTrue(bookingRepository.findAttendeeBookingFields(fields, attendee.getId(),
+                BookingFieldsRepository.AttendeeBookings.REGISTERED, registeredBooking.getStartTime(),
+                registeredBooking.getId(), Limit.of(10)).isEmpty());
+    }
+
+    /**
+     * Tests that bookings can be read a page at a time with only some fields.
+     * Verifies that:
+     * 1. Pages follow on from the sort key of the previous page's last row, without overlap
+     * 2. Fields from the organiser are read through its join
+     * 3. The organiser filter keeps only that organiser's bookings
+     */
+    @Test
+    public void shouldPageRequestedFieldsOfBookings() {
+        List<BookingField> fields = List.of(BookingField.ID, BookingField.ORGANISER_NAME);
+
+        List<BookingFieldsRepository.FieldRow> first = bookingRepository.findFieldsPage(fields, null, null, 0,
+                Limit.of(2));
+        assertEquals(2, first.size());
+        assertEquals(Map.of("id", first.get(0).id(), "organiserName", "Jackson Stewart"), first.get(0).values());
+
+        BookingFieldsRepository.FieldRow last = first.get(1);
+        List<BookingFieldsRepository.FieldRow> rest = bookingRepository.findFieldsPage(fields, null,
+                last.startTime(), last.id(), Limit.of(2));
+        assertEquals(1, rest.size());
+        assertNotEquals(last.id(), rest.get(0).id());
+
+        assertEquals(3, bookingRepository.findFieldsPage(fields, organiser.getId(), null, 0, Limit.of(10)).size());
+        assertTrue(bookingRepository.findFieldsPage(fields, organiser.getId() + 1, null, 0, Limit.of(10)).isEmpty());
+    }
+
+    /**
+     * Helper method to drop the sort keys from rows of requested fields.
+     *
+     * @param rows The rows read
+     * @return The requested fields of each row
+     */
+    private static List<Map<String, Object>> values(List<BookingFieldsRepository.FieldRow> rows) {
+        return rows.stream().map(BookingFieldsRepository.FieldRow::values).toList();
+    }
 }
@@ -13,10 +13,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import com.stacs.cs5031.p3.server.dto.AttendeeDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.OrganiserDto;
 import com.stacs.cs5031.p3.server.dto.RoomDto;
 import com.stacs.cs5031.p3.server.exception.RoomNotFoundException;
-import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Room;
 import com.stacs.cs5031.p3.server.repository.AdminRepository;
 
@@ -90,35 +91,38 @@ public class AdminServiceTest {
     }
 
     /**
-     * Tests that getAttendees returns all attendees from the AttendeeService.
+     * Tests that getAttendees returns the page of attendees from the AttendeeService.
      * Verifies that:
      * 1. The correct number of attendees is returned
      * 2. The attendee properties match the expected values
-     * 3. The AttendeeService's getAllAttendees method is called exactly once
+     * 3. The AttendeeService's getAttendees method is called exactly once, with the cursor and page size
      */
     @Test
     void shouldGetAttendees() {
-        ArrayList<Attendee> attendees = new ArrayList<>();
-        attendees.add(new Attendee("Ada", "ada", "12345"));
-        attendees.add(new Attendee("G Yeung", "g.yeung", "12345"));
-        attendees.add(new Attendee("Toothless", "toothless", "12345"));
-
-        when(attendeeService.getAllAttendees()).thenReturn(attendees);
-        ArrayList<Attendee> result = adminService.getAttendees();
+        ArrayList<AttendeeDto> attendees = new ArrayList<>();
+        attendees.add(new AttendeeDto(1, "ada", "Ada", List.of()));
+        attendees.add(new AttendeeDto(2, "g.yeung", "G Yeung", List.of(4)));
+        attendees.add(new AttendeeDto(3, "toothless", "Toothless", List.of()));
+
+        when(attendeeService.getAttendees("abc", 3)).thenReturn(new KeysetPage<>(attendees, "def"));
+        KeysetPage<AttendeeDto> page = adminService.getAttendees("abc", 3);
+        List<AttendeeDto> result = page.getItems();
         assertEquals(attendees.size(), result.size());
+        assertEquals("def", page.getNextCursor());
 
         // Verify the contents of the returned list
         for (int i = 0; i < attendees.size(); i++) {
-            Attendee expected = attendees.get(i);
-            Attendee actual = result.get(i);
+            AttendeeDto expected = attendees.get(i);
+            AttendeeDto actual = result.get(i);
 
             assertEquals(expected.getName(), actual.getName(), "Attendee name should match");
             assertEquals(expected.getUsername(), actual.getUsername(), "Attendee username should match");
-            assertEquals(expected.getPassword(), actual.getPassword(), "Attendee password should match");
+            assertEquals(expected.getRegisteredBookingIds(), actual.getRegisteredBookingIds(),
+                    "Attendee bookings should match");
         }
 
-        // Verify that AttendeeService.getAllAttendees() was called exactly once
-        verify(attendeeService, times(1)).getAllAttendees();
+        // Verify that AttendeeService.getAttendees() was called exactly once
+        verify(attendeeService, times(1)).getAttendees("abc", 3);
     }
 
     /**
@@ -0,0 +1,152 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.model.Attendee;
+import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.model.Organiser;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.AttendeeRepository;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.OrganiserRepository;
+import com.stacs.cs5031.p3.server.repository.RoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrency tests for {@link AttendeeService#registerForBooking}.
+ * Fires registrations at four bookings of different capacities from many threads and verifies
+ * that the conditional seat update never lets a booking take more attendees than its room holds,
+ * and that the seat counter matches the stored registrations. The benchmark does the same with
+ * 10,000 registrations and reports how many it handles per second.
+ */
+@LoadTestContext
+public class AttendeeRegistrationConcurrencyTest {
+
+    /** Number of registrations fired by the concurrency test, one per attendee and thread */
+    private static final int REGISTRATIONS = 200;
+
+    /** Room capacities of the concurrency test; registrations are spread evenly, so the small rooms fill up */
+    private static final int[] CAPACITIES = {5, 20, 50, 100};
+
+    /** Number of registrations fired by the benchmark, one per attendee */
+    private static final int BENCHMARK_REGISTRATIONS = 10_000;
+
+    /** Number of threads issuing registrations concurrently in the benchmark */
+    private static final int BENCHMARK_THREADS = 32;
+
+    /** Room capacities of the benchmark */
+    private static final int[] BENCHMARK_CAPACITIES = {50, 500, 2_000, 10_000};
+
+    @Autowired
+    private AttendeeService attendeeService;
+
+    @Autowired
+    private AttendeeRepository attendeeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private OrganiserRepository organiserRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Removes all rows created by the test.
+     */
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM attendee_bookings");
+        bookingRepository.deleteAllInBatch();
+        attendeeRepository.deleteAllInBatch();
+        roomRepository.deleteAll();
+        organiserRepository.deleteAll();
+    }
+
+    /**
+     * Tests that concurrent registrations never overbook a booking.
+     * Verifies that:
+     * 1. Each booking takes exactly as many attendees as its room holds, or every request if fewer
+     * 2. The seat counter equals the number of registration rows
+     */
+    @Test
+    void registerForBooking_shouldNeverOverbook_underConcurrentRegistrations() throws Exception {
+        registerConcurrently(REGISTRATIONS, REGISTRATIONS, CAPACITIES);
+    }
+
+    /**
+     * Measures registration throughput under a spike, with the same checks as the concurrency test.
+     */
+    @Test
+    @Tag("benchmark")
+    void registerForBooking_benchmark(TestReporter reporter) throws Exception {
+        ConcurrentLoad.Outcome<Boolean> outcome =
+                registerConcurrently(BENCHMARK_REGISTRATIONS, BENCHMARK_THREADS, BENCHMARK_CAPACITIES);
+        reporter.publishEntry("registered", outcome.successes() + " of " + BENCHMARK_REGISTRATIONS);
+        reporter.publishEntry("registrations/s", String.valueOf(outcome.perSecond(BENCHMARK_REGISTRATIONS)));
+    }
+
+    private ConcurrentLoad.Outcome<Boolean> registerConcurrently(int registrations, int threads, int[] capacities)
+            throws Exception {
+        Organiser organiser = organiserRepository.save(new Organiser("Load Tester", "load.tester", "password"));
+        List<Booking> bookings = new ArrayList<>();
+        for (int b = 0; b < capacities.length; b++) {
+            Room room = roomRepository.save(new Room("Hall " + b, capacities[b]));
+            bookings.add(bookingRepository.save(new Booking("Popular Event " + b, room,
+                    new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(30)), 60, organiser)));
+        }
+        List<Attendee> attendees = new ArrayList<>(registrations);
+        for (int i = 0; i < registrations; i++) {
+            attendees.add(new Attendee("Attendee " + i, "attendee" + i, "password"));
+        }
+        attendees = attendeeRepository.saveAll(attendees);
+
+        List<Callable<Boolean>> calls = new ArrayList<>(registrations);
+        for (int i = 0; i < registrations; i++) {
+            Integer attendeeId = attendees.get(i).getId();
+            long bookingId = bookings.get(i % bookings.size()).getId();
+            calls.add(() -> {
+                try {
+                    attendeeService.registerForBooking(attendeeId, bookingId);
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            });
+        }
+        ConcurrentLoad.Outcome<Boolean> outcome = ConcurrentLoad.run(threads, calls);
+
+        int requestsPerBooking = registrations / bookings.size();
+        int expectedTotal = 0;
+        for (int b = 0; b < bookings.size(); b++) {
+            long bookingId = bookings.get(b).getId();
+            int expected = Math.min(capacities[b], requestsPerBooking);
+            expectedTotal += expected;
+            Booking stored = bookingRepository.findById(bookingId).orElseThrow();
+            assertEquals(expected, stored.getSeatsTaken(), "seats taken on booking " + bookingId);
+            assertEquals(expected, countRows("attendee_bookings", bookingId), "registrations for booking " + bookingId);
+        }
+        assertEquals(expectedTotal, outcome.successes());
+        return outcome;
+    }
+
+    private int countRows(String table, long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE booking_id = ?",
+                Integer.class, bookingId);
+    }
+}
@@ -1,20 +1,33 @@
 package com.stacs.cs5031.p3.server.service;
 
+import com.stacs.cs5031.p3.server.dto.AttendeeDto;
+import com.stacs.cs5031.p3.server.dto.BookingOverviewDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
+import com.stacs.cs5031.p3.server.dto.WaitlistDto;
+import com.stacs.cs5031.p3.server.exception.ResourceUnavailableException;
 import com.stacs.cs5031.p3.server.exception.UserNotFoundException;
 import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Booking;
 import com.stacs.cs5031.p3.server.model.Organiser;
 import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.model.WaitlistEntry;
 import com.stacs.cs5031.p3.server.repository.AttendeeRepository;
 import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.WaitlistRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -33,6 +46,14 @@ public class AttendeeServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    /** Mock of the WaitlistRepository to simulate waitlist data access operations */
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    /** Mock of the ListVersions, which must hear about seats being taken and given back */
+    @Mock
+    private ListVersions listVersions;
+
     /** The AttendeeService instance being tested, with mocked dependencies injected */
     @InjectMocks
     private AttendeeService attendeeService;
@@ -59,6 +80,10 @@ public class AttendeeServiceTest {
         Organiser organiser = new Organiser("Albus Dumbledore", "headmaster", "ihatestudents");
         startTime = new Date();
         booking = new Booking("event_name", room, startTime, 60, organiser);
+
+        // ids are normally assigned by the database
+        ReflectionTestUtils.setField(attendee, "id", 1);
+        ReflectionTestUtils.setField(booking, "id", 1);
     }
 
     /**
@@ -89,6 +114,26 @@ public class AttendeeServiceTest {
         verify(attendeeRepository).findById(10);
     }
 
+    /**
+     * Tests that an attendee's details carry the booking IDs read as registrations.
+     * Verifies that:
+     * 1. The booking IDs come from the registrations query, in its order
+     * 2. The attendee's own booking list is never read
+     */
+    @Test
+    void getAttendeeDetails_ShouldReadBookingIdsAsRegistrations() {
+        Attendee spied = spy(attendee);
+        when(attendeeRepository.findById(1)).thenReturn(Optional.of(spied));
+        List<BookingRepository.Registration> registrations = List.of(registration(4), registration(9));
+        when(bookingRepository.findRegistrations(List.of(1))).thenReturn(registrations);
+
+        AttendeeDto result = attendeeService.getAttendeeDetails(1);
+
+        assertEquals(1, result.getId());
+        assertEquals(List.of(4, 9), result.getRegisteredBookingIds());
+        verify(spied, never()).getRegisteredBookings();
+    }
+
     /**
      * Tests that an attendee can be retrieved by username when the attendee exists.
      * Verifies that:
@@ -127,13 +172,39 @@ public class AttendeeServiceTest {
     @Test
     void getAvailableBookings_ShouldReturnBookings() {
         when(attendeeRepository.findById(1)).thenReturn(Optional.of(attendee));
-        when(attendeeRepository.findAvailableBookings(1)).thenReturn(Arrays.asList(booking));
-        List<Booking> result = attendeeService.getAvailableBookings(1);
+        when(attendeeRepository.findAvailableBookings(1, Limit.of(KeysetPage.DEFAULT_SIZE + 1)))
+                .thenReturn(Arrays.asList(booking));
+        List<Booking> result = attendeeService.getAvailableBookings(1, null, null).getItems();
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(booking, result.get(0));
         verify(attendeeRepository).findById(1);
-        verify(attendeeRepository).findAvailableBookings(1);
+        verify(attendeeRepository).findAvailableBookings(1, Limit.of(KeysetPage.DEFAULT_SIZE + 1));
+    }
+
+    /**
+     * Tests that available bookings are read a page at a time.
+     * Verifies that:
+     * 1. A full page carries the cursor of its last booking
+     * 2. The next page is read from past that booking's start time and ID
+     */
+    @Test
+    void getAvailableBookings_ShouldReadNextPageFromCursor() {
+        ReflectionTestUtils.setField(booking, "id", 7);
+        Booking later = new Booking("later_event", booking.getRoom(), new Date(startTime.getTime() + 60000), 60,
+                booking.getOrganiser());
+        when(attendeeRepository.findById(1)).thenReturn(Optional.of(attendee));
+        when(attendeeRepository.findAvailableBookings(1, Limit.of(2))).thenReturn(Arrays.asList(booking, later));
+        when(attendeeRepository.findAvailableBookingsAfter(1, startTime, 7, Limit.of(2)))
+                .thenReturn(Collections.singletonList(later));
+
+        KeysetPage<Booking> first = attendeeService.getAvailableBookings(1, null, 1);
+        assertEquals(List.of(booking), first.getItems());
+        assertEquals(KeysetPage.encode(startTime.getTime(), 7), first.getNextCursor());
+
+        KeysetPage<Booking> second = attendeeService.getAvailableBookings(1, first.getNextCursor(), 1);
+        assertEquals(List.of(later), second.getItems());
+        assertNull(second.getNextCursor());
     }
 
     /**
@@ -147,27 +218,75 @@ public class AttendeeServiceTest {
         Integer attendeeId = 1;
         when(attendeeRepository.findById(attendeeId)).thenReturn(Optional.of(attendee));
         List<Booking> unavailableBookings = Collections.singletonList(booking);
-        when(attendeeRepository.findUnavailableBookings(attendeeId)).thenReturn(unavailableBookings);
-        List<Booking> result = attendeeService.getUnavailableBookings(attendeeId);
+        when(attendeeRepository.findUnavailableBookings(attendeeId, Limit.of(KeysetPage.DEFAULT_SIZE + 1)))
+                .thenReturn(unavailableBookings);
+        List<Booking> result = attendeeService.getUnavailableBookings(attendeeId, null, null).getItems();
         assertEquals(unavailableBookings, result);
-        verify(attendeeRepository).findUnavailableBookings(attendeeId);
+        verify(attendeeRepository).findUnavailableBookings(attendeeId, Limit.of(KeysetPage.DEFAULT_SIZE + 1));
+    }
+
+    /**
+     * Tests that the bookings overview comes from the single overview query.
+     * Verifies that:
+     * 1. The returned list is the query's result
+     * 2. The attendee is not looked up separately when the query found bookings
+     */
+    @Test
+    void getBookingsOverview_shouldReturnOverviewWithoutLoadingAttendee() {
+        List<BookingOverviewDto> overview = Collections.singletonList(new BookingOverviewDto(1, "event_name", 1,
+                "Great Hall", startTime, 60, 2, "Albus Dumbledore", 400, 400, false));
+        when(attendeeRepository.findBookingOverview(eq(1), any(Date.class))).thenReturn(overview);
+        List<BookingOverviewDto> result = attendeeService.getBookingsOverview(1);
+        assertEquals(overview, result);
+        assertEquals(BookingOverviewDto.Status.FULL, result.get(0).getStatus());
+        verify(attendeeRepository, never()).findById(anyInt());
+        verify(attendeeRepository, never()).existsById(anyInt());
+    }
+
+    /**
+     * Tests that an empty overview for an unknown attendee is reported as not found,
+     * while an existing attendee with no upcoming bookings gets an empty list.
+     */
+    @Test
+    void getBookingsOverview_shouldThrowWhenAttendeeNotFound() {
+        when(attendeeRepository.findBookingOverview(anyInt(), any(Date.class))).thenReturn(Collections.emptyList());
+        when(attendeeRepository.existsById(1)).thenReturn(true);
+        when(attendeeRepository.existsById(10)).thenReturn(false);
+        assertTrue(attendeeService.getBookingsOverview(1).isEmpty());
+        assertThrows(UserNotFoundException.class, () -> attendeeService.getBookingsOverview(10));
     }
 
     /**
-     * Tests that all attendees can be retrieved.
+     * Tests that attendees are read a page at a time.
      * Verifies that:
-     * 1. The returned list contains the expected number of attendees
-     * 2. The returned list matches the expected list of attendees
-     * 3. The repository's findAll method is called
+     * 1. One row more than the page size is fetched, to tell whether there is a next page
+     * 2. The extra row is left off the page, and the cursor points after the last row kept
+     * 3. Following the cursor asks the repository for the rows after that attendee
+     * 4. The booking IDs come from one registrations query per page, not from each attendee
+     * 5. The repository's findAll method is never called
      */
     @Test
-    void getAllAttendees_shouldReturnAllAttendees() {
-        List<Attendee> attendees = Arrays.asList(attendee, new Attendee("Ron Weasley", "ronaldw", "brokenwand"));
-        when(attendeeRepository.findAll()).thenReturn(attendees);
-        List<Attendee> result = attendeeService.getAllAttendees();
-        assertEquals(attendees, result);
-        assertEquals(2, result.size());
-        verify(attendeeRepository).findAll();
+    void getAttendees_shouldReturnPageAndCursor() {
+        Attendee ron = new Attendee("Ron Weasley", "ronaldw", "brokenwand");
+        ReflectionTestUtils.setField(ron, "id", 2);
+        BookingRepository.Registration registration = mock(BookingRepository.Registration.class);
+        when(registration.getAttendeeId()).thenReturn(1);
+        when(registration.getBookingId()).thenReturn(7);
+        when(attendeeRepository.findPageAfter(0, Limit.of(2))).thenReturn(Arrays.asList(attendee, ron));
+        when(bookingRepository.findRegistrations(List.of(1))).thenReturn(List.of(registration));
+        KeysetPage<AttendeeDto> first = attendeeService.getAttendees(null, 1);
+        assertEquals(1, first.getItems().size());
+        assertEquals(1, first.getItems().get(0).getId());
+        assertEquals(List.of(7), first.getItems().get(0).getRegisteredBookingIds());
+        assertNotNull(first.getNextCursor());
+
+        when(attendeeRepository.findPageAfter(1, Limit.of(2))).thenReturn(List.of(ron));
+        when(bookingRepository.findRegistrations(List.of(2))).thenReturn(List.of());
+        KeysetPage<AttendeeDto> second = attendeeService.getAttendees(first.getNextCursor(), 1);
+        assertEquals("ronaldw", second.getItems().get(0).getUsername());
+        assertTrue(second.getItems().get(0).getRegisteredBookingIds().isEmpty());
+        assertNull(second.getNextCursor());
+        verify(attendeeRepository, never()).findAll();
     }
 
     /**
@@ -176,6 +295,7 @@ public class AttendeeServiceTest {
      * 1. The returned Booking matches the expected booking
      * 2. The repository methods are called with the correct parameters
      * 3. The attendee and booking are saved after registration
+     * 4. The booking lists are marked as changed
      */
     @Test
     void registerForBooking_ShouldRegisterAttendee_WhenBookingHasSpace() {
@@ -183,12 +303,69 @@ public class AttendeeServiceTest {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
         when(attendeeRepository.save(any(Attendee.class))).thenReturn(attendee);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.claimSeat(1L)).thenReturn(1);
         Booking result = attendeeService.registerForBooking(1, 1);
         assertNotNull(result);
         verify(attendeeRepository).findById(1);
         verify(bookingRepository).findById(1L);
+        verify(bookingRepository).claimSeat(1L);
+        verify(bookingRepository).insertAttendee(1L, 1);
         verify(attendeeRepository).save(attendee);
         verify(bookingRepository).save(booking);
+        verify(listVersions).bookingChanged(booking);
+    }
+
+    /**
+     * Tests that registering for a full booking fails without adding the attendee.
+     * Verifies that:
+     * 1. A ResourceUnavailableException is thrown when no seat can be taken
+     * 2. No attendee row is inserted and nothing is saved
+     */
+    @Test
+    void registerForBooking_shouldThrowResourceUnavailableException_whenBookingIsFull() {
+        when(attendeeRepository.findById(1)).thenReturn(Optional.of(attendee));
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.claimSeat(1L)).thenReturn(0);
+
+        assertThrows(ResourceUnavailableException.class, () -> attendeeService.registerForBooking(1, 1));
+        assertTrue(attendee.getRegisteredBookings().isEmpty());
+        verify(bookingRepository, never()).insertAttendee(anyLong(), anyInt());
+        verify(attendeeRepository, never()).save(any(Attendee.class));
+    }
+
+    /**
+     * Tests that registering twice for the same booking is refused by the membership query.
+     * Verifies that:
+     * 1. An IllegalStateException is thrown
+     * 2. The attendee's registrations are never loaded and no row is inserted
+     */
+    @Test
+    void registerForBooking_shouldThrowIllegalStateException_whenAlreadyRegistered() {
+        Attendee spied = spy(attendee);
+        when(attendeeRepository.findById(1)).thenReturn(Optional.of(spied));
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.claimSeat(1L)).thenReturn(1);
+        when(bookingRepository.isRegistered(1L, 1)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> attendeeService.registerForBooking(1, 1));
+        verify(spied, never()).getRegisteredBookings();
+        verify(bookingRepository, never()).insertAttendee(anyLong(), anyInt());
+    }
+
+    /**
+     * Tests that deregistering from a booking the attendee is not registered for fails.
+     * Verifies that:
+     * 1. An IllegalStateException is thrown when no row is deleted
+     * 2. No seat is given back
+     */
+    @Test
+    void deregisterFromBooking_shouldThrowIllegalStateException_whenNotRegistered() {
+        when(attendeeRepository.findById(1)).thenReturn(Optional.of(attendee));
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.deleteAttendee(1L, 1)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> attendeeService.deregisterFromBooking(1, 1));
+        verify(bookingRepository, never()).releaseSeat(anyLong());
     }
 
     /**
@@ -206,6 +383,7 @@ public class AttendeeServiceTest {
         when(attendeeRepository.findById(attendeeId)).thenReturn(Optional.of(attendee));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.deleteAttendee(bookingId, attendeeId)).thenReturn(1);
 
         Set<Booking> registeredBookings = new HashSet<>();
         registeredBookings.add(booking);
@@ -217,11 +395,103 @@ public class AttendeeServiceTest {
         Booking result = attendeeService.deregisterFromBooking(attendeeId, bookingId);
         assertEquals(booking, result);
         assertEquals(0, attendee.getRegisteredBookings().size());
-        assertEquals(0, booking.getAttendees().size());
+        verify(bookingRepository).deleteAttendee(bookingId, attendeeId);
+        verify(bookingRepository).releaseSeat(bookingId);
         verify(attendeeRepository).save(attendee);
         verify(bookingRepository).save(booking);
     }
 
+    /**
+     * Tests that a seat given up is passed to the attendee at the head of the waitlist.
+     * Verifies that:
+     * 1. The head entry is removed and the waitlist head moves past it
+     * 2. The waiting attendee takes the freed seat and is registered on both sides
+     */
+    @Test
+    void deregisterFromBooking_shouldPromoteHeadOfWaitlist_whenSeatIsFreed() {
+        Attendee waiting = new Attendee("Ron Weasley", "ron", "scabbers");
+        ReflectionTestUtils.setField(waiting, "id", 2);
+        WaitlistEntry entry = new WaitlistEntry(booking, waiting, 0);
+        attendee.registerForBooking(booking);
+        when(attendeeRepository.findById(1)).thenReturn(Optional.of(attendee));
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.deleteAttendee(1L, 1)).thenReturn(1);
+        when(bookingRepository.releaseSeat(1L)).thenReturn(1);
+        when(bookingRepository.claimSeat(1L)).thenReturn(1);
+        when(waitlistRepository.findFirstByBookingIdOrderByTicketAsc(1)).thenReturn(Optional.of(entry));
+
+        attendeeService.deregisterFromBooking(1, 1);
+
+        assertTrue(waiting.getRegisteredBookings().contains(booking));
+        verify(waitlistRepository).delete(entry);
+        verify(bookingRepository).advanceWaitlist(1L, 1L);
+        verify(bookingRepository).insertAttendee(1L, 2);
+        verify(attendeeRepository).save(waiting);
+    }
+
+    /**
+     * Tests that an attendee asking for a full booking is put on its waitlist.
+     * Verifies that:
+     * 1. The attendee gets the booking's next ticket and is told their position
+     * 2. The waitlist tail is moved on and no seat is taken
+     */
+    @Test
+    void joinWaitlist_shouldQueueAttendee_whenBookingIsFull() {
+        ReflectionTestUtils.setField(booking, "waitlistHead", 3L);
+        ReflectionTestUtils.setField(booking, "waitlistTail", 5L);
+        when(attendeeRepository.findById(1)).thenReturn(Optional.of(attendee));
+        when(bookingRepository.findByIdForUpdate(1)).thenReturn(Optional.of(booking));
+        when(bookingRepository.claimSeat(1L)).thenReturn(0);
+        when(waitlistRepository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        WaitlistDto result = attendeeService.joinWaitlist(1, 1);
+
+        assertFalse(result.isRegistered());
+        assertEquals(3, result.getPosition());
+        verify(waitlistRepository).save(argThat(entry -> entry.getTicket() == 5));
+        verify(bookingRepository).extendWaitlist(1L);
+        verify(bookingRepository, never()).insertAttendee(anyLong(), anyInt());
+    }
+
+    /**
+     * Tests that an attendee asking for a booking with a free seat is registered straight away.
+     */
+    @Test
+    void joinWaitlist_shouldRegister_whenSeatIsFree() {
+        when(attendeeRepository.findById(1)).thenReturn(Optional.of(attendee));
+        when(bookingRepository.findByIdForUpdate(1)).thenReturn(Optional.of(booking));
+        when(bookingRepository.claimSeat(1L)).thenReturn(1);
+
+        WaitlistDto result = attendeeService.joinWaitlist(1, 1);
+
+        assertTrue(result.isRegistered());
+        assertEquals(0, result.getPosition());
+        verify(bookingRepository).insertAttendee(1L, 1);
+        verify(waitlistRepository, never()).save(any(WaitlistEntry.class));
+    }
+
+    /**
+     * Tests that a waiting attendee's position is their ticket's distance from the head.
+     */
+    @Test
+    void getWaitlistPosition_shouldCountFromHead() {
+        ReflectionTestUtils.setField(booking, "waitlistHead", 2L);
+        when(waitlistRepository.findByBookingIdAndAttendeeId(1, 1))
+                .thenReturn(Optional.of(new WaitlistEntry(booking, attendee, 6)));
+
+        assertEquals(5, attendeeService.getWaitlistPosition(1, 1).getPosition());
+    }
+
+    /**
+     * Tests that asking for the position of an attendee who is not waiting fails.
+     */
+    @Test
+    void getWaitlistPosition_shouldThrowIllegalStateException_whenNotWaiting() {
+        when(waitlistRepository.findByBookingIdAndAttendeeId(1, 1)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> attendeeService.getWaitlistPosition(1, 1));
+    }
+
     /**
      * Tests that registered bookings can be retrieved for an attendee.
      * Verifies that:
@@ -233,11 +503,12 @@ public class AttendeeServiceTest {
         Integer attendeeId = 1;
         when(attendeeRepository.findById(attendeeId)).thenReturn(Optional.of(attendee));
         List<Booking> bookings = Arrays.asList(booking);
-        when(attendeeRepository.findRegisteredBookings(attendeeId)).thenReturn(bookings);
-        List<Booking> result = attendeeService.getRegisteredBookings(attendeeId);
+        when(attendeeRepository.findRegisteredBookings(attendeeId, Limit.of(KeysetPage.DEFAULT_SIZE + 1)))
+                .thenReturn(bookings);
+        List<Booking> result = attendeeService.getRegisteredBookings(attendeeId, null, null).getItems();
         assertEquals(bookings, result);
         verify(attendeeRepository).findById(attendeeId);
-        verify(attendeeRepository).findRegisteredBookings(attendeeId);
+        verify(attendeeRepository).findRegisteredBookings(attendeeId, Limit.of(KeysetPage.DEFAULT_SIZE + 1));
     }
 
     /**
@@ -252,10 +523,19 @@ public class AttendeeServiceTest {
         Integer attendeeId = 10;
         when(attendeeRepository.findById(attendeeId)).thenReturn(Optional.empty());
         assertThrows(UserNotFoundException.class, () -> {
-            attendeeService.getRegisteredBookings(attendeeId);
+            attendeeService.getRegisteredBookings(attendeeId, null, null);
         });
         verify(attendeeRepository).findById(attendeeId);
-        verify(attendeeRepository, never()).findRegisteredBookings(any());
+        verify(attendeeRepository, never()).findRegisteredBookings(any(), any());
+    }
+
+    /**
+     * Creates a registration of attendee 1 for the given booking.
+     */
+    private BookingRepository.Registration registration(int bookingId) {
+        BookingRepository.Registration registration = mock(BookingRepository.Registration.class);
+        when(registration.getAttendeeId()).thenReturn(1);
+        when(registration.getBookingId()).thenReturn(bookingId);
+        return registration;
     }
 }
-// 11
\ No newline at end of file
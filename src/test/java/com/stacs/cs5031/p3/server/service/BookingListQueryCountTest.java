@@ -0,0 +1,273 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.config.StatementCounter;
+import com.stacs.cs5031.p3.server.dto.AttendeeDto;
+import com.stacs.cs5031.p3.server.dto.AttendeeSummaryDto;
+import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.dto.BookingSummaryDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
+import com.stacs.cs5031.p3.server.mapper.BookingDtoMapper;
+import com.stacs.cs5031.p3.server.model.Attendee;
+import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.model.Organiser;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.AttendeeRepository;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.OrganiserRepository;
+import com.stacs.cs5031.p3.server.repository.RoomRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement counts of the booking and attendee list views, read through Hibernate statistics.
+ * Verifies that a page costs the same number of statements whether its bookings have a handful of
+ * attendees or hundreds, so the lists cannot slip back into loading each row's associations.
+ * Booking lists carry summaries, so a page of them is a single statement.
+ * The single-booking and single-attendee views, and the attendee's booking lists, are held to the
+ * statement counts of their fetch plans in the same way.
+ * Uses its own in-memory database so that the rows it creates do not affect other test classes.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking_list_query_count;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+public class BookingListQueryCountTest {
+
+    /** Bookings in each dataset; all of them fit on one page */
+    private static final int BOOKINGS = 20;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AttendeeService attendeeService;
+
+    @Autowired
+    private AttendeeRepository attendeeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private OrganiserRepository organiserRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    /**
+     * Removes all rows created by the test.
+     */
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM attendee_bookings");
+        bookingRepository.deleteAllInBatch();
+        attendeeRepository.deleteAllInBatch();
+        roomRepository.deleteAll();
+        organiserRepository.deleteAll();
+    }
+
+    /**
+     * Tests that a page of bookings takes one statement, however many attendees are registered.
+     * Verifies that:
+     * 1. The bookings, with their rooms, organisers and seat counts, are read with one statement
+     * 2. The count is the same for a dataset with one attendee per booking and one with hundreds
+     */
+    @Test
+    void bookingsPage_shouldTakeFixedStatementCount_regardlessOfAttendees() {
+        seed("small", 1);
+        assertEquals(1, statementsFor(() -> assertPageComplete(bookingService.getBookings(null, KeysetPage.MAX_SIZE), 1)));
+
+        tearDown();
+        seed("large", 200);
+        assertEquals(1, statementsFor(() -> assertPageComplete(bookingService.getBookings(null, KeysetPage.MAX_SIZE), 200)));
+    }
+
+    /**
+     * Tests that an organiser's page of bookings takes the same single statement.
+     */
+    @Test
+    void organiserBookingsPage_shouldTakeFixedStatementCount() {
+        Organiser organiser = seed("organiser", 50);
+        assertEquals(1, statementsFor(() -> assertPageComplete(
+                bookingService.getBookingsByOrganiser(organiser.getId().longValue(), null, KeysetPage.MAX_SIZE), 50)));
+    }
+
+    /**
+     * Tests that a page of a booking's attendees takes one statement.
+     */
+    @Test
+    void bookingAttendeesPage_shouldTakeOneStatement() {
+        seed("booking.attendees", 100);
+        long bookingId = bookingRepository.findAll().get(0).getId();
+        assertEquals(1, statementsFor(() -> {
+            KeysetPage<AttendeeSummaryDto> page = bookingService.getAttendees(bookingId, null, 60);
+            assertEquals(60, page.getItems().size());
+            assertNotNull(page.getNextCursor());
+        }));
+    }
+
+    /**
+     * Tests that a page of attendees takes two statements, however many bookings each attendee has.
+     */
+    @Test
+    void attendeesPage_shouldTakeFixedStatementCount() {
+        seed("attendees", 100);
+        assertEquals(2, statementsFor(() -> {
+            List<AttendeeDto> attendees = attendeeService.getAttendees(null, KeysetPage.MAX_SIZE).getItems();
+            assertEquals(100, attendees.size());
+            attendees.forEach(attendee -> assertEquals(BOOKINGS, attendee.getRegisteredBookingIds().size()));
+        }));
+    }
+
+    /**
+     * Tests that the full view of a booking takes two statements, however many attendees it has.
+     * Verifies that:
+     * 1. The booking, its room, organiser and attendees are read with one statement
+     * 2. The attendees' booking IDs are read with one more, not one per attendee
+     */
+    @Test
+    void bookingDetails_shouldTakeTwoStatements() {
+        seed("details", 100);
+        long bookingId = bookingRepository.findAll().get(0).getId();
+        assertEquals(2, statementsFor(() -> {
+            BookingDto booking = bookingService.getBookingDetails(bookingId).orElseThrow();
+            assertEquals(100, booking.getAttendees().size());
+            booking.getAttendees().forEach(attendee -> assertEquals(BOOKINGS, attendee.getRegisteredBookingIds().size()));
+        }));
+    }
+
+    /**
+     * Tests that an attendee with many bookings is read with two statements.
+     */
+    @Test
+    void attendeeDetails_shouldTakeTwoStatements() {
+        seed("attendee.details", 1);
+        Integer attendeeId = attendeeRepository.findAll().get(0).getId();
+        assertEquals(2, statementsFor(() ->
+                assertEquals(BOOKINGS, attendeeService.getAttendeeDetails(attendeeId).getRegisteredBookingIds().size())));
+    }
+
+    /**
+     * Tests that an attendee's booking lists take one statement each, when every booking has its own
+     * room and organiser.
+     * Verifies that:
+     * 1. The registered bookings come with their rooms and organisers in one statement
+     * 2. So do the available bookings
+     */
+    @Test
+    void attendeeBookingLists_shouldTakeOneStatementEach() {
+        Attendee attendee = attendeeRepository.save(new Attendee("Lister", "lists.attendee", "password"));
+        List<Object[]> rows = new ArrayList<>();
+        for (int b = 0; b < BOOKINGS; b++) {
+            Organiser organiser = organiserRepository.save(new Organiser("Organiser " + b, "lists.organiser" + b, "password"));
+            Room room = roomRepository.save(new Room("Lists Room " + b, 10));
+            Booking booking = bookingRepository.save(new Booking("Lists Event " + b, room,
+                    new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(30 + b)), 60, organiser));
+            if (b % 2 == 0) {
+                rows.add(new Object[] {booking.getId(), attendee.getId()});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO attendee_bookings (booking_id, attendee_id) VALUES (?, ?)", rows);
+
+        assertEquals(1, statementsFor(() ->
+                assertSummariesComplete(attendeeRepository.findRegisteredBookings(attendee.getId(),
+                        Limit.of(BOOKINGS)))));
+        assertEquals(1, statementsFor(() ->
+                assertSummariesComplete(attendeeRepository.findAvailableBookings(attendee.getId(),
+                        Limit.of(BOOKINGS)))));
+    }
+
+    /**
+     * Tests that the statement counter used by the request filter sees the same statements as
+     * Hibernate's own statistics.
+     */
+    @Test
+    void statementCounter_shouldCountHibernateStatements() {
+        seed("counter", 10);
+        statementCounter.begin();
+        long counted = statementsFor(() -> attendeeService.getAttendees(null, KeysetPage.MAX_SIZE));
+        assertEquals(counted, statementCounter.end());
+    }
+
+    /**
+     * Creates the bookings and registers every attendee for every one of them.
+     *
+     * @return The organiser of the bookings
+     */
+    private Organiser seed(String label, int attendeesPerBooking) {
+        Organiser organiser = organiserRepository.save(new Organiser("Query Counter", label + ".organiser", "password"));
+        Room room = roomRepository.save(new Room(label + " Hall", attendeesPerBooking + 10));
+        List<Booking> bookings = new ArrayList<>();
+        for (int b = 0; b < BOOKINGS; b++) {
+            bookings.add(new Booking(label + " Event " + b, room,
+                    new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(30 + b)), 60, organiser));
+        }
+        bookings = bookingRepository.saveAll(bookings);
+
+        List<Attendee> attendees = new ArrayList<>();
+        for (int i = 0; i < attendeesPerBooking; i++) {
+            attendees.add(new Attendee("Attendee " + i, label + i, "password"));
+        }
+        attendees = attendeeRepository.saveAll(attendees);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Booking booking : bookings) {
+            for (Attendee attendee : attendees) {
+                rows.add(new Object[] {booking.getId(), attendee.getId()});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO attendee_bookings (booking_id, attendee_id) VALUES (?, ?)", rows);
+        jdbcTemplate.update("UPDATE booking SET seats_taken = ?", attendeesPerBooking);
+        return organiser;
+    }
+
+    private void assertPageComplete(KeysetPage<BookingSummaryDto> page, int attendeesPerBooking) {
+        assertEquals(BOOKINGS, page.getItems().size());
+        assertNull(page.getNextCursor());
+        for (BookingSummaryDto booking : page.getItems()) {
+            assertEquals(attendeesPerBooking, booking.getSeatsTaken());
+            assertEquals(attendeesPerBooking + 10, booking.getMaxCapacity());
+        }
+    }
+
+    private void assertSummariesComplete(List<Booking> bookings) {
+        assertEquals(BOOKINGS / 2, bookings.size());
+        // the summary mapping touches the room and organiser of every booking
+        BookingDtoMapper.mapToSummaryList(bookings).forEach(summary -> {
+            assertNotNull(summary.getRoomName());
+            assertNotNull(summary.getOrganiserName());
+        });
+    }
+
+    private long statementsFor(Runnable read) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        read.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
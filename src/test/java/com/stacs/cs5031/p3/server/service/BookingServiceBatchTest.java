@@ -0,0 +1,158 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.exception.EntityNotFoundException;
+import com.stacs.cs5031.p3.server.metrics.RoomLockMetrics;
+import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.model.Organiser;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.OrganiserRepository;
+import com.stacs.cs5031.p3.server.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BookingServiceImpl#createBookings}.
+ * Verifies that batch items are swept against each other and against existing bookings,
+ * and that the two batch modes decide correctly what gets inserted.
+ */
+public class BookingServiceBatchTest {
+
+    /** One minute in milliseconds */
+    private static final long MINUTE = 60_000L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private OrganiserRepository organiserRepository;
+
+    @Mock
+    private AttendeeService attendeeService;
+
+    @Mock
+    private BookingIntervalIndex bookingIndex;
+
+    @Mock
+    private RoomLockMetrics lockMetrics;
+
+    @Mock
+    private ListVersions listVersions;
+
+    /** The service under test, with mocked dependencies injected */
+    @InjectMocks
+    private BookingServiceImpl bookingService;
+
+    /** Room every batch item is booked into */
+    private Room room;
+
+    /**
+     * Setup before each test.
+     * Stubs an organiser and a room with no bookings, and makes saveAll return its argument.
+     */
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        room = new Room("Seminar Room", 30);
+        when(organiserRepository.findById(1)).thenReturn(Optional.of(new Organiser("Org", "org", "pw")));
+        when(roomRepository.findByIdForUpdate(anyInt())).thenReturn(Optional.of(room));
+        when(bookingRepository.findConflictingBookings(any(), any(), any())).thenReturn(new ArrayList<>());
+        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    /**
+     * Creates a request for the test room.
+     *
+     * @param startMinute start, in minutes since the epoch
+     * @param duration    duration in minutes
+     * @return the booking request
+     */
+    private BookingDto.BookingRequest request(long startMinute, int duration) {
+        return new BookingDto.BookingRequest("Session", 1L, new Date(startMinute * MINUTE), duration, "Session");
+    }
+
+    /**
+     * Tests that in partial mode an item overlapping an earlier item is rejected
+     * while a back-to-back item is still created.
+     */
+    @Test
+    void createBookings_shouldRejectOverlappingItem_inPartialMode() {
+        List<BookingDto.BatchItemResult> results = bookingService.createBookings(
+                List.of(request(600, 60), request(630, 60), request(660, 60)), 1L, BookingDto.BatchMode.PARTIAL);
+
+        assertTrue(results.get(0).isCreated());
+        assertFalse(results.get(1).isCreated());
+        assertEquals("Overlaps item 0 of the batch", results.get(1).getMessage());
+        assertTrue(results.get(2).isCreated());
+        verify(bookingRepository).saveAll(argThat(bookings -> ((List<?>) bookings).size() == 2));
+    }
+
+    /**
+     * Tests that items are checked against existing bookings,
+     * whether the existing booking starts before or during the item.
+     */
+    @Test
+    void createBookings_shouldRejectItemsConflictingWithExistingBookings() {
+        Booking existing = new Booking("Existing", room, new Date(720 * MINUTE), 60, null);
+        when(bookingRepository.findConflictingBookings(any(), any(), any())).thenReturn(List.of(existing));
+
+        List<BookingDto.BatchItemResult> results = bookingService.createBookings(
+                List.of(request(690, 60), request(750, 30), request(780, 30)), 1L, BookingDto.BatchMode.PARTIAL);
+
+        assertFalse(results.get(0).isCreated());
+        assertFalse(results.get(1).isCreated());
+        assertTrue(results.get(0).getMessage().startsWith("Conflicts with existing booking"));
+        assertTrue(results.get(2).isCreated());
+    }
+
+    /**
+     * Tests that nothing is inserted in all-or-nothing mode when any item is rejected.
+     */
+    @Test
+    void createBookings_shouldCreateNothing_whenAllOrNothingBatchHasConflict() {
+        List<BookingDto.BatchItemResult> results = bookingService.createBookings(
+                List.of(request(600, 60), request(630, 60)), 1L, BookingDto.BatchMode.ALL_OR_NOTHING);
+
+        assertTrue(results.stream().noneMatch(BookingDto.BatchItemResult::isCreated));
+        verify(bookingRepository, never()).saveAll(anyList());
+        verify(bookingIndex, never()).add(any());
+    }
+
+    /**
+     * Tests that a malformed item is rejected with a reason without touching the database.
+     */
+    @Test
+    void createBookings_shouldRejectInvalidItem() {
+        List<BookingDto.BatchItemResult> results = bookingService.createBookings(
+                List.of(request(600, 0)), 1L, BookingDto.BatchMode.PARTIAL);
+
+        assertFalse(results.get(0).isCreated());
+        assertEquals("Duration must be positive", results.get(0).getMessage());
+        verify(roomRepository, never()).findByIdForUpdate(anyInt());
+    }
+
+    /**
+     * Tests that an unknown organiser fails the whole batch.
+     */
+    @Test
+    void createBookings_shouldThrow_whenOrganiserNotFound() {
+        assertThrows(EntityNotFoundException.class, () -> bookingService.createBookings(
+                List.of(request(600, 60)), 2L, BookingDto.BatchMode.PARTIAL));
+    }
+}
@@ -0,0 +1,132 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.model.Organiser;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.OrganiserRepository;
+import com.stacs.cs5031.p3.server.repository.RoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrency tests for {@link BookingServiceImpl#createBooking}.
+ * Fires overlapping booking requests at two rooms from many threads and verifies that the
+ * room-level lock never lets two overlapping bookings into the same room. The benchmark does the
+ * same with ten times the requests and reports how many it handles per second.
+ */
+@LoadTestContext
+public class BookingServiceConcurrencyTest {
+
+    /** Number of booking requests fired by the concurrency test, one thread each */
+    private static final int REQUESTS = 200;
+
+    /** Number of booking requests fired by the benchmark */
+    private static final int BENCHMARK_REQUESTS = 2_000;
+
+    /** Number of threads issuing requests concurrently in the benchmark */
+    private static final int BENCHMARK_THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private OrganiserRepository organiserRepository;
+
+    /**
+     * Removes all rows created by the test.
+     */
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+        organiserRepository.deleteAll();
+    }
+
+    /**
+     * Tests that concurrent, overlapping booking requests never produce a double booking.
+     * Every request asks for a 60-minute slot starting on a 15-minute grid, so most requests
+     * overlap several others. Verifies that:
+     * 1. Some requests succeed in each room
+     * 2. No two stored bookings in the same room overlap
+     */
+    @Test
+    void createBooking_shouldNeverDoubleBook_underConcurrentOverlappingRequests() throws Exception {
+        bookConcurrently(REQUESTS, REQUESTS);
+    }
+
+    /**
+     * Measures booking throughput under contention, with the same checks as the concurrency test.
+     */
+    @Test
+    @Tag("benchmark")
+    void createBooking_benchmark(TestReporter reporter) throws Exception {
+        ConcurrentLoad.Outcome<Boolean> outcome = bookConcurrently(BENCHMARK_REQUESTS, BENCHMARK_THREADS);
+        reporter.publishEntry("bookings created", outcome.successes() + " of " + BENCHMARK_REQUESTS);
+        reporter.publishEntry("requests/s", String.valueOf(outcome.perSecond(BENCHMARK_REQUESTS)));
+    }
+
+    private ConcurrentLoad.Outcome<Boolean> bookConcurrently(int requests, int threads) throws Exception {
+        Room contended = roomRepository.save(new Room("Contended Room", 50));
+        Room neighbour = roomRepository.save(new Room("Neighbour Room", 50));
+        Organiser organiser = organiserRepository.save(new Organiser("Load Tester", "load.tester", "password"));
+        long base = TimeUnit.DAYS.toMillis(TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis()) + 30);
+
+        List<Callable<Boolean>> calls = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            Room room = i % 4 == 0 ? neighbour : contended;
+            Date start = new Date(base + TimeUnit.MINUTES.toMillis((i % 40) * 15L));
+            BookingDto.BookingRequest request =
+                    new BookingDto.BookingRequest("Event " + i, (long) room.getID(), start, 60, "Load");
+            calls.add(() -> {
+                try {
+                    bookingService.createBooking(request, Long.valueOf(organiser.getId()));
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            });
+        }
+        ConcurrentLoad.Outcome<Boolean> outcome = ConcurrentLoad.run(threads, calls);
+
+        assertNoOverlaps((long) contended.getID());
+        assertNoOverlaps((long) neighbour.getID());
+        return outcome;
+    }
+
+    /**
+     * Asserts that a room has at least one booking and that none of its bookings overlap.
+     *
+     * @param roomId the room to check
+     */
+    private void assertNoOverlaps(Long roomId) {
+        List<Booking> bookings = new ArrayList<>(bookingRepository.findByRoomId(roomId));
+        bookings.sort(Comparator.comparing(booking -> booking.getStartTime().getTime()));
+        assertFalse(bookings.isEmpty(), "room " + roomId + " should have bookings");
+        for (int i = 1; i < bookings.size(); i++) {
+            Booking previous = bookings.get(i - 1);
+            Booking next = bookings.get(i);
+            assertTrue(previous.getEndTime().getTime() <= next.getStartTime().getTime(),
+                    "double booking in room " + roomId + ": " + previous + " and " + next);
+        }
+    }
+}
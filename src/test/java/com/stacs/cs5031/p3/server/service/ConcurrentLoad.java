@@ -0,0 +1,84 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires calls at the code under test from a pool of threads, releasing them all at once so that
+ * they contend, and times them. Shared by the concurrency tests and the benchmarks.
+ */
+final class ConcurrentLoad {
+
+    /** Longest wait for any one call before the run fails */
+    private static final long TIMEOUT_MINUTES = 5;
+
+    private ConcurrentLoad() {
+    }
+
+    /**
+     * Runs every call on the given number of threads, released together, and waits for all of them.
+     *
+     * @param threads The number of threads
+     * @param calls   The calls to run
+     * @param <T>     The result type of the calls
+     * @return The results in call order, and the time from the release until the last call finished
+     * @throws Exception if a call throws or does not finish in time
+     */
+    static <T> Outcome<T> run(int threads, List<? extends Callable<T>> calls) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch startSignal = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>(calls.size());
+            for (Callable<T> call : calls) {
+                futures.add(pool.submit(() -> {
+                    startSignal.await();
+                    return call.call();
+                }));
+            }
+            long began = System.nanoTime();
+            startSignal.countDown();
+            List<T> results = new ArrayList<>(calls.size());
+            for (Future<T> future : futures) {
+                results.add(future.get(TIMEOUT_MINUTES, TimeUnit.MINUTES));
+            }
+            return new Outcome<>(results, Math.max(1, (System.nanoTime() - began) / 1_000_000));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Results of a run, in call order, and how long it took.
+     *
+     * @param results The result of each call
+     * @param millis  The elapsed time in milliseconds, at least 1
+     * @param <T>     The result type of the calls
+     */
+    record Outcome<T>(List<T> results, long millis) {
+
+        /**
+         * Counts the calls that returned true.
+         *
+         * @return The number of successful calls
+         */
+        int successes() {
+            return (int) results.stream().filter(Boolean.TRUE::equals).count();
+        }
+
+        /**
+         * Returns the rate at which operations were done over the run.
+         *
+         * @param operations The number of operations done
+         * @return Operations per second
+         */
+        long perSecond(long operations) {
+            return operations * 1000L / millis;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.model.Attendee;
+import com.stacs.cs5031.p3.server.model.Organiser;
+import com.stacs.cs5031.p3.server.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link CredentialCache} class.
+ * Uses a manual clock so that expiry can be tested without waiting.
+ */
+public class CredentialCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    /** Current time seen by the cache */
+    private AtomicLong now;
+
+    /** The CredentialCache instance being tested */
+    private CredentialCache cache;
+
+    /** Organiser with ID 1 and username "organiser" */
+    private Organiser organiser;
+
+    /**
+     * Setup before each test.
+     * Stubs one organiser; every other username is unknown.
+     */
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        organiser = new Organiser("Org Aniser", "organiser", "secret");
+        ReflectionTestUtils.setField(organiser, "id", 1);
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
+        when(userRepository.findByUsername("organiser")).thenReturn(Optional.of(organiser));
+        now = new AtomicLong(1_000_000L);
+        cache = new CredentialCache(userRepository, now::get);
+    }
+
+    /**
+     * Tests that a username is looked up once and then answered from the cache.
+     * Verifies that:
+     * 1. The credentials carry the user's details and role, and check the password
+     * 2. The repository is queried once
+     * 3. The later lookups are counted as hits
+     */
+    @Test
+    void find_shouldAnswerFromCache_afterFirstLookup() {
+        CredentialCache.Credentials credentials = cache.find("organiser").orElseThrow();
+        assertEquals(1, credentials.getUser().getId());
+        assertEquals("ORGANISER", credentials.getUser().getRole());
+        assertTrue(credentials.matches("secret"));
+        assertFalse(credentials.matches("Secret"));
+        assertFalse(credentials.matches(null));
+
+        cache.find("organiser");
+        cache.find("organiser");
+        verify(userRepository, times(1)).findByUsername("organiser");
+        assertEquals(2L, cache.snapshot().get("hits"));
+        assertEquals(1L, cache.snapshot().get("misses"));
+    }
+
+    /**
+     * Tests that unknown usernames are cached as unknown.
+     */
+    @Test
+    void find_shouldCacheUnknownUsername() {
+        assertTrue(cache.find("nobody").isEmpty());
+        assertTrue(cache.find("nobody").isEmpty());
+        verify(userRepository, times(1)).findByUsername("nobody");
+    }
+
+    /**
+     * Tests that an entry is looked up again once it has expired.
+     */
+    @Test
+    void find_shouldReload_afterEntryExpires() {
+        cache.find("organiser");
+        now.addAndGet(CredentialCache.TTL_MILLIS - 1);
+        cache.find("organiser");
+        verify(userRepository, times(1)).findByUsername("organiser");
+
+        now.incrementAndGet();
+        cache.find("organiser");
+        verify(userRepository, times(2)).findByUsername("organiser");
+        assertEquals(1L, cache.snapshot().get("expired"));
+    }
+
+    /**
+     * Tests that the cache never holds more than its maximum, dropping the least recently used entry.
+     */
+    @Test
+    void find_shouldDropLeastRecentlyUsed_whenFull() {
+        cache.find("organiser");
+        for (int i = 1; i < CredentialCache.MAX_ENTRIES; i++) {
+            cache.find("user" + i);
+        }
+        cache.find("organiser");
+        cache.find("one more");
+
+        assertEquals(CredentialCache.MAX_ENTRIES, cache.size());
+        assertEquals(1L, cache.snapshot().get("evicted"));
+        cache.find("organiser");
+        cache.find("user1");
+        verify(userRepository, times(1)).findByUsername("organiser");
+        verify(userRepository, times(2)).findByUsername("user1");
+    }
+
+    /**
+     * Tests that invalidating by username or by user ID drops the entry.
+     */
+    @Test
+    void invalidate_shouldDropEntry_byUsernameOrId() {
+        cache.find("organiser");
+        cache.invalidate("organiser");
+        cache.find("organiser");
+        cache.invalidate(1);
+        cache.find("organiser");
+
+        verify(userRepository, times(3)).findByUsername("organiser");
+        assertEquals(2L, cache.snapshot().get("invalidations"));
+    }
+
+    /**
+     * Tests that a lookup overlapping an invalidation is returned but not cached.
+     */
+    @Test
+    void invalidate_shouldDiscardLookupInProgress() {
+        Attendee attendee = new Attendee("New Comer", "newcomer", "password");
+        when(userRepository.findByUsername("newcomer")).thenAnswer(invocation -> {
+            cache.invalidate("newcomer");
+            return Optional.empty();
+        }).thenReturn(Optional.of(attendee));
+
+        assertTrue(cache.find("newcomer").isEmpty());
+        assertTrue(cache.find("newcomer").isPresent());
+        assertEquals(0L, cache.snapshot().get("hits"));
+    }
+}
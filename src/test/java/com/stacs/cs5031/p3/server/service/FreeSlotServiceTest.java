@@ -0,0 +1,148 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.dto.FreeSlotDto;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link FreeSlotService} class.
+ * Verifies that the sweep over per-room booking spans returns the earliest free windows
+ * across rooms. The benchmark measures it against a synthetic dataset of 1,000 rooms and 1M bookings.
+ */
+public class FreeSlotServiceTest {
+
+    /** One minute in milliseconds */
+    private static final long MINUTE = 60_000L;
+
+    /**
+     * Booking span used in place of the repository projection.
+     */
+    private static final class Span implements BookingRepository.TimeSpan {
+        private final int roomId;
+        private final Date startTime;
+        private final Date endTime;
+
+        Span(int roomId, long startMinute, long endMinute) {
+            this.roomId = roomId;
+            this.startTime = new Date(startMinute * MINUTE);
+            this.endTime = new Date(endMinute * MINUTE);
+        }
+
+        @Override
+        public int getRoomId() {
+            return roomId;
+        }
+
+        @Override
+        public Date getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public Date getEndTime() {
+            return endTime;
+        }
+    }
+
+    private static Room room(int id) {
+        Room room = new Room("Room " + id, 20);
+        ReflectionTestUtils.setField(room, "id", id);
+        return room;
+    }
+
+    private static List<FreeSlotDto> search(List<Room> rooms, List<BookingRepository.TimeSpan> spans,
+                                            long fromMinute, long toMinute, long duration, int limit) {
+        return FreeSlotService.earliestFreeSlots(rooms, spans, fromMinute * MINUTE, toMinute * MINUTE,
+                duration * MINUTE, limit);
+    }
+
+    /**
+     * Tests that gaps shorter than the duration are skipped and windows are ordered across rooms.
+     */
+    @Test
+    void earliestFreeSlots_shouldReturnEarliestLongEnoughWindows_acrossRooms() {
+        List<Room> rooms = List.of(room(1), room(2));
+        List<BookingRepository.TimeSpan> spans = List.of(
+                new Span(1, 0, 60), new Span(1, 90, 180),  // room 1 free 60-90 and from 180
+                new Span(2, 0, 120));                       // room 2 free from 120
+
+        List<FreeSlotDto> slots = search(rooms, spans, 0, 600, 45, 3);
+
+        assertEquals(2, slots.size());
+        assertEquals(2, slots.get(0).getRoomId());
+        assertEquals(new Date(120 * MINUTE), slots.get(0).getStart());
+        assertEquals(1, slots.get(1).getRoomId());
+        assertEquals(new Date(180 * MINUTE), slots.get(1).getStart());
+        assertEquals(new Date(600 * MINUTE), slots.get(1).getEnd());
+    }
+
+    /**
+     * Tests that a booking starting before the range and a room with no bookings are handled.
+     */
+    @Test
+    void earliestFreeSlots_shouldClipToRange() {
+        List<Room> rooms = List.of(room(1), room(2));
+        List<BookingRepository.TimeSpan> spans = List.of(new Span(1, -30, 30));
+
+        List<FreeSlotDto> slots = search(rooms, spans, 0, 120, 60, 10);
+
+        assertEquals(2, slots.size());
+        assertEquals(2, slots.get(0).getRoomId());
+        assertEquals(new Date(0), slots.get(0).getStart());
+        assertEquals(new Date(30 * MINUTE), slots.get(1).getStart());
+    }
+
+    /**
+     * Tests that a range longer than the maximum is rejected before any booking is read.
+     */
+    @Test
+    void findFreeSlots_shouldRejectRange_longerThanMaximum() {
+        FreeSlotService service = new FreeSlotService(null, null);
+        Date from = new Date(0);
+        Date to = new Date(TimeUnit.DAYS.toMillis(FreeSlotService.MAX_QUERY_DAYS) + MINUTE);
+
+        assertThrows(IllegalArgumentException.class, () -> service.findFreeSlots(1, 60, from, to, 10));
+    }
+
+    /**
+     * Measures a search over 1,000 rooms with 1,000 bookings each.
+     * Every room is booked back to back for the whole range except room 777, where one booking
+     * is cut short, so the sweep has to walk almost every span before it finds the only window.
+     */
+    @Test
+    @Tag("benchmark")
+    void earliestFreeSlots_benchmark(TestReporter reporter) {
+        int roomCount = 1_000;
+        int bookingsPerRoom = 1_000;
+        List<Room> rooms = new ArrayList<>(roomCount);
+        List<BookingRepository.TimeSpan> spans = new ArrayList<>(roomCount * bookingsPerRoom);
+        for (int r = 1; r <= roomCount; r++) {
+            rooms.add(room(r));
+            for (int b = 0; b < bookingsPerRoom; b++) {
+                long start = b * 60L;
+                long length = r == 777 && b == 900 ? 1 : 60;
+                spans.add(new Span(r, start, start + length));
+            }
+        }
+
+        long began = System.nanoTime();
+        List<FreeSlotDto> slots = search(rooms, spans, 0, bookingsPerRoom * 60L, 45, 1);
+        long millis = (System.nanoTime() - began) / 1_000_000;
+        reporter.publishEntry("sweep over " + spans.size() + " bookings", millis + " ms");
+
+        assertEquals(1, slots.size());
+        assertEquals(777, slots.get(0).getRoomId());
+        assertTrue(millis < 5_000, "free-slot sweep took " + millis + " ms");
+    }
+}
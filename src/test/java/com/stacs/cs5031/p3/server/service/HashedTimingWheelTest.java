@@ -0,0 +1,97 @@
+package com.stacs.cs5031.p3.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link HashedTimingWheel} class.
+ * Drives the wheel with explicit times instead of its worker thread, so that each test can check
+ * exactly which tick an ID fires in.
+ */
+public class HashedTimingWheelTest {
+
+    /** Start of tick 0 for every wheel in these tests */
+    private static final long START = 1_000_000L;
+
+    /**
+     * Tests that an ID fires in the tick containing its deadline, and not before.
+     */
+    @Test
+    void advanceTo_shouldFireIdOnceDeadlinePassed() {
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 8, START);
+        List<Long> fired = new ArrayList<>();
+        wheel.schedule(42, START + 350);
+
+        assertEquals(0, wheel.advanceTo(START + 300, fired::add));
+        assertTrue(fired.isEmpty());
+        assertEquals(1, wheel.advanceTo(START + 400, fired::add));
+        assertEquals(List.of(42L), fired);
+        assertEquals(0, wheel.advanceTo(START + 10_000, fired::add));
+    }
+
+    /**
+     * Tests that an ID due more than one turn of the wheel ahead waits out the extra turns.
+     */
+    @Test
+    void advanceTo_shouldWaitFullRounds_whenDeadlineBeyondOneTurn() {
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 8, START);
+        List<Long> fired = new ArrayList<>();
+        wheel.schedule(1, START + 2_550); // tick 25, three turns of eight buckets later
+
+        wheel.advanceTo(START + 2_500, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advanceTo(START + 2_600, fired::add);
+        assertEquals(List.of(1L), fired);
+    }
+
+    /**
+     * Tests that an ID scheduled with a deadline already in the past fires on the next tick,
+     * as happens to holds reloaded after a restart.
+     */
+    @Test
+    void advanceTo_shouldFireOnNextTick_whenDeadlineAlreadyPassed() {
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 8, START);
+        List<Long> fired = new ArrayList<>();
+        wheel.advanceTo(START + 1_000, fired::add);
+        wheel.schedule(5, START - 60_000);
+
+        wheel.advanceTo(START + 1_100, fired::add);
+        assertEquals(List.of(5L), fired);
+    }
+
+    /**
+     * Tests that every one of many IDs sharing buckets fires exactly once, in deadline order by tick.
+     */
+    @Test
+    void advanceTo_shouldFireEveryIdOnce_whenManyShareBuckets() {
+        HashedTimingWheel wheel = new HashedTimingWheel(10, 16, START);
+        int ids = 10_000;
+        for (int i = 0; i < ids; i++) {
+            wheel.schedule(i, START + (i * 7919L) % 5_000);
+        }
+        List<Long> fired = new ArrayList<>();
+        for (long now = START; now <= START + 5_010; now += 10) {
+            int before = fired.size();
+            wheel.advanceTo(now, fired::add);
+            for (int f = before; f < fired.size(); f++) {
+                long deadline = START + (fired.get(f) * 7919L) % 5_000;
+                assertTrue(deadline < now, "id " + fired.get(f) + " fired early");
+                assertTrue(deadline >= now - 10, "id " + fired.get(f) + " fired late");
+            }
+        }
+        assertEquals(ids, fired.size());
+        assertEquals(ids, fired.stream().distinct().count());
+    }
+
+    /**
+     * Tests that the wheel rejects a non-positive tick length.
+     */
+    @Test
+    void constructor_shouldReject_whenTickNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel(0, 8, START));
+    }
+}
@@ -0,0 +1,123 @@
+package com.stacs.cs5031.p3.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link IdempotencyStore} class.
+ * Uses a manual clock so that expiry can be tested without waiting.
+ */
+public class IdempotencyStoreTest {
+
+    /** Current time seen by the store */
+    private AtomicLong now;
+
+    /** The IdempotencyStore instance being tested */
+    private IdempotencyStore store;
+
+    /**
+     * Setup before each test.
+     * Creates a store on a manual clock.
+     */
+    @BeforeEach
+    void setup() {
+        now = new AtomicLong(1_000_000L);
+        store = new IdempotencyStore(now::get);
+    }
+
+    /**
+     * Tests that the first request with a key runs and a retry is answered with its response.
+     */
+    @Test
+    void reserve_shouldReplayStoredResponse_whenKeyRetried() {
+        IdempotencyStore.Reservation first = store.reserve("key-1", "create booking");
+        assertTrue(first.isOwner());
+        first.complete(new IdempotencyStore.StoredResponse(201, "text/plain", null, "created".getBytes()));
+
+        IdempotencyStore.Reservation retry = store.reserve("key-1", "create booking");
+        assertFalse(retry.isOwner());
+        assertTrue(retry.matches());
+        IdempotencyStore.StoredResponse replayed = retry.await(0);
+        assertEquals(201, replayed.getStatus());
+        assertArrayEquals("created".getBytes(), replayed.getBody());
+    }
+
+    /**
+     * Tests that reusing a key for a different request is detected.
+     */
+    @Test
+    void reserve_shouldReportMismatch_whenKeyReusedForDifferentRequest() {
+        store.reserve("key-1", "create booking").complete(
+                new IdempotencyStore.StoredResponse(201, null, null, new byte[0]));
+
+        IdempotencyStore.Reservation other = store.reserve("key-1", "delete booking");
+        assertFalse(other.isOwner());
+        assertFalse(other.matches());
+    }
+
+    /**
+     * Tests that a duplicate arriving while the first request runs receives the first one's response.
+     */
+    @Test
+    void await_shouldReturnOwnersResponse_whenDuplicateArrivesWhileRunning() throws Exception {
+        IdempotencyStore.Reservation first = store.reserve("key-1", "register");
+        IdempotencyStore.Reservation duplicate = store.reserve("key-1", "register");
+        assertFalse(duplicate.isFinished());
+
+        Thread owner = new Thread(() -> first.complete(
+                new IdempotencyStore.StoredResponse(200, null, null, "ok".getBytes())));
+        owner.start();
+        IdempotencyStore.StoredResponse response = duplicate.await(5_000);
+        owner.join();
+
+        assertNotNull(response);
+        assertEquals(200, response.getStatus());
+        assertEquals(1L, store.snapshot().get("stored"));
+    }
+
+    /**
+     * Tests that a key given up without a response can be reserved again.
+     */
+    @Test
+    void abandon_shouldFreeKey_forNextRequest() {
+        IdempotencyStore.Reservation first = store.reserve("key-1", "register");
+        IdempotencyStore.Reservation duplicate = store.reserve("key-1", "register");
+        first.abandon();
+
+        assertNull(duplicate.await(0));
+        assertTrue(duplicate.isFinished());
+        assertTrue(store.reserve("key-1", "register").isOwner());
+    }
+
+    /**
+     * Tests that responses are forgotten once their time to live has passed.
+     */
+    @Test
+    void reserve_shouldRunAgain_whenResponseExpired() {
+        store.reserve("key-1", "register").complete(
+                new IdempotencyStore.StoredResponse(200, null, null, new byte[0]));
+        now.addAndGet(IdempotencyStore.TTL_MILLIS);
+
+        assertTrue(store.reserve("key-1", "register").isOwner());
+        assertEquals(1L, store.snapshot().get("evicted"));
+    }
+
+    /**
+     * Tests that the store never holds more than its limit of finished responses.
+     */
+    @Test
+    void reserve_shouldEvictOldestResponses_whenFull() {
+        for (int i = 0; i < IdempotencyStore.MAX_ENTRIES + 10; i++) {
+            store.reserve("key-" + i, "register").complete(
+                    new IdempotencyStore.StoredResponse(200, null, null, new byte[0]));
+        }
+
+        assertEquals(IdempotencyStore.MAX_ENTRIES, store.size());
+        assertTrue(store.reserve("key-0", "register").isOwner());
+        assertFalse(store.reserve("key-" + (IdempotencyStore.MAX_ENTRIES + 9), "register").isOwner());
+    }
+}
@@ -0,0 +1,21 @@
+package com.stacs.cs5031.p3.server.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Application context of the tests that put the services under concurrent load.
+ * They share one in-memory database, kept apart from the one of the other Spring tests because
+ * their threads commit rows outside any test transaction; each class removes its rows after each test.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@interface LoadTestContext {
+}
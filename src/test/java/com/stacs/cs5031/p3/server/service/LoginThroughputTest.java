@@ -0,0 +1,140 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.model.Attendee;
+import com.stacs.cs5031.p3.server.model.User;
+import com.stacs.cs5031.p3.server.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of logins checked against the {@link CredentialCache} and against the database, as
+ * before the cache. Replays the same sequence of logins through both paths over {@value #USERS}
+ * users, reports the logins per second of each and verifies that the cache stays within its bound
+ * while answering most of them. The behaviour of the cache itself is tested by {@link CredentialCacheTest}.
+ */
+@LoadTestContext
+@Tag("benchmark")
+public class LoginThroughputTest {
+
+    /** Number of registered users */
+    private static final int USERS = 100_000;
+
+    /** Users who log in often; the rest log in now and then */
+    private static final int ACTIVE_USERS = 5_000;
+
+    /** Share of logins made by the active users */
+    private static final double ACTIVE_SHARE = 0.9;
+
+    /** Number of logins replayed through each path */
+    private static final int LOGINS = 200_000;
+
+    /** Number of threads logging in concurrently */
+    private static final int THREADS = 16;
+
+    /** Users saved per batch while setting up */
+    private static final int SAVE_BATCH = 5_000;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CredentialCache credentialCache;
+
+    /**
+     * Removes all rows created by the test.
+     */
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Tests login throughput with and without the credential cache.
+     * Verifies that:
+     * 1. Every login succeeds on both paths
+     * 2. The cache never holds more than its maximum number of entries
+     * 3. Most logins through the cache run no query
+     */
+    @Test
+    void login_shouldBeAnsweredFromCache_atOneHundredThousandUsers(TestReporter reporter) throws Exception {
+        createUsers();
+        String[] usernames = loginSequence();
+
+        long databaseMillis = fire(usernames, username -> userRepository.findByUsername(username)
+                .map(user -> user.getPassword().equals("password"))
+                .orElse(false));
+        long cachedMillis = fire(usernames, username -> userService.getCredentials(username)
+                .map(credentials -> credentials.matches("password"))
+                .orElse(false));
+
+        Map<String, Number> snapshot = credentialCache.snapshot();
+        reporter.publishEntry("database logins/s", String.valueOf(LOGINS * 1000L / databaseMillis));
+        reporter.publishEntry("credential cache logins/s", String.valueOf(LOGINS * 1000L / cachedMillis));
+        reporter.publishEntry("credential cache", snapshot.toString());
+        assertTrue(credentialCache.size() <= CredentialCache.MAX_ENTRIES);
+        assertTrue(snapshot.get("hitRatio").doubleValue() > 0.5, "hit ratio " + snapshot.get("hitRatio"));
+    }
+
+    private void createUsers() {
+        for (int from = 0; from < USERS; from += SAVE_BATCH) {
+            List<User> users = new ArrayList<>(SAVE_BATCH);
+            for (int i = from; i < from + SAVE_BATCH; i++) {
+                users.add(new Attendee("User " + i, "user" + i, "password"));
+            }
+            userRepository.saveAll(users);
+        }
+    }
+
+    /**
+     * Picks the username of each login, mostly from the active users, with a fixed seed so
+     * that both paths replay the same sequence.
+     */
+    private String[] loginSequence() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] usernames = new String[LOGINS];
+        for (int i = 0; i < LOGINS; i++) {
+            int user = random.nextDouble() < ACTIVE_SHARE ? random.nextInt(ACTIVE_USERS) : random.nextInt(USERS);
+            usernames[i] = "user" + user;
+        }
+        return usernames;
+    }
+
+    /**
+     * Splits the logins between the threads, runs them and returns the elapsed time.
+     */
+    private long fire(String[] usernames, Predicate<String> login) throws Exception {
+        List<Callable<Integer>> calls = new ArrayList<>(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            calls.add(() -> {
+                int failed = 0;
+                for (int i = thread; i < usernames.length; i += THREADS) {
+                    if (!login.test(usernames[i])) {
+                        failed++;
+                    }
+                }
+                return failed;
+            });
+        }
+        ConcurrentLoad.Outcome<Integer> outcome = ConcurrentLoad.run(THREADS, calls);
+        for (int failed : outcome.results()) {
+            assertEquals(0, failed, "failed logins");
+        }
+        return outcome.millis();
+    }
+}
@@ -7,6 +7,8 @@ import static org.mockito.Mockito.times;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Assertions;
@@ -17,12 +19,12 @@ import org.mockito.Mockito;
 
 import com.stacs.cs5031.p3.server.dto.AttendeeDto;
 import com.stacs.cs5031.p3.server.dto.BookingDto;
+import com.stacs.cs5031.p3.server.dto.BookingSummaryDto;
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.RoomDto;
 import com.stacs.cs5031.p3.server.exception.BookingNotFoundException;
-import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Booking;
 import com.stacs.cs5031.p3.server.model.Organiser;
-import com.stacs.cs5031.p3.server.model.Room;
 import com.stacs.cs5031.p3.server.repository.OrganiserRepository;
 
 /**
@@ -209,28 +211,13 @@ public class OrganiserServiceTest {
      */
     @Test
     void shouldGetBookingsWithoutIssue() {
+        ArrayList<BookingSummaryDto> bookings = new ArrayList<>();
+        bookings.add(new BookingSummaryDto(1L, "Lecture", 1L, "Room 1", null, 60, 1L, "Organiser", 0, 10));
+        bookings.add(new BookingSummaryDto(2L, "Seminar", 1L, "Room 1", null, 30, 1L, "Organiser", 0, 10));
 
-        Booking booking1 = Mockito.mock(Booking.class);
-        Booking booking2 = Mockito.mock(Booking.class);
-        Room room = Mockito.mock(Room.class);
-        Organiser organiser = Mockito.mock(Organiser.class);
-
-        Mockito.when(booking1.getRoom()).thenReturn(room);
-        Mockito.when(booking2.getRoom()).thenReturn(room);
-
-        Mockito.when(booking1.getOrganiser()).thenReturn(organiser);
-        Mockito.when(booking2.getOrganiser()).thenReturn(organiser);
-
-        Mockito.when(room.getID()).thenReturn(1);
-        Mockito.when(organiser.getId()).thenReturn(1);
-
-        ArrayList<Booking> bookings = new ArrayList<>();
-        bookings.add(booking1);
-        bookings.add(booking2);
-
-        Mockito.when(bookingService.getBookingsByOrganiser(1L)).thenReturn(bookings);
-        organiserService.getBookings(1);
-        Mockito.verify(bookingService, times(1)).getBookingsByOrganiser(1L);
+        Mockito.when(bookingService.getBookingsByOrganiser(1L, null, null)).thenReturn(new KeysetPage<>(bookings, null));
+        assertEquals(bookings, organiserService.getBookings(1, null, null).getItems());
+        Mockito.verify(bookingService, times(1)).getBookingsByOrganiser(1L, null, null);
 
     }
 
@@ -239,16 +226,7 @@ public class OrganiserServiceTest {
      */
     @Test
     void shouldGetBookingDetailsWithoutIssue() {
-        Booking booking1 = Mockito.mock(Booking.class);
-        Organiser organiser = Mockito.mock(Organiser.class);
-        Room room = Mockito.mock(Room.class);
-
-        Mockito.when(booking1.getRoom()).thenReturn(room);
-        Mockito.when(room.getID()).thenReturn(1);
-        Mockito.when(room.getCapacity()).thenReturn(100);
-        Mockito.when(organiser.getId()).thenReturn(1);
-        Mockito.when(booking1.getOrganiser()).thenReturn(organiser);
-        Mockito.when(bookingService.getBookingById(1L)).thenReturn(Optional.of(booking1));
+        Mockito.when(bookingService.getBookingDetails(1L)).thenReturn(Optional.of(bookingDto(1L, List.of())));
 
         assertNotEquals(null, organiserService.getBooking(1, 1));
     }
@@ -315,7 +293,7 @@ public class OrganiserServiceTest {
     void shouldNotCGetBookingIfBookingDoesntExist() {
         Long bookingId = 1L;
         int organiserId = 1;
-        Mockito.when(bookingService.getBookingById(bookingId)).thenReturn(Optional.empty());
+        Mockito.when(bookingService.getBookingDetails(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(BookingNotFoundException.class, () -> {
             organiserService.getBooking(bookingId.intValue(), organiserId);
@@ -352,12 +330,7 @@ public class OrganiserServiceTest {
     void shouldReturnNullIfBookingDoesNotBelongToOrganiser() {
         Long bookingId = 1L;
         int organiserId = 1;
-        Booking booking = Mockito.mock(Booking.class);
-        Organiser organiser = Mockito.mock(Organiser.class);
-
-        Mockito.when(bookingService.getBookingById(bookingId)).thenReturn(Optional.of(booking));
-        Mockito.when(booking.getOrganiser()).thenReturn(organiser);
-        Mockito.when(booking.getOrganiser().getId()).thenReturn(2);
+        Mockito.when(bookingService.getBookingDetails(bookingId)).thenReturn(Optional.of(bookingDto(2L, List.of())));
 
         BookingDto res = organiserService.getBooking(bookingId.intValue(), organiserId);
         assertEquals(null, res);
@@ -371,35 +344,26 @@ public class OrganiserServiceTest {
     @Test
     void shouldGetAttendeesForBookingWithoutIssue() {
 
-        Booking booking1 = Mockito.mock(Booking.class);
-        Room room = Mockito.mock(Room.class);
-        Organiser organiser = Mockito.mock(Organiser.class);
-        ArrayList<Attendee> attendees = new ArrayList<>();
-        Attendee attendee = Mockito.mock(Attendee.class);
-        Attendee attendee2 = Mockito.mock(Attendee.class);
-        attendees.add(attendee);
-        attendees.add(attendee2);
-
-        Mockito.when(booking1.getRoom()).thenReturn(room);
-
-        Mockito.when(booking1.getOrganiser()).thenReturn(organiser);
-        Mockito.when(booking1.getAttendees()).thenReturn(attendees); 
-        Mockito.when(attendee.getId()).thenReturn(1);
-        Mockito.when(attendee2.getId()).thenReturn(2);
+        AttendeeDto attendee = new AttendeeDto(1, "attendee1", "Attendee One", List.of(1));
+        AttendeeDto attendee2 = new AttendeeDto(2, "attendee2", "Attendee Two", List.of(1, 3));
 
-        Mockito.when(room.getID()).thenReturn(1);
-        Mockito.when(organiser.getId()).thenReturn(1);
-
-        ArrayList<Booking> bookings = new ArrayList<>();
-        bookings.add(booking1);
-
-        Mockito.when(bookingService.getBookingById(1L)).thenReturn(Optional.of(booking1));
+        Mockito.when(bookingService.getBookingDetails(1L))
+                .thenReturn(Optional.of(bookingDto(1L, List.of(attendee, attendee2))));
         ArrayList<AttendeeDto> attendeeDtos = organiserService.getAttendees(1,1);
-        Mockito.verify(bookingService, times(1)).getBookingById(1L);
+        Mockito.verify(bookingService, times(1)).getBookingDetails(1L);
         assertEquals(2, attendeeDtos.size());
         assertEquals(attendee.getId(), attendeeDtos.get(0).getId());
         assertEquals(attendee2.getId(), attendeeDtos.get(1).getId());
+        assertEquals(List.of(1, 3), attendeeDtos.get(1).getRegisteredBookingIds());
+
+    }
 
+    /**
+     * Builds the full view of booking 1 as the booking service returns it.
+     */
+    private BookingDto bookingDto(long organiserId, List<AttendeeDto> attendees) {
+        return new BookingDto(1L, "Gig", 1L, "Main Hall", new Date(), 60, organiserId, "Organiser",
+                attendees, attendees.size(), 100);
     }
 
 
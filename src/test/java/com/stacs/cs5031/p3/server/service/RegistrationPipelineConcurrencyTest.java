@@ -0,0 +1,213 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.dto.RegistrationTicketDto;
+import com.stacs.cs5031.p3.server.model.Attendee;
+import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.model.Organiser;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.AttendeeRepository;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.OrganiserRepository;
+import com.stacs.cs5031.p3.server.repository.RoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrency tests of {@link RegistrationPipeline} against {@link AttendeeService#registerForBooking}.
+ * Fires the same registration spike through both paths and verifies that the group-commit writer
+ * applies capacity exactly like the synchronous path. The benchmark does the same with 8,000
+ * registrations per path and reports the registrations per second of each.
+ */
+@LoadTestContext
+public class RegistrationPipelineConcurrencyTest {
+
+    /** Number of registrations fired through each path by the concurrency test, one per attendee and thread */
+    private static final int REGISTRATIONS = 200;
+
+    /** Room capacities of the concurrency test; registrations are spread evenly, so the small room fills up */
+    private static final int[] CAPACITIES = {20, 100};
+
+    /** Number of registrations fired through each path by the benchmark, one per attendee */
+    private static final int BENCHMARK_REGISTRATIONS = 8_000;
+
+    /** Number of threads issuing registrations concurrently in the benchmark */
+    private static final int BENCHMARK_THREADS = 32;
+
+    /** Room capacities of the benchmark */
+    private static final int[] BENCHMARK_CAPACITIES = {50, 4_000};
+
+    @Autowired
+    private AttendeeService attendeeService;
+
+    @Autowired
+    private RegistrationPipeline registrationPipeline;
+
+    @Autowired
+    private AttendeeRepository attendeeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private OrganiserRepository organiserRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Removes all rows created by the test.
+     */
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM attendee_bookings");
+        bookingRepository.deleteAllInBatch();
+        attendeeRepository.deleteAllInBatch();
+        roomRepository.deleteAll();
+        organiserRepository.deleteAll();
+    }
+
+    /**
+     * Tests the pipeline under the same spike as the synchronous path.
+     * Verifies that, for both paths:
+     * 1. Each booking takes exactly as many attendees as its room holds, or every request if fewer
+     * 2. The seat counter equals the number of registration rows
+     */
+    @Test
+    void pipeline_shouldRegisterLikeSynchronousPath_underRegistrationSpike() throws Exception {
+        Organiser organiser = organiserRepository.save(new Organiser("Load Tester", "load.tester", "password"));
+        registerSynchronously(organiser, REGISTRATIONS, REGISTRATIONS, CAPACITIES);
+        registerThroughPipeline(organiser, REGISTRATIONS, REGISTRATIONS, CAPACITIES);
+    }
+
+    /**
+     * Tests that the pipeline turns registrations away once the seat counter is over capacity.
+     * Verifies that:
+     * 1. The registration is rejected although the counter shows a negative number of free seats
+     * 2. No registration row is written and the counter is left as it was
+     */
+    @Test
+    void pipeline_shouldReject_whenCounterOverCommitted() throws Exception {
+        Organiser organiser = organiserRepository.save(new Organiser("Load Tester", "load.tester", "password"));
+        Booking booking = createBookings(organiser, "Full", new int[] {1}).get(0);
+        jdbcTemplate.update("UPDATE booking SET seats_taken = 2 WHERE id = ?", booking.getId());
+        Attendee attendee = createAttendees("full", 1).get(0);
+
+        RegistrationTicketDto ticket = registrationPipeline.submit(attendee.getId(), booking.getId());
+        ticket = registrationPipeline.await(attendee.getId(), ticket.getTicketId(), RegistrationPipeline.MAX_WAIT_MILLIS);
+
+        assertEquals(RegistrationTicketDto.Status.REJECTED, ticket.getStatus());
+        assertEquals(0, countRows("attendee_bookings", booking.getId()));
+        assertEquals(2, bookingRepository.findById((long) booking.getId()).orElseThrow().getSeatsTaken());
+    }
+
+    /**
+     * Measures the throughput of both paths under the same spike, with the same checks as the concurrency test.
+     */
+    @Test
+    @Tag("benchmark")
+    void pipeline_benchmark(TestReporter reporter) throws Exception {
+        Organiser organiser = organiserRepository.save(new Organiser("Load Tester", "load.tester", "password"));
+        ConcurrentLoad.Outcome<Boolean> sync = registerSynchronously(organiser, BENCHMARK_REGISTRATIONS,
+                BENCHMARK_THREADS, BENCHMARK_CAPACITIES);
+        ConcurrentLoad.Outcome<Boolean> async = registerThroughPipeline(organiser, BENCHMARK_REGISTRATIONS,
+                BENCHMARK_THREADS, BENCHMARK_CAPACITIES);
+        reporter.publishEntry("synchronous registrations/s", String.valueOf(sync.perSecond(BENCHMARK_REGISTRATIONS)));
+        reporter.publishEntry("group commit registrations/s", String.valueOf(async.perSecond(BENCHMARK_REGISTRATIONS)));
+    }
+
+    private ConcurrentLoad.Outcome<Boolean> registerSynchronously(Organiser organiser, int registrations,
+                                                                  int threads, int[] capacities) throws Exception {
+        List<Booking> bookings = createBookings(organiser, "Sync", capacities);
+        List<Attendee> attendees = createAttendees("sync", registrations);
+        ConcurrentLoad.Outcome<Boolean> outcome = fire(attendees, bookings, threads, (attendeeId, bookingId) -> () -> {
+            try {
+                attendeeService.registerForBooking(attendeeId, bookingId);
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        });
+        assertBookingsFilled(bookings, registrations, capacities);
+        return outcome;
+    }
+
+    private ConcurrentLoad.Outcome<Boolean> registerThroughPipeline(Organiser organiser, int registrations,
+                                                                    int threads, int[] capacities) throws Exception {
+        List<Booking> bookings = createBookings(organiser, "Async", capacities);
+        List<Attendee> attendees = createAttendees("async", registrations);
+        ConcurrentLoad.Outcome<Boolean> outcome = fire(attendees, bookings, threads, (attendeeId, bookingId) -> () -> {
+            RegistrationTicketDto ticket = registrationPipeline.submit(attendeeId, bookingId);
+            ticket = registrationPipeline.await(attendeeId, ticket.getTicketId(), RegistrationPipeline.MAX_WAIT_MILLIS);
+            assertNotEquals(RegistrationTicketDto.Status.PENDING, ticket.getStatus());
+            return ticket.getStatus() == RegistrationTicketDto.Status.REGISTERED;
+        });
+        assertBookingsFilled(bookings, registrations, capacities);
+        return outcome;
+    }
+
+    private List<Booking> createBookings(Organiser organiser, String label, int[] capacities) {
+        List<Booking> bookings = new ArrayList<>();
+        for (int b = 0; b < capacities.length; b++) {
+            Room room = roomRepository.save(new Room(label + " Hall " + b, capacities[b]));
+            bookings.add(bookingRepository.save(new Booking(label + " Event " + b, room,
+                    new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(30)), 60, organiser)));
+        }
+        return bookings;
+    }
+
+    private List<Attendee> createAttendees(String label, int count) {
+        List<Attendee> attendees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            attendees.add(new Attendee("Attendee " + i, label + i, "password"));
+        }
+        return attendeeRepository.saveAll(attendees);
+    }
+
+    /**
+     * Fires one registration per attendee, spread evenly over the bookings.
+     */
+    private ConcurrentLoad.Outcome<Boolean> fire(List<Attendee> attendees, List<Booking> bookings, int threads,
+                                                 Registration registration) throws Exception {
+        List<Callable<Boolean>> calls = new ArrayList<>(attendees.size());
+        for (int i = 0; i < attendees.size(); i++) {
+            calls.add(registration.of(attendees.get(i).getId(), bookings.get(i % bookings.size()).getId()));
+        }
+        return ConcurrentLoad.run(threads, calls);
+    }
+
+    private void assertBookingsFilled(List<Booking> bookings, int registrations, int[] capacities) {
+        int requestsPerBooking = registrations / bookings.size();
+        for (int b = 0; b < bookings.size(); b++) {
+            long bookingId = bookings.get(b).getId();
+            int expected = Math.min(capacities[b], requestsPerBooking);
+            Booking stored = bookingRepository.findById(bookingId).orElseThrow();
+            assertEquals(expected, stored.getSeatsTaken(), "seats taken on booking " + bookingId);
+            assertEquals(expected, countRows("attendee_bookings", bookingId), "registrations for booking " + bookingId);
+        }
+    }
+
+    private int countRows(String table, long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE booking_id = ?",
+                Integer.class, bookingId);
+    }
+
+    /** A way of registering one attendee for one booking, reporting whether they got a seat */
+    private interface Registration {
+        Callable<Boolean> of(Integer attendeeId, long bookingId);
+    }
+}
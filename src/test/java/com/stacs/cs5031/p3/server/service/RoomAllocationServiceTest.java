@@ -0,0 +1,171 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.dto.AllocationDto;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RoomAllocationService} solver.
+ * Verifies that requests go into the tightest room at the earliest free time inside their
+ * windows, that unplaceable requests are explained, and that a job of several hundred requests
+ * is placed without overlaps within its time budget.
+ */
+public class RoomAllocationServiceTest {
+
+    /** One minute in milliseconds */
+    private static final long MINUTE = 60_000L;
+
+    /**
+     * Booking span used in place of the repository projection.
+     */
+    private static final class Span implements BookingRepository.TimeSpan {
+        private final int roomId;
+        private final Date startTime;
+        private final Date endTime;
+
+        Span(int roomId, long startMinute, long endMinute) {
+            this.roomId = roomId;
+            this.startTime = new Date(startMinute * MINUTE);
+            this.endTime = new Date(endMinute * MINUTE);
+        }
+
+        @Override
+        public int getRoomId() {
+            return roomId;
+        }
+
+        @Override
+        public Date getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public Date getEndTime() {
+            return endTime;
+        }
+    }
+
+    private static Room room(int id, int capacity) {
+        Room room = new Room("Room " + id, capacity);
+        ReflectionTestUtils.setField(room, "id", id);
+        return room;
+    }
+
+    private static AllocationDto.EventRequest request(int size, int duration, long... windowMinutes) {
+        List<AllocationDto.Window> windows = new ArrayList<>();
+        for (int w = 0; w < windowMinutes.length; w += 2) {
+            windows.add(new AllocationDto.Window(new Date(windowMinutes[w] * MINUTE),
+                    new Date(windowMinutes[w + 1] * MINUTE)));
+        }
+        return new AllocationDto.EventRequest("Event", size, duration, windows);
+    }
+
+    private static List<AllocationDto.Placement> solve(List<Room> rooms, List<BookingRepository.TimeSpan> spans,
+                                                       List<AllocationDto.EventRequest> requests) {
+        RoomAllocationService.Problem problem = new RoomAllocationService.Problem(rooms, spans, requests);
+        return problem.placements(problem.solve(System.nanoTime() + 500_000_000L));
+    }
+
+    /**
+     * Tests that each request goes into the smallest room that can hold it.
+     */
+    @Test
+    void solve_shouldPreferTightestRoom() {
+        List<Room> rooms = List.of(room(1, 50), room(2, 10), room(3, 12));
+        List<AllocationDto.EventRequest> requests = List.of(request(8, 60, 0, 600), request(30, 60, 0, 600));
+
+        List<AllocationDto.Placement> placements = solve(rooms, List.of(), requests);
+
+        assertEquals(2, placements.get(0).getRoomId());
+        assertEquals(1, placements.get(1).getRoomId());
+        assertEquals(new Date(0), placements.get(0).getStartTime());
+    }
+
+    /**
+     * Tests that existing bookings and earlier placements push a request to the next free time,
+     * and that a later window is used when the first one is full.
+     */
+    @Test
+    void solve_shouldStartAfterExistingBookings() {
+        List<Room> rooms = List.of(room(1, 10));
+        List<BookingRepository.TimeSpan> spans = List.of(new Span(1, 0, 60), new Span(1, 90, 120));
+        List<AllocationDto.EventRequest> requests = List.of(
+                request(5, 60, 0, 180),                // only fits 120-180
+                request(5, 30, 0, 150, 300, 400));     // 60-90 is free
+
+        List<AllocationDto.Placement> placements = solve(rooms, spans, requests);
+
+        assertEquals(new Date(120 * MINUTE), placements.get(0).getStartTime());
+        assertEquals(new Date(60 * MINUTE), placements.get(1).getStartTime());
+    }
+
+    /**
+     * Tests that requests that cannot be placed say why.
+     */
+    @Test
+    void solve_shouldExplainUnplacedRequests() {
+        List<Room> rooms = List.of(room(1, 10));
+        List<BookingRepository.TimeSpan> spans = List.of(new Span(1, 0, 120));
+        List<AllocationDto.EventRequest> requests = List.of(request(20, 30, 0, 600), request(5, 60, 0, 150));
+
+        List<AllocationDto.Placement> placements = solve(rooms, spans, requests);
+
+        assertFalse(placements.get(0).isPlaced());
+        assertEquals("No room is large enough for 20 people", placements.get(0).getMessage());
+        assertFalse(placements.get(1).isPlaced());
+        assertEquals("No large enough room is free in any of the requested windows", placements.get(1).getMessage());
+    }
+
+    /**
+     * Places 500 random requests into 40 rooms over a working week and checks that no two
+     * placements in a room overlap, every placement fits its room and window, and the search
+     * returns within its budget.
+     */
+    @Test
+    void solve_shouldPlaceSeveralHundredRequestsWithoutOverlap() {
+        Random random = new Random(42);
+        List<Room> rooms = new ArrayList<>();
+        for (int r = 1; r <= 40; r++) {
+            rooms.add(room(r, 5 + random.nextInt(60)));
+        }
+        List<AllocationDto.EventRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long day = random.nextInt(5) * 1440L;
+            requests.add(request(1 + random.nextInt(60), 30 + 30 * random.nextInt(4), day + 540, day + 1020));
+        }
+
+        long began = System.nanoTime();
+        List<AllocationDto.Placement> placements = solve(rooms, List.of(), requests);
+        long millis = (System.nanoTime() - began) / 1_000_000;
+        assertTrue(millis < 5_000, "allocation took " + millis + " ms");
+
+        List<long[]> booked = new ArrayList<>();
+        for (AllocationDto.Placement placement : placements) {
+            if (!placement.isPlaced()) {
+                continue;
+            }
+            AllocationDto.EventRequest request = requests.get(placement.getIndex());
+            Room room = rooms.get(placement.getRoomId() - 1);
+            long start = placement.getStartTime().getTime();
+            long end = start + request.getDuration() * MINUTE;
+            assertTrue(room.getCapacity() >= request.getSize());
+            assertFalse(start < request.getWindows().get(0).getFrom().getTime());
+            assertFalse(end > request.getWindows().get(0).getTo().getTime());
+            for (long[] other : booked) {
+                assertFalse(other[0] == room.getID() && other[1] < end && start < other[2],
+                        "placements overlap in room " + room.getID());
+            }
+            booked.add(new long[] {room.getID(), start, end});
+        }
+        assertTrue(booked.size() > 250, "only " + booked.size() + " requests placed");
+    }
+}
@@ -0,0 +1,199 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.dto.RoomDto;
+import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link RoomAvailabilityIndex} class.
+ * Verifies that free-room queries respect capacity and booked slots, and that the
+ * bitmaps follow bookings being created and cancelled.
+ */
+public class RoomAvailabilityIndexTest {
+
+    /** One minute in milliseconds */
+    private static final long MINUTE = 60_000L;
+
+    /** Midnight UTC at the start of the day used by the tests */
+    private static final long DAY = 20_000 * RoomAvailabilityIndex.DAY_MILLIS;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    /** The index under test */
+    private RoomAvailabilityIndex index;
+
+    /** Small room: capacity 5 */
+    private Room small;
+
+    /** Medium room: capacity 10, booked 10:00-11:00 */
+    private Room medium;
+
+    /** Large room: capacity 40, never booked */
+    private Room large;
+
+    /** Booking spans returned for the test day */
+    private List<BookingRepository.TimeSpan> spans;
+
+    /**
+     * Setup before each test.
+     * Stubs three rooms and a single booking in the medium room.
+     */
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        small = room(1, 5);
+        medium = room(2, 10);
+        large = room(3, 40);
+        spans = new ArrayList<>();
+        spans.add(span(medium, 600, 660));
+        when(roomRepository.findAll()).thenReturn(List.of(small, medium, large));
+        when(bookingRepository.findTimeSpans(anyInt(), any(), any())).thenAnswer(invocation -> {
+            Date from = invocation.getArgument(1);
+            return from.getTime() == DAY ? new ArrayList<>(spans) : List.of();
+        });
+        index = new RoomAvailabilityIndex(roomRepository, bookingRepository);
+    }
+
+    private static Room room(int id, int capacity) {
+        Room room = new Room("Room " + id, capacity);
+        ReflectionTestUtils.setField(room, "id", id);
+        return room;
+    }
+
+    private static BookingRepository.TimeSpan span(Room room, long startMinute, long endMinute) {
+        BookingRepository.TimeSpan span = mock(BookingRepository.TimeSpan.class);
+        when(span.getRoomId()).thenReturn(room.getID());
+        when(span.getStartTime()).thenReturn(at(startMinute));
+        when(span.getEndTime()).thenReturn(at(endMinute));
+        return span;
+    }
+
+    private static Date at(long minute) {
+        return new Date(DAY + minute * MINUTE);
+    }
+
+    private List<Integer> freeRoomIds(int minCapacity, long fromMinute, long toMinute) {
+        return index.findFreeRooms(minCapacity, at(fromMinute), at(toMinute)).stream().map(RoomDto::getId).toList();
+    }
+
+    /**
+     * Tests that rooms below the capacity and rooms booked during the range are left out.
+     */
+    @Test
+    void findFreeRooms_shouldExcludeSmallAndBookedRooms() {
+        assertEquals(List.of(3), freeRoomIds(8, 630, 645));
+        assertEquals(List.of(2, 3), freeRoomIds(8, 660, 720));
+        assertEquals(List.of(1, 3), freeRoomIds(1, 540, 610));
+    }
+
+    /**
+     * Tests that a booking saved after the day was loaded is reflected without reloading the day.
+     */
+    @Test
+    void add_shouldMarkLoadedDay() {
+        assertEquals(List.of(2, 3), freeRoomIds(8, 780, 840));
+        index.add(new Booking("Late", large, at(800), 60, null));
+
+        assertEquals(List.of(2), freeRoomIds(8, 780, 840));
+        verify(bookingRepository, times(1)).findTimeSpans(anyInt(), any(), any());
+    }
+
+    /**
+     * Tests that a booking committed while its day is loading is not lost.
+     * Verifies that:
+     * 1. The load in progress is dropped rather than marked
+     * 2. The next query reloads the day and sees the booking
+     */
+    @Test
+    void add_shouldDropDayStillLoading() {
+        BookingRepository.TimeSpan late = span(large, 800, 860);
+        when(bookingRepository.findTimeSpans(anyInt(), any(), any())).thenAnswer(invocation -> {
+            List<BookingRepository.TimeSpan> read = new ArrayList<>(spans);
+            if (spans.size() == 1) {
+                // commits after the query read the day, before the load is published
+                spans.add(late);
+                index.add(new Booking("Late", large, at(800), 60, null));
+            }
+            return read;
+        });
+        freeRoomIds(8, 780, 840);
+
+        assertEquals(List.of(2), freeRoomIds(8, 780, 840));
+        verify(bookingRepository, times(2)).findTimeSpans(anyInt(), any(), any());
+    }
+
+    /**
+     * Tests that a booking running past midnight marks the following day as well.
+     */
+    @Test
+    void add_shouldMarkEveryDayTheBookingCovers() {
+        assertEquals(List.of(2, 3), freeRoomIds(8, 1440 + 60, 1440 + 120));
+        index.add(new Booking("Overnight", large, at(1380), 180, null));
+
+        assertEquals(List.of(2), freeRoomIds(8, 1440 + 60, 1440 + 120));
+    }
+
+    /**
+     * Tests that cancelling a booking drops its day so that it is rebuilt from the database.
+     */
+    @Test
+    void remove_shouldReloadDay() {
+        assertEquals(List.of(3), freeRoomIds(8, 630, 645));
+        spans.clear();
+        index.remove(new Booking("Cancelled", medium, at(600), 60, null));
+
+        assertEquals(List.of(2, 3), freeRoomIds(8, 630, 645));
+        verify(bookingRepository, times(2)).findTimeSpans(anyInt(), any(), any());
+    }
+
+    /**
+     * Tests that a new room shows up once the catalog is evicted.
+     */
+    @Test
+    void evictRooms_shouldPickUpNewRooms() {
+        assertEquals(List.of(3), freeRoomIds(30, 0, 60));
+        when(roomRepository.findAll()).thenReturn(List.of(small, medium, large, room(4, 60)));
+        index.evictRooms();
+
+        assertEquals(List.of(3, 4), freeRoomIds(30, 0, 60));
+    }
+
+    /**
+     * Tests that capacities map onto power-of-two buckets.
+     */
+    @Test
+    void bucketOf_shouldUsePowersOfTwo() {
+        assertEquals(0, RoomAvailabilityIndex.Catalog.bucketOf(1));
+        assertEquals(1, RoomAvailabilityIndex.Catalog.bucketOf(3));
+        assertEquals(2, RoomAvailabilityIndex.Catalog.bucketOf(4));
+        assertEquals(6, RoomAvailabilityIndex.Catalog.bucketOf(100));
+    }
+
+    /**
+     * Tests that an empty or overly long range is rejected.
+     */
+    @Test
+    void findFreeRooms_shouldRejectInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> index.findFreeRooms(1, at(60), at(60)));
+        assertThrows(IllegalArgumentException.class, () -> index.findFreeRooms(1, at(0), at(60 * 24 * 40)));
+    }
+}
@@ -0,0 +1,133 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.dto.RoomDto;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link RoomCatalogCache} class.
+ * Verifies that the room lists are loaded once per change to the rooms, and that a load
+ * overlapping a change is not kept.
+ */
+public class RoomCatalogCacheTest {
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    /** The cache under test */
+    private RoomCatalogCache cache;
+
+    /** Available room */
+    private Room free;
+
+    /** Booked room */
+    private Room booked;
+
+    /**
+     * Setup before each test.
+     * Stubs one available and one booked room.
+     */
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        free = room(1);
+        booked = room(2);
+        booked.bookRoom();
+        when(roomRepository.findAll()).thenReturn(List.of(free, booked));
+        cache = new RoomCatalogCache(roomRepository);
+    }
+
+    private static Room room(int id) {
+        Room room = new Room("Room " + id, 10);
+        ReflectionTestUtils.setField(room, "id", id);
+        return room;
+    }
+
+    /**
+     * Tests that both lists come from a single load and are then served from the cache.
+     * Verifies that:
+     * 1. The available list holds only the available room
+     * 2. The rooms are read once, and later reads count as hits
+     * 3. The lists cannot be changed by callers
+     */
+    @Test
+    void shouldLoadOnce_andServeBothLists() {
+        List<RoomDto> all = cache.getAllRooms();
+        List<RoomDto> available = cache.getAvailableRooms();
+
+        assertEquals(2, all.size());
+        assertEquals(1, available.size());
+        assertEquals(1, available.get(0).getId());
+        assertSame(all, cache.getAllRooms());
+        assertThrows(UnsupportedOperationException.class, () -> all.remove(0));
+        verify(roomRepository, times(1)).findAll();
+
+        Map<String, Number> snapshot = cache.snapshot();
+        assertEquals(2L, snapshot.get("hits"));
+        assertEquals(1L, snapshot.get("misses"));
+        assertEquals(2, snapshot.get("rooms"));
+    }
+
+    /**
+     * Tests that the next read after an invalidation loads the rooms again.
+     */
+    @Test
+    void invalidate_shouldReloadOnNextRead() {
+        cache.getAllRooms();
+        booked.makeAvailable();
+        cache.invalidate();
+
+        assertEquals(2, cache.getAvailableRooms().size());
+        verify(roomRepository, times(2)).findAll();
+        assertEquals(1L, cache.snapshot().get("invalidations"));
+    }
+
+    /**
+     * Tests that a load overlapping a change to the rooms is served to its reader but not kept.
+     */
+    @Test
+    void invalidate_shouldDiscardLoadInProgress() {
+        when(roomRepository.findAll()).thenAnswer(invocation -> {
+            cache.invalidate();
+            return List.of(free, booked);
+        }).thenReturn(List.of(free));
+
+        assertEquals(2, cache.getAllRooms().size());
+        assertEquals(1, cache.getAllRooms().size());
+        verify(roomRepository, times(2)).findAll();
+    }
+
+    /**
+     * Tests that a change made in a transaction evicts again once the transaction commits,
+     * dropping anything loaded from the rooms as they were before the commit.
+     */
+    @Test
+    void invalidate_shouldEvictAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate();
+            cache.getAllRooms();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        cache.getAllRooms();
+        verify(roomRepository, times(2)).findAll();
+    }
+}
@@ -0,0 +1,129 @@
+package com.stacs.cs5031.p3.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RoomSchedule} class.
+ * Verifies that overlap queries over the sorted interval map follow half-open interval semantics
+ * and that intervals added or removed while a schedule is loading are merged correctly.
+ */
+public class RoomScheduleTest {
+
+    /** One minute in milliseconds */
+    private static final long MINUTE = 60_000L;
+
+    /** The schedule under test */
+    private RoomSchedule schedule;
+
+    /**
+     * Setup before each test.
+     * Creates a loaded schedule holding a 10:00-11:00 and a 12:00-12:30 booking (in minutes).
+     */
+    @BeforeEach
+    void setup() {
+        schedule = new RoomSchedule();
+        schedule.completeLoad(List.of(
+                new RoomSchedule.Interval(1, 600 * MINUTE, 660 * MINUTE),
+                new RoomSchedule.Interval(2, 720 * MINUTE, 750 * MINUTE)));
+    }
+
+    /**
+     * Tests that a range starting inside an existing booking is reported as a conflict.
+     */
+    @Test
+    void overlaps_shouldReturnTrue_whenRangeStartsInsideBooking() {
+        assertTrue(schedule.overlaps(630 * MINUTE, 700 * MINUTE));
+    }
+
+    /**
+     * Tests that a range fully covering an existing booking is reported as a conflict.
+     */
+    @Test
+    void overlaps_shouldReturnTrue_whenRangeCoversBooking() {
+        assertTrue(schedule.overlaps(590 * MINUTE, 800 * MINUTE));
+    }
+
+    /**
+     * Tests that back-to-back bookings do not conflict.
+     * Verifies that ranges touching an existing booking at either end are free.
+     */
+    @Test
+    void overlaps_shouldReturnFalse_whenRangeTouchesBookingBoundary() {
+        assertFalse(schedule.overlaps(660 * MINUTE, 720 * MINUTE));
+        assertFalse(schedule.overlaps(540 * MINUTE, 600 * MINUTE));
+    }
+
+    /**
+     * Tests that a long booking is still found when the query range starts well after it began.
+     */
+    @Test
+    void overlaps_shouldFindLongBooking_thatStartedLongBeforeRange() {
+        schedule.put(new RoomSchedule.Interval(3, 0, 24 * 60 * MINUTE));
+        assertTrue(schedule.overlaps(1200 * MINUTE, 1210 * MINUTE));
+    }
+
+    /**
+     * Tests that the look-back shrinks again once the longest booking is removed, while bookings
+     * of the same length as a removed one are still found.
+     */
+    @Test
+    void overlaps_shouldStillFindRemainingBookings_afterLongestRemoved() {
+        schedule.put(new RoomSchedule.Interval(3, 0, 24 * 60 * MINUTE));
+        schedule.put(new RoomSchedule.Interval(4, 1500 * MINUTE, 1560 * MINUTE));
+        schedule.remove(3);
+        assertFalse(schedule.overlaps(1200 * MINUTE, 1210 * MINUTE));
+        schedule.remove(1);
+        assertTrue(schedule.overlaps(1530 * MINUTE, 1600 * MINUTE));
+        assertTrue(schedule.overlaps(740 * MINUTE, 745 * MINUTE));
+    }
+
+    /**
+     * Tests that overlapping intervals are returned in start order.
+     */
+    @Test
+    void overlapping_shouldReturnIntervalsInStartOrder() {
+        List<RoomSchedule.Interval> result = schedule.overlapping(0, 1000 * MINUTE);
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).bookingId());
+        assertEquals(2, result.get(1).bookingId());
+    }
+
+    /**
+     * Tests that replacing a booking's interval moves it rather than duplicating it.
+     */
+    @Test
+    void put_shouldReplaceExistingInterval_forSameBooking() {
+        RoomSchedule.Interval previous = schedule.put(new RoomSchedule.Interval(1, 900 * MINUTE, 960 * MINUTE));
+        assertNotNull(previous);
+        assertEquals(2, schedule.size());
+        assertFalse(schedule.overlaps(600 * MINUTE, 660 * MINUTE));
+        assertTrue(schedule.overlaps(930 * MINUTE, 940 * MINUTE));
+    }
+
+    /**
+     * Tests that a removed booking no longer causes conflicts.
+     */
+    @Test
+    void remove_shouldFreeTheRemovedRange() {
+        schedule.remove(1);
+        assertFalse(schedule.overlaps(600 * MINUTE, 660 * MINUTE));
+        assertEquals(1, schedule.size());
+    }
+
+    /**
+     * Tests that a booking removed while the schedule is loading is not resurrected by the load.
+     */
+    @Test
+    void completeLoad_shouldSkipBookingsRemovedWhileLoading() {
+        RoomSchedule loading = new RoomSchedule();
+        loading.remove(1);
+        loading.completeLoad(List.of(new RoomSchedule.Interval(1, 600 * MINUTE, 660 * MINUTE)));
+        assertTrue(loading.isLoaded());
+        assertEquals(0, loading.size());
+    }
+}
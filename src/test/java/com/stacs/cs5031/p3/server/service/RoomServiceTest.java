@@ -2,6 +2,7 @@ package com.stacs.cs5031.p3.server.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.util.List;
@@ -9,7 +10,6 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -35,15 +35,25 @@ public class RoomServiceTest {
    /** Mock of the RoomRepository to simulate data access operations */
    @Mock
    private RoomRepository roomRepository;
+
+   /** Mock of the RoomAvailabilityIndex, which must hear about added and removed rooms */
+   @Mock
+   private RoomAvailabilityIndex availabilityIndex;
    
+   /** Mock of the ListVersions, which must hear about every change to the rooms */
+   @Mock
+   private ListVersions listVersions;
+
    /** Test room entity used across multiple test methods */
    private Room testRoom;
    
    /** Expected DTO representation of the test room */
    private RoomDto testRoomDTO;
 
+   /** Cache of the room lists, loaded from the mocked repository */
+   private RoomCatalogCache catalogCache;
+
    /** The RoomService instance being tested, with mocked dependencies injected */
-   @InjectMocks
    private RoomService roomService;
 
    /**
@@ -66,6 +76,9 @@ public class RoomServiceTest {
        // Expected DTO after mapping
        testRoomDTO = new RoomDto(1, "Test Room", 20, true);
 
+       catalogCache = new RoomCatalogCache(roomRepository);
+       roomService = new RoomService(roomRepository, availabilityIndex, catalogCache, listVersions);
+
        // stub repository behaviour
        // when(roomRepository.save(testRoom)).thenReturn(testRoom);
        // when room entity exists
@@ -90,6 +103,8 @@ public class RoomServiceTest {
        assertEquals(testRoomDTO.isAvailable(), result.isAvailable());
 
        verify(roomRepository).save(any(Room.class));
+       verify(availabilityIndex).evictRooms();
+       verify(listVersions).roomsChanged();
    }
 
    /**
@@ -174,11 +189,14 @@ public class RoomServiceTest {
     * Verifies that:
     * 1. The returned list contains the expected number of available rooms
     * 2. The RoomDto properties match the expected values
-    * 3. The repository's findByAvailability method is called with the correct parameter
+    * 3. Rooms that are booked are left out
     */
    @Test
    void shouldFindAvailableRooms() {
-       when(roomRepository.findByAvailability(true)).thenReturn(List.of(testRoom));
+       Room bookedRoom = new Room("Booked Room", 10);
+       ReflectionTestUtils.setField(bookedRoom, "id", 2);
+       bookedRoom.bookRoom();
+       when(roomRepository.findAll()).thenReturn(List.of(testRoom, bookedRoom));
        List<RoomDto> result = roomService.findAvailableRooms();
 
        assertNotNull(result, "Result list should not be null");
@@ -191,7 +209,49 @@ public class RoomServiceTest {
        assertEquals(testRoomDTO.getName(), resultDto.getName());
        assertEquals(testRoomDTO.getCapacity(), resultDto.getCapacity());
        assertEquals(testRoomDTO.isAvailable(), resultDto.isAvailable());
-       verify(roomRepository).findByAvailability(true);
+       verify(roomRepository).findAll();
+   }
+
+   /**
+    * Tests that the room lists are read from the database once and then served from the cache.
+    * Verifies that:
+    * 1. Repeated reads of both lists load the rooms once
+    * 2. Every read returns the same list
+    */
+   @Test
+   void shouldReadRoomsOnce_untilRoomsChange() {
+       when(roomRepository.findAll()).thenReturn(List.of(testRoom));
+
+       List<RoomDto> first = roomService.findAllRooms();
+       roomService.findAvailableRooms();
+
+       assertSame(first, roomService.findAllRooms());
+       verify(roomRepository, times(1)).findAll();
+   }
+
+   /**
+    * Tests that adding, booking, freeing and removing rooms each drop the cached room lists.
+    * Verifies that:
+    * 1. A read after each change loads the rooms again
+    * 2. A booked room is no longer listed as available
+    */
+   @Test
+   void shouldReloadRooms_afterRoomsChange() {
+       when(roomRepository.findAll()).thenReturn(List.of(testRoom));
+       when(roomRepository.findById(1)).thenReturn(Optional.of(testRoom));
+       when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
+
+       assertEquals(1, roomService.findAvailableRooms().size());
+       roomService.bookRoom(1);
+       assertTrue(roomService.findAvailableRooms().isEmpty(), "Booked room should not be available");
+       roomService.makeRoomAvailable(1);
+       assertEquals(1, roomService.findAvailableRooms().size());
+       roomService.createRoom("Another Room", 10);
+       roomService.findAllRooms();
+       roomService.deleteRoomById(1);
+       roomService.findAllRooms();
+
+       verify(roomRepository, times(5)).findAll();
    }
 
    /**
@@ -263,6 +323,7 @@ public class RoomServiceTest {
    void shouldRemoveRoom() {
        when(roomRepository.findById(1)).thenReturn(Optional.of(testRoom));
        roomService.deleteRoomById(1);
+       verify(availabilityIndex).evictRooms();
    }
 
    /**
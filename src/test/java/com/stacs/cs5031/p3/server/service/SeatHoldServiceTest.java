@@ -0,0 +1,214 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.dto.SeatHoldDto;
+import com.stacs.cs5031.p3.server.exception.ResourceUnavailableException;
+import com.stacs.cs5031.p3.server.model.Attendee;
+import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.model.Organiser;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.model.SeatHold;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.SeatHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link SeatHoldService} class.
+ * Tests placing, confirming and expiring seat holds using mocked dependencies.
+ */
+public class SeatHoldServiceTest {
+
+    /** Mock of the SeatHoldRepository to simulate hold data access operations */
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+
+    /** Mock of the BookingRepository to simulate booking data access operations */
+    @Mock
+    private BookingRepository bookingRepository;
+
+    /** Mock of the AttendeeService to simulate registrations and released seats */
+    @Mock
+    private AttendeeService attendeeService;
+
+    /** Mock of the transaction manager used for expiry transactions */
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /** Mock of the ListVersions, which must hear about held seats */
+    @Mock
+    private ListVersions listVersions;
+
+    /** The SeatHoldService instance being tested */
+    private SeatHoldService seatHoldService;
+
+    /** Test attendee instance used across multiple test methods */
+    private Attendee attendee;
+
+    /** Test booking instance used across multiple test methods */
+    private Booking booking;
+
+    /**
+     * Setup before each test.
+     * Initializes mocks and creates sample objects for testing.
+     */
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        seatHoldService = new SeatHoldService(seatHoldRepository, bookingRepository, attendeeService,
+                transactionManager, listVersions);
+
+        attendee = new Attendee("Hermione Granger", "bookworm", "crookshanks");
+        Room room = new Room("Library", 30);
+        Organiser organiser = new Organiser("Irma Pince", "librarian", "silence");
+        booking = new Booking("Study session", room, new Date(), 60, organiser);
+
+        // ids are normally assigned by the database
+        ReflectionTestUtils.setField(attendee, "id", 1);
+        ReflectionTestUtils.setField(booking, "id", 1);
+        when(attendeeService.getAttendeeById(1)).thenReturn(attendee);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+    }
+
+    /**
+     * Tests placing a hold on a booking with a free seat.
+     * Verifies that:
+     * 1. A seat is claimed from the booking
+     * 2. The hold is saved and expires after the requested time
+     */
+    @Test
+    void placeHold_shouldClaimSeatAndSaveHold_whenSeatAvailable() {
+        when(bookingRepository.claimSeat(1L)).thenReturn(1);
+        when(seatHoldRepository.findByBookingIdAndAttendeeId(1, 1)).thenReturn(Optional.empty());
+        when(seatHoldRepository.save(any(SeatHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        long before = System.currentTimeMillis();
+        SeatHoldDto hold = seatHoldService.placeHold(1, 1L, 60);
+
+        assertEquals(1, hold.getBookingId());
+        assertEquals(1, hold.getAttendeeId());
+        assertTrue(hold.getExpiresAt().getTime() >= before + 60_000);
+        verify(bookingRepository).claimSeat(1L);
+        verify(seatHoldRepository).save(any(SeatHold.class));
+    }
+
+    /**
+     * Tests placing a hold on a full booking.
+     * Verifies that a ResourceUnavailableException is thrown and no hold is saved.
+     */
+    @Test
+    void placeHold_shouldThrowException_whenBookingFull() {
+        when(bookingRepository.claimSeat(1L)).thenReturn(0);
+
+        assertThrows(ResourceUnavailableException.class, () -> seatHoldService.placeHold(1, 1L, 60));
+        verify(seatHoldRepository, never()).save(any(SeatHold.class));
+    }
+
+    /**
+     * Tests placing a hold for longer than allowed.
+     * Verifies that an IllegalArgumentException is thrown before any seat is claimed.
+     */
+    @Test
+    void placeHold_shouldThrowException_whenHoldTooLong() {
+        assertThrows(IllegalArgumentException.class,
+                () -> seatHoldService.placeHold(1, 1L, SeatHoldService.MAX_HOLD_SECONDS + 1));
+        verify(bookingRepository, never()).claimSeat(anyLong());
+    }
+
+    /**
+     * Tests confirming a live hold.
+     * Verifies that the hold is deleted and the attendee registered on the held seat.
+     */
+    @Test
+    void confirmHold_shouldRegisterAttendee_whenHoldLive() {
+        SeatHold hold = hold(System.currentTimeMillis() + 60_000);
+        when(seatHoldRepository.findById(7)).thenReturn(Optional.of(hold));
+        when(seatHoldRepository.deleteHold(7)).thenReturn(1);
+
+        Booking result = seatHoldService.confirmHold(1, 7);
+
+        assertEquals(booking, result);
+        verify(attendeeService).completeRegistration(attendee, booking);
+        verify(bookingRepository, never()).claimSeat(anyLong());
+    }
+
+    /**
+     * Tests confirming a hold whose time has run out but which has not been expired yet.
+     * Verifies that a ResourceUnavailableException is thrown and the attendee is not registered.
+     */
+    @Test
+    void confirmHold_shouldThrowException_whenHoldExpired() {
+        SeatHold hold = hold(System.currentTimeMillis() - 1);
+        when(seatHoldRepository.findById(7)).thenReturn(Optional.of(hold));
+
+        assertThrows(ResourceUnavailableException.class, () -> seatHoldService.confirmHold(1, 7));
+        verify(attendeeService, never()).completeRegistration(any(), any());
+    }
+
+    /**
+     * Tests expiring a lapsed hold.
+     * Verifies that the hold is deleted and its seat given back to the booking.
+     */
+    @Test
+    void expire_shouldReleaseSeat_whenHoldLapsed() {
+        SeatHold hold = hold(System.currentTimeMillis() - 1);
+        when(seatHoldRepository.findById(7)).thenReturn(Optional.of(hold));
+        when(seatHoldRepository.deleteHold(7)).thenReturn(1);
+
+        seatHoldService.expire(7);
+
+        verify(attendeeService).releaseSeat(booking);
+    }
+
+    /**
+     * Tests expiring a hold that was confirmed in the meantime.
+     * Verifies that no seat is given back.
+     */
+    @Test
+    void expire_shouldNotReleaseSeat_whenHoldAlreadyConfirmed() {
+        when(seatHoldRepository.findById(7)).thenReturn(Optional.empty());
+
+        seatHoldService.expire(7);
+
+        verify(seatHoldRepository, never()).deleteHold(anyInt());
+        verify(attendeeService, never()).releaseSeat(any());
+    }
+
+    private SeatHold hold(long expiresAt) {
+        SeatHold hold = new SeatHold(booking, attendee, new Date(expiresAt));
+        ReflectionTestUtils.setField(hold, "id", 7);
+        return hold;
+    }
+
+    /**
+     * Tests that an attendee's holds are ended and their seats given back before the attendee is deleted.
+     * Verifies that:
+     * 1. Each outstanding hold is deleted and its seat released
+     * 2. A hold that was confirmed or expired meanwhile does not release a second seat
+     */
+    @Test
+    void releaseHolds_shouldGiveSeatsBack_forOutstandingHolds() {
+        SeatHold outstanding = new SeatHold(booking, attendee, new Date());
+        SeatHold settled = new SeatHold(booking, attendee, new Date());
+        ReflectionTestUtils.setField(outstanding, "id", 5);
+        ReflectionTestUtils.setField(settled, "id", 6);
+        when(seatHoldRepository.findByAttendeeId(1)).thenReturn(List.of(outstanding, settled));
+        when(seatHoldRepository.deleteHold(5)).thenReturn(1);
+        when(seatHoldRepository.deleteHold(6)).thenReturn(0);
+
+        seatHoldService.releaseHolds(1);
+
+        verify(attendeeService, times(1)).releaseSeat(booking);
+    }
+}
@@ -0,0 +1,151 @@
+package com.stacs.cs5031.p3.server.service;
+
+import com.stacs.cs5031.p3.server.model.Attendee;
+import com.stacs.cs5031.p3.server.model.Booking;
+import com.stacs.cs5031.p3.server.model.Organiser;
+import com.stacs.cs5031.p3.server.model.Room;
+import com.stacs.cs5031.p3.server.repository.AttendeeRepository;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
+import com.stacs.cs5031.p3.server.repository.OrganiserRepository;
+import com.stacs.cs5031.p3.server.repository.RoomRepository;
+import com.stacs.cs5031.p3.server.repository.UserRepository;
+import com.stacs.cs5031.p3.server.repository.WaitlistRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of {@link UserService#deleteUser} against the database.
+ * Deleting an attendee must also clean up the rows that refer to them, with the foreign keys in
+ * place, and must keep every booking's seat counter equal to its registrations and holds.
+ * An organiser is only deleted once they own no bookings.
+ * Uses its own in-memory database so that the rows it creates do not affect other test classes.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:user_deletion;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+public class UserDeletionTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AttendeeService attendeeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendeeRepository attendeeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private OrganiserRepository organiserRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Booking in a one-seat room that the attendees register for */
+    private Booking booking;
+
+    /**
+     * Setup before each test.
+     * Creates an organiser with a booking in a room with a single seat.
+     */
+    @BeforeEach
+    void setup() {
+        Organiser organiser = organiserRepository.save(new Organiser("Deletion Organiser", "deletion.organiser", "pw"));
+        Room room = roomRepository.save(new Room("Deletion Room", 1));
+        booking = bookingRepository.save(new Booking("Deletion Event", room,
+                new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(30)), 60, organiser));
+    }
+
+    /**
+     * Cleanup after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM attendee_bookings");
+        waitlistRepository.deleteAllInBatch();
+        bookingRepository.deleteAllInBatch();
+        attendeeRepository.deleteAllInBatch();
+        roomRepository.deleteAll();
+        organiserRepository.deleteAll();
+    }
+
+    /**
+     * Tests that a registered attendee can be deleted, and that their seat goes to the waitlist.
+     * Verifies that:
+     * 1. The delete succeeds although the attendee has a registration
+     * 2. The attendee's registration is gone
+     * 3. The freed seat is given to the attendee waiting for it, so the counter still matches
+     */
+    @Test
+    void deleteUser_shouldDeregisterAttendee_andPromoteWaitlist() {
+        Attendee registered = attendeeRepository.save(new Attendee("Registered", "deletion.registered", "pw"));
+        Attendee waiting = attendeeRepository.save(new Attendee("Waiting", "deletion.waiting", "pw"));
+        attendeeService.registerForBooking(registered.getId(), booking.getId());
+        assertFalse(attendeeService.joinWaitlist(waiting.getId(), booking.getId()).isRegistered());
+
+        userService.deleteUser(registered.getId());
+
+        assertFalse(userRepository.existsById(registered.getId()));
+        assertFalse(bookingRepository.isRegistered(booking.getId(), registered.getId()));
+        assertTrue(bookingRepository.isRegistered(booking.getId(), waiting.getId()));
+        assertEquals(1, seatsTaken());
+    }
+
+    /**
+     * Tests that deleting a registered attendee with nobody waiting gives the seat back.
+     */
+    @Test
+    void deleteUser_shouldReleaseSeat_whenNobodyWaiting() {
+        Attendee registered = attendeeRepository.save(new Attendee("Registered", "deletion.alone", "pw"));
+        attendeeService.registerForBooking(registered.getId(), booking.getId());
+
+        userService.deleteUser(registered.getId());
+
+        assertFalse(userRepository.existsById(registered.getId()));
+        assertEquals(0, seatsTaken());
+    }
+
+    /**
+     * Tests that an organiser who owns a booking is not deleted.
+     * Verifies that:
+     * 1. The delete is rejected, leaving the organiser and the booking in place
+     * 2. Once the booking is gone, the organiser is deleted
+     */
+    @Test
+    void deleteUser_shouldRejectOrganiser_whileOwningBookings() {
+        Integer organiserId = booking.getOrganiser().getId();
+
+        assertThrows(IllegalStateException.class, () -> userService.deleteUser(organiserId));
+        assertTrue(userRepository.existsById(organiserId));
+        assertTrue(bookingRepository.existsById((long) booking.getId()));
+
+        bookingRepository.deleteById((long) booking.getId());
+        userService.deleteUser(organiserId);
+        assertFalse(userRepository.existsById(organiserId));
+    }
+
+    private int seatsTaken() {
+        return jdbcTemplate.queryForObject("SELECT seats_taken FROM booking WHERE id = ?", Integer.class,
+                booking.getId());
+    }
+}
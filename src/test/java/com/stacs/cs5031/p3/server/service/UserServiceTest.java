@@ -1,17 +1,21 @@
 package com.stacs.cs5031.p3.server.service;
 
+import com.stacs.cs5031.p3.server.dto.KeysetPage;
 import com.stacs.cs5031.p3.server.dto.RegistrationRequest;
 import com.stacs.cs5031.p3.server.exception.UserAlreadyExistsException;
 import com.stacs.cs5031.p3.server.exception.UserNotFoundException;
 import com.stacs.cs5031.p3.server.model.Attendee;
 import com.stacs.cs5031.p3.server.model.Organiser;
 import com.stacs.cs5031.p3.server.model.User;
+import com.stacs.cs5031.p3.server.repository.BookingRepository;
 import com.stacs.cs5031.p3.server.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -30,10 +34,21 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    /** Mock of the AttendeeService, told when an attendee is deleted */
+    @Mock
+    private AttendeeService attendeeService;
+
+    /** Mock of the SeatHoldService, told when an attendee is deleted */
+    @Mock
+    private SeatHoldService seatHoldService;
+
     /** The UserService instance being tested, with mocked dependencies injected */
-    @InjectMocks
     private UserService userService;
 
+    /** Mock of the BookingRepository, asked whether an organiser owns bookings */
+    @Mock
+    private BookingRepository bookingRepository;
+
     /** Test user instance used across multiple test methods */
     private User testUser;
 
@@ -44,6 +59,8 @@ public class UserServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        userService = new UserService(userRepository, new CredentialCache(userRepository), bookingRepository,
+                attendeeService, seatHoldService);
         testUser = new User("Test User", "testuser", "password");
     }
 
@@ -190,21 +207,115 @@ public class UserServiceTest {
     }
 
     /**
-     * Tests that all users can be retrieved.
+     * Tests that repeated logins with a username look it up once.
+     * Verifies that:
+     * 1. The credentials match the user's password only
+     * 2. The repository's findByUsername method is called once
+     */
+    @Test
+    void getCredentials_ShouldLookUpOnce_WhenUsernameRepeated() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        assertTrue(userService.getCredentials("testuser").orElseThrow().matches("password"));
+        assertFalse(userService.getCredentials("testuser").orElseThrow().matches("wrongpassword"));
+        assertEquals("testuser", userService.getCredentials("testuser").orElseThrow().getUser().getUsername());
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
+
+    /**
+     * Tests that registering a username that was tried at login before makes it known at login.
+     */
+    @Test
+    void registerUser_ShouldDropCachedUnknownUsername() {
+        RegistrationRequest request = new RegistrationRequest(
+                "Test User", "testuser", "password", "ATTENDEE");
+        Attendee attendee = new Attendee("Test User", "testuser", "password");
+        when(userRepository.findByUsername("testuser"))
+                .thenReturn(Optional.empty(), Optional.empty(), Optional.of(attendee));
+        when(userRepository.save(any(Attendee.class))).thenReturn(attendee);
+
+        assertTrue(userService.getCredentials("testuser").isEmpty());
+        userService.registerUser(request);
+        assertTrue(userService.getCredentials("testuser").isPresent());
+    }
+
+    /**
+     * Tests that a deleted user can no longer log in with credentials cached before the deletion.
+     */
+    @Test
+    void deleteUser_ShouldDropCachedCredentials() {
+        ReflectionTestUtils.setField(testUser, "id", 1);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser), Optional.empty());
+
+        assertTrue(userService.getCredentials("testuser").isPresent());
+        userService.deleteUser(1);
+        assertTrue(userService.getCredentials("testuser").isEmpty());
+    }
+
+    /**
+     * Tests that deleting an attendee gives back the seats they hold before the attendee row goes.
+     * Verifies that:
+     * 1. The attendee leaves every waitlist first, so no released seat is offered back to them
+     * 2. Their seat holds and registrations are released before the attendee is deleted
+     */
+    @Test
+    void deleteUser_ShouldReleaseSeats_WhenAttendeeDeleted() {
+        when(userRepository.findById(2)).thenReturn(Optional.of(new Attendee("Att", "att", "password")));
+
+        userService.deleteUser(2);
+
+        InOrder order = inOrder(attendeeService, seatHoldService, userRepository);
+        order.verify(attendeeService).leaveWaitlists(2);
+        order.verify(seatHoldService).releaseHolds(2);
+        order.verify(attendeeService).deregisterFromAllBookings(2);
+        order.verify(userRepository).deleteById(2);
+    }
+
+    /**
+     * Tests that an organiser who still owns bookings cannot be deleted.
      * Verifies that:
-     * 1. The returned list contains the expected number of users
-     * 2. The returned list matches the expected list of users
-     * 3. The repository's findAll method is called
+     * 1. The delete is rejected with an IllegalStateException
+     * 2. The organiser is not deleted
+     * 3. An organiser without bookings is deleted
      */
     @Test
-    void getAllUsers_ShouldReturnAllUsers() {
+    void deleteUser_ShouldReject_WhenOrganiserOwnsBookings() {
+        when(userRepository.findById(1)).thenReturn(Optional.of(new Organiser("Org", "org", "password")));
+        when(userRepository.findById(3)).thenReturn(Optional.of(new Organiser("Idle", "idle", "password")));
+        when(bookingRepository.existsByOrganiserId(1)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> userService.deleteUser(1));
+        verify(userRepository, never()).deleteById(1);
+
+        userService.deleteUser(3);
+        verify(userRepository).deleteById(3);
+    }
+
+    /**
+     * Tests that users are read a page at a time.
+     * Verifies that:
+     * 1. The default page size is used when none is given
+     * 2. A page with no more rows than the page size has no next cursor
+     * 3. The repository's findAll method is never called
+     */
+    @Test
+    void getUsers_ShouldReturnPage() {
         User newUser= new User("New User", "newuser", "password");
         List<User> userList = Arrays.asList(testUser, newUser);
-        when(userRepository.findAll()).thenReturn(userList);
-        List<User> result = userService.getAllUsers();
-        assertEquals(2, result.size());
-        assertEquals(userList, result);
-        verify(userRepository).findAll();
+        when(userRepository.findPageAfter(0, Limit.of(KeysetPage.DEFAULT_SIZE + 1))).thenReturn(userList);
+        KeysetPage<User> result = userService.getUsers(null, null);
+        assertEquals(userList, result.getItems());
+        assertNull(result.getNextCursor());
+        verify(userRepository, never()).findAll();
+    }
+
+    /**
+     * Tests that a malformed cursor is rejected before the repository is queried.
+     */
+    @Test
+    void getUsers_ShouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> userService.getUsers("not a cursor", null));
+        verifyNoInteractions(userRepository);
     }
 }
 // 10
\ No newline at end of file